@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.benchmarks;
+
+
+/**
+ * Einzelner Benchmark, dessen Operation vom {@link BenchmarkRunner} wiederholt ausgeführt und gemessen wird.
+ * Die Operation gibt einen Wert zurück, den der BenchmarkRunner verbraucht, damit der JIT-Compiler die Arbeit nicht als überflüssig entfernen kann.
+ *
+ * @since 0.6.0
+ */
+public abstract class Benchmark {
+	
+	
+	private final String name;
+	
+	
+	/**
+	 * Konstruiert neuen Benchmark.
+	 *
+	 * @param name Name, unter dem das Ergebnis ausgegeben wird
+	 * @since 0.6.0
+	 */
+	public Benchmark( String name ) {
+		this.name = name;
+	}
+	
+	
+	/**
+	 * Wird einmal vor allen Messungen aufgerufen. Standardmäßig leer.
+	 *
+	 * @since 0.6.0
+	 */
+	public void setUp() {
+	
+	}
+	
+	/**
+	 * Wird einmal nach allen Messungen aufgerufen. Standardmäßig leer.
+	 *
+	 * @since 0.6.0
+	 */
+	public void tearDown() {
+	
+	}
+	
+	/**
+	 * Führt die gemessene Operation einmal aus.
+	 *
+	 * @return Beliebiges Ergebnis der Operation
+	 * @since 0.6.0
+	 */
+	public abstract long run();
+	
+	/**
+	 * @return Name, unter dem das Ergebnis ausgegeben wird.
+	 * @since 0.6.0
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.benchmarks;
+
+
+import desertcookie.simple2d.core.CoreBenchmarks;
+import desertcookie.simple2d.entities.EntityBenchmarks;
+import desertcookie.simple2d.input.InputBenchmarks;
+import desertcookie.simple2d.textures.TextureBenchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Führt die Benchmarks der Engine aus und gibt für jeden die Zeit und den allokierten Speicher pro Operation aus.
+ * Wie bei JMH wird jeder Benchmark zunächst in mehreren Iterationen aufgewärmt und anschließend in mehreren Iterationen fester Dauer gemessen.
+ * Die Speichermessung verwendet die Thread-Statistik der HotSpot-JVM und entspricht {@code gc.alloc.rate.norm} des GC-Profilers von JMH.
+ * <p>
+ * Aufruf: {@code java -cp <klassen> desertcookie.simple2d.benchmarks.BenchmarkRunner [filter] [-w warmup] [-i iterationen] [-t millisekunden]}
+ *
+ * @since 0.6.0
+ */
+public class BenchmarkRunner {
+	
+	
+	private static long sink;
+	
+	private final int warmupIterations, iterations;
+	private final long iterationTime;
+	private final com.sun.management.ThreadMXBean threads;
+	
+	
+	/**
+	 * Konstruiert neuen BenchmarkRunner.
+	 *
+	 * @param warmupIterations Anzahl der Iterationen zum Aufwärmen
+	 * @param iterations       Anzahl der gemessenen Iterationen
+	 * @param iterationTime    Dauer einer Iteration in Millisekunden
+	 * @since 0.6.0
+	 */
+	public BenchmarkRunner( int warmupIterations,int iterations,long iterationTime ) {
+		this.warmupIterations = warmupIterations;
+		this.iterations = iterations;
+		this.iterationTime = iterationTime;
+		threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+	}
+	
+	
+	/**
+	 * @param args Optional ein Filter für die Namen der Benchmarks sowie {@code -w}, {@code -i} und {@code -t}
+	 * @since 0.6.0
+	 */
+	public static void main( String[] args ) {
+		String filter = "";
+		int warmupIterations = 5, iterations = 5;
+		long iterationTime = 1000;
+		for( int i = 0; i < args.length; i++ ) {
+			if( args[i].equals( "-w" ) )
+				warmupIterations = Integer.parseInt( args[++i] );
+			else if( args[i].equals( "-i" ) )
+				iterations = Integer.parseInt( args[++i] );
+			else if( args[i].equals( "-t" ) )
+				iterationTime = Long.parseLong( args[++i] );
+			else
+				filter = args[i];
+		}
+		
+		List<Benchmark> benchmarks = new ArrayList<>();
+		addAll( benchmarks,RenderingBenchmarks.create() );
+		addAll( benchmarks,TextureBenchmarks.create() );
+		addAll( benchmarks,EntityBenchmarks.create() );
+		addAll( benchmarks,InputBenchmarks.create() );
+		addAll( benchmarks,CoreBenchmarks.create() );
+		
+		BenchmarkRunner runner = new BenchmarkRunner( warmupIterations,iterations,iterationTime );
+		System.out.printf( "# %s %s, %s %s%n",System.getProperty( "java.vm.name" ),System.getProperty( "java.version" ),System.getProperty( "os.name" ),System.getProperty( "os.arch" ) );
+		System.out.printf( "# Warmup: %d x %d ms, Messung: %d x %d ms%n",warmupIterations,iterationTime,iterations,iterationTime );
+		System.out.printf( "%-40s %14s %14s %12s%n","Benchmark","ns/op","Fehler","B/op" );
+		for( Benchmark benchmark : benchmarks )
+			if( benchmark.getName().contains( filter ) )
+				runner.run( benchmark );
+		if( sink == 42 )
+			System.out.println();
+	}
+	
+	
+	/**
+	 * Wärmt den angegebenen Benchmark auf, misst ihn und gibt das Ergebnis aus.
+	 *
+	 * @param benchmark Benchmark
+	 * @since 0.6.0
+	 */
+	public void run( Benchmark benchmark ) {
+		benchmark.setUp();
+		for( int i = 0; i < warmupIterations; i++ )
+			iterate( benchmark,null );
+		
+		double[] scores = new double[iterations];
+		long[] allocated = new long[1];
+		long operations = 0;
+		for( int i = 0; i < iterations; i++ ) {
+			long[] result = iterate( benchmark,allocated );
+			scores[i] = result[0] / (double)result[1];
+			operations += result[1];
+		}
+		benchmark.tearDown();
+		
+		double mean = 0;
+		for( double score : scores )
+			mean += score;
+		mean /= iterations;
+		double variance = 0;
+		for( double score : scores )
+			variance += (score - mean) * (score - mean);
+		double error = iterations > 1 ? Math.sqrt( variance / (iterations - 1) ) : 0;
+		System.out.printf( "%-40s %14.1f %14s %12.1f%n",benchmark.getName(),mean,"+- " + String.format( "%.1f",error ),allocated[0] / (double)operations );
+	}
+	
+	
+	/**
+	 * Führt den angegebenen Benchmark für die Dauer einer Iteration aus.
+	 *
+	 * @param benchmark Benchmark
+	 * @param allocated Array, zu dessen erstem Eintrag der allokierte Speicher addiert wird, oder {@code null}
+	 * @return Verstrichene Zeit in Nanosekunden und Anzahl der Operationen.
+	 * @since 0.6.0
+	 */
+	private long[] iterate( Benchmark benchmark,long[] allocated ) {
+		long thread = Thread.currentThread().getId();
+		long deadline = System.nanoTime() + iterationTime * 1000000;
+		long operations = 0, batch = 1, value = 0;
+		long bytes = threads.getThreadAllocatedBytes( thread );
+		long start = System.nanoTime(), now;
+		do {
+			long batchStart = System.nanoTime();
+			for( long i = 0; i < batch; i++ )
+				value ^= benchmark.run();
+			operations += batch;
+			now = System.nanoTime();
+			// Größere Blöcke verringern den Einfluss von nanoTime, dürfen die Iteration aber nicht deutlich verlängern
+			if( (now - batchStart) * 4 < deadline - now )
+				batch <<= 1;
+		} while( now < deadline );
+		if( allocated != null )
+			allocated[0] += threads.getThreadAllocatedBytes( thread ) - bytes;
+		sink ^= value;
+		return new long[]{ now - start,operations };
+	}
+	
+	/**
+	 * Fügt die angegebenen Benchmarks der Liste hinzu.
+	 *
+	 * @param list       Liste
+	 * @param benchmarks Benchmarks
+	 * @since 0.6.0
+	 */
+	private static void addAll( List<Benchmark> list,Benchmark[] benchmarks ) {
+		for( Benchmark benchmark : benchmarks )
+			list.add( benchmark );
+	}
+	
+	
+}
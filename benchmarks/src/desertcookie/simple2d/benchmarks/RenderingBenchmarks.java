@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.benchmarks;
+
+
+import desertcookie.simple2d.rendering.CachedText;
+import desertcookie.simple2d.rendering.SimpleGraphics;
+import desertcookie.simple2d.textures.Texture;
+import desertcookie.simple2d.textures.TextureBenchmarks;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+
+/**
+ * Benchmarks für die Render-Aufrufe von {@link SimpleGraphics} in einen Buffer im Speicher, wie ihn das HeadlessDisplay verwendet.
+ *
+ * @since 0.6.0
+ */
+public class RenderingBenchmarks {
+	
+	
+	private RenderingBenchmarks() {
+	}
+	
+	
+	/**
+	 * @return Alle Benchmarks dieser Klasse.
+	 * @since 0.6.0
+	 */
+	public static Benchmark[] create() {
+		return new Benchmark[]{
+				new RenderingBenchmark( "SimpleGraphics.fillRect 32x32" ) {
+					@Override
+					public long run() {
+						graphics.fillRect( next() % 768,next() % 568,32,32 );
+						return position;
+					}
+				},
+				new RenderingBenchmark( "SimpleGraphics.drawTexture 64x64" ) {
+					@Override
+					public long run() {
+						graphics.drawTexture( texture,next() % 736,next() % 536 );
+						return position;
+					}
+				},
+				new RenderingBenchmark( "SimpleGraphics.drawTexture batch 1000" ) {
+					@Override
+					public long run() {
+						graphics.begin();
+						for( int i = 0; i < 1000; i++ )
+							graphics.drawTexture( textures[i & 7],next() % 736,next() % 536 );
+						graphics.end();
+						return graphics.getFlushCount();
+					}
+				},
+				new RenderingBenchmark( "SimpleGraphics.drawString" ) {
+					@Override
+					public long run() {
+						graphics.drawString( "Score: 1234567",next() % 700,20 + next() % 560 );
+						return position;
+					}
+				},
+				new RenderingBenchmark( "SimpleGraphics.drawString centered" ) {
+					@Override
+					public long run() {
+						graphics.drawString( "Score: 1234567",next() % 600,next() % 560,200,40 );
+						return position;
+					}
+				},
+				new RenderingBenchmark( "SimpleGraphics.drawText centered" ) {
+					private CachedText text;
+				
+					@Override
+					public long run() {
+						text = graphics.layoutText( text,"Score: 1234567" );
+						graphics.drawText( text,next() % 600,next() % 560,200,40 );
+						return position;
+					}
+				}
+		};
+	}
+	
+	
+	/**
+	 * Benchmark mit einem SimpleGraphics-Objekt, das in ein Bild von 800x600 Pixeln rendert.
+	 *
+	 * @since 0.6.0
+	 */
+	private abstract static class RenderingBenchmark extends Benchmark {
+		
+		
+		SimpleGraphics graphics;
+		Texture texture;
+		Texture[] textures;
+		int position;
+		
+		
+		private RenderingBenchmark( String name ) {
+			super( name );
+		}
+		
+		
+		@Override
+		public void setUp() {
+			BufferedImage buffer = new BufferedImage( 800,600,BufferedImage.TYPE_INT_ARGB );
+			graphics = new SimpleGraphics( buffer.createGraphics() );
+			graphics.setColor( Color.darkGray );
+			graphics.setFont( new Font( "Dialog",Font.PLAIN,15 ) );
+			textures = new Texture[8];
+			for( int i = 0; i < textures.length; i++ )
+				textures[i] = TextureBenchmarks.createTexture( 64,64,i );
+			texture = textures[0];
+		}
+		
+		/**
+		 * @return Nächste Pseudozufallszahl für Positionen.
+		 * @since 0.6.0
+		 */
+		int next() {
+			position = position * 1103515245 + 12345;
+			return (position >>> 8) & 0xFFFF;
+		}
+		
+		
+	}
+	
+	
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.core;
+
+
+import desertcookie.simple2d.benchmarks.Benchmark;
+import desertcookie.simple2d.entities.EntityStore;
+import desertcookie.simple2d.input.InputHandler;
+import desertcookie.simple2d.rendering.SimpleGraphics;
+import desertcookie.simple2d.textures.TextureBenchmarks;
+
+import java.awt.*;
+import java.util.Random;
+
+
+/**
+ * Benchmarks für Updates der aktiven Szene und für vollständige Bilder mit einem {@link HeadlessDisplay}. Liegt im Paket des Cores, um die Game Loops ohne Threads nachbilden zu können.
+ *
+ * @since 0.6.0
+ */
+public class CoreBenchmarks {
+	
+	
+	private static Game game;
+	
+	
+	private CoreBenchmarks() {
+	}
+	
+	
+	/**
+	 * @return Alle Benchmarks dieser Klasse.
+	 * @since 0.6.0
+	 */
+	public static Benchmark[] create() {
+		return new Benchmark[]{
+				new UpdateBenchmark( 1000 ),
+				new UpdateBenchmark( 10000 ),
+				new UpdateBenchmark( 100000 ),
+				new FrameBenchmark( 1000 )
+		};
+	}
+	
+	
+	/**
+	 * Erstellt beim ersten Aufruf ein Spiel mit einem HeadlessDisplay, ohne es zu starten.
+	 *
+	 * @return HeadlessDisplay des Spiels.
+	 * @since 0.6.0
+	 */
+	private static synchronized HeadlessDisplay getDisplay() {
+		if( game == null ) {
+			game = new Game( true ) {
+			};
+			Game.getDisplay().prepareDisplay();
+		}
+		return (HeadlessDisplay)Game.getDisplay();
+	}
+	
+	
+	/**
+	 * Szene, deren Entities sich bewegen und an den Rändern des Bildschirms abprallen.
+	 *
+	 * @since 0.6.0
+	 */
+	private static class BenchmarkScene extends GameScene {
+		
+		
+		private final EntityStore store;
+		
+		
+		private BenchmarkScene( int count ) {
+			super( count );
+			store = new EntityStore( count );
+			for( int i = 0; i < 8; i++ )
+				store.addTexture( TextureBenchmarks.createTexture( 16,16,i ) );
+			Random random = new Random( 1 );
+			for( int i = 0; i < count; i++ ) {
+				int handle = store.create( random.nextInt( 784 ),random.nextInt( 584 ),16,16,i & 7 );
+				int index = store.indexOf( handle );
+				store.getVelocityXColumn()[index] = random.nextInt( 200 ) - 100;
+				store.getVelocityYColumn()[index] = random.nextInt( 200 ) - 100;
+			}
+		}
+		
+		
+		@Override
+		public void update( double deltaTime,InputHandler input ) {
+			store.integrate( deltaTime );
+			store.bounce( 0,0,800,600 );
+			store.update( deltaTime,input );
+		}
+		
+		@Override
+		public void render( SimpleGraphics graphics ) {
+			graphics.begin();
+			store.render( graphics );
+			graphics.setColor( Color.black );
+			graphics.drawString( "Entities: 1000",10,20 );
+			graphics.end();
+		}
+		
+		
+	}
+	
+	/**
+	 * Updatet die aktive Szene mit der angegebenen Anzahl von Entities über {@link GameSceneHandler#updateActiveScene(double,InputHandler)}.
+	 *
+	 * @since 0.6.0
+	 */
+	private static class UpdateBenchmark extends Benchmark {
+		
+		
+		private final int count;
+		private GameSceneHandler sceneHandler;
+		private InputHandler input;
+		
+		
+		private UpdateBenchmark( int count ) {
+			super( "GameSceneHandler.updateActiveScene " + count );
+			this.count = count;
+		}
+		
+		
+		@Override
+		public void setUp() {
+			sceneHandler = new GameSceneHandler();
+			sceneHandler.setActiveScene( new BenchmarkScene( count ) );
+			input = new InputHandler();
+		}
+		
+		@Override
+		public long run() {
+			sceneHandler.updateActiveScene( 1 / 60.0,input );
+			return count;
+		}
+		
+		
+	}
+	
+	/**
+	 * Ein vollständiges Bild wie im Game Loop: Input übernehmen, Szene updaten, rendern, darstellen und den Buffer zurücksetzen.
+	 *
+	 * @since 0.6.0
+	 */
+	private static class FrameBenchmark extends Benchmark {
+		
+		
+		private final int count;
+		private HeadlessDisplay display;
+		private SimpleGraphics graphics;
+		private GameSceneHandler sceneHandler;
+		
+		
+		private FrameBenchmark( int count ) {
+			super( "Headless frame " + count + " sprites" );
+			this.count = count;
+		}
+		
+		
+		@Override
+		public void setUp() {
+			display = getDisplay();
+			graphics = display.createSimpleGraphics();
+			sceneHandler = Game.getSceneHandler();
+			sceneHandler.setActiveScene( new BenchmarkScene( count ) );
+		}
+		
+		@Override
+		public long run() {
+			Game.getInputHandler().poll();
+			sceneHandler.updateActiveScene( 1 / 60.0,Game.getInputHandler() );
+			sceneHandler.renderActiveScene( graphics,1 );
+			display.switchBuffers();
+			graphics.resetBuffer();
+			return display.getFrameCount();
+		}
+		
+		
+	}
+	
+	
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.entities;
+
+
+import desertcookie.simple2d.benchmarks.Benchmark;
+import desertcookie.simple2d.input.InputHandler;
+import desertcookie.simple2d.rendering.SimpleGraphics;
+
+import java.util.Random;
+
+
+/**
+ * Benchmarks für Kollisionsabfragen und räumliche Indizes.
+ *
+ * @since 0.6.0
+ */
+public class EntityBenchmarks {
+	
+	
+	private static final int COUNT = 1024;
+	
+	private static final int GRID = 0;
+	private static final int QUAD_TREE = 1;
+	
+	
+	private EntityBenchmarks() {
+	}
+	
+	
+	/**
+	 * @return Alle Benchmarks dieser Klasse.
+	 * @since 0.6.0
+	 */
+	public static Benchmark[] create() {
+		return new Benchmark[]{
+				new Benchmark( "Entity.collides" ) {
+					private Entity[] entities;
+					private int index;
+				
+					@Override
+					public void setUp() {
+						Random random = new Random( 1 );
+						entities = new Entity[COUNT];
+						for( int i = 0; i < COUNT; i++ )
+							entities[i] = new BenchmarkEntity( random.nextInt( 1000 ),random.nextInt( 1000 ),10 + random.nextInt( 90 ),10 + random.nextInt( 90 ) );
+					}
+				
+					@Override
+					public long run() {
+						index = (index + 1) & (COUNT - 1);
+						return entities[index].collides( entities[(index * 7 + 1) & (COUNT - 1)] ) ? 1 : 0;
+					}
+				},
+				new Benchmark( "Collision.overlapping 10000" ) {
+					private double[] x, y, w, h;
+					private int[] result;
+					private int index;
+				
+					@Override
+					public void setUp() {
+						Random random = new Random( 1 );
+						x = new double[10000];
+						y = new double[10000];
+						w = new double[10000];
+						h = new double[10000];
+						result = new int[10000];
+						for( int i = 0; i < 10000; i++ ) {
+							x[i] = random.nextInt( 4000 );
+							y[i] = random.nextInt( 4000 );
+							w[i] = 10 + random.nextInt( 40 );
+							h[i] = 10 + random.nextInt( 40 );
+						}
+					}
+				
+					@Override
+					public long run() {
+						index = (index + 1) & (COUNT - 1);
+						return Collision.overlapping( x,y,w,h,10000,index * 3,index * 3,200,200,result );
+					}
+				},
+				new MoveBenchmark( GRID,1000 ),
+				new MoveBenchmark( GRID,10000 ),
+				new MoveBenchmark( GRID,100000 ),
+				new MoveBenchmark( QUAD_TREE,1000 ),
+				new MoveBenchmark( QUAD_TREE,10000 ),
+				new MoveBenchmark( QUAD_TREE,100000 ),
+				new QueryBenchmark( GRID,1000 ),
+				new QueryBenchmark( GRID,10000 ),
+				new QueryBenchmark( GRID,100000 ),
+				new QueryBenchmark( QUAD_TREE,1000 ),
+				new QueryBenchmark( QUAD_TREE,10000 ),
+				new QueryBenchmark( QUAD_TREE,100000 )
+		};
+	}
+	
+	
+	/**
+	 * Räumlicher Index mit 16x16 Pixel großen, sich bewegenden Objekten. Die Fläche wächst mit der Anzahl der Objekte, sodass die Dichte gleich bleibt.
+	 *
+	 * @since 0.6.0
+	 */
+	private abstract static class IndexBenchmark extends Benchmark {
+		
+		
+		final int type, count;
+		final double size;
+		
+		SpatialIndex index;
+		double[] x, y, velocityX, velocityY;
+		
+		
+		private IndexBenchmark( String name,int type,int count ) {
+			super( (type == GRID ? "SpatialHashGrid." : "QuadTree.") + name + " " + count );
+			this.type = type;
+			this.count = count;
+			size = Math.sqrt( count / 1000.0 ) * 1000;
+		}
+		
+		
+		@Override
+		public void setUp() {
+			index = type == GRID ? new SpatialHashGrid( 32 ) : new QuadTree( 0,0,size,size );
+			x = new double[count];
+			y = new double[count];
+			velocityX = new double[count];
+			velocityY = new double[count];
+			Random random = new Random( 1 );
+			for( int i = 0; i < count; i++ ) {
+				x[i] = random.nextDouble() * (size - 16);
+				y[i] = random.nextDouble() * (size - 16);
+				velocityX[i] = random.nextInt( 200 ) - 100;
+				velocityY[i] = random.nextInt( 200 ) - 100;
+				index.insert( i,x[i],y[i],16,16 );
+			}
+		}
+		
+		
+	}
+	
+	/**
+	 * Bewegt alle Objekte um ein Bild weiter, aktualisiert sie im Index und sucht anschließend alle überlappenden Paare.
+	 *
+	 * @since 0.6.0
+	 */
+	private static class MoveBenchmark extends IndexBenchmark implements SpatialIndex.PairCallback {
+		
+		
+		private long pairs;
+		
+		
+		private MoveBenchmark( int type,int count ) {
+			super( "update+forEachPair",type,count );
+		}
+		
+		
+		@Override
+		public long run() {
+			for( int i = 0; i < count; i++ ) {
+				x[i] += velocityX[i] / 60;
+				y[i] += velocityY[i] / 60;
+				if( x[i] < 0 || x[i] > size - 16 )
+					velocityX[i] = -velocityX[i];
+				if( y[i] < 0 || y[i] > size - 16 )
+					velocityY[i] = -velocityY[i];
+				index.update( i,x[i],y[i],16,16 );
+			}
+			pairs = 0;
+			index.forEachPair( this );
+			return pairs;
+		}
+		
+		@Override
+		public void pair( int first,int second ) {
+			pairs++;
+		}
+		
+		
+	}
+	
+	/**
+	 * Fragt einen 200x200 Pixel großen Bereich an wechselnden Positionen ab.
+	 *
+	 * @since 0.6.0
+	 */
+	private static class QueryBenchmark extends IndexBenchmark {
+		
+		
+		private final QueryResult result = new QueryResult();
+		private int position;
+		
+		
+		private QueryBenchmark( int type,int count ) {
+			super( "queryArea",type,count );
+		}
+		
+		
+		@Override
+		public long run() {
+			position = (position + 1) & (COUNT - 1);
+			double offset = (position * 7919 % COUNT) / (double)COUNT;
+			index.queryArea( offset * (size - 200),position / (double)COUNT * (size - 200),200,200,result );
+			return result.getCount();
+		}
+		
+		
+	}
+	
+	/**
+	 * Entity ohne eigenes Verhalten.
+	 *
+	 * @since 0.6.0
+	 */
+	private static class BenchmarkEntity extends Entity {
+		
+		
+		private BenchmarkEntity( double x,double y,double w,double h ) {
+			super( x,y,w,h,null );
+		}
+		
+		
+		@Override
+		public void update( double deltaTime,InputHandler input ) {
+		
+		}
+		
+		@Override
+		public void render( SimpleGraphics graphics ) {
+		
+		}
+		
+		
+	}
+	
+	
+}
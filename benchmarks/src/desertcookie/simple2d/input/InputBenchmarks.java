@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.input;
+
+
+import desertcookie.simple2d.benchmarks.Benchmark;
+
+import java.awt.event.KeyEvent;
+
+
+/**
+ * Benchmarks für das Übertragen und Abfragen von Input. Liegt im Paket des Inputs, um Events ohne AWT einspeisen zu können.
+ *
+ * @since 0.6.0
+ */
+public class InputBenchmarks {
+	
+	
+	private InputBenchmarks() {
+	}
+	
+	
+	/**
+	 * @return Alle Benchmarks dieser Klasse.
+	 * @since 0.6.0
+	 */
+	public static Benchmark[] create() {
+		return new Benchmark[]{
+				new Benchmark( "InputHandler.isKeyDown x64" ) {
+					private InputHandler input;
+				
+					@Override
+					public void setUp() {
+						input = new InputHandler();
+						for( int key = KeyEvent.VK_A; key <= KeyEvent.VK_Z; key += 3 )
+							InputHandler.post( InputEventQueue.KEY_PRESSED,key,0,0 );
+						input.poll();
+					}
+				
+					@Override
+					public long run() {
+						long down = 0;
+						for( int key = 0; key < 64; key++ )
+							if( input.isKeyDown( KeyEvent.VK_0 + key ) )
+								down++;
+						return down;
+					}
+				},
+				new Benchmark( "InputHandler.poll 8 events" ) {
+					private InputHandler input;
+					private int tick;
+				
+					@Override
+					public void setUp() {
+						input = new InputHandler();
+					}
+				
+					@Override
+					public long run() {
+						tick++;
+						for( int i = 0; i < 4; i++ ) {
+							InputHandler.post( InputEventQueue.MOUSE_MOVED,0,tick & 511,i );
+							InputHandler.post( (tick & 1) == 0 ? InputEventQueue.KEY_PRESSED : InputEventQueue.KEY_RELEASED,KeyEvent.VK_A + i,0,0 );
+						}
+						input.poll();
+						return input.wasKeyPressed( KeyEvent.VK_A ) ? 1 : 0;
+					}
+				}
+		};
+	}
+	
+	
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.textures;
+
+
+import desertcookie.simple2d.benchmarks.Benchmark;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+
+/**
+ * Benchmarks für das Laden und Konvertieren von Texturen. Liegt im Paket der Texturen, um Texturen ohne Datei erstellen zu können.
+ *
+ * @since 0.6.0
+ */
+public class TextureBenchmarks {
+	
+	
+	private TextureBenchmarks() {
+	}
+	
+	
+	/**
+	 * @return Alle Benchmarks dieser Klasse.
+	 * @since 0.6.0
+	 */
+	public static Benchmark[] create() {
+		return new Benchmark[]{
+				new ConvertBenchmark( BufferedImage.TYPE_3BYTE_BGR ),
+				new ConvertBenchmark( BufferedImage.TYPE_INT_ARGB )
+		};
+	}
+	
+	/**
+	 * Erstellt eine Textur aus zufälligen Pixeln, wie sie {@link TextureLoader#loadTexture(String)} liefern würde.
+	 *
+	 * @param w    Horizontale Größe in Pixeln
+	 * @param h    Vertikale Größe in Pixeln
+	 * @param seed Startwert für die Pixel
+	 * @return Neue Textur.
+	 * @since 0.6.0
+	 */
+	public static Texture createTexture( int w,int h,long seed ) {
+		return new Texture( TextureLoader.toCompatibleImage( createImage( w,h,BufferedImage.TYPE_INT_ARGB,seed ) ) );
+	}
+	
+	
+	/**
+	 * @param w    Horizontale Größe in Pixeln
+	 * @param h    Vertikale Größe in Pixeln
+	 * @param type Typ des Bildes
+	 * @param seed Startwert für die Pixel
+	 * @return Bild aus zufälligen Pixeln.
+	 * @since 0.6.0
+	 */
+	private static BufferedImage createImage( int w,int h,int type,long seed ) {
+		BufferedImage image = new BufferedImage( w,h,type );
+		Random random = new Random( seed );
+		for( int y = 0; y < h; y++ )
+			for( int x = 0; x < w; x++ )
+				image.setRGB( x,y,random.nextInt() | 0xFF000000 );
+		return image;
+	}
+	
+	
+	/**
+	 * Konvertiert ein Bild des angegebenen Typs mit {@link TextureLoader#toCompatibleImage(BufferedImage)}.
+	 *
+	 * @since 0.6.0
+	 */
+	private static class ConvertBenchmark extends Benchmark {
+		
+		
+		private final int type;
+		private BufferedImage image;
+		
+		
+		private ConvertBenchmark( int type ) {
+			super( "TextureLoader.toCompatibleImage " + (type == BufferedImage.TYPE_3BYTE_BGR ? "BGR" : "ARGB") );
+			this.type = type;
+		}
+		
+		
+		@Override
+		public void setUp() {
+			image = createImage( 256,256,type,1 );
+		}
+		
+		@Override
+		public long run() {
+			return TextureLoader.toCompatibleImage( image ).getWidth();
+		}
+		
+		
+	}
+	
+	
+}
@@ -0,0 +1,468 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.core;
+
+
+import desertcookie.util.LogWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Calendar;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * LogWriter, der Nachrichten nicht im aufrufenden Thread schreibt, sondern in einem begrenzten Ringpuffer ablegt.
+ * Ein eigener Thread überträgt die Nachrichten gesammelt über einen dauerhaft geöffneten FileChannel in die Log-Datei, sobald genug Nachrichten vorliegen oder die älteste Nachricht lange genug wartet.
+ * Beliebig viele Threads dürfen gleichzeitig schreiben, ohne dabei Locks zu benötigen. Ist der Puffer voll, werden Nachrichten je nach Richtlinie verworfen oder der schreibende Thread wartet.
+ * Das Format der Einträge entspricht dem des LogWriters.
+ *
+ * @since 0.6.0
+ */
+public class AsyncLogWriter extends LogWriter {
+	
+	
+	/**
+	 * Richtlinien für einen vollen Puffer. Bei {@code DROP} wird die Nachricht verworfen und gezählt, bei {@code BLOCK} wartet der schreibende Thread, bis wieder Platz ist.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int DROP = 0, BLOCK = 1;
+	/**
+	 * Standardgröße des Puffers in Nachrichten.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+	/**
+	 * Standardanzahl an Nachrichten, ab der sofort geschrieben wird.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+	/**
+	 * Standardzeit in Millisekunden, die eine Nachricht höchstens auf das Schreiben wartet.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final long DEFAULT_FLUSH_INTERVAL = 200;
+	
+	private final String destination;
+	private final int capacity, mask;
+	private final String[] messages;
+	private final long[] times;
+	private final int[] indents;
+	private final AtomicLongArray sequences;
+	private final AtomicLong tail, dropped, flushTarget;
+	private volatile long head, written;
+	
+	private volatile int policy, batchSize;
+	private volatile long flushInterval;
+	private volatile boolean closed, sleeping;
+	
+	private final Thread thread;
+	private FileChannel channel;
+	private final StringBuilder buffer;
+	private final Calendar calendar;
+	private long reportedDrops;
+	
+	
+	/**
+	 * Konstruiert neuen AsyncLogWriter mit Standardwerten, der bei vollem Puffer Nachrichten verwirft.
+	 *
+	 * @param destination Pfad der Log-Datei
+	 * @param message     Nachricht am Anfang der Log-Datei
+	 * @since 0.6.0
+	 */
+	public AsyncLogWriter( String destination,String message ) {
+		this( destination,message,DEFAULT_CAPACITY,DROP );
+	}
+	
+	/**
+	 * Konstruiert neuen AsyncLogWriter. Die Log-Datei wird wie beim LogWriter neu angelegt und mit der angegebenen Nachricht begonnen.
+	 * Kann die Datei nicht dauerhaft geöffnet werden, wird wie beim LogWriter jede Nachricht direkt geschrieben.
+	 *
+	 * @param destination Pfad der Log-Datei
+	 * @param message     Nachricht am Anfang der Log-Datei
+	 * @param capacity    Größe des Puffers in Nachrichten, wird auf die nächste Zweierpotenz aufgerundet
+	 * @param policy      Richtlinie für einen vollen Puffer
+	 * @since 0.6.0
+	 */
+	public AsyncLogWriter( String destination,String message,int capacity,int policy ) {
+		super( destination,message );
+		if( capacity < 1 )
+			throw new IllegalArgumentException( "The capacity must be at least 1!" );
+		setPolicy( policy );
+		this.destination = destination;
+		this.capacity = Integer.highestOneBit( Math.max( capacity - 1,1 ) ) << 1;
+		mask = this.capacity - 1;
+		messages = new String[this.capacity];
+		times = new long[this.capacity];
+		indents = new int[this.capacity];
+		sequences = new AtomicLongArray( this.capacity );
+		for( int i = 0; i < this.capacity; i++ )
+			sequences.set( i,i );
+		tail = new AtomicLong();
+		dropped = new AtomicLong();
+		flushTarget = new AtomicLong();
+		batchSize = DEFAULT_BATCH_SIZE;
+		flushInterval = DEFAULT_FLUSH_INTERVAL;
+		buffer = new StringBuilder( 8192 );
+		calendar = Calendar.getInstance();
+		
+		try {
+			channel = FileChannel.open( Paths.get( destination ),StandardOpenOption.CREATE,StandardOpenOption.WRITE,StandardOpenOption.APPEND );
+		} catch( IOException e ) {
+			e.printStackTrace();
+			closed = true;
+		}
+		thread = new Thread( new Runnable() {
+			@Override
+			public void run() {
+				writeLoop();
+			}
+		},"Log Writer " + destination );
+		thread.setDaemon( true );
+		if( channel != null ) {
+			thread.start();
+			// Auch bei System.exit, beispielsweise durch den ExceptionHandler, gehen keine Nachrichten verloren
+			Runtime.getRuntime().addShutdownHook( new Thread( new Runnable() {
+				@Override
+				public void run() {
+					close();
+				}
+			},"Log Writer Shutdown" ) );
+		}
+	}
+	
+	
+	/**
+	 * Legt die Nachricht im Puffer ab. Nach {@link #close()} wird sie wie beim LogWriter direkt geschrieben.
+	 *
+	 * @param message   Nachricht
+	 * @param timestamp {@code true} wenn der Nachricht die Uhrzeit vorangestellt werden soll
+	 * @param indent    Anzahl der Tabulatoren vor der Nachricht
+	 * @since 0.6.0
+	 */
+	@Override
+	public void write( String message,boolean timestamp,int indent ) {
+		if( closed ) {
+			super.write( message,timestamp,indent );
+			return;
+		}
+		long time = timestamp ? System.currentTimeMillis() : -1;
+		if( offer( message,time,indent ) )
+			return;
+		if( policy == DROP ) {
+			dropped.incrementAndGet();
+			return;
+		}
+		while( !offer( message,time,indent ) ) {
+			if( closed ) {
+				super.write( message,timestamp,indent );
+				return;
+			}
+			LockSupport.unpark( thread );
+			LockSupport.parkNanos( 100000 );
+		}
+	}
+	
+	/**
+	 * Wartet, bis alle bisher abgelegten Nachrichten in die Log-Datei geschrieben wurden.
+	 *
+	 * @since 0.6.0
+	 */
+	public void flush() {
+		long target = tail.get();
+		long current;
+		while( target > (current = flushTarget.get()) && !flushTarget.compareAndSet( current,target ) ) { }
+		while( written < target && thread.isAlive() ) {
+			LockSupport.unpark( thread );
+			LockSupport.parkNanos( 100000 );
+		}
+	}
+	
+	/**
+	 * Schreibt alle abgelegten Nachrichten, beendet den schreibenden Thread und schließt die Log-Datei. Folgende Nachrichten werden direkt geschrieben.
+	 *
+	 * @since 0.6.0
+	 */
+	public void close() {
+		closed = true;
+		LockSupport.unpark( thread );
+		if( Thread.currentThread() == thread )
+			return;
+		try {
+			thread.join();
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * @return {@code true} wenn dieser AsyncLogWriter geschlossen wurde.
+	 * @since 0.6.0
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+	
+	/**
+	 * @return Pfad der Log-Datei.
+	 * @since 0.6.0
+	 */
+	public String getDestination() {
+		return destination;
+	}
+	
+	/**
+	 * @return Richtlinie für einen vollen Puffer.
+	 * @since 0.6.0
+	 */
+	public int getPolicy() {
+		return policy;
+	}
+	
+	/**
+	 * Setzt die Richtlinie für einen vollen Puffer.
+	 *
+	 * @param policy {@link #DROP} oder {@link #BLOCK}
+	 * @since 0.6.0
+	 */
+	public void setPolicy( int policy ) {
+		if( policy != DROP && policy != BLOCK )
+			throw new IllegalArgumentException( "There is no policy " + policy + "!" );
+		this.policy = policy;
+	}
+	
+	/**
+	 * @return Anzahl an Nachrichten, ab der sofort geschrieben wird.
+	 * @since 0.6.0
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+	
+	/**
+	 * Setzt die Anzahl an Nachrichten, ab der sofort geschrieben wird.
+	 *
+	 * @param batchSize Anzahl an Nachrichten, mindestens {@code 1}
+	 * @since 0.6.0
+	 */
+	public void setBatchSize( int batchSize ) {
+		this.batchSize = Math.max( batchSize,1 );
+	}
+	
+	/**
+	 * @return Zeit in Millisekunden, die eine Nachricht höchstens auf das Schreiben wartet.
+	 * @since 0.6.0
+	 */
+	public long getFlushInterval() {
+		return flushInterval;
+	}
+	
+	/**
+	 * Setzt die Zeit, die eine Nachricht höchstens auf das Schreiben wartet.
+	 *
+	 * @param flushInterval Zeit in Millisekunden, mindestens {@code 1}
+	 * @since 0.6.0
+	 */
+	public void setFlushInterval( long flushInterval ) {
+		this.flushInterval = Math.max( flushInterval,1 );
+	}
+	
+	/**
+	 * @return Größe des Puffers in Nachrichten.
+	 * @since 0.6.0
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	/**
+	 * @return Anzahl der abgelegten, noch nicht übertragenen Nachrichten.
+	 * @since 0.6.0
+	 */
+	public int getSize() {
+		return (int)Math.max( tail.get() - head,0 );
+	}
+	
+	/**
+	 * @return Anzahl der Nachrichten, die wegen eines vollen Puffers verworfen wurden.
+	 * @since 0.6.0
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+	
+	
+	/**
+	 * Legt eine Nachricht im Puffer ab, sofern Platz ist.
+	 *
+	 * @param message Nachricht
+	 * @param time    Zeitpunkt in Millisekunden oder {@code -1} ohne Uhrzeit
+	 * @param indent  Anzahl der Tabulatoren vor der Nachricht
+	 * @return {@code true} wenn die Nachricht abgelegt wurde.
+	 * @since 0.6.0
+	 */
+	private boolean offer( String message,long time,int indent ) {
+		while( true ) {
+			long position = tail.get();
+			int index = (int)(position & mask);
+			long difference = sequences.get( index ) - position;
+			if( difference < 0 )
+				return false;
+			if( difference == 0 && tail.compareAndSet( position,position + 1 ) ) {
+				messages[index] = message;
+				times[index] = time;
+				indents[index] = indent;
+				sequences.set( index,position + 1 );
+				if( sleeping && position + 1 - head >= batchSize )
+					LockSupport.unpark( thread );
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Schleife des schreibenden Threads.
+	 *
+	 * @since 0.6.0
+	 */
+	private void writeLoop() {
+		int pending = 0;
+		long firstPending = 0;
+		while( true ) {
+			boolean closing = closed;
+			int drained = 0;
+			while( drained < batchSize && poll() )
+				drained++;
+			if( drained > 0 && pending == 0 )
+				firstPending = System.nanoTime();
+			pending += drained;
+			
+			long waited = System.nanoTime() - firstPending;
+			if( pending > 0 && (pending >= batchSize || closing || flushTarget.get() > written || waited >= flushInterval * 1000000) ) {
+				writeBuffer();
+				pending = 0;
+			}
+			if( closing && drained == 0 )
+				break;
+			if( drained == 0 ) {
+				sleeping = true;
+				if( tail.get() == head && !closed && flushTarget.get() <= written )
+					LockSupport.parkNanos( pending > 0 ? flushInterval * 1000000 - waited : flushInterval * 1000000 );
+				sleeping = false;
+			}
+		}
+		try {
+			channel.close();
+		} catch( IOException e ) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Entnimmt die nächste Nachricht aus dem Puffer und hängt sie formatiert an den Zwischenspeicher an.
+	 *
+	 * @return {@code true} wenn eine Nachricht entnommen wurde.
+	 * @since 0.6.0
+	 */
+	private boolean poll() {
+		long position = head;
+		int index = (int)(position & mask);
+		if( sequences.get( index ) != position + 1 )
+			return false;
+		
+		long drops = dropped.get();
+		if( drops != reportedDrops ) {
+			appendLine( String.format( "%d Log-Nachrichten verworfen, da der Puffer voll war",drops - reportedDrops ),System.currentTimeMillis(),0 );
+			reportedDrops = drops;
+		}
+		appendLine( messages[index],times[index],indents[index] );
+		messages[index] = null;
+		sequences.set( index,position + capacity );
+		head = position + 1;
+		return true;
+	}
+	
+	/**
+	 * Hängt eine Zeile im Format des LogWriters an den Zwischenspeicher an.
+	 *
+	 * @param message Nachricht
+	 * @param time    Zeitpunkt in Millisekunden oder {@code -1} ohne Uhrzeit
+	 * @param indent  Anzahl der Tabulatoren vor der Nachricht
+	 * @since 0.6.0
+	 */
+	private void appendLine( String message,long time,int indent ) {
+		if( time >= 0 ) {
+			calendar.setTimeInMillis( time );
+			buffer.append( '[' );
+			appendTwoDigits( calendar.get( Calendar.HOUR ) );
+			buffer.append( ':' );
+			appendTwoDigits( calendar.get( Calendar.MINUTE ) );
+			buffer.append( ':' );
+			appendTwoDigits( calendar.get( Calendar.SECOND ) );
+			buffer.append( ']' );
+		}
+		for( int i = 0; i < indent; i++ )
+			buffer.append( '\t' );
+		buffer.append( message ).append( '\n' );
+	}
+	
+	/**
+	 * @param value Zahl zwischen {@code 0} und {@code 99}
+	 * @since 0.6.0
+	 */
+	private void appendTwoDigits( int value ) {
+		buffer.append( (char)('0' + value / 10) ).append( (char)('0' + value % 10) );
+	}
+	
+	/**
+	 * Schreibt den Zwischenspeicher in die Log-Datei und leert ihn.
+	 *
+	 * @since 0.6.0
+	 */
+	private void writeBuffer() {
+		try {
+			ByteBuffer bytes = StandardCharsets.UTF_8.encode( CharBuffer.wrap( buffer ) );
+			while( bytes.hasRemaining() )
+				channel.write( bytes );
+		} catch( IOException e ) {
+			e.printStackTrace();
+		}
+		buffer.setLength( 0 );
+		written = head;
+	}
+	
+	
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.core;
+
+
+import desertcookie.simple2d.rendering.SimpleGraphics;
+
+
+/**
+ * Spielszene, deren Render-Code nicht direkt auf die vom Update Loop veränderten Objekte zugreift, sondern auf einen unveränderlichen Schnappschuss.
+ * Nach jedem Update schreibt der Update Loop den Zustand der Szene mit {@link #writeState(Object)} in einen freien Puffer und veröffentlicht ihn, der Render Loop rendert jeweils den zuletzt veröffentlichten Zustand.
+ * Dadurch sieht der Render-Code nie halb aktualisierte Positionen, ohne dass einer der beiden Threads auf den anderen warten muss.
+ *
+ * @param <T> Typ des Zustands, der vom Update Loop an den Render Loop übergeben wird
+ * @since 0.6.0
+ */
+public abstract class BufferedGameScene<T> extends GameScene {
+	
+	
+	private volatile TripleBuffer<T> stateBuffer;
+	
+	
+	/**
+	 * Konstruiert neue BufferedGameScene.
+	 *
+	 * @param sceneId Identifikator dieser Spielszene
+	 * @since 0.6.0
+	 */
+	public BufferedGameScene( int sceneId ) {
+		super( sceneId );
+	}
+	
+	
+	/**
+	 * Erstellt ein neues, leeres Zustandsobjekt. Wird dreimal aufgerufen, bevor die Szene zum ersten Mal aktiv wird.
+	 *
+	 * @return Neues Zustandsobjekt.
+	 * @since 0.6.0
+	 */
+	protected abstract T createState();
+	
+	/**
+	 * Schreibt den aktuellen Zustand der Szene in das angegebene Zustandsobjekt. Wird vom Update Loop nach jedem Update aufgerufen.
+	 *
+	 * @param state Zustandsobjekt, das gefüllt werden soll und bis zur Veröffentlichung nur vom Update Loop verwendet wird
+	 * @since 0.6.0
+	 */
+	protected abstract void writeState( T state );
+	
+	/**
+	 * Methode für Render-Code, die regelmäßig vom Game Loop mit dem zuletzt veröffentlichten Zustand aufgerufen wird, wenn diese Szene die aktive Szene im GameSceneHandler ist.
+	 *
+	 * @param graphics Schnittstelle für Rendering
+	 * @param state    Zuletzt veröffentlichter Zustand, der während des Renderns nicht verändert wird
+	 * @param alpha    Fortschritt zwischen dem letzten und dem nächsten Update zwischen {@code 0} und {@code 1}
+	 * @since 0.6.0
+	 */
+	public abstract void render( SimpleGraphics graphics,T state,double alpha );
+	
+	
+	@Override
+	public final void render( SimpleGraphics graphics ) {
+		render( graphics,1 );
+	}
+	
+	@Override
+	public final void render( SimpleGraphics graphics,double alpha ) {
+		TripleBuffer<T> buffer = stateBuffer;
+		if( buffer != null )
+			render( graphics,buffer.acquire(),alpha );
+	}
+	
+	
+	/**
+	 * Erstellt die Zustandspuffer, falls dies noch nicht geschehen ist. Interne Methode.
+	 *
+	 * @since 0.6.0
+	 */
+	final synchronized void prepareStateBuffer() {
+		if( stateBuffer == null ) {
+			TripleBuffer<T> buffer = new TripleBuffer<>( createState(),createState(),createState() );
+			writeState( buffer.getBack() );
+			buffer.publish();
+			stateBuffer = buffer;
+		}
+	}
+	
+	/**
+	 * Schreibt den aktuellen Zustand in den hinteren Puffer und veröffentlicht ihn. Interne Methode.
+	 *
+	 * @since 0.6.0
+	 */
+	final void publishState() {
+		TripleBuffer<T> buffer = stateBuffer;
+		if( buffer == null )
+			return;
+		writeState( buffer.getBack() );
+		buffer.publish();
+	}
+	
+	
+}
@@ -26,13 +26,18 @@ package desertcookie.simple2d.core;
 
 
 import desertcookie.simple2d.input.InputHandler;
+import desertcookie.simple2d.rendering.DirtyRegion;
 import desertcookie.simple2d.rendering.SimpleGraphics;
-import desertcookie.simple2d.textures.TextureLoader;
+import desertcookie.simple2d.textures.ImageConverter;
+import desertcookie.util.ExceptionHandler;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
 
 
@@ -44,16 +49,31 @@ import java.awt.image.BufferedImage;
 public class Display {
 	
 	
+	/**
+	 * Verfahren, mit denen fertige Bilder auf dem Bildschirm dargestellt werden.
+	 * {@code RENDERER_PANEL} zeichnet jedes Bild direkt auf das Fenster, {@code RENDERER_BUFFER_STRATEGY} nutzt eine {@link BufferStrategy} mit Page Flipping, soweit das System dies unterstützt.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int RENDERER_PANEL = 0, RENDERER_BUFFER_STRATEGY = 1;
+	
 	private JFrame window;
 	private JPanel drawingSurface;
+	private Canvas canvas;
+	private BufferStrategy bufferStrategy;
 	private BufferedImage buffer;
+	private InputHandler input;
+	private int renderer;
+	private int bufferCount;
+	private DirtyRegion dirtyRegion;
+	private boolean damageTracking;
 	
 	/**
 	 * {@code true} wenn das Fenster geschlossen ist (beendet).
 	 *
 	 * @since 0.1.9
 	 */
-	boolean closed = false;
+	volatile boolean closed = false;
 	
 	
 	/**
@@ -62,6 +82,23 @@ public class Display {
 	 * @since 0.1.9
 	 */
 	Display() {
+		this( true );
+	}
+	
+	/**
+	 * Konstruiert neues Display mit oder ohne Fenster. Interner Konstruktor.
+	 *
+	 * @param windowed {@code false} für Displays ohne Fenster, die alle Methoden mit Fensterzugriff überschreiben
+	 * @since 0.6.0
+	 */
+	Display( boolean windowed ) {
+		renderer = RENDERER_BUFFER_STRATEGY;
+		bufferCount = 2;
+		dirtyRegion = new DirtyRegion();
+		dirtyRegion.invalidateAll();
+		if( !windowed )
+			return;
+		
 		window = new JFrame();
 		window.setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
 		window.addWindowListener( new WindowAdapter() {
@@ -71,8 +108,26 @@ public class Display {
 				super.windowClosing( e );
 			}
 		} );
-		drawingSurface = new JPanel();
+		drawingSurface = new JPanel() {
+			@Override
+			protected void paintComponent( Graphics graphics ) {
+				super.paintComponent( graphics );
+				if( buffer != null )
+					drawBuffer( graphics );
+			}
+		};
 		drawingSurface.setLocation( 0,0 );
+		drawingSurface.addComponentListener( new ComponentAdapter() {
+			@Override
+			public void componentResized( ComponentEvent e ) {
+				dirtyRegion.invalidateAll();
+			}
+			
+			@Override
+			public void componentShown( ComponentEvent e ) {
+				dirtyRegion.invalidateAll();
+			}
+		} );
 	}
 	
 	
@@ -159,6 +214,71 @@ public class Display {
 		window.setResizable( resizable );
 	}
 	
+	/**
+	 * @return Verfahren, mit dem fertige Bilder dargestellt werden.
+	 * @since 0.6.0
+	 */
+	public int getRenderer() {
+		return renderer;
+	}
+	
+	/**
+	 * Setzt das Verfahren, mit dem fertige Bilder dargestellt werden ({@code RENDERER_PANEL} oder {@code RENDERER_BUFFER_STRATEGY}). Muss vor dem Start des Spiels gesetzt werden.
+	 * Kann keine BufferStrategy erstellt werden, wird automatisch {@code RENDERER_PANEL} verwendet.
+	 *
+	 * @param renderer Verfahren zur Darstellung
+	 * @since 0.6.0
+	 */
+	public void setRenderer( int renderer ) {
+		this.renderer = renderer;
+	}
+	
+	/**
+	 * @return Anzahl der Puffer der BufferStrategy.
+	 * @since 0.6.0
+	 */
+	public int getBufferCount() {
+		return bufferCount;
+	}
+	
+	/**
+	 * Setzt die Anzahl der Puffer der BufferStrategy. {@code 2} für Double Buffering, {@code 3} für Triple Buffering. Muss vor dem Start des Spiels gesetzt werden.
+	 *
+	 * @param bufferCount Anzahl der Puffer zwischen 2 und 3
+	 * @since 0.6.0
+	 */
+	public void setBufferCount( int bufferCount ) {
+		this.bufferCount = Math.min( Math.max( bufferCount,2 ),3 );
+	}
+	
+	/**
+	 * @return {@code true} wenn nur veränderte Bereiche neu gerendert werden.
+	 * @since 0.6.0
+	 */
+	public boolean getDamageTracking() {
+		return damageTracking;
+	}
+	
+	/**
+	 * Setzt die Eigenschaft des Displays, ob nur die Bereiche neu gerendert und dargestellt werden sollen, die in der {@link #getDirtyRegion() DirtyRegion} als verändert gemeldet wurden.
+	 * Entities und UiComponents melden Änderungen über ihre Setter automatisch. Wer außerhalb davon zeichnet oder Felder direkt verändert, muss die betroffenen Bereiche selbst melden.
+	 *
+	 * @param damageTracking {@code true} wenn nur veränderte Bereiche neu gerendert werden sollen
+	 * @since 0.6.0
+	 */
+	public void setDamageTracking( boolean damageTracking ) {
+		this.damageTracking = damageTracking;
+		dirtyRegion.invalidateAll();
+	}
+	
+	/**
+	 * @return Bereiche, die seit dem letzten Bild als verändert gemeldet wurden.
+	 * @since 0.6.0
+	 */
+	public DirtyRegion getDirtyRegion() {
+		return dirtyRegion;
+	}
+	
 	
 	/**
 	 * @return Neu erstelltes SimpleGraphics-Objekt. Interne Methode.
@@ -175,10 +295,28 @@ public class Display {
 	 */
 	void prepareDisplay() {
 		window.setContentPane( drawingSurface );
+		if( renderer == RENDERER_BUFFER_STRATEGY ) {
+			// Zeichenaufforderungen des Systems bedeuten verlorenen Inhalt und werden deshalb nicht ignoriert
+			canvas = new Canvas() {
+				@Override
+				public void update( Graphics graphics ) {
+					paint( graphics );
+				}
+				
+				@Override
+				public void paint( Graphics graphics ) {
+					dirtyRegion.invalidateAll();
+				}
+			};
+			canvas.setPreferredSize( drawingSurface.getPreferredSize() );
+			drawingSurface.setLayout( new BorderLayout() );
+			drawingSurface.add( canvas,BorderLayout.CENTER );
+			if( input != null )
+				addInputListeners( canvas );
+		}
 		window.pack();
 		window.setLocationRelativeTo( null );
-		buffer = new BufferedImage( drawingSurface.getWidth(),drawingSurface.getHeight(),BufferedImage.TYPE_INT_ARGB );
-		buffer = TextureLoader.toCompatibleImage( buffer );
+		buffer = ImageConverter.getDefault().createCompatibleImage( drawingSurface.getWidth(),drawingSurface.getHeight(),Transparency.TRANSLUCENT );
 	}
 	
 	/**
@@ -189,6 +327,8 @@ public class Display {
 	 */
 	void setVisible( boolean visible ) {
 		window.setVisible( visible );
+		if( visible )
+			getPresentingComponent().requestFocus();
 	}
 	
 	/**
@@ -198,10 +338,10 @@ public class Display {
 	 * @since 0.1.9
 	 */
 	void setInputListeners( InputHandler input ) {
-		drawingSurface.addKeyListener( input.getKeyboard() );
-		drawingSurface.addMouseListener( input.getMouse() );
-		drawingSurface.addMouseMotionListener( input.getMouseMovement() );
-		drawingSurface.setFocusable( true );
+		this.input = input;
+		addInputListeners( drawingSurface );
+		if( canvas != null )
+			addInputListeners( canvas );
 	}
 	
 	/**
@@ -210,7 +350,47 @@ public class Display {
 	 * @since 0.1.9
 	 */
 	void switchBuffers() {
-		drawingSurface.getGraphics().drawImage( buffer,0,0,drawingSurface.getWidth(),drawingSurface.getHeight(),null );
+		switchBuffers( null );
+	}
+	
+	/**
+	 * Stellt die angegebenen Bereiche des Render-Buffers dar. Interne Methode.
+	 * Beim Page Flipping der BufferStrategy enthält der hintere Puffer ein älteres Bild, daher wird dort immer der gesamte Buffer dargestellt.
+	 *
+	 * @param region Bereiche in Pixeln, die dargestellt werden sollen, oder {@code null} für den gesamten Buffer
+	 * @since 0.6.0
+	 */
+	void switchBuffers( DirtyRegion region ) {
+		if( renderer == RENDERER_BUFFER_STRATEGY && bufferStrategy == null )
+			createBufferStrategy();
+		
+		if( bufferStrategy != null ) {
+			Graphics graphics;
+			do {
+				do {
+					graphics = bufferStrategy.getDrawGraphics();
+					drawBuffer( graphics );
+					graphics.dispose();
+				} while( bufferStrategy.contentsRestored() );
+				bufferStrategy.show();
+				if( bufferStrategy.contentsLost() )
+					dirtyRegion.invalidateAll();
+			} while( bufferStrategy.contentsLost() );
+		} else {
+			Graphics graphics = getPresentingComponent().getGraphics();
+			if( graphics == null )
+				return;
+			if( region == null || region.isFull() || !isUnscaled() )
+				drawBuffer( graphics );
+			else
+				for( int i = 0; i < region.getCount(); i++ ) {
+					int x = region.getX( i ), y = region.getY( i );
+					int x2 = x + region.getWidth( i ), y2 = y + region.getHeight( i );
+					graphics.drawImage( buffer,x,y,x2,y2,x,y,x2,y2,null );
+				}
+			graphics.dispose();
+		}
+		Toolkit.getDefaultToolkit().sync();
 	}
 	
 	/**
@@ -219,11 +399,77 @@ public class Display {
 	 * @since 0.1.9
 	 */
 	void cleanUp() {
+		if( bufferStrategy != null )
+			bufferStrategy.dispose();
+		bufferStrategy = null;
 		window.setVisible( false );
 		window.dispose();
 		drawingSurface = null;
+		canvas = null;
 		buffer = null;
 	}
 	
 	
+	/**
+	 * Erstellt die BufferStrategy. Schlägt dies fehl, wird auf {@code RENDERER_PANEL} zurückgegriffen.
+	 *
+	 * @since 0.6.0
+	 */
+	private void createBufferStrategy() {
+		try {
+			canvas.createBufferStrategy( bufferCount );
+			bufferStrategy = canvas.getBufferStrategy();
+		} catch( IllegalStateException e ) {
+			ExceptionHandler.handle( e,"BufferStrategy konnte nicht erstellt werden, nutze einfaches Rendering",false );
+			bufferStrategy = null;
+			renderer = RENDERER_PANEL;
+		}
+	}
+	
+	/**
+	 * Zeichnet den Render-Buffer. Hat das Fenster die Größe des Buffers, wird ungestreckt gezeichnet.
+	 *
+	 * @param graphics Graphics-Objekt, auf das gezeichnet werden soll
+	 * @since 0.6.0
+	 */
+	private void drawBuffer( Graphics graphics ) {
+		Component component = getPresentingComponent();
+		if( isUnscaled() )
+			graphics.drawImage( buffer,0,0,null );
+		else
+			graphics.drawImage( buffer,0,0,component.getWidth(),component.getHeight(),null );
+	}
+	
+	/**
+	 * @return {@code true} wenn die darstellende Komponente genau so groß ist wie der Render-Buffer.
+	 * @since 0.6.0
+	 */
+	private boolean isUnscaled() {
+		Component component = getPresentingComponent();
+		return component.getWidth() == buffer.getWidth() && component.getHeight() == buffer.getHeight();
+	}
+	
+	/**
+	 * @return Komponente, auf der die fertigen Bilder dargestellt werden.
+	 * @since 0.6.0
+	 */
+	private Component getPresentingComponent() {
+		return canvas != null ? canvas : drawingSurface;
+	}
+	
+	/**
+	 * Fügt der angegebenen Komponente die Listener des InputHandlers hinzu.
+	 *
+	 * @param component Komponente, die Input empfangen soll
+	 * @since 0.6.0
+	 */
+	private void addInputListeners( Component component ) {
+		component.addKeyListener( input.getKeyboard() );
+		component.addMouseListener( input.getMouse() );
+		component.addMouseMotionListener( input.getMouseMovement() );
+		component.addMouseWheelListener( input.getMouse() );
+		component.setFocusable( true );
+	}
+	
+	
 }
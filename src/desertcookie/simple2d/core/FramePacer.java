@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.core;
+
+
+/**
+ * Strategie, mit der die Game Loops bis zum Beginn des nächsten Ticks bzw. Bildes warten.
+ *
+ * @since 0.6.0
+ */
+public interface FramePacer {
+	
+	
+	/**
+	 * Lässt den aufrufenden Thread bis zum angegebenen Zeitpunkt warten.
+	 *
+	 * @param deadline Zeitpunkt in Nanosekunden, gemessen mit {@link System#nanoTime()}
+	 * @throws InterruptedException wenn der Thread während des Wartens unterbrochen wurde
+	 * @since 0.6.0
+	 */
+	void sleepUntil( long deadline ) throws InterruptedException;
+	
+	/**
+	 * Misst die Genauigkeit der Wartemechanismen dieses Systems und passt die Strategie daran an. Wird beim Start des Spiels aufgerufen.
+	 *
+	 * @since 0.6.0
+	 */
+	default void calibrate() {
+	
+	}
+	
+	
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.core;
+
+
+import desertcookie.simple2d.rendering.SimpleGraphics;
+
+import java.awt.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Zeichnet für jedes Bild auf, wie viel Zeit in Update, Rendering, Präsentation, Warten und Garbage Collection verbracht wurde.
+ * Die Zeiten der letzten Bilder werden in einem Ringpuffer aus primitiven Arrays gehalten, in den nur der Render-Thread schreibt. Update-Zeiten aus dem Update-Thread werden über einen atomaren Zähler übergeben, sodass das Aufzeichnen weder Locks benötigt noch Objekte erzeugt.
+ *
+ * @since 0.6.0
+ */
+public class FrameProfiler {
+	
+	
+	/**
+	 * Phasen eines Bildes. {@code FRAME} ist die gesamte Dauer des Bildes einschließlich aller anderen Phasen.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int UPDATE = 0, RENDER = 1, PRESENT = 2, SLEEP = 3, GC = 4, FRAME = 5;
+	/**
+	 * Anzahl der Phasen.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int PHASE_COUNT = 6;
+	/**
+	 * Standardanzahl der Bilder, über die die Statistiken gebildet werden.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int DEFAULT_CAPACITY = 512;
+	
+	private static final Color BACKGROUND_COLOR = new Color( 0,0,0,160 ), TARGET_COLOR = new Color( 255,255,255,128 );
+	private static final Color[] PHASE_COLORS = { new Color( 70,130,255 ),new Color( 60,200,90 ),new Color( 240,190,40 ),null,new Color( 250,5,5 ) };
+	
+	private final int capacity;
+	private final long[][] samples;
+	private final long[] current;
+	private final AtomicLong pendingUpdate;
+	private final List<GarbageCollectorMXBean> collectors;
+	private volatile long frames;
+	private volatile boolean enabled;
+	private volatile long targetFrameTime;
+	private long frameStart, collectionTime;
+	
+	private final long[] sorted;
+	private int sortedPhase;
+	private long sortedFrames;
+	private int sortedCount;
+	private final char[] text;
+	
+	
+	/**
+	 * Konstruiert neuen FrameProfiler, der die letzten {@value #DEFAULT_CAPACITY} Bilder auswertet.
+	 *
+	 * @since 0.6.0
+	 */
+	public FrameProfiler() {
+		this( DEFAULT_CAPACITY );
+	}
+	
+	/**
+	 * Konstruiert neuen FrameProfiler.
+	 *
+	 * @param capacity Anzahl der Bilder, über die die Statistiken gebildet werden
+	 * @since 0.6.0
+	 */
+	public FrameProfiler( int capacity ) {
+		if( capacity < 2 )
+			throw new IllegalArgumentException( "The capacity must be at least 2!" );
+		this.capacity = capacity;
+		samples = new long[PHASE_COUNT][capacity];
+		current = new long[PHASE_COUNT];
+		pendingUpdate = new AtomicLong();
+		collectors = ManagementFactory.getGarbageCollectorMXBeans();
+		collectionTime = getCollectionTime();
+		enabled = true;
+		targetFrameTime = (long)(1e9 / 60);
+		sorted = new long[capacity];
+		sortedPhase = -1;
+		text = new char[64];
+	}
+	
+	
+	/**
+	 * Beginnt ein neues Bild. Wird vom Render-Thread aufgerufen.
+	 *
+	 * @since 0.6.0
+	 */
+	public void beginFrame() {
+		if( !enabled )
+			return;
+		Arrays.fill( current,0 );
+		frameStart = System.nanoTime();
+	}
+	
+	/**
+	 * Addiert die angegebene Zeit zur angegebenen Phase des aktuellen Bildes. Wird vom Render-Thread aufgerufen.
+	 *
+	 * @param phase Phase
+	 * @param nanos Zeit in Nanosekunden
+	 * @since 0.6.0
+	 */
+	public void record( int phase,long nanos ) {
+		if( enabled )
+			current[phase] += nanos;
+	}
+	
+	/**
+	 * Addiert die angegebene Zeit zur Update-Phase des nächsten abgeschlossenen Bildes. Darf von jedem Thread aufgerufen werden.
+	 *
+	 * @param nanos Zeit in Nanosekunden
+	 * @since 0.6.0
+	 */
+	public void recordUpdate( long nanos ) {
+		if( enabled )
+			pendingUpdate.addAndGet( nanos );
+	}
+	
+	/**
+	 * Schließt das aktuelle Bild ab und legt seine Zeiten im Ringpuffer ab. Wird vom Render-Thread aufgerufen.
+	 * Die Zeit für Garbage Collection ergibt sich aus der Differenz der von der JVM gemeldeten Gesamtzeit und ist daher nur auf die Millisekunde genau.
+	 *
+	 * @since 0.6.0
+	 */
+	public void endFrame() {
+		if( !enabled )
+			return;
+		long time = getCollectionTime();
+		current[GC] += (time - collectionTime) * 1000000;
+		collectionTime = time;
+		current[UPDATE] += pendingUpdate.getAndSet( 0 );
+		current[FRAME] = System.nanoTime() - frameStart;
+		
+		int slot = (int)(frames % capacity);
+		for( int i = 0; i < PHASE_COUNT; i++ )
+			samples[i][slot] = current[i];
+		frames++;
+	}
+	
+	/**
+	 * @return {@code true} wenn Zeiten aufgezeichnet werden.
+	 * @since 0.6.0
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * Legt fest, ob Zeiten aufgezeichnet werden sollen.
+	 *
+	 * @param enabled {@code true} wenn Zeiten aufgezeichnet werden sollen
+	 * @since 0.6.0
+	 */
+	public void setEnabled( boolean enabled ) {
+		this.enabled = enabled;
+	}
+	
+	/**
+	 * @return Angestrebte Dauer eines Bildes in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	public long getTargetFrameTime() {
+		return targetFrameTime;
+	}
+	
+	/**
+	 * Setzt die angestrebte Dauer eines Bildes. Sie wird im Graphen als Linie dargestellt, der Graph reicht bis zur doppelten Dauer.
+	 *
+	 * @param targetFrameTime Angestrebte Dauer eines Bildes in Nanosekunden
+	 * @since 0.6.0
+	 */
+	public void setTargetFrameTime( long targetFrameTime ) {
+		this.targetFrameTime = Math.max( targetFrameTime,1 );
+	}
+	
+	/**
+	 * @return Anzahl der Bilder, über die die Statistiken gebildet werden.
+	 * @since 0.6.0
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	/**
+	 * @return Anzahl der seit dem Start bzw. dem letzten {@link #reset()} abgeschlossenen Bilder.
+	 * @since 0.6.0
+	 */
+	public long getFrameCount() {
+		return frames;
+	}
+	
+	/**
+	 * @param phase Phase
+	 * @return Zeit der angegebenen Phase im zuletzt abgeschlossenen Bild in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	public long getLast( int phase ) {
+		long count = frames;
+		return count == 0 ? 0 : samples[phase][(int)((count - 1) % capacity)];
+	}
+	
+	/**
+	 * @param phase      Phase
+	 * @param percentile Perzentil zwischen {@code 0} und {@code 100}
+	 * @return Zeit der angegebenen Phase in Nanosekunden, die der angegebene Anteil der letzten Bilder nicht überschritten hat. {@code 0} wenn noch kein Bild abgeschlossen wurde.
+	 * @since 0.6.0
+	 */
+	public synchronized long getPercentile( int phase,double percentile ) {
+		sort( phase );
+		if( sortedCount == 0 )
+			return 0;
+		int index = (int)Math.ceil( sortedCount * Math.min( Math.max( percentile,0 ),100 ) / 100.0 ) - 1;
+		return sorted[Math.max( index,0 )];
+	}
+	
+	/**
+	 * @param phase Phase
+	 * @return Größte Zeit der angegebenen Phase in den letzten Bildern in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	public synchronized long getMax( int phase ) {
+		sort( phase );
+		return sortedCount == 0 ? 0 : sorted[sortedCount - 1];
+	}
+	
+	/**
+	 * @param phase Phase
+	 * @return Durchschnittliche Zeit der angegebenen Phase in den letzten Bildern in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	public synchronized double getMean( int phase ) {
+		sort( phase );
+		long sum = 0;
+		for( int i = 0; i < sortedCount; i++ )
+			sum += sorted[i];
+		return sortedCount == 0 ? 0 : sum / (double)sortedCount;
+	}
+	
+	/**
+	 * Verwirft alle aufgezeichneten Bilder. Wird vom Render-Thread aufgerufen.
+	 *
+	 * @since 0.6.0
+	 */
+	public synchronized void reset() {
+		frames = 0;
+		sortedPhase = -1;
+		pendingUpdate.set( 0 );
+		collectionTime = getCollectionTime();
+	}
+	
+	/**
+	 * Rendert einen Graphen der Bildzeiten der letzten Bilder sowie die Perzentile der Bilddauer in den angegebenen Bereich.
+	 * Jedes Bild wird als ein Pixel breiter Balken aus Update, Rendering, Präsentation und Garbage Collection dargestellt. Es werden keine Objekte erzeugt.
+	 *
+	 * @param graphics Schnittstelle für Rendering
+	 * @param x        Horizontale Position in Pixeln
+	 * @param y        Vertikale Position in Pixeln
+	 * @param w        Horizontale Größe in Pixeln
+	 * @param h        Vertikale Größe in Pixeln, davon 12 Pixel für die Beschriftung
+	 * @since 0.6.0
+	 */
+	public void render( SimpleGraphics graphics,double x,double y,double w,double h ) {
+		double graphH = h - 12;
+		double range = targetFrameTime * 2.0;
+		graphics.setColor( BACKGROUND_COLOR );
+		graphics.fillRect( x,y,w,graphH );
+		
+		long count = frames;
+		int shown = (int)Math.min( Math.min( count,capacity - 1 ),(long)w );
+		for( int i = 0; i < shown; i++ ) {
+			int slot = (int)((count - shown + i) % capacity);
+			double bottom = y + graphH;
+			for( int phase = UPDATE; phase <= GC; phase++ ) {
+				if( PHASE_COLORS[phase] == null )
+					continue;
+				double barH = Math.min( samples[phase][slot] / range * graphH,bottom - y );
+				if( barH <= 0 )
+					continue;
+				graphics.setColor( PHASE_COLORS[phase] );
+				graphics.fillRect( x + w - shown + i,bottom - barH,1,barH );
+				bottom -= barH;
+			}
+		}
+		graphics.setColor( TARGET_COLOR );
+		graphics.fillRect( x,y + graphH / 2,w,1 );
+		
+		int length = appendText( 0,"p50 " );
+		length = appendMillis( length,getPercentile( FRAME,50 ) );
+		length = appendText( length," p95 " );
+		length = appendMillis( length,getPercentile( FRAME,95 ) );
+		length = appendText( length," p99 " );
+		length = appendMillis( length,getPercentile( FRAME,99 ) );
+		length = appendText( length," max " );
+		length = appendMillis( length,getMax( FRAME ) );
+		length = appendText( length," ms" );
+		graphics.setColor( PHASE_COLORS[GC] );
+		graphics.drawChars( text,0,length,x,y + h );
+	}
+	
+	@Override
+	public String toString() {
+		return String.format( "n=%d p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",getFrameCount(),getPercentile( FRAME,50 ) / 1e6,getPercentile( FRAME,95 ) / 1e6,getPercentile( FRAME,99 ) / 1e6,getMax( FRAME ) / 1e6 );
+	}
+	
+	
+	/**
+	 * Schreibt die angegebene Zahl mit einer Nachkommastelle in das angegebene Array, ohne Objekte zu erzeugen. Interne Methode.
+	 *
+	 * @param chars  Array, in das geschrieben wird
+	 * @param offset Index, ab dem geschrieben wird
+	 * @param value  Zahl
+	 * @return Index hinter dem letzten geschriebenen Zeichen.
+	 * @since 0.6.0
+	 */
+	static int formatDecimal( char[] chars,int offset,double value ) {
+		long tenths = Math.round( Math.min( Math.abs( value ),1e15 ) * 10 );
+		if( value < 0 && tenths != 0 )
+			chars[offset++] = '-';
+		int start = offset;
+		chars[offset++] = (char)('0' + tenths % 10);
+		chars[offset++] = '.';
+		tenths /= 10;
+		do {
+			chars[offset++] = (char)('0' + tenths % 10);
+			tenths /= 10;
+		} while( tenths != 0 );
+		for( int i = start, j = offset - 1; i < j; i++, j-- ) {
+			char c = chars[i];
+			chars[i] = chars[j];
+			chars[j] = c;
+		}
+		return offset;
+	}
+	
+	
+	/**
+	 * Kopiert die Zeiten der angegebenen Phase aus den letzten Bildern sortiert in den Zwischenspeicher, sofern dort nicht bereits der aktuelle Stand liegt.
+	 *
+	 * @param phase Phase
+	 * @since 0.6.0
+	 */
+	private void sort( int phase ) {
+		long count = frames;
+		if( phase == sortedPhase && count == sortedFrames )
+			return;
+		// Ohne das älteste Bild, da dessen Platz gerade neu beschrieben werden könnte
+		sortedCount = (int)Math.min( count,capacity - 1 );
+		for( int i = 0; i < sortedCount; i++ )
+			sorted[i] = samples[phase][(int)((count - sortedCount + i) % capacity)];
+		Arrays.sort( sorted,0,sortedCount );
+		sortedPhase = phase;
+		sortedFrames = count;
+	}
+	
+	/**
+	 * @return Von allen Garbage Collectoren insgesamt gemeldete Zeit in Millisekunden.
+	 * @since 0.6.0
+	 */
+	private long getCollectionTime() {
+		long time = 0;
+		for( int i = 0; i < collectors.size(); i++ )
+			time += Math.max( collectors.get( i ).getCollectionTime(),0 );
+		return time;
+	}
+	
+	/**
+	 * Schreibt den angegebenen Text in die Beschriftung.
+	 *
+	 * @param offset Index, ab dem geschrieben wird
+	 * @param s      Text
+	 * @return Index hinter dem letzten geschriebenen Zeichen.
+	 * @since 0.6.0
+	 */
+	private int appendText( int offset,String s ) {
+		s.getChars( 0,s.length(),text,offset );
+		return offset + s.length();
+	}
+	
+	/**
+	 * Schreibt die angegebene Zeit in Millisekunden mit einer Nachkommastelle in die Beschriftung.
+	 *
+	 * @param offset Index, ab dem geschrieben wird
+	 * @param nanos  Zeit in Nanosekunden
+	 * @return Index hinter dem letzten geschriebenen Zeichen.
+	 * @since 0.6.0
+	 */
+	private int appendMillis( int offset,long nanos ) {
+		return formatDecimal( text,offset,nanos / 1e6 );
+	}
+	
+	
+}
@@ -27,6 +27,9 @@ package desertcookie.simple2d.core;
 
 import desertcookie.simple2d.Simple2D;
 import desertcookie.simple2d.input.InputHandler;
+import desertcookie.simple2d.monitoring.FrameEvent;
+import desertcookie.simple2d.monitoring.TickEvent;
+import desertcookie.simple2d.rendering.DirtyRegion;
 import desertcookie.simple2d.rendering.SimpleGraphics;
 import desertcookie.util.ExceptionHandler;
 import desertcookie.util.LogWriter;
@@ -42,16 +45,30 @@ import java.awt.*;
 public abstract class Game {
 	
 	
+	private static final Color DEBUG_COLOR = new Color( 250,5,5 );
+	private static final int DEBUG_WIDTH = 360, DEBUG_HEIGHT = 110;
+	private static final char[] debugText = new char[32];
+	
 	private static Display display;
 	private static GameSceneHandler sceneHandler;
 	private static InputHandler inputHandler;
-	private static LogWriter logWriter;
+	private static AsyncLogWriter logWriter;
 	
-	private static boolean run;
+	private static volatile boolean run;
 	private static double maxTps, maxFps;
 	private static double tps, fps;
 	private static boolean drawDebug;
 	
+	private static boolean fixedTimestep, unthrottled;
+	private static int maxCatchUpTicks;
+	// Zeitpunkt, an dem der Fortschritt 0 war. Ein einzelner Wert, damit der Render Loop nie Akkumulator und Zeitpunkt verschiedener Ticks kombiniert
+	private static volatile long alphaZeroTime, timePerTick;
+	
+	private static FramePacer framePacer;
+	private static PacingHistogram updatePacing, renderPacing;
+	private static FrameProfiler profiler;
+	private static volatile int drawCalls;
+	
 	
 	/**
 	 * Konstruiert neues Game mit Standardwerten für FPS- und TPS-Limit von 60Hz.
@@ -59,15 +76,30 @@ public abstract class Game {
 	 * @since 0.4.7
 	 */
 	public Game() {
-		display = new Display();
+		this( false );
+	}
+	
+	/**
+	 * Konstruiert neues Game mit Standardwerten für FPS- und TPS-Limit von 60Hz.
+	 *
+	 * @param headless {@code true} um statt eines Fensters ein {@link HeadlessDisplay} zu verwenden, das ohne Bildschirm in ein Bild im Speicher rendert
+	 * @since 0.6.0
+	 */
+	public Game( boolean headless ) {
+		display = headless ? new HeadlessDisplay() : new Display();
 		sceneHandler = new GameSceneHandler();
 		inputHandler = new InputHandler();
 		display.setInputListeners( inputHandler );
-		logWriter = new LogWriter( "game.log","Dies ist eine automatisch generierte Log-Datei. Sie zeichnet alle wichtigen und außergewöhnlichen Vorkommnisse innerhalb des Spiels auf.\nRunning on: Simple2D v" + Simple2D.VERSION_STRING );
+		logWriter = new AsyncLogWriter( "game.log","Dies ist eine automatisch generierte Log-Datei. Sie zeichnet alle wichtigen und außergewöhnlichen Vorkommnisse innerhalb des Spiels auf.\nRunning on: Simple2D v" + Simple2D.VERSION_STRING );
 		ExceptionHandler.addLogWriter( logWriter );
 		
 		maxTps = 60;
 		maxFps = 60;
+		maxCatchUpTicks = 5;
+		framePacer = new HybridFramePacer();
+		updatePacing = new PacingHistogram();
+		renderPacing = new PacingHistogram();
+		profiler = new FrameProfiler();
 	}
 	
 	
@@ -119,6 +151,49 @@ public abstract class Game {
 		return fps;
 	}
 	
+	/**
+	 * @return Histogramm der Abweichungen, um die der Update Loop später als geplant aufgewacht ist.
+	 * @since 0.6.0
+	 */
+	public static PacingHistogram getUpdatePacingHistogram() {
+		return updatePacing;
+	}
+	
+	/**
+	 * @return Histogramm der Abweichungen, um die der Render Loop später als geplant aufgewacht ist.
+	 * @since 0.6.0
+	 */
+	public static PacingHistogram getRenderPacingHistogram() {
+		return renderPacing;
+	}
+	
+	/**
+	 * @return FrameProfiler, der die Zeiten der einzelnen Phasen jedes Bildes aufzeichnet.
+	 * @since 0.6.0
+	 */
+	public static FrameProfiler getFrameProfiler() {
+		return profiler;
+	}
+	
+	/**
+	 * @return Anzahl der Render-Aufrufe im letzten Bild.
+	 * @since 0.6.0
+	 */
+	public static int getDrawCalls() {
+		return drawCalls;
+	}
+	
+	/**
+	 * @return Fortschritt zwischen dem letzten und dem nächsten festen Update-Schritt zwischen {@code 0} und {@code 1}. Ist immer {@code 1}, wenn kein fester Zeitschritt verwendet wird.
+	 * @since 0.6.0
+	 */
+	public static double getInterpolationAlpha() {
+		if( !fixedTimestep || timePerTick <= 0 )
+			return 1;
+		double alpha = (System.nanoTime() - alphaZeroTime) / (double)timePerTick;
+		return alpha < 1 ? alpha : 1;
+	}
+	
 	
 	/**
 	 * @return {@code true} wenn der Game Loop momentan läuft.
@@ -182,6 +257,79 @@ public abstract class Game {
 		Game.drawDebug = drawDebug;
 	}
 	
+	/**
+	 * @return {@code true} wenn Updates mit einem festen Zeitschritt von {@code 1 / maxTps} Sekunden ausgeführt werden.
+	 * @since 0.6.0
+	 */
+	public boolean getFixedTimestep() {
+		return fixedTimestep;
+	}
+	
+	/**
+	 * Setzt die Eigenschaft des Spiels, ob Updates mit einem festen Zeitschritt von {@code 1 / maxTps} Sekunden ausgeführt werden sollen. Verpasste Schritte werden nachgeholt, die Render-Methode der aktiven Szene erhält den Fortschritt zum nächsten Schritt für Interpolation.
+	 *
+	 * @param fixedTimestep {@code true} wenn ein fester Zeitschritt verwendet werden soll
+	 * @since 0.6.0
+	 */
+	public void setFixedTimestep( boolean fixedTimestep ) {
+		Game.fixedTimestep = fixedTimestep;
+	}
+	
+	/**
+	 * @return Anzahl der Update-Schritte, die pro Durchlauf maximal nachgeholt werden.
+	 * @since 0.6.0
+	 */
+	public int getMaxCatchUpTicks() {
+		return maxCatchUpTicks;
+	}
+	
+	/**
+	 * Setzt die Anzahl der Update-Schritte, die mit festem Zeitschritt pro Durchlauf maximal nachgeholt werden. Weitere verpasste Schritte werden verworfen, damit ein überlastetes Spiel nicht immer weiter zurückfällt.
+	 *
+	 * @param maxCatchUpTicks Maximale Anzahl nachgeholter Update-Schritte, mindestens {@code 1}
+	 * @since 0.6.0
+	 */
+	public void setMaxCatchUpTicks( int maxCatchUpTicks ) {
+		Game.maxCatchUpTicks = Math.max( 1,maxCatchUpTicks );
+	}
+	
+	/**
+	 * @return {@code true} wenn die Game Loops nicht auf den nächsten Tick bzw. das nächste Bild warten.
+	 * @since 0.6.0
+	 */
+	public boolean getUnthrottled() {
+		return unthrottled;
+	}
+	
+	/**
+	 * Setzt die Eigenschaft des Spiels, ob die Game Loops ohne Pause so schnell wie möglich laufen sollen, beispielsweise für Simulationen mit einem {@link HeadlessDisplay}.
+	 * Mit festem Zeitschritt wird dann jeder Durchlauf genau ein Schritt von {@code 1 / maxTps} Sekunden simuliert, unabhängig von der tatsächlich vergangenen Zeit.
+	 *
+	 * @param unthrottled {@code true} wenn die Game Loops nicht warten sollen
+	 * @since 0.6.0
+	 */
+	public void setUnthrottled( boolean unthrottled ) {
+		Game.unthrottled = unthrottled;
+	}
+	
+	/**
+	 * @return FramePacer, mit dem die Game Loops auf den nächsten Tick bzw. das nächste Bild warten.
+	 * @since 0.6.0
+	 */
+	public FramePacer getFramePacer() {
+		return framePacer;
+	}
+	
+	/**
+	 * Setzt den FramePacer, mit dem die Game Loops auf den nächsten Tick bzw. das nächste Bild warten. Muss vor {@link #startGame()} gesetzt werden.
+	 *
+	 * @param framePacer FramePacer der genutzt werden soll
+	 * @since 0.6.0
+	 */
+	public void setFramePacer( FramePacer framePacer ) {
+		Game.framePacer = framePacer;
+	}
+	
 	/**
 	 * Startet das Spiel. Diese Methode sollte als letzte, innerhalb der Mainmethode aufgerufen werden, da nachfolgender Code erst nach Beendung des Spiels ausgeführt wird.
 	 *
@@ -189,6 +337,7 @@ public abstract class Game {
 	 */
 	public void startGame() {
 		logWriter.write( "Starte spiel..." );
+		framePacer.calibrate();
 		run = true;
 		display.prepareDisplay();
 		display.setVisible( true );
@@ -206,10 +355,12 @@ public abstract class Game {
 	public static void stopGame() {
 		logWriter.write( "Stoppe spiel..." );
 		run = false;
+		inputHandler.stopRecording();
 		sceneHandler.exitScenes();
 		display.cleanUp();
 		sceneHandler.cleanUp();
 		logWriter.write( "Spiel gestoppt!" );
+		logWriter.flush();
 	}
 	
 	
@@ -222,29 +373,44 @@ public abstract class Game {
 		Thread thread = new Thread( new Runnable() {
 			@Override
 			public void run() {
-				double[] deltaTime = new double[2];
-				int currentPos = 0;
 				final long TIME_PER_TICK = (long)(1e9 / maxTps);
 				long lastTime = System.nanoTime();
 				long thisTime;
 				long elapsedTime;
+				long accumulator = 0;
+				int ticks;
 				
+				timePerTick = TIME_PER_TICK;
 				while( run ) {
 					thisTime = System.nanoTime();
 					elapsedTime = thisTime - lastTime;
 					lastTime = thisTime;
-					deltaTime[currentPos] = elapsedTime / 1e9;
-					if( currentPos == 0 )
-						currentPos = 1;
-					else if( currentPos == 1 )
-						currentPos = 0;
-					sleep( TIME_PER_TICK - elapsedTime );
-					if( elapsedTime < TIME_PER_TICK )
-						tps = 1e9 / (elapsedTime + (TIME_PER_TICK - elapsedTime));
-					else
-						tps = 1e9 / elapsedTime;
 					
-					sceneHandler.updateActiveScene( (deltaTime[0] + deltaTime[1]),inputHandler );
+					if( fixedTimestep && unthrottled ) {
+						tick( TIME_PER_TICK / 1e9 );
+						alphaZeroTime = thisTime;
+						tps = 1e9 / Math.max( elapsedTime,1 );
+					} else if( fixedTimestep ) {
+						accumulator += elapsedTime;
+						ticks = 0;
+						while( accumulator >= TIME_PER_TICK && ticks < maxCatchUpTicks ) {
+							tick( TIME_PER_TICK / 1e9 );
+							accumulator -= TIME_PER_TICK;
+							ticks++;
+						}
+						// Schritte, die über das Limit hinaus verpasst wurden, werden verworfen
+						if( accumulator >= TIME_PER_TICK )
+							accumulator %= TIME_PER_TICK;
+						alphaZeroTime = thisTime - accumulator;
+						if( ticks > 0 )
+							tps = ticks * 1e9 / Math.max( elapsedTime,TIME_PER_TICK );
+						sleep( TIME_PER_TICK - accumulator - (System.nanoTime() - thisTime),updatePacing );
+					} else {
+						accumulator = 0;
+						tps = 1e9 / Math.max( elapsedTime,unthrottled ? 1 : TIME_PER_TICK );
+						tick( elapsedTime / 1e9 );
+						sleep( TIME_PER_TICK - (System.nanoTime() - thisTime),updatePacing );
+					}
 				}
 			}
 		} );
@@ -260,29 +426,62 @@ public abstract class Game {
 		SimpleGraphics graphics = display.createSimpleGraphics();
 		Font oldFont;
 		Font debugFont = new Font( "Courier New",Font.PLAIN,15 );
+		DirtyRegion damage = new DirtyRegion();
 		
 		final long TIME_PER_TICK = (long)(1e9 / maxFps);
 		long lastTime = System.nanoTime();
 		long thisTime;
 		long elapsedTime;
+		long phaseStart;
+		long lastDrawCalls = 0;
+		FrameEvent frameEvent;
 		
+		profiler.setTargetFrameTime( TIME_PER_TICK );
 		while( run ) {
 			thisTime = System.nanoTime();
 			elapsedTime = thisTime - lastTime;
 			lastTime = thisTime;
-			sleep( TIME_PER_TICK - elapsedTime );
-			if( elapsedTime < TIME_PER_TICK )
-				fps = 1e9 / (elapsedTime + (TIME_PER_TICK - elapsedTime));
-			else
-				fps = 1e9 / elapsedTime;
+			frameEvent = FrameEvent.start();
+			profiler.beginFrame();
+			phaseStart = thisTime;
+			fps = 1e9 / Math.max( elapsedTime,1 );
 			
-			sceneHandler.renderActiveScene( graphics );
-			oldFont = graphics.getFont();
-			graphics.setFont( debugFont );
-			drawDebug( graphics );
-			graphics.setFont( oldFont );
-			display.switchBuffers();
-			graphics.resetBuffer();
+			if( display.getDamageTracking() ) {
+				if( drawDebug )
+					display.getDirtyRegion().add( 0,0,DEBUG_WIDTH,DEBUG_HEIGHT );
+				display.getDirtyRegion().drainTo( damage,graphics.getScale(),display.getWidth(),display.getHeight() );
+				if( !damage.isEmpty() ) {
+					graphics.setClip( damage );
+					graphics.resetBuffer();
+					sceneHandler.renderActiveScene( graphics,getInterpolationAlpha() );
+					oldFont = graphics.getFont();
+					graphics.setFont( debugFont );
+					drawDebug( graphics );
+					graphics.setFont( oldFont );
+					graphics.resetClip();
+					phaseStart = profile( FrameProfiler.RENDER,phaseStart );
+					display.switchBuffers( damage );
+					profile( FrameProfiler.PRESENT,phaseStart );
+				}
+			} else {
+				sceneHandler.renderActiveScene( graphics,getInterpolationAlpha() );
+				oldFont = graphics.getFont();
+				graphics.setFont( debugFont );
+				drawDebug( graphics );
+				graphics.setFont( oldFont );
+				phaseStart = profile( FrameProfiler.RENDER,phaseStart );
+				display.switchBuffers();
+				graphics.resetBuffer();
+				profile( FrameProfiler.PRESENT,phaseStart );
+			}
+			phaseStart = System.nanoTime();
+			sleep( TIME_PER_TICK - (phaseStart - thisTime),renderPacing );
+			profile( FrameProfiler.SLEEP,phaseStart );
+			profiler.endFrame();
+			drawCalls = (int)(graphics.getDrawCallCount() - lastDrawCalls);
+			lastDrawCalls = graphics.getDrawCallCount();
+			if( frameEvent != null )
+				frameEvent.record( profiler,drawCalls );
 			
 			if( display.closed )
 				run = false;
@@ -290,27 +489,57 @@ public abstract class Game {
 		stopGame();
 	}
 	
+	/**
+	 * Führt einen Tick aus. Vorher werden alle seit dem letzten Tick eingegangenen Input-Events übernommen.
+	 *
+	 * @param deltaTime Vergangene Zeit in Sekunden
+	 * @since 0.6.0
+	 */
+	private static void tick( double deltaTime ) {
+		TickEvent event = TickEvent.start();
+		long start = System.nanoTime();
+		inputHandler.poll();
+		sceneHandler.updateActiveScene( deltaTime,inputHandler );
+		profiler.recordUpdate( System.nanoTime() - start );
+		if( event != null )
+			event.record( deltaTime );
+	}
+	
+	/**
+	 * Zeichnet die seit dem angegebenen Zeitpunkt vergangene Zeit für die angegebene Phase auf.
+	 *
+	 * @param phase Phase des FrameProfilers
+	 * @param start Beginn der Phase in Nanosekunden
+	 * @return Ende der Phase in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	private static long profile( int phase,long start ) {
+		long end = System.nanoTime();
+		profiler.record( phase,end - start );
+		return end;
+	}
+	
 	/**
 	 * Lässt den aufrufenden Thread für die angegebene Zeit pausieren.
 	 *
-	 * @param time Zeit in Nanosekunden
+	 * @param time      Zeit in Nanosekunden
+	 * @param histogram Histogramm, in dem die Verspätung beim Aufwachen aufgezeichnet wird
 	 * @since 0.1.9
 	 */
-	private static void sleep( long time ) {
-		if( time <= 0 )
+	private static void sleep( long time,PacingHistogram histogram ) {
+		if( time <= 0 || unthrottled )
 			return;
-		int millis = (int)(time / 1e6);
-		int nanos = (int)(time - millis * 1e6);
+		long deadline = System.nanoTime() + time;
 		try {
-			Thread.sleep( millis,nanos );
+			framePacer.sleepUntil( deadline );
 		} catch( InterruptedException e ) {
 			ExceptionHandler.handle( e,"Ein anderer Prozess hat das Spiel kurzzeitig angehalten",false );
-			updateLoop();
 		}
+		histogram.record( System.nanoTime() - deadline );
 	}
 	
 	/**
-	 * Rendert ein einfaches Debug-Menü.
+	 * Rendert ein einfaches Debug-Menü mit dem Graphen des FrameProfilers.
 	 *
 	 * @param graphics Schnittstelle für Rendering
 	 * @since 0.4.7
@@ -318,9 +547,25 @@ public abstract class Game {
 	private static void drawDebug( SimpleGraphics graphics ) {
 		if( !drawDebug )
 			return;
-		graphics.setColor( new Color( 250,5,5 ) );
-		graphics.drawString( String.format( "TPS: %.1f",tps ),5,15 );
-		graphics.drawString( String.format( "FPS: %.1f",fps ),5,25 );
+		graphics.setColor( DEBUG_COLOR );
+		drawDebugValue( graphics,"TPS: ",tps,15 );
+		drawDebugValue( graphics,"FPS: ",fps,25 );
+		profiler.render( graphics,5,30,DEBUG_WIDTH - 10,DEBUG_HEIGHT - 35 );
+	}
+	
+	/**
+	 * Rendert eine Zeile des Debug-Menüs mit einer Nachkommastelle. Der Text wird in einem wiederverwendeten Array zusammengesetzt, sodass pro Bild keine Objekte erzeugt werden.
+	 *
+	 * @param graphics Schnittstelle für Rendering
+	 * @param label    Bezeichnung vor dem Wert
+	 * @param value    Wert
+	 * @param y        Vertikale Position in Pixeln
+	 * @since 0.6.0
+	 */
+	private static void drawDebugValue( SimpleGraphics graphics,String label,double value,double y ) {
+		label.getChars( 0,label.length(),debugText,0 );
+		int length = FrameProfiler.formatDecimal( debugText,label.length(),value );
+		graphics.drawChars( debugText,0,length,5,y );
 	}
 	
 	
@@ -68,6 +68,18 @@ public abstract class GameScene {
 	 */
 	public abstract void render( SimpleGraphics graphics );
 	
+	/**
+	 * Methode für Render-Code mit Interpolation, die regelmäßig vom Game Loop aufgerufen wird, wenn diese Szene die aktive Szene im GameSceneHandler ist. Ruft standardmäßig {@link #render(SimpleGraphics)} auf.
+	 * Bei festem Zeitschritt (siehe {@link Game#setFixedTimestep(boolean)}) können Positionen zwischen dem letzten und dem aktuellen Update-Zustand mit {@code alpha} interpoliert werden.
+	 *
+	 * @param graphics Schnittstelle für Rendering
+	 * @param alpha    Fortschritt zwischen dem letzten und dem nächsten Update zwischen {@code 0} und {@code 1}
+	 * @since 0.6.0
+	 */
+	public void render( SimpleGraphics graphics,double alpha ) {
+		render( graphics );
+	}
+	
 	
 	/**
 	 * Wird aufgerufen wenn diese Szene über den GameSceneHandler als aktive Szene gesetzt wird.
@@ -35,6 +35,7 @@ import java.util.HashMap;
 
 /**
  * Klasse, die alle Spielszenen verwaltet.
+ * Die aktive Szene wird vom Update Loop aktualisiert und vom Render Loop gerendert. Szenen, die von {@link BufferedGameScene} erben, übergeben ihren Zustand dabei ohne Locks über einen Dreifach-Puffer.
  *
  * @since 0.1.9
  */
@@ -42,7 +43,8 @@ public class GameSceneHandler {
 	
 	
 	private HashMap<Integer,GameScene> registeredScenes;
-	private GameScene activeScene;
+	private volatile GameScene activeScene;
+	private SplashScreen splashScreen;
 	
 	
 	/**
@@ -52,7 +54,8 @@ public class GameSceneHandler {
 	 */
 	GameSceneHandler() {
 		registeredScenes = new HashMap<>();
-		activeScene = new SplashScreen();
+		splashScreen = new SplashScreen();
+		activeScene = splashScreen;
 	}
 	
 	
@@ -90,6 +93,14 @@ public class GameSceneHandler {
 		removeScene( scene.getSceneId() );
 	}
 	
+	/**
+	 * @return Ladebildschirm, der beim Start des Spiels aktiv ist, beispielsweise um ihm den Fortschritt beim Laden von Texturen zu melden.
+	 * @since 0.6.0
+	 */
+	public SplashScreen getSplashScreen() {
+		return splashScreen;
+	}
+	
 	/**
 	 * Setzt die aktive Szene, die dann vom Game Loop geupdated und gerendert wird.
 	 *
@@ -100,7 +111,11 @@ public class GameSceneHandler {
 		activeScene.leaveScene();
 		activeScene = null;
 		scene.enterScene();
+		if( scene instanceof BufferedGameScene )
+			((BufferedGameScene<?>)scene).prepareStateBuffer();
 		activeScene = scene;
+		if( Game.getDisplay() != null )
+			Game.getDisplay().getDirtyRegion().invalidateAll();
 	}
 	
 	/**
@@ -124,19 +139,25 @@ public class GameSceneHandler {
 	 * @since 0.1.9
 	 */
 	void updateActiveScene( double dt,InputHandler input ) {
-		if( activeScene != null )
-			activeScene.update( dt,input );
+		GameScene scene = activeScene;
+		if( scene == null )
+			return;
+		scene.update( dt,input );
+		if( scene instanceof BufferedGameScene )
+			((BufferedGameScene<?>)scene).publishState();
 	}
 	
 	/**
 	 * Rendert die aktive GameScene. Interne Methode.
 	 *
 	 * @param graphics Schnittstelle für Rendering
+	 * @param alpha    Fortschritt zwischen dem letzten und dem nächsten Update zwischen {@code 0} und {@code 1}
 	 * @since 0.1.9
 	 */
-	void renderActiveScene( SimpleGraphics graphics ) {
-		if( activeScene != null )
-			activeScene.render( graphics );
+	void renderActiveScene( SimpleGraphics graphics,double alpha ) {
+		GameScene scene = activeScene;
+		if( scene != null )
+			scene.render( graphics,alpha );
 	}
 	
 	/**
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.core;
+
+
+import desertcookie.simple2d.input.InputHandler;
+import desertcookie.simple2d.rendering.DirtyRegion;
+import desertcookie.simple2d.rendering.SimpleGraphics;
+import desertcookie.util.ExceptionHandler;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+
+
+/**
+ * Display ohne Fenster, das in ein Bild im Speicher rendert. Benötigt keinen Bildschirm und kann daher auch auf Servern oder in automatisierten Tests verwendet werden.
+ * Das zuletzt fertig gerenderte Bild kann mit {@link #getPixels()} als Pixel-Array abgefragt oder mit {@link #writeFrame(File)} gespeichert werden.
+ *
+ * @since 0.6.0
+ */
+public class HeadlessDisplay extends Display {
+	
+	
+	private String title;
+	private int width, height;
+	private BufferedImage buffer;
+	private int[] frame;
+	private long frameCount, frameLimit;
+	private File frameDirectory;
+	
+	
+	/**
+	 * Konstruiert neues HeadlessDisplay. Interner Konstruktor.
+	 *
+	 * @since 0.6.0
+	 */
+	HeadlessDisplay() {
+		super( false );
+		title = "";
+		width = 800;
+		height = 600;
+	}
+	
+	
+	@Override
+	public String getTitle() {
+		return title;
+	}
+	
+	@Override
+	public void setTitle( String title ) {
+		this.title = title;
+	}
+	
+	@Override
+	public int getWidth() {
+		return width;
+	}
+	
+	@Override
+	public void setWidth( int width ) {
+		setSize( width,height );
+	}
+	
+	@Override
+	public int getHeight() {
+		return height;
+	}
+	
+	@Override
+	public void setHeight( int height ) {
+		setSize( width,height );
+	}
+	
+	@Override
+	public synchronized void setSize( int width,int height ) {
+		this.width = width;
+		this.height = height;
+	}
+	
+	@Override
+	public boolean getResizable() {
+		return false;
+	}
+	
+	@Override
+	public void setResizable( boolean resizable ) {
+	
+	}
+	
+	
+	/**
+	 * @return Anzahl der bisher fertig gerenderten Bilder.
+	 * @since 0.6.0
+	 */
+	public synchronized long getFrameCount() {
+		return frameCount;
+	}
+	
+	/**
+	 * @return Anzahl der Bilder, nach denen das Spiel automatisch beendet wird, oder {@code 0} ohne Begrenzung.
+	 * @since 0.6.0
+	 */
+	public synchronized long getFrameLimit() {
+		return frameLimit;
+	}
+	
+	/**
+	 * Setzt die Anzahl der Bilder, nach denen das Spiel automatisch beendet wird, beispielsweise um eine feste Anzahl von Bildern zu rendern.
+	 *
+	 * @param frameLimit Anzahl der Bilder oder {@code 0} ohne Begrenzung
+	 * @since 0.6.0
+	 */
+	public synchronized void setFrameLimit( long frameLimit ) {
+		this.frameLimit = Math.max( 0,frameLimit );
+	}
+	
+	/**
+	 * @return Verzeichnis, in das jedes fertige Bild gespeichert wird, oder {@code null}.
+	 * @since 0.6.0
+	 */
+	public synchronized File getFrameDirectory() {
+		return frameDirectory;
+	}
+	
+	/**
+	 * Setzt das Verzeichnis, in das jedes fertige Bild als {@code frame_<Nummer>.png} gespeichert wird. Das Speichern findet auf dem Render-Thread statt und begrenzt daher die Bildrate.
+	 *
+	 * @param frameDirectory Verzeichnis oder {@code null}, um keine Bilder zu speichern
+	 * @since 0.6.0
+	 */
+	public synchronized void setFrameDirectory( File frameDirectory ) {
+		if( frameDirectory != null && !frameDirectory.isDirectory() && !frameDirectory.mkdirs() )
+			throw new IllegalArgumentException( "Could not create frame directory " + frameDirectory + "!" );
+		this.frameDirectory = frameDirectory;
+	}
+	
+	/**
+	 * @return Kopie des zuletzt fertig gerenderten Bildes als ARGB-Pixel zeilenweise von oben links, oder {@code null} wenn noch kein Bild fertig ist.
+	 * @since 0.6.0
+	 */
+	public synchronized int[] getPixels() {
+		return frame == null ? null : frame.clone();
+	}
+	
+	/**
+	 * Kopiert das zuletzt fertig gerenderte Bild in das angegebene Array, um wiederholte Speicherreservierungen zu vermeiden.
+	 *
+	 * @param pixels Array mit mindestens {@code width * height} Einträgen, das die ARGB-Pixel zeilenweise von oben links erhält
+	 * @return {@code true} wenn ein Bild kopiert wurde.
+	 * @since 0.6.0
+	 */
+	public synchronized boolean getPixels( int[] pixels ) {
+		if( frame == null )
+			return false;
+		System.arraycopy( frame,0,pixels,0,frame.length );
+		return true;
+	}
+	
+	/**
+	 * Speichert das zuletzt fertig gerenderte Bild als PNG-Datei.
+	 *
+	 * @param file Zieldatei
+	 * @return {@code true} wenn das Bild gespeichert wurde.
+	 * @since 0.6.0
+	 */
+	public boolean writeFrame( File file ) {
+		BufferedImage image;
+		synchronized( this ) {
+			if( frame == null )
+				return false;
+			image = new BufferedImage( buffer.getWidth(),buffer.getHeight(),BufferedImage.TYPE_INT_ARGB );
+			image.setRGB( 0,0,image.getWidth(),image.getHeight(),frame,0,image.getWidth() );
+		}
+		try {
+			return ImageIO.write( image,"png",file );
+		} catch( IOException e ) {
+			ExceptionHandler.handle( e,"Fehler beim speichern eines Bildes",false );
+		}
+		return false;
+	}
+	
+	/**
+	 * Beendet das Spiel nach dem aktuellen Bild, wie beim Schließen eines Fensters.
+	 *
+	 * @since 0.6.0
+	 */
+	public void close() {
+		closed = true;
+	}
+	
+	
+	@Override
+	SimpleGraphics createSimpleGraphics() {
+		return new SimpleGraphics( buffer.createGraphics() );
+	}
+	
+	@Override
+	synchronized void prepareDisplay() {
+		buffer = new BufferedImage( width,height,BufferedImage.TYPE_INT_ARGB );
+	}
+	
+	@Override
+	void setVisible( boolean visible ) {
+	
+	}
+	
+	@Override
+	void setInputListeners( InputHandler input ) {
+	
+	}
+	
+	@Override
+	void switchBuffers( DirtyRegion region ) {
+		File file = null;
+		synchronized( this ) {
+			int[] pixels = ((DataBufferInt)buffer.getRaster().getDataBuffer()).getData();
+			if( frame == null )
+				frame = new int[pixels.length];
+			System.arraycopy( pixels,0,frame,0,pixels.length );
+			frameCount++;
+			if( frameDirectory != null )
+				file = new File( frameDirectory,String.format( "frame_%06d.png",frameCount ) );
+			if( frameLimit > 0 && frameCount >= frameLimit )
+				closed = true;
+		}
+		if( file != null )
+			writeFrame( file );
+	}
+	
+	@Override
+	void cleanUp() {
+	
+	}
+	
+	
+}
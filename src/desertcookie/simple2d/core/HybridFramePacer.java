@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.core;
+
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Genauer FramePacer, der in drei Stufen wartet: Zuerst grob mit {@link Thread#sleep(long)}, dann feiner mit {@link LockSupport#parkNanos(long)} und die letzten Mikrosekunden aktiv mit {@link Thread#yield()}.
+ * Die Grenzen zwischen den Stufen werden mit {@link #calibrate()} an die gemessene Ungenauigkeit des Systems angepasst.
+ *
+ * @since 0.6.0
+ */
+public class HybridFramePacer implements FramePacer {
+	
+	
+	private static final int CALIBRATION_SAMPLES = 40;
+	private static final long MAX_SLEEP_MARGIN = 4000000L, MAX_SPIN_WINDOW = 1000000L;
+	private static final long PARK_PROBE = 100000L;
+	
+	private volatile long sleepMargin;
+	private volatile long spinWindow;
+	
+	
+	/**
+	 * Konstruiert neuen HybridFramePacer mit vorsichtigen Standardwerten von 2ms für die Sleep-Reserve und 100µs für das aktive Warten.
+	 *
+	 * @since 0.6.0
+	 */
+	public HybridFramePacer() {
+		sleepMargin = 2000000L;
+		spinWindow = 100000L;
+	}
+	
+	
+	@Override
+	public void sleepUntil( long deadline ) throws InterruptedException {
+		long remaining = deadline - System.nanoTime();
+		if( remaining <= 0 )
+			return;
+		
+		if( remaining > sleepMargin + 1000000L )
+			Thread.sleep( (remaining - sleepMargin) / 1000000L );
+		while( (remaining = deadline - System.nanoTime()) > spinWindow ) {
+			LockSupport.parkNanos( remaining - spinWindow );
+			if( Thread.interrupted() )
+				throw new InterruptedException();
+		}
+		while( deadline - System.nanoTime() > 0 )
+			Thread.yield();
+	}
+	
+	/**
+	 * Misst die Verspätung von {@code Thread.sleep} und {@code LockSupport.parkNanos} und setzt die Stufengrenzen auf das 99. Perzentil der gemessenen Werte.
+	 *
+	 * @since 0.6.0
+	 */
+	@Override
+	public void calibrate() {
+		PacingHistogram sleepOvershoot = new PacingHistogram();
+		PacingHistogram parkOvershoot = new PacingHistogram();
+		long start;
+		try {
+			for( int i = 0; i < CALIBRATION_SAMPLES; i++ ) {
+				start = System.nanoTime();
+				Thread.sleep( 1 );
+				sleepOvershoot.record( System.nanoTime() - start - 1000000L );
+				
+				start = System.nanoTime();
+				LockSupport.parkNanos( PARK_PROBE );
+				parkOvershoot.record( System.nanoTime() - start - PARK_PROBE );
+			}
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		sleepMargin = Math.min( Math.max( sleepOvershoot.getPercentile( 99 ),0 ),MAX_SLEEP_MARGIN );
+		spinWindow = Math.min( Math.max( parkOvershoot.getPercentile( 99 ),0 ),MAX_SPIN_WINDOW );
+	}
+	
+	
+	/**
+	 * @return Zeit in Nanosekunden, die vor dem Ziel nicht mehr mit {@code Thread.sleep} gewartet wird.
+	 * @since 0.6.0
+	 */
+	public long getSleepMargin() {
+		return sleepMargin;
+	}
+	
+	/**
+	 * Setzt die Zeit, die vor dem Ziel nicht mehr mit {@code Thread.sleep} gewartet wird.
+	 *
+	 * @param sleepMargin Zeit in Nanosekunden
+	 * @since 0.6.0
+	 */
+	public void setSleepMargin( long sleepMargin ) {
+		this.sleepMargin = sleepMargin;
+	}
+	
+	/**
+	 * @return Zeit in Nanosekunden, die vor dem Ziel aktiv gewartet wird.
+	 * @since 0.6.0
+	 */
+	public long getSpinWindow() {
+		return spinWindow;
+	}
+	
+	/**
+	 * Setzt die Zeit, die vor dem Ziel aktiv gewartet wird. Größere Werte sind genauer, kosten aber mehr Rechenzeit.
+	 *
+	 * @param spinWindow Zeit in Nanosekunden
+	 * @since 0.6.0
+	 */
+	public void setSpinWindow( long spinWindow ) {
+		this.spinWindow = spinWindow;
+	}
+	
+	
+}
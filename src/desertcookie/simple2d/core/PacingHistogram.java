@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.core;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Histogramm über Zeitabweichungen, beispielsweise wie viel später ein Game Loop als geplant aufgewacht ist.
+ * Werte unter 32µs werden auf die Mikrosekunde genau erfasst, größere Werte mit einer Genauigkeit von etwa 6%. Das Aufzeichnen benötigt keine Locks und erzeugt keine Objekte.
+ *
+ * @since 0.6.0
+ */
+public class PacingHistogram {
+	
+	
+	private static final int LINEAR_BUCKETS = 32, SUB_BUCKETS = 16, MAX_EXPONENT = 40;
+	private static final int BUCKET_COUNT = LINEAR_BUCKETS + (MAX_EXPONENT - 4) * SUB_BUCKETS;
+	
+	private final AtomicLongArray buckets;
+	private final AtomicLong count, early, sum, max;
+	
+	
+	/**
+	 * Konstruiert neues, leeres PacingHistogram.
+	 *
+	 * @since 0.6.0
+	 */
+	public PacingHistogram() {
+		buckets = new AtomicLongArray( BUCKET_COUNT );
+		count = new AtomicLong();
+		early = new AtomicLong();
+		sum = new AtomicLong();
+		max = new AtomicLong( Long.MIN_VALUE );
+	}
+	
+	
+	/**
+	 * Zeichnet eine Abweichung auf. Negative Werte (zu frühes Aufwachen) werden als {@code 0} gezählt.
+	 *
+	 * @param nanos Abweichung in Nanosekunden
+	 * @since 0.6.0
+	 */
+	public void record( long nanos ) {
+		long currentMax;
+		while( nanos > (currentMax = max.get()) && !max.compareAndSet( currentMax,nanos ) ) { }
+		sum.addAndGet( nanos );
+		count.incrementAndGet();
+		if( nanos < 0 ) {
+			early.incrementAndGet();
+			nanos = 0;
+		}
+		buckets.incrementAndGet( bucketOf( nanos / 1000 ) );
+	}
+	
+	/**
+	 * @param percentile Perzentil zwischen {@code 0} und {@code 100}
+	 * @return Obergrenze der Abweichung in Nanosekunden, unter der der angegebene Anteil der Werte liegt. {@code 0} wenn keine Werte aufgezeichnet wurden.
+	 * @since 0.6.0
+	 */
+	public long getPercentile( double percentile ) {
+		long total = count.get();
+		if( total == 0 )
+			return 0;
+		long target = (long)Math.ceil( total * Math.min( Math.max( percentile,0 ),100 ) / 100.0 );
+		long seen = 0;
+		for( int i = 0; i < BUCKET_COUNT; i++ ) {
+			seen += buckets.get( i );
+			if( seen >= target && seen > 0 )
+				return Math.min( upperBoundOf( i ) * 1000,getMax() );
+		}
+		return getMax();
+	}
+	
+	/**
+	 * @return Größte aufgezeichnete Abweichung in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	public long getMax() {
+		return count.get() == 0 ? 0 : max.get();
+	}
+	
+	/**
+	 * @return Durchschnittliche Abweichung in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	public double getMean() {
+		long total = count.get();
+		return total == 0 ? 0 : sum.get() / (double)total;
+	}
+	
+	/**
+	 * @return Anzahl der aufgezeichneten Werte.
+	 * @since 0.6.0
+	 */
+	public long getCount() {
+		return count.get();
+	}
+	
+	/**
+	 * @return Anzahl der Werte, bei denen zu früh aufgewacht wurde.
+	 * @since 0.6.0
+	 */
+	public long getEarlyCount() {
+		return early.get();
+	}
+	
+	/**
+	 * Löscht alle aufgezeichneten Werte.
+	 *
+	 * @since 0.6.0
+	 */
+	public void reset() {
+		for( int i = 0; i < BUCKET_COUNT; i++ )
+			buckets.set( i,0 );
+		count.set( 0 );
+		early.set( 0 );
+		sum.set( 0 );
+		max.set( Long.MIN_VALUE );
+	}
+	
+	@Override
+	public String toString() {
+		return String.format( "n=%d mean=%.1fµs p50=%.1fµs p99=%.1fµs max=%.1fµs",getCount(),getMean() / 1e3,getPercentile( 50 ) / 1e3,getPercentile( 99 ) / 1e3,getMax() / 1e3 );
+	}
+	
+	
+	/**
+	 * @param micros Wert in Mikrosekunden
+	 * @return Index des Buckets für den angegebenen Wert.
+	 * @since 0.6.0
+	 */
+	private static int bucketOf( long micros ) {
+		if( micros < LINEAR_BUCKETS )
+			return (int)micros;
+		int exponent = Math.min( 63 - Long.numberOfLeadingZeros( micros ),MAX_EXPONENT - 1 );
+		int subBucket = (int)((micros >>> (exponent - 4)) & (SUB_BUCKETS - 1));
+		return Math.min( LINEAR_BUCKETS + (exponent - 5) * SUB_BUCKETS + subBucket,BUCKET_COUNT - 1 );
+	}
+	
+	/**
+	 * @param bucket Index des Buckets
+	 * @return Obere, nicht mehr enthaltene Grenze des angegebenen Buckets in Mikrosekunden.
+	 * @since 0.6.0
+	 */
+	private static long upperBoundOf( int bucket ) {
+		if( bucket < LINEAR_BUCKETS )
+			return bucket + 1;
+		int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 5;
+		int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+		return (long)(SUB_BUCKETS + subBucket + 1) << (exponent - 4);
+	}
+	
+	
+}
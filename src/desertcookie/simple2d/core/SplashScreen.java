@@ -27,14 +27,17 @@ package desertcookie.simple2d.core;
 
 import desertcookie.simple2d.input.InputHandler;
 import desertcookie.simple2d.rendering.SimpleGraphics;
+import desertcookie.simple2d.textures.LoadingProgressListener;
+
+import java.awt.*;
 
 
 /**
- * Ladebildschirm.
+ * Ladebildschirm. Kann als {@link LoadingProgressListener} an {@link desertcookie.simple2d.textures.TextureLoader#loadTexturesAsync(LoadingProgressListener,String...)} übergeben werden und zeigt dann einen Fortschrittsbalken an.
  *
  * @since 0.1.9
  */
-public class SplashScreen extends GameScene {
+public class SplashScreen extends GameScene implements LoadingProgressListener {
 	
 	
 	/**
@@ -44,6 +47,8 @@ public class SplashScreen extends GameScene {
 	 */
 	public static final int SCENE_ID = 0;
 	
+	private volatile int loaded, total;
+	
 	
 	/**
 	 * Konstruiert neuen Ladebildschirm.
@@ -62,7 +67,33 @@ public class SplashScreen extends GameScene {
 	
 	@Override
 	public void render( SimpleGraphics graphics ) {
+		int total = this.total;
+		if( total <= 0 || Game.getDisplay() == null )
+			return;
+		double width = Game.getDisplay().getWidth() / graphics.getScale();
+		double height = Game.getDisplay().getHeight() / graphics.getScale();
+		graphics.setColor( Color.DARK_GRAY );
+		graphics.fillRect( width / 4,height - 40,width / 2,10 );
+		graphics.setColor( Color.WHITE );
+		graphics.fillRect( width / 4,height - 40,width / 2 * getProgress(),10 );
+	}
 	
+	@Override
+	public void progress( int loaded,int total,String path ) {
+		this.total = total;
+		this.loaded = loaded;
+		if( Game.getDisplay() != null )
+			Game.getDisplay().getDirtyRegion().invalidateAll();
+	}
+	
+	
+	/**
+	 * @return Fortschritt des Ladevorgangs zwischen {@code 0} und {@code 1}.
+	 * @since 0.6.0
+	 */
+	public double getProgress() {
+		int total = this.total;
+		return total <= 0 ? 0 : Math.min( (double)loaded / total,1 );
 	}
 	
 	
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.core;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Dreifach-Puffer zur Übergabe von Zuständen von genau einem schreibenden an genau einen lesenden Thread.
+ * Der Schreiber füllt den hinteren Puffer und veröffentlicht ihn, der Leser holt sich den zuletzt veröffentlichten Puffer. Beide Seiten tauschen dazu nur einen atomaren Index und warten nie aufeinander.
+ *
+ * @param <T> Typ der gepufferten Zustände
+ * @since 0.6.0
+ */
+public class TripleBuffer<T> {
+	
+	
+	private static final int INDEX_MASK = 3, FRESH = 4;
+	
+	private final Object[] states;
+	private final AtomicInteger shared;
+	private int back, front;
+	
+	
+	/**
+	 * Konstruiert neuen TripleBuffer aus drei unterschiedlichen Zustandsobjekten.
+	 *
+	 * @param first  Erster Zustand, anfangs der vordere Puffer
+	 * @param second Zweiter Zustand, anfangs der mittlere Puffer
+	 * @param third  Dritter Zustand, anfangs der hintere Puffer
+	 * @since 0.6.0
+	 */
+	public TripleBuffer( T first,T second,T third ) {
+		if( first == second || second == third || first == third )
+			throw new IllegalArgumentException( "TripleBuffer needs three distinct state objects!" );
+		states = new Object[] { first,second,third };
+		front = 0;
+		shared = new AtomicInteger( 1 );
+		back = 2;
+	}
+	
+	
+	/**
+	 * @return Hinterer Puffer, der vom schreibenden Thread gefüllt werden darf.
+	 * @since 0.6.0
+	 */
+	@SuppressWarnings( "unchecked" )
+	public T getBack() {
+		return (T)states[back];
+	}
+	
+	/**
+	 * Veröffentlicht den hinteren Puffer für den lesenden Thread und übernimmt den bisher mittleren Puffer als neuen hinteren Puffer. Darf nur vom schreibenden Thread aufgerufen werden.
+	 *
+	 * @since 0.6.0
+	 */
+	public void publish() {
+		back = shared.getAndSet( back | FRESH ) & INDEX_MASK;
+	}
+	
+	/**
+	 * Holt den zuletzt veröffentlichten Zustand, falls seit dem letzten Aufruf ein neuer veröffentlicht wurde. Darf nur vom lesenden Thread aufgerufen werden.
+	 *
+	 * @return Zuletzt veröffentlichter Zustand, der bis zum nächsten Aufruf nicht verändert wird.
+	 * @since 0.6.0
+	 */
+	@SuppressWarnings( "unchecked" )
+	public T acquire() {
+		if( (shared.get() & FRESH) != 0 )
+			front = shared.getAndSet( front ) & INDEX_MASK;
+		return (T)states[front];
+	}
+	
+	
+}
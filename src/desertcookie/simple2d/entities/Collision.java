@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.entities;
+
+
+/**
+ * Kollisionstests für achsenparallele Rechtecke (AABBs). Alle Methoden sind statisch, arbeiten nur mit primitiven Werten und erzeugen keine Objekte, sodass sie auch tausendfach pro Tick aufgerufen werden können.
+ * Rechtecke, die sich nur an einer Kante berühren, überschneiden sich nicht.
+ *
+ * @since 0.6.0
+ */
+public final class Collision {
+	
+	
+	/**
+	 * Zeitpunkt, den {@link #sweep} zurückgibt, wenn es während der Bewegung zu keinem Zusammenstoß kommt.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final double NO_HIT = 1;
+	
+	
+	/**
+	 * Interner Konstruktor.
+	 *
+	 * @since 0.6.0
+	 */
+	private Collision() {
+	
+	}
+	
+	
+	/**
+	 * @param ax Horizontale Position des ersten Rechtecks in Pixeln
+	 * @param ay Vertikale Position des ersten Rechtecks in Pixeln
+	 * @param aw Horizontale Größe des ersten Rechtecks in Pixeln
+	 * @param ah Vertikale Größe des ersten Rechtecks in Pixeln
+	 * @param bx Horizontale Position des zweiten Rechtecks in Pixeln
+	 * @param by Vertikale Position des zweiten Rechtecks in Pixeln
+	 * @param bw Horizontale Größe des zweiten Rechtecks in Pixeln
+	 * @param bh Vertikale Größe des zweiten Rechtecks in Pixeln
+	 * @return {@code true} wenn sich die beiden Rechtecke überschneiden.
+	 * @since 0.6.0
+	 */
+	public static boolean overlaps( double ax,double ay,double aw,double ah,double bx,double by,double bw,double bh ) {
+		return ax < bx + bw && ax + aw > bx && ay < by + bh && ay + ah > by;
+	}
+	
+	/**
+	 * Berechnet die kürzeste Verschiebung, mit der das erste Rechteck aus dem zweiten herausgeschoben wird.
+	 *
+	 * @param ax     Horizontale Position des ersten Rechtecks in Pixeln
+	 * @param ay     Vertikale Position des ersten Rechtecks in Pixeln
+	 * @param aw     Horizontale Größe des ersten Rechtecks in Pixeln
+	 * @param ah     Vertikale Größe des ersten Rechtecks in Pixeln
+	 * @param bx     Horizontale Position des zweiten Rechtecks in Pixeln
+	 * @param by     Vertikale Position des zweiten Rechtecks in Pixeln
+	 * @param bw     Horizontale Größe des zweiten Rechtecks in Pixeln
+	 * @param bh     Vertikale Größe des zweiten Rechtecks in Pixeln
+	 * @param result Array mit mindestens zwei Einträgen, das die Verschiebung {@code dx, dy} in Pixeln erhält. Eine der beiden Komponenten ist immer {@code 0}
+	 * @return {@code true} wenn sich die beiden Rechtecke überschneiden. Andernfalls wird die Verschiebung auf {@code 0} gesetzt.
+	 * @since 0.6.0
+	 */
+	public static boolean penetration( double ax,double ay,double aw,double ah,double bx,double by,double bw,double bh,double[] result ) {
+		result[0] = 0;
+		result[1] = 0;
+		if( !overlaps( ax,ay,aw,ah,bx,by,bw,bh ) )
+			return false;
+		double left = bx + bw - ax, right = ax + aw - bx;
+		double up = by + bh - ay, down = ay + ah - by;
+		double dx = left < right ? left : -right;
+		double dy = up < down ? up : -down;
+		if( Math.abs( dx ) < Math.abs( dy ) )
+			result[0] = dx;
+		else
+			result[1] = dy;
+		return true;
+	}
+	
+	/**
+	 * Berechnet, zu welchem Zeitpunkt einer Bewegung das erste Rechteck auf das ruhende zweite Rechteck trifft (Swept AABB). Verhindert, dass schnelle Objekte durch dünne Hindernisse hindurchtunneln.
+	 *
+	 * @param ax     Horizontale Position des ersten Rechtecks vor der Bewegung in Pixeln
+	 * @param ay     Vertikale Position des ersten Rechtecks vor der Bewegung in Pixeln
+	 * @param aw     Horizontale Größe des ersten Rechtecks in Pixeln
+	 * @param ah     Vertikale Größe des ersten Rechtecks in Pixeln
+	 * @param dx     Horizontale Bewegung des ersten Rechtecks in Pixeln
+	 * @param dy     Vertikale Bewegung des ersten Rechtecks in Pixeln
+	 * @param bx     Horizontale Position des zweiten Rechtecks in Pixeln
+	 * @param by     Vertikale Position des zweiten Rechtecks in Pixeln
+	 * @param bw     Horizontale Größe des zweiten Rechtecks in Pixeln
+	 * @param bh     Vertikale Größe des zweiten Rechtecks in Pixeln
+	 * @param normal Array mit mindestens zwei Einträgen, das die Normale der getroffenen Kante des zweiten Rechtecks erhält, oder {@code null}
+	 * @return Anteil der Bewegung zwischen {@code 0} und {@code 1} bis zum Zusammenstoß, {@code 0} wenn sich die Rechtecke bereits überschneiden, oder {@link #NO_HIT}.
+	 * @since 0.6.0
+	 */
+	public static double sweep( double ax,double ay,double aw,double ah,double dx,double dy,double bx,double by,double bw,double bh,double[] normal ) {
+		if( normal != null ) {
+			normal[0] = 0;
+			normal[1] = 0;
+		}
+		if( overlaps( ax,ay,aw,ah,bx,by,bw,bh ) )
+			return 0;
+		
+		double entryX, exitX, entryY, exitY;
+		if( dx > 0 ) {
+			entryX = (bx - (ax + aw)) / dx;
+			exitX = (bx + bw - ax) / dx;
+		} else if( dx < 0 ) {
+			entryX = (bx + bw - ax) / dx;
+			exitX = (bx - (ax + aw)) / dx;
+		} else {
+			if( ax >= bx + bw || ax + aw <= bx )
+				return NO_HIT;
+			entryX = Double.NEGATIVE_INFINITY;
+			exitX = Double.POSITIVE_INFINITY;
+		}
+		if( dy > 0 ) {
+			entryY = (by - (ay + ah)) / dy;
+			exitY = (by + bh - ay) / dy;
+		} else if( dy < 0 ) {
+			entryY = (by + bh - ay) / dy;
+			exitY = (by - (ay + ah)) / dy;
+		} else {
+			if( ay >= by + bh || ay + ah <= by )
+				return NO_HIT;
+			entryY = Double.NEGATIVE_INFINITY;
+			exitY = Double.POSITIVE_INFINITY;
+		}
+		
+		double entry = Math.max( entryX,entryY ), exit = Math.min( exitX,exitY );
+		if( entry >= exit || entry < 0 || entry >= 1 )
+			return NO_HIT;
+		if( normal != null ) {
+			if( entryX > entryY )
+				normal[0] = dx > 0 ? -1 : 1;
+			else
+				normal[1] = dy > 0 ? -1 : 1;
+		}
+		return entry;
+	}
+	
+	/**
+	 * Sucht alle Rechtecke, die den angegebenen Bereich überschneiden, beispielsweise in den Spalten eines {@link EntityStore}.
+	 *
+	 * @param x      Horizontale Positionen der Rechtecke in Pixeln
+	 * @param y      Vertikale Positionen der Rechtecke in Pixeln
+	 * @param w      Horizontale Größen der Rechtecke in Pixeln
+	 * @param h      Vertikale Größen der Rechtecke in Pixeln
+	 * @param count  Anzahl der Rechtecke
+	 * @param bx     Horizontale Position des Bereichs in Pixeln
+	 * @param by     Vertikale Position des Bereichs in Pixeln
+	 * @param bw     Horizontale Größe des Bereichs in Pixeln
+	 * @param bh     Vertikale Größe des Bereichs in Pixeln
+	 * @param result Array mit mindestens {@code count} Einträgen, das die Indizes der gefundenen Rechtecke erhält
+	 * @return Anzahl der gefundenen Rechtecke.
+	 * @since 0.6.0
+	 */
+	public static int overlapping( double[] x,double[] y,double[] w,double[] h,int count,double bx,double by,double bw,double bh,int[] result ) {
+		double right = bx + bw, bottom = by + bh;
+		int found = 0;
+		for( int i = 0; i < count; i++ )
+			if( x[i] < right && x[i] + w[i] > bx && y[i] < bottom && y[i] + h[i] > by )
+				result[found++] = i;
+		return found;
+	}
+	
+	/**
+	 * Berechnet für alle Rechtecke, zu welchem Zeitpunkt ihrer Bewegung sie auf das ruhende Hindernis treffen, beispielsweise mit den Spalten eines {@link EntityStore}.
+	 *
+	 * @param x         Horizontale Positionen der Rechtecke in Pixeln
+	 * @param y         Vertikale Positionen der Rechtecke in Pixeln
+	 * @param w         Horizontale Größen der Rechtecke in Pixeln
+	 * @param h         Vertikale Größen der Rechtecke in Pixeln
+	 * @param velocityX Horizontale Geschwindigkeiten der Rechtecke in Pixeln pro Sekunde
+	 * @param velocityY Vertikale Geschwindigkeiten der Rechtecke in Pixeln pro Sekunde
+	 * @param count     Anzahl der Rechtecke
+	 * @param deltaTime Dauer der Bewegung in Sekunden
+	 * @param bx        Horizontale Position des Hindernisses in Pixeln
+	 * @param by        Vertikale Position des Hindernisses in Pixeln
+	 * @param bw        Horizontale Größe des Hindernisses in Pixeln
+	 * @param bh        Vertikale Größe des Hindernisses in Pixeln
+	 * @param times     Array mit mindestens {@code count} Einträgen, das für jedes Rechteck den Anteil der Bewegung bis zum Zusammenstoß oder {@link #NO_HIT} erhält
+	 * @return Anzahl der Rechtecke, die auf das Hindernis treffen.
+	 * @since 0.6.0
+	 */
+	public static int sweep( double[] x,double[] y,double[] w,double[] h,double[] velocityX,double[] velocityY,int count,double deltaTime,double bx,double by,double bw,double bh,double[] times ) {
+		int hits = 0;
+		for( int i = 0; i < count; i++ ) {
+			times[i] = sweep( x[i],y[i],w[i],h[i],velocityX[i] * deltaTime,velocityY[i] * deltaTime,bx,by,bw,bh,null );
+			if( times[i] < NO_HIT )
+				hits++;
+		}
+		return hits;
+	}
+	
+	
+}
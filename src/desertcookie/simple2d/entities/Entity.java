@@ -25,6 +25,8 @@
 package desertcookie.simple2d.entities;
 
 
+import desertcookie.simple2d.core.Display;
+import desertcookie.simple2d.core.Game;
 import desertcookie.simple2d.input.InputHandler;
 import desertcookie.simple2d.rendering.SimpleGraphics;
 import desertcookie.simple2d.textures.Texture;
@@ -57,6 +59,9 @@ public abstract class Entity {
 	 */
 	protected Texture texture;
 	
+	private double dirtyX, dirtyY, dirtyW, dirtyH;
+	private boolean dirtyReported;
+	
 	
 	/**
 	 * Konstruiert neuen Entity.
@@ -127,6 +132,7 @@ public abstract class Entity {
 	 */
 	public void setX( double x ) {
 		this.x = x;
+		invalidate();
 	}
 	
 	/**
@@ -145,6 +151,7 @@ public abstract class Entity {
 	 */
 	public void setY( double y ) {
 		this.y = y;
+		invalidate();
 	}
 	
 	/**
@@ -156,6 +163,7 @@ public abstract class Entity {
 	public void setLocation( double x,double y ) {
 		this.x = x;
 		this.y = y;
+		invalidate();
 	}
 	
 	/**
@@ -168,6 +176,7 @@ public abstract class Entity {
 	public void move( double dx,double dy ) {
 		x += dx;
 		y += dy;
+		invalidate();
 	}
 	
 	/**
@@ -186,6 +195,7 @@ public abstract class Entity {
 	 */
 	public void setW( double w ) {
 		this.w = w;
+		invalidate();
 	}
 	
 	/**
@@ -204,6 +214,7 @@ public abstract class Entity {
 	 */
 	public void setH( double h ) {
 		this.h = h;
+		invalidate();
 	}
 	
 	/**
@@ -215,6 +226,7 @@ public abstract class Entity {
 	public void setSize( double w,double h ) {
 		this.w = w;
 		this.h = h;
+		invalidate();
 	}
 	
 	/**
@@ -227,6 +239,7 @@ public abstract class Entity {
 	public void resize( double dxs,double dys ) {
 		w *= dxs;
 		h *= dys;
+		invalidate();
 	}
 	
 	/**
@@ -245,15 +258,52 @@ public abstract class Entity {
 	 */
 	public void setTexture( Texture texture ) {
 		this.texture = texture;
+		invalidate();
+	}
+	
+	/**
+	 * Meldet den Bereich dieses Entity als verändert, damit er bei aktiviertem Damage-Tracking neu gerendert wird. Der zuletzt gemeldete Bereich wird ebenfalls neu gerendert.
+	 * Wird von allen Settern automatisch aufgerufen und muss nur aufgerufen werden, wenn Felder direkt verändert werden.
+	 *
+	 * @since 0.6.0
+	 */
+	public void invalidate() {
+		invalidate( x,y,w,h );
 	}
 	
 	/**
 	 * @param entity Entity der überprüft werden soll
-	 * @return {@code true} wenn dieser Entity mit dem angegebenen Entity kollidiert.
+	 * @return {@code true} wenn sich dieser Entity mit dem angegebenen Entity überschneidet.
 	 * @since 0.3.4
 	 */
 	public boolean collides( Entity entity ) {
-		return isPointInside( entity.x,entity.y ) && isPointInside( entity.x + entity.w,entity.y ) && isPointInside( entity.x + entity.w,entity.y + entity.h ) && isPointInside( entity.x,entity.y + entity.h );
+		return Collision.overlaps( x,y,w,h,entity.x,entity.y,entity.w,entity.h );
+	}
+	
+	/**
+	 * Berechnet die kürzeste Verschiebung, mit der dieser Entity aus dem angegebenen Entity herausgeschoben wird.
+	 *
+	 * @param entity Entity der überprüft werden soll
+	 * @param result Array mit mindestens zwei Einträgen, das die Verschiebung {@code dx, dy} in Pixeln erhält
+	 * @return {@code true} wenn sich dieser Entity mit dem angegebenen Entity überschneidet.
+	 * @since 0.6.0
+	 */
+	public boolean penetration( Entity entity,double[] result ) {
+		return Collision.penetration( x,y,w,h,entity.x,entity.y,entity.w,entity.h,result );
+	}
+	
+	/**
+	 * Berechnet, zu welchem Zeitpunkt einer Bewegung dieser Entity auf den angegebenen, ruhenden Entity treffen würde.
+	 *
+	 * @param entity Entity der überprüft werden soll
+	 * @param dx     Horizontale Bewegung in Pixeln
+	 * @param dy     Vertikale Bewegung in Pixeln
+	 * @param normal Array mit mindestens zwei Einträgen, das die Normale der getroffenen Kante erhält, oder {@code null}
+	 * @return Anteil der Bewegung zwischen {@code 0} und {@code 1} bis zum Zusammenstoß oder {@link Collision#NO_HIT}.
+	 * @since 0.6.0
+	 */
+	public double sweep( Entity entity,double dx,double dy,double[] normal ) {
+		return Collision.sweep( x,y,w,h,dx,dy,entity.x,entity.y,entity.w,entity.h,normal );
 	}
 	
 	
@@ -267,5 +317,28 @@ public abstract class Entity {
 		return x >= this.x && x <= this.x + this.w && y >= this.y && y <= this.y + this.h;
 	}
 	
+	/**
+	 * Meldet den angegebenen Bereich und den zuletzt gemeldeten Bereich als verändert. Für Entities, die außerhalb ihrer Position und Größe rendern.
+	 *
+	 * @param x Horizontale Position in Pixeln
+	 * @param y Vertikale Position in Pixeln
+	 * @param w Horizontale Größe in Pixeln
+	 * @param h Vertikale Größe in Pixeln
+	 * @since 0.6.0
+	 */
+	protected void invalidate( double x,double y,double w,double h ) {
+		Display display = Game.getDisplay();
+		if( display == null || !display.getDamageTracking() )
+			return;
+		if( dirtyReported )
+			display.getDirtyRegion().add( dirtyX,dirtyY,dirtyW,dirtyH );
+		display.getDirtyRegion().add( x,y,w,h );
+		dirtyX = x;
+		dirtyY = y;
+		dirtyW = w;
+		dirtyH = h;
+		dirtyReported = true;
+	}
+	
 	
 }
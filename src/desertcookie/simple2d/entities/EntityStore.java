@@ -0,0 +1,641 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.entities;
+
+
+import desertcookie.simple2d.core.Display;
+import desertcookie.simple2d.core.Game;
+import desertcookie.simple2d.input.InputHandler;
+import desertcookie.simple2d.rendering.SimpleGraphics;
+import desertcookie.simple2d.textures.Texture;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+
+/**
+ * Container für viele gleichartige Spielobjekte, dessen Eigenschaften spaltenweise in primitiven Arrays gespeichert werden.
+ * Alle Objekte liegen lückenlos hintereinander, sodass Massen-Updates wie {@link #integrate(double)} linear über den Speicher laufen, statt für jedes Objekt einem Zeiger zu folgen.
+ * <p>
+ * Objekte werden über Handles angesprochen, die beim Entfernen anderer Objekte gültig bleiben. Der Index eines Objekts in den Spalten kann sich dagegen ändern, wenn ein anderes Objekt entfernt wird.
+ * Bestehende {@link Entity}-Klassen können mit {@link #add(Entity)} aufgenommen werden. Ihre Felder werden ausschließlich vom Update Loop mit den Spalten abgeglichen: in {@link #update(double,InputHandler)}, nach {@link #integrate(double)} und {@link #bounce(double,double,double,double)} sowie beim Setzen über ein Handle.
+ * <p>
+ * {@link #render(SimpleGraphics)} verändert den Container nicht, liest aber Spalten und Entities ohne Synchronisierung mit dem Update Loop. Für ein in sich stimmiges Bild sollte der Container aus einer {@link desertcookie.simple2d.core.BufferedGameScene} gerendert werden, die die benötigten Spalten in {@code writeState} kopiert.
+ *
+ * @since 0.6.0
+ */
+public class EntityStore {
+	
+	
+	/**
+	 * Maximale Anzahl gleichzeitig gespeicherter Objekte.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int MAX_ENTITIES = 1 << 20;
+	/**
+	 * Texturindex für Objekte ohne Textur.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int NO_TEXTURE = -1;
+	
+	private static final int ID_MASK = MAX_ENTITIES - 1;
+	private static final int GENERATION_SHIFT = 20, GENERATION_MASK = 0x7FF;
+	
+	private double[] x, y, w, h, velocityX, velocityY;
+	private int[] textureIndices;
+	private int[] denseIds;
+	private Entity[] entities;
+	private int size;
+	
+	private int[] denseIndices;
+	private int[] generations;
+	private int[] freeIds;
+	private int freeCount, idCount;
+	
+	private Texture[] textures;
+	private int textureCount;
+	private final IdentityHashMap<Texture,Integer> textureIndexMap;
+	private int entityCount;
+	
+	
+	/**
+	 * Konstruiert neuen, leeren EntityStore.
+	 *
+	 * @since 0.6.0
+	 */
+	public EntityStore() {
+		this( 256 );
+	}
+	
+	/**
+	 * Konstruiert neuen, leeren EntityStore.
+	 *
+	 * @param capacity Anfängliche Anzahl an Objekten, die ohne Vergrößerung der Spalten gespeichert werden können
+	 * @since 0.6.0
+	 */
+	public EntityStore( int capacity ) {
+		capacity = Math.max( 1,Math.min( capacity,MAX_ENTITIES ) );
+		x = new double[capacity];
+		y = new double[capacity];
+		w = new double[capacity];
+		h = new double[capacity];
+		velocityX = new double[capacity];
+		velocityY = new double[capacity];
+		textureIndices = new int[capacity];
+		denseIds = new int[capacity];
+		entities = new Entity[capacity];
+		denseIndices = new int[capacity];
+		generations = new int[capacity];
+		freeIds = new int[capacity];
+		textures = new Texture[16];
+		textureIndexMap = new IdentityHashMap<>();
+	}
+	
+	
+	/**
+	 * Fügt ein neues Objekt hinzu.
+	 *
+	 * @param x            Horizontale Position in Pixeln
+	 * @param y            Vertikale Position in Pixeln
+	 * @param w            Horizontale Größe in Pixeln
+	 * @param h            Vertikale Größe in Pixeln
+	 * @param textureIndex Index der Textur aus {@link #addTexture(Texture)} oder {@link #NO_TEXTURE}
+	 * @return Handle des neuen Objekts.
+	 * @since 0.6.0
+	 */
+	public int create( double x,double y,double w,double h,int textureIndex ) {
+		if( size == MAX_ENTITIES )
+			throw new IllegalStateException( "The EntityStore is full!" );
+		ensureCapacity( size + 1 );
+		int id = freeCount > 0 ? freeIds[--freeCount] : idCount++;
+		int index = size++;
+		this.x[index] = x;
+		this.y[index] = y;
+		this.w[index] = w;
+		this.h[index] = h;
+		velocityX[index] = 0;
+		velocityY[index] = 0;
+		textureIndices[index] = textureIndex;
+		denseIds[index] = id;
+		entities[index] = null;
+		denseIndices[id] = index;
+		return generations[id] << GENERATION_SHIFT | id;
+	}
+	
+	/**
+	 * Nimmt einen bestehenden Entity auf. Position, Größe und Textur werden in die Spalten übernommen und sind ab jetzt maßgeblich.
+	 *
+	 * @param entity Entity der aufgenommen werden soll
+	 * @return Handle des Entity.
+	 * @since 0.6.0
+	 */
+	public int add( Entity entity ) {
+		int handle = create( entity.x,entity.y,entity.w,entity.h,entity.texture == null ? NO_TEXTURE : addTexture( entity.texture ) );
+		entities[size - 1] = entity;
+		entityCount++;
+		return handle;
+	}
+	
+	/**
+	 * Entfernt das Objekt mit dem angegebenen Handle. Das letzte Objekt rückt an seine Stelle, wodurch sich dessen Index ändert.
+	 *
+	 * @param handle Handle des Objekts
+	 * @since 0.6.0
+	 */
+	public void remove( int handle ) {
+		int index = indexOf( handle );
+		int id = handle & ID_MASK;
+		int last = --size;
+		if( entities[index] != null ) {
+			writeBack( index );
+			entityCount--;
+		}
+		if( index != last ) {
+			x[index] = x[last];
+			y[index] = y[last];
+			w[index] = w[last];
+			h[index] = h[last];
+			velocityX[index] = velocityX[last];
+			velocityY[index] = velocityY[last];
+			textureIndices[index] = textureIndices[last];
+			entities[index] = entities[last];
+			denseIds[index] = denseIds[last];
+			denseIndices[denseIds[index]] = index;
+		}
+		entities[last] = null;
+		generations[id] = (generations[id] + 1) & GENERATION_MASK;
+		freeIds[freeCount++] = id;
+	}
+	
+	/**
+	 * Entfernt alle Objekte. Alle bisherigen Handles werden ungültig.
+	 *
+	 * @since 0.6.0
+	 */
+	public void clear() {
+		while( size > 0 )
+			remove( getHandle( size - 1 ) );
+	}
+	
+	/**
+	 * @param handle Handle eines Objekts
+	 * @return {@code true} wenn das Objekt mit dem angegebenen Handle noch existiert.
+	 * @since 0.6.0
+	 */
+	public boolean isValid( int handle ) {
+		int id = handle & ID_MASK;
+		return handle >= 0 && id < idCount && generations[id] == handle >>> GENERATION_SHIFT && denseIndices[id] < size && denseIds[denseIndices[id]] == id;
+	}
+	
+	/**
+	 * @param handle Handle eines Objekts
+	 * @return Aktueller Index des Objekts in den Spalten. Bleibt nur gültig, bis ein Objekt entfernt wird.
+	 * @since 0.6.0
+	 */
+	public int indexOf( int handle ) {
+		if( !isValid( handle ) )
+			throw new IllegalArgumentException( "The entity handle is not valid anymore!" );
+		return denseIndices[handle & ID_MASK];
+	}
+	
+	/**
+	 * @param index Index eines Objekts in den Spalten
+	 * @return Handle des Objekts mit dem angegebenen Index.
+	 * @since 0.6.0
+	 */
+	public int getHandle( int index ) {
+		int id = denseIds[index];
+		return generations[id] << GENERATION_SHIFT | id;
+	}
+	
+	/**
+	 * @param index Index eines Objekts in den Spalten
+	 * @return Mit {@link #add(Entity)} aufgenommener Entity mit dem angegebenen Index oder {@code null}.
+	 * @since 0.6.0
+	 */
+	public Entity getEntity( int index ) {
+		return entities[index];
+	}
+	
+	/**
+	 * @return Anzahl der gespeicherten Objekte.
+	 * @since 0.6.0
+	 */
+	public int getSize() {
+		return size;
+	}
+	
+	/**
+	 * Fügt eine Textur zur Texturliste hinzu, falls sie noch nicht enthalten ist.
+	 *
+	 * @param texture Textur
+	 * @return Index der Textur für die Texturspalte.
+	 * @since 0.6.0
+	 */
+	public int addTexture( Texture texture ) {
+		Integer index = textureIndexMap.get( texture );
+		if( index != null )
+			return index;
+		if( textureCount == textures.length )
+			textures = Arrays.copyOf( textures,textureCount * 2 );
+		textures[textureCount] = texture;
+		textureIndexMap.put( texture,textureCount );
+		return textureCount++;
+	}
+	
+	/**
+	 * @param textureIndex Index der Textur
+	 * @return Textur mit dem angegebenen Index.
+	 * @since 0.6.0
+	 */
+	public Texture getTexture( int textureIndex ) {
+		return textures[textureIndex];
+	}
+	
+	
+	/**
+	 * Bewegt alle Objekte entsprechend ihrer Geschwindigkeit.
+	 *
+	 * @param deltaTime Zeit seit dem letzten Update in Sekunden
+	 * @since 0.6.0
+	 */
+	public void integrate( double deltaTime ) {
+		double[] x = this.x, y = this.y, velocityX = this.velocityX, velocityY = this.velocityY;
+		for( int i = 0, n = size; i < n; i++ ) {
+			x[i] += velocityX[i] * deltaTime;
+			y[i] += velocityY[i] * deltaTime;
+		}
+		writeBackAll();
+		invalidateAll();
+	}
+	
+	/**
+	 * Beschleunigt alle Objekte gleichmäßig, beispielsweise durch Schwerkraft.
+	 *
+	 * @param accelerationX Horizontale Beschleunigung in Pixeln pro Quadratsekunde
+	 * @param accelerationY Vertikale Beschleunigung in Pixeln pro Quadratsekunde
+	 * @param deltaTime     Zeit seit dem letzten Update in Sekunden
+	 * @since 0.6.0
+	 */
+	public void accelerate( double accelerationX,double accelerationY,double deltaTime ) {
+		double dvx = accelerationX * deltaTime, dvy = accelerationY * deltaTime;
+		double[] velocityX = this.velocityX, velocityY = this.velocityY;
+		for( int i = 0, n = size; i < n; i++ ) {
+			velocityX[i] += dvx;
+			velocityY[i] += dvy;
+		}
+	}
+	
+	/**
+	 * Hält alle Objekte innerhalb des angegebenen Bereichs, indem Objekte am Rand zurückgesetzt und ihre Geschwindigkeit gespiegelt wird.
+	 *
+	 * @param minX Linke Kante des Bereichs in Pixeln
+	 * @param minY Obere Kante des Bereichs in Pixeln
+	 * @param maxX Rechte Kante des Bereichs in Pixeln
+	 * @param maxY Untere Kante des Bereichs in Pixeln
+	 * @since 0.6.0
+	 */
+	public void bounce( double minX,double minY,double maxX,double maxY ) {
+		double[] x = this.x, y = this.y, w = this.w, h = this.h, velocityX = this.velocityX, velocityY = this.velocityY;
+		for( int i = 0, n = size; i < n; i++ ) {
+			if( x[i] < minX ) {
+				x[i] = minX;
+				velocityX[i] = Math.abs( velocityX[i] );
+			} else if( x[i] + w[i] > maxX ) {
+				x[i] = maxX - w[i];
+				velocityX[i] = -Math.abs( velocityX[i] );
+			}
+			if( y[i] < minY ) {
+				y[i] = minY;
+				velocityY[i] = Math.abs( velocityY[i] );
+			} else if( y[i] + h[i] > maxY ) {
+				y[i] = maxY - h[i];
+				velocityY[i] = -Math.abs( velocityY[i] );
+			}
+		}
+		writeBackAll();
+	}
+	
+	/**
+	 * Ruft {@link Entity#update(double,InputHandler)} aller mit {@link #add(Entity)} aufgenommenen Entities auf. Die Felder jedes Entity werden vorher aus den Spalten übernommen, sodass auch direkte Änderungen an den Spalten ankommen, und danach zurückgeschrieben.
+	 *
+	 * @param deltaTime Zeit seit dem letzten Update in Sekunden
+	 * @param input     Schnittstelle für Input
+	 * @since 0.6.0
+	 */
+	public void update( double deltaTime,InputHandler input ) {
+		if( entityCount == 0 )
+			return;
+		for( int i = 0; i < size; i++ ) {
+			Entity entity = entities[i];
+			if( entity == null )
+				continue;
+			writeBack( i );
+			entity.update( deltaTime,input );
+			x[i] = entity.x;
+			y[i] = entity.y;
+			w[i] = entity.w;
+			h[i] = entity.h;
+			if( entity.texture != (textureIndices[i] == NO_TEXTURE ? null : textures[textureIndices[i]]) )
+				textureIndices[i] = entity.texture == null ? NO_TEXTURE : addTexture( entity.texture );
+		}
+	}
+	
+	/**
+	 * Rendert alle Objekte, ohne den Container oder die Entities zu verändern. Aufgenommene Entities rendern sich selbst, alle anderen Objekte werden mit ihrer Textur gezeichnet.
+	 * Da die Spalten während des Renderns vom Update Loop vergrößert werden können, werden nur Einträge gelesen, die in allen Spalten existieren.
+	 *
+	 * @param graphics Schnittstelle für Rendering
+	 * @since 0.6.0
+	 */
+	public void render( SimpleGraphics graphics ) {
+		double[] x = this.x, y = this.y, w = this.w, h = this.h;
+		int[] textureIndices = this.textureIndices;
+		Entity[] entities = this.entities;
+		Texture[] textures = this.textures;
+		int n = Math.min( size,Math.min( entities.length,textureIndices.length ) );
+		n = Math.min( n,Math.min( Math.min( x.length,y.length ),Math.min( w.length,h.length ) ) );
+		for( int i = 0; i < n; i++ ) {
+			Entity entity = entities[i];
+			int textureIndex = textureIndices[i];
+			if( entity != null )
+				entity.render( graphics );
+			else if( textureIndex >= 0 && textureIndex < textures.length && textures[textureIndex] != null )
+				graphics.drawTexture( textures[textureIndex],x[i],y[i],w[i],h[i] );
+		}
+	}
+	
+	
+	/**
+	 * @return Spalte mit den horizontalen Positionen in Pixeln. Nur die ersten {@link #getSize()} Einträge sind gültig, das Array wird beim Vergrößern ersetzt.
+	 * @since 0.6.0
+	 */
+	public double[] getXColumn() {
+		return x;
+	}
+	
+	/**
+	 * @return Spalte mit den vertikalen Positionen in Pixeln. Nur die ersten {@link #getSize()} Einträge sind gültig, das Array wird beim Vergrößern ersetzt.
+	 * @since 0.6.0
+	 */
+	public double[] getYColumn() {
+		return y;
+	}
+	
+	/**
+	 * @return Spalte mit den horizontalen Größen in Pixeln. Nur die ersten {@link #getSize()} Einträge sind gültig, das Array wird beim Vergrößern ersetzt.
+	 * @since 0.6.0
+	 */
+	public double[] getWColumn() {
+		return w;
+	}
+	
+	/**
+	 * @return Spalte mit den vertikalen Größen in Pixeln. Nur die ersten {@link #getSize()} Einträge sind gültig, das Array wird beim Vergrößern ersetzt.
+	 * @since 0.6.0
+	 */
+	public double[] getHColumn() {
+		return h;
+	}
+	
+	/**
+	 * @return Spalte mit den horizontalen Geschwindigkeiten in Pixeln pro Sekunde. Nur die ersten {@link #getSize()} Einträge sind gültig, das Array wird beim Vergrößern ersetzt.
+	 * @since 0.6.0
+	 */
+	public double[] getVelocityXColumn() {
+		return velocityX;
+	}
+	
+	/**
+	 * @return Spalte mit den vertikalen Geschwindigkeiten in Pixeln pro Sekunde. Nur die ersten {@link #getSize()} Einträge sind gültig, das Array wird beim Vergrößern ersetzt.
+	 * @since 0.6.0
+	 */
+	public double[] getVelocityYColumn() {
+		return velocityY;
+	}
+	
+	/**
+	 * @return Spalte mit den Texturindizes. Nur die ersten {@link #getSize()} Einträge sind gültig, das Array wird beim Vergrößern ersetzt.
+	 * @since 0.6.0
+	 */
+	public int[] getTextureColumn() {
+		return textureIndices;
+	}
+	
+	
+	/**
+	 * @param handle Handle eines Objekts
+	 * @return Horizontale Position des Objekts in Pixeln.
+	 * @since 0.6.0
+	 */
+	public double getX( int handle ) {
+		return x[indexOf( handle )];
+	}
+	
+	/**
+	 * @param handle Handle eines Objekts
+	 * @return Vertikale Position des Objekts in Pixeln.
+	 * @since 0.6.0
+	 */
+	public double getY( int handle ) {
+		return y[indexOf( handle )];
+	}
+	
+	/**
+	 * Setzt die Position eines Objekts.
+	 *
+	 * @param handle Handle des Objekts
+	 * @param x      Horizontale Position in Pixeln
+	 * @param y      Vertikale Position in Pixeln
+	 * @since 0.6.0
+	 */
+	public void setLocation( int handle,double x,double y ) {
+		int index = indexOf( handle );
+		this.x[index] = x;
+		this.y[index] = y;
+		if( entities[index] != null )
+			writeBack( index );
+		invalidateAll();
+	}
+	
+	/**
+	 * @param handle Handle eines Objekts
+	 * @return Horizontale Größe des Objekts in Pixeln.
+	 * @since 0.6.0
+	 */
+	public double getW( int handle ) {
+		return w[indexOf( handle )];
+	}
+	
+	/**
+	 * @param handle Handle eines Objekts
+	 * @return Vertikale Größe des Objekts in Pixeln.
+	 * @since 0.6.0
+	 */
+	public double getH( int handle ) {
+		return h[indexOf( handle )];
+	}
+	
+	/**
+	 * Setzt die Größe eines Objekts.
+	 *
+	 * @param handle Handle des Objekts
+	 * @param w      Horizontale Größe in Pixeln
+	 * @param h      Vertikale Größe in Pixeln
+	 * @since 0.6.0
+	 */
+	public void setSize( int handle,double w,double h ) {
+		int index = indexOf( handle );
+		this.w[index] = w;
+		this.h[index] = h;
+		if( entities[index] != null )
+			writeBack( index );
+		invalidateAll();
+	}
+	
+	/**
+	 * @param handle Handle eines Objekts
+	 * @return Horizontale Geschwindigkeit des Objekts in Pixeln pro Sekunde.
+	 * @since 0.6.0
+	 */
+	public double getVelocityX( int handle ) {
+		return velocityX[indexOf( handle )];
+	}
+	
+	/**
+	 * @param handle Handle eines Objekts
+	 * @return Vertikale Geschwindigkeit des Objekts in Pixeln pro Sekunde.
+	 * @since 0.6.0
+	 */
+	public double getVelocityY( int handle ) {
+		return velocityY[indexOf( handle )];
+	}
+	
+	/**
+	 * Setzt die Geschwindigkeit eines Objekts.
+	 *
+	 * @param handle    Handle des Objekts
+	 * @param velocityX Horizontale Geschwindigkeit in Pixeln pro Sekunde
+	 * @param velocityY Vertikale Geschwindigkeit in Pixeln pro Sekunde
+	 * @since 0.6.0
+	 */
+	public void setVelocity( int handle,double velocityX,double velocityY ) {
+		int index = indexOf( handle );
+		this.velocityX[index] = velocityX;
+		this.velocityY[index] = velocityY;
+	}
+	
+	/**
+	 * @param handle Handle eines Objekts
+	 * @return Texturindex des Objekts.
+	 * @since 0.6.0
+	 */
+	public int getTextureIndex( int handle ) {
+		return textureIndices[indexOf( handle )];
+	}
+	
+	/**
+	 * Setzt die Textur eines Objekts.
+	 *
+	 * @param handle       Handle des Objekts
+	 * @param textureIndex Index der Textur aus {@link #addTexture(Texture)} oder {@link #NO_TEXTURE}
+	 * @since 0.6.0
+	 */
+	public void setTextureIndex( int handle,int textureIndex ) {
+		int index = indexOf( handle );
+		textureIndices[index] = textureIndex;
+		if( entities[index] != null )
+			writeBack( index );
+		invalidateAll();
+	}
+	
+	
+	/**
+	 * Überträgt die Spaltenwerte mit dem angegebenen Index in die Felder des aufgenommenen Entity.
+	 *
+	 * @param index Index des Objekts
+	 * @since 0.6.0
+	 */
+	private void writeBack( int index ) {
+		Entity entity = entities[index];
+		entity.x = x[index];
+		entity.y = y[index];
+		entity.w = w[index];
+		entity.h = h[index];
+		entity.texture = textureIndices[index] == NO_TEXTURE ? null : textures[textureIndices[index]];
+	}
+	
+	/**
+	 * Überträgt die Spaltenwerte aller aufgenommenen Entities in ihre Felder. Darf nur vom Update Loop aufgerufen werden.
+	 *
+	 * @since 0.6.0
+	 */
+	private void writeBackAll() {
+		if( entityCount == 0 )
+			return;
+		for( int i = 0; i < size; i++ )
+			if( entities[i] != null )
+				writeBack( i );
+	}
+	
+	/**
+	 * Meldet bei aktiviertem Damage-Tracking den gesamten Bildschirm als verändert, da das Melden einzelner Bereiche bei vielen Objekten teurer wäre als das Neuzeichnen.
+	 *
+	 * @since 0.6.0
+	 */
+	private void invalidateAll() {
+		Display display = Game.getDisplay();
+		if( display != null && display.getDamageTracking() )
+			display.getDirtyRegion().invalidateAll();
+	}
+	
+	/**
+	 * Vergrößert alle Spalten, sodass sie mindestens die angegebene Anzahl von Objekten aufnehmen können.
+	 *
+	 * @param capacity Benötigte Anzahl von Objekten
+	 * @since 0.6.0
+	 */
+	private void ensureCapacity( int capacity ) {
+		if( capacity <= x.length )
+			return;
+		int length = Math.min( Math.max( x.length * 2,capacity ),MAX_ENTITIES );
+		x = Arrays.copyOf( x,length );
+		y = Arrays.copyOf( y,length );
+		w = Arrays.copyOf( w,length );
+		h = Arrays.copyOf( h,length );
+		velocityX = Arrays.copyOf( velocityX,length );
+		velocityY = Arrays.copyOf( velocityY,length );
+		textureIndices = Arrays.copyOf( textureIndices,length );
+		denseIds = Arrays.copyOf( denseIds,length );
+		entities = Arrays.copyOf( entities,length );
+		denseIndices = Arrays.copyOf( denseIndices,length );
+		generations = Arrays.copyOf( generations,length );
+		freeIds = Arrays.copyOf( freeIds,length );
+	}
+	
+	
+}
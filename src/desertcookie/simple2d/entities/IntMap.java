@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.entities;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Hash-Tabelle von nicht-negativen int-Schlüsseln auf int-Werte mit offener Adressierung, die ohne Boxing auskommt. Interne Klasse.
+ *
+ * @since 0.6.0
+ */
+class IntMap {
+	
+	
+	private static final int EMPTY = -1;
+	
+	private int[] keys, values;
+	private int size, mask;
+	
+	
+	/**
+	 * Konstruiert neue, leere IntMap. Interner Konstruktor.
+	 *
+	 * @since 0.6.0
+	 */
+	IntMap() {
+		keys = new int[64];
+		values = new int[64];
+		mask = 63;
+		Arrays.fill( keys,EMPTY );
+	}
+	
+	
+	/**
+	 * @param key Schlüssel
+	 * @return Wert des angegebenen Schlüssels oder {@code -1}, wenn er nicht enthalten ist.
+	 * @since 0.6.0
+	 */
+	int get( int key ) {
+		for( int i = hash( key ); ; i = (i + 1) & mask ) {
+			if( keys[i] == key )
+				return values[i];
+			if( keys[i] == EMPTY )
+				return -1;
+		}
+	}
+	
+	/**
+	 * Setzt den Wert des angegebenen Schlüssels.
+	 *
+	 * @param key   Schlüssel, mindestens {@code 0}
+	 * @param value Wert
+	 * @since 0.6.0
+	 */
+	void put( int key,int value ) {
+		if( key < 0 )
+			throw new IllegalArgumentException( "The id must not be negative!" );
+		if( (size + 1) * 2 > keys.length )
+			resize( keys.length * 2 );
+		int i = hash( key );
+		while( keys[i] != EMPTY && keys[i] != key )
+			i = (i + 1) & mask;
+		if( keys[i] == EMPTY )
+			size++;
+		keys[i] = key;
+		values[i] = value;
+	}
+	
+	/**
+	 * Entfernt den angegebenen Schlüssel. Nachfolgende Einträge werden zurückgeschoben, damit keine Lücken in Suchketten entstehen.
+	 *
+	 * @param key Schlüssel
+	 * @since 0.6.0
+	 */
+	void remove( int key ) {
+		int i = hash( key );
+		while( keys[i] != key ) {
+			if( keys[i] == EMPTY )
+				return;
+			i = (i + 1) & mask;
+		}
+		size--;
+		for( int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask ) {
+			int home = hash( keys[j] );
+			// Eintrag j darf nur nach i verschoben werden, wenn i auf seiner Suchkette zwischen home und j liegt
+			if( ((j - home) & mask) >= ((j - i) & mask) ) {
+				keys[i] = keys[j];
+				values[i] = values[j];
+				i = j;
+			}
+		}
+		keys[i] = EMPTY;
+	}
+	
+	/**
+	 * Entfernt alle Einträge.
+	 *
+	 * @since 0.6.0
+	 */
+	void clear() {
+		Arrays.fill( keys,EMPTY );
+		size = 0;
+	}
+	
+	
+	/**
+	 * @param key Schlüssel
+	 * @return Startposition der Suche nach dem angegebenen Schlüssel.
+	 * @since 0.6.0
+	 */
+	private int hash( int key ) {
+		int h = key * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+	
+	/**
+	 * Vergrößert die Tabelle und fügt alle Einträge neu ein.
+	 *
+	 * @param capacity Neue Größe, eine Zweierpotenz
+	 * @since 0.6.0
+	 */
+	private void resize( int capacity ) {
+		int[] oldKeys = keys, oldValues = values;
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		Arrays.fill( keys,EMPTY );
+		size = 0;
+		for( int i = 0; i < oldKeys.length; i++ )
+			if( oldKeys[i] != EMPTY )
+				put( oldKeys[i],oldValues[i] );
+	}
+	
+	
+}
@@ -84,6 +84,7 @@ public class Player extends Entity {
 	
 	@Override
 	public void update( double deltaTime,InputHandler input ) {
+		double oldX = x, oldY = y;
 		if( input.isKeyDown( keyUp ) )
 			y -= movementSpeed * deltaTime;
 		if( input.isKeyDown( keyDown ) )
@@ -92,6 +93,8 @@ public class Player extends Entity {
 			x -= movementSpeed * deltaTime;
 		if( input.isKeyDown( keyRight ) )
 			x += movementSpeed * deltaTime;
+		if( x != oldX || y != oldY )
+			invalidate();
 	}
 	
 	@Override
@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.entities;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Räumlicher Index, der einen festen Bereich rekursiv in vier gleich große Teile aufteilt, sobald ein Knoten zu viele Objekte enthält.
+ * Jedes Objekt liegt im kleinsten Knoten, der es vollständig enthält. Objekte außerhalb des Bereichs liegen im obersten Knoten. Im Gegensatz zum {@link SpatialHashGrid} auch für Objekte sehr unterschiedlicher Größe geeignet.
+ * Enthält ein aufgeteilter Knoten samt Nachfahren nur noch halb so viele Objekte wie die Knotenkapazität, werden seine Nachfahren wieder zusammengeführt und für spätere Aufteilungen wiederverwendet.
+ *
+ * @since 0.6.0
+ */
+public class QuadTree extends SpatialIndexBase {
+	
+	
+	/**
+	 * Standardanzahl an Objekten, ab der ein Knoten aufgeteilt wird.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int DEFAULT_NODE_CAPACITY = 8;
+	/**
+	 * Standardanzahl an Ebenen, über die hinaus keine Knoten mehr aufgeteilt werden.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int DEFAULT_MAX_DEPTH = 10;
+	
+	private final int nodeCapacity, maxDepth;
+	
+	private double[] nodeMinX, nodeMinY, nodeMaxX, nodeMaxY;
+	private int[] nodeChildren, nodeHeads, nodeSizes, nodeDepths;
+	private int[] nodeParents, nodeTotals;
+	private int nodeCount, freeNodes;
+	
+	private int[] itemSlots, itemNext;
+	private int itemCount, freeItem;
+	
+	private int[] slotNodes;
+	private int[] stack;
+	
+	
+	/**
+	 * Konstruiert neuen, leeren QuadTree mit Standardwerten für Knotenkapazität und Tiefe.
+	 *
+	 * @param x Horizontale Position des Bereichs in Pixeln
+	 * @param y Vertikale Position des Bereichs in Pixeln
+	 * @param w Horizontale Größe des Bereichs in Pixeln
+	 * @param h Vertikale Größe des Bereichs in Pixeln
+	 * @since 0.6.0
+	 */
+	public QuadTree( double x,double y,double w,double h ) {
+		this( x,y,w,h,DEFAULT_NODE_CAPACITY,DEFAULT_MAX_DEPTH );
+	}
+	
+	/**
+	 * Konstruiert neuen, leeren QuadTree.
+	 *
+	 * @param x            Horizontale Position des Bereichs in Pixeln
+	 * @param y            Vertikale Position des Bereichs in Pixeln
+	 * @param w            Horizontale Größe des Bereichs in Pixeln
+	 * @param h            Vertikale Größe des Bereichs in Pixeln
+	 * @param nodeCapacity Anzahl an Objekten, ab der ein Knoten aufgeteilt wird
+	 * @param maxDepth     Anzahl an Ebenen, über die hinaus keine Knoten mehr aufgeteilt werden
+	 * @since 0.6.0
+	 */
+	public QuadTree( double x,double y,double w,double h,int nodeCapacity,int maxDepth ) {
+		this.nodeCapacity = Math.max( 1,nodeCapacity );
+		this.maxDepth = Math.max( 0,maxDepth );
+		nodeMinX = new double[64];
+		nodeMinY = new double[64];
+		nodeMaxX = new double[64];
+		nodeMaxY = new double[64];
+		nodeChildren = new int[64];
+		nodeHeads = new int[64];
+		nodeSizes = new int[64];
+		nodeDepths = new int[64];
+		nodeParents = new int[64];
+		nodeTotals = new int[64];
+		itemSlots = new int[64];
+		itemNext = new int[64];
+		slotNodes = new int[64];
+		stack = new int[64];
+		nodeMinX[0] = x;
+		nodeMinY[0] = y;
+		nodeMaxX[0] = x + w;
+		nodeMaxY[0] = y + h;
+		resetNodes();
+	}
+	
+	
+	@Override
+	public void clear() {
+		super.clear();
+		resetNodes();
+	}
+	
+	@Override
+	public void queryArea( double x,double y,double w,double h,QueryResult result ) {
+		result.clear();
+		double right = x + w, bottom = y + h;
+		int top = 0;
+		stack[top++] = 0;
+		while( top > 0 ) {
+			int node = stack[--top];
+			for( int item = nodeHeads[node]; item != -1; item = itemNext[item] ) {
+				int slot = itemSlots[item];
+				if( overlaps( slot,x,y,right,bottom ) )
+					result.add( ids[slot] );
+			}
+			int child = nodeChildren[node];
+			if( child == -1 )
+				continue;
+			for( int i = 0; i < 4; i++ )
+				if( nodeMinX[child + i] <= right && nodeMaxX[child + i] >= x && nodeMinY[child + i] <= bottom && nodeMaxY[child + i] >= y ) {
+					ensureStack( top + 1 );
+					stack[top++] = child + i;
+				}
+		}
+	}
+	
+	@Override
+	public void forEachPair( PairCallback callback ) {
+		for( int node = 0; node < nodeCount; node++ ) {
+			for( int a = nodeHeads[node]; a != -1; a = itemNext[a] ) {
+				int slotA = itemSlots[a];
+				for( int b = itemNext[a]; b != -1; b = itemNext[b] )
+					if( overlaps( slotA,itemSlots[b] ) )
+						callback.pair( ids[slotA],ids[itemSlots[b]] );
+				if( nodeChildren[node] != -1 )
+					pairWithDescendants( slotA,node,callback );
+			}
+		}
+	}
+	
+	
+	@Override
+	void insertSlot( int slot ) {
+		int node = 0;
+		while( true ) {
+			nodeTotals[node]++;
+			int child = nodeChildren[node];
+			if( child == -1 ) {
+				addItem( node,slot );
+				if( nodeSizes[node] > nodeCapacity && nodeDepths[node] < maxDepth )
+					split( node );
+				return;
+			}
+			int quadrant = findQuadrant( child,minX[slot],minY[slot],maxX[slot],maxY[slot] );
+			if( quadrant == -1 ) {
+				addItem( node,slot );
+				return;
+			}
+			node = child + quadrant;
+		}
+	}
+	
+	@Override
+	void removeSlot( int slot ) {
+		int node = slotNodes[slot];
+		int previous = -1;
+		for( int item = nodeHeads[node]; item != -1; previous = item, item = itemNext[item] ) {
+			if( itemSlots[item] == slot ) {
+				if( previous == -1 )
+					nodeHeads[node] = itemNext[item];
+				else
+					itemNext[previous] = itemNext[item];
+				itemNext[item] = freeItem;
+				freeItem = item;
+				nodeSizes[node]--;
+				break;
+			}
+		}
+		// Zusammengeführt wird der oberste Vorfahre, dessen Teilbaum klein genug geworden ist
+		int collapse = -1;
+		for( int current = node; current != -1; current = nodeParents[current] ) {
+			nodeTotals[current]--;
+			if( nodeChildren[current] != -1 && nodeTotals[current] <= nodeCapacity / 2 )
+				collapse = current;
+		}
+		if( collapse != -1 )
+			merge( collapse );
+	}
+	
+	@Override
+	void updateSlot( int slot,double left,double top,double right,double bottom ) {
+		minX[slot] = left;
+		minY[slot] = top;
+		maxX[slot] = right;
+		maxY[slot] = bottom;
+		int node = slotNodes[slot];
+		// Das Objekt bleibt, wo es ist, solange es noch in seinen Knoten passt und in keinen Kindknoten rutschen würde
+		boolean fits = node == 0 || (left >= nodeMinX[node] && right <= nodeMaxX[node] && top >= nodeMinY[node] && bottom <= nodeMaxY[node]);
+		if( fits && (nodeChildren[node] == -1 || findQuadrant( nodeChildren[node],left,top,right,bottom ) == -1) )
+			return;
+		removeSlot( slot );
+		insertSlot( slot );
+	}
+	
+	@Override
+	void growSlots( int capacity ) {
+		slotNodes = Arrays.copyOf( slotNodes,capacity );
+	}
+	
+	
+	/**
+	 * Setzt den Baum auf einen einzelnen, leeren Wurzelknoten zurück.
+	 *
+	 * @since 0.6.0
+	 */
+	private void resetNodes() {
+		nodeCount = 1;
+		nodeChildren[0] = -1;
+		nodeHeads[0] = -1;
+		nodeSizes[0] = 0;
+		nodeDepths[0] = 0;
+		nodeParents[0] = -1;
+		nodeTotals[0] = 0;
+		freeNodes = -1;
+		itemCount = 0;
+		freeItem = -1;
+	}
+	
+	/**
+	 * @param child  Index des ersten von vier Kindknoten
+	 * @param left   Linke Kante in Pixeln
+	 * @param top    Obere Kante in Pixeln
+	 * @param right  Rechte Kante in Pixeln
+	 * @param bottom Untere Kante in Pixeln
+	 * @return Index des Kindknotens zwischen {@code 0} und {@code 3}, der den angegebenen Bereich vollständig enthält, oder {@code -1}.
+	 * @since 0.6.0
+	 */
+	private int findQuadrant( int child,double left,double top,double right,double bottom ) {
+		for( int i = 0; i < 4; i++ )
+			if( left >= nodeMinX[child + i] && right <= nodeMaxX[child + i] && top >= nodeMinY[child + i] && bottom <= nodeMaxY[child + i] )
+				return i;
+		return -1;
+	}
+	
+	/**
+	 * Teilt einen Knoten in vier Kindknoten und verschiebt alle Objekte, die vollständig in einen Kindknoten passen.
+	 *
+	 * @param node Index des Knotens
+	 * @since 0.6.0
+	 */
+	private void split( int node ) {
+		int child;
+		if( freeNodes != -1 ) {
+			child = freeNodes;
+			freeNodes = nodeChildren[child];
+		} else {
+			ensureNodeCapacity( nodeCount + 4 );
+			child = nodeCount;
+			nodeCount += 4;
+		}
+		double centerX = (nodeMinX[node] + nodeMaxX[node]) / 2, centerY = (nodeMinY[node] + nodeMaxY[node]) / 2;
+		for( int i = 0; i < 4; i++ ) {
+			nodeMinX[child + i] = (i & 1) == 0 ? nodeMinX[node] : centerX;
+			nodeMaxX[child + i] = (i & 1) == 0 ? centerX : nodeMaxX[node];
+			nodeMinY[child + i] = (i & 2) == 0 ? nodeMinY[node] : centerY;
+			nodeMaxY[child + i] = (i & 2) == 0 ? centerY : nodeMaxY[node];
+			nodeChildren[child + i] = -1;
+			nodeHeads[child + i] = -1;
+			nodeSizes[child + i] = 0;
+			nodeDepths[child + i] = nodeDepths[node] + 1;
+			nodeParents[child + i] = node;
+			nodeTotals[child + i] = 0;
+		}
+		nodeChildren[node] = child;
+		
+		int item = nodeHeads[node];
+		nodeHeads[node] = -1;
+		nodeSizes[node] = 0;
+		while( item != -1 ) {
+			int next = itemNext[item];
+			int slot = itemSlots[item];
+			itemNext[item] = freeItem;
+			freeItem = item;
+			int quadrant = findQuadrant( child,minX[slot],minY[slot],maxX[slot],maxY[slot] );
+			addItem( quadrant == -1 ? node : child + quadrant,slot );
+			item = next;
+		}
+	}
+	
+	/**
+	 * Verschiebt alle Objekte der Nachfahren eines Knotens in den Knoten selbst und gibt die Nachfahren frei.
+	 * Freie Gruppen von vier Kindknoten sind über das Feld für den ersten Kindknoten ihres ersten Knotens verkettet.
+	 *
+	 * @param node Index des Knotens
+	 * @since 0.6.0
+	 */
+	private void merge( int node ) {
+		int top = 0;
+		stack[top++] = nodeChildren[node];
+		nodeChildren[node] = -1;
+		while( top > 0 ) {
+			int child = stack[--top];
+			for( int i = 0; i < 4; i++ ) {
+				int current = child + i;
+				int item = nodeHeads[current];
+				while( item != -1 ) {
+					int next = itemNext[item];
+					itemNext[item] = nodeHeads[node];
+					nodeHeads[node] = item;
+					slotNodes[itemSlots[item]] = node;
+					item = next;
+				}
+				nodeHeads[current] = -1;
+				nodeSizes[current] = 0;
+				nodeTotals[current] = 0;
+				if( nodeChildren[current] != -1 ) {
+					ensureStack( top + 1 );
+					stack[top++] = nodeChildren[current];
+				}
+			}
+			nodeChildren[child + 1] = -1;
+			nodeChildren[child + 2] = -1;
+			nodeChildren[child + 3] = -1;
+			nodeChildren[child] = freeNodes;
+			freeNodes = child;
+		}
+		nodeSizes[node] = nodeTotals[node];
+	}
+	
+	/**
+	 * Trägt ein Objekt in einen Knoten ein.
+	 *
+	 * @param node Index des Knotens
+	 * @param slot Platz des Objekts
+	 * @since 0.6.0
+	 */
+	private void addItem( int node,int slot ) {
+		int item;
+		if( freeItem != -1 ) {
+			item = freeItem;
+			freeItem = itemNext[item];
+		} else {
+			if( itemCount == itemSlots.length ) {
+				itemSlots = Arrays.copyOf( itemSlots,itemCount * 2 );
+				itemNext = Arrays.copyOf( itemNext,itemCount * 2 );
+			}
+			item = itemCount++;
+		}
+		itemSlots[item] = slot;
+		itemNext[item] = nodeHeads[node];
+		nodeHeads[node] = item;
+		nodeSizes[node]++;
+		slotNodes[slot] = node;
+	}
+	
+	/**
+	 * Meldet alle Objekte in den Nachfahren eines Knotens, die das angegebene Objekt überschneiden.
+	 *
+	 * @param slot     Platz des Objekts
+	 * @param node     Index des Knotens
+	 * @param callback Empfänger der Paare
+	 * @since 0.6.0
+	 */
+	private void pairWithDescendants( int slot,int node,PairCallback callback ) {
+		int top = 0;
+		ensureStack( 4 );
+		for( int i = 0; i < 4; i++ )
+			stack[top++] = nodeChildren[node] + i;
+		while( top > 0 ) {
+			int current = stack[--top];
+			if( !overlaps( slot,nodeMinX[current],nodeMinY[current],nodeMaxX[current],nodeMaxY[current] ) )
+				continue;
+			for( int item = nodeHeads[current]; item != -1; item = itemNext[item] )
+				if( overlaps( slot,itemSlots[item] ) )
+					callback.pair( ids[slot],ids[itemSlots[item]] );
+			int child = nodeChildren[current];
+			if( child != -1 ) {
+				ensureStack( top + 4 );
+				for( int i = 0; i < 4; i++ )
+					stack[top++] = child + i;
+			}
+		}
+	}
+	
+	/**
+	 * Vergrößert die Arrays der Knoten, sodass sie mindestens die angegebene Anzahl an Knoten aufnehmen können.
+	 *
+	 * @param capacity Benötigte Anzahl an Knoten
+	 * @since 0.6.0
+	 */
+	private void ensureNodeCapacity( int capacity ) {
+		if( capacity <= nodeChildren.length )
+			return;
+		int length = Math.max( nodeChildren.length * 2,capacity );
+		nodeMinX = Arrays.copyOf( nodeMinX,length );
+		nodeMinY = Arrays.copyOf( nodeMinY,length );
+		nodeMaxX = Arrays.copyOf( nodeMaxX,length );
+		nodeMaxY = Arrays.copyOf( nodeMaxY,length );
+		nodeChildren = Arrays.copyOf( nodeChildren,length );
+		nodeHeads = Arrays.copyOf( nodeHeads,length );
+		nodeSizes = Arrays.copyOf( nodeSizes,length );
+		nodeDepths = Arrays.copyOf( nodeDepths,length );
+		nodeParents = Arrays.copyOf( nodeParents,length );
+		nodeTotals = Arrays.copyOf( nodeTotals,length );
+	}
+	
+	/**
+	 * Vergrößert den Stapel für die Traversierung des Baums.
+	 *
+	 * @param capacity Benötigte Größe des Stapels
+	 * @since 0.6.0
+	 */
+	private void ensureStack( int capacity ) {
+		if( capacity > stack.length )
+			stack = Arrays.copyOf( stack,Math.max( stack.length * 2,capacity ) );
+	}
+	
+	
+}
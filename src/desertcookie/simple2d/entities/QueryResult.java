@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.entities;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Wiederverwendbarer Puffer für die IDs, die eine Abfrage an einen {@link SpatialIndex} gefunden hat.
+ *
+ * @since 0.6.0
+ */
+public class QueryResult {
+	
+	
+	private int[] ids;
+	private int count;
+	
+	
+	/**
+	 * Konstruiert neues, leeres QueryResult.
+	 *
+	 * @since 0.6.0
+	 */
+	public QueryResult() {
+		ids = new int[64];
+	}
+	
+	
+	/**
+	 * @return Anzahl der gefundenen IDs.
+	 * @since 0.6.0
+	 */
+	public int getCount() {
+		return count;
+	}
+	
+	/**
+	 * @param index Index zwischen {@code 0} und {@link #getCount()}
+	 * @return Gefundene ID mit dem angegebenen Index.
+	 * @since 0.6.0
+	 */
+	public int get( int index ) {
+		if( index >= count )
+			throw new IndexOutOfBoundsException( "Index " + index + " is out of bounds for " + count + " results!" );
+		return ids[index];
+	}
+	
+	/**
+	 * @return {@code true} wenn keine ID gefunden wurde.
+	 * @since 0.6.0
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+	
+	
+	/**
+	 * Entfernt alle IDs. Interne Methode.
+	 *
+	 * @since 0.6.0
+	 */
+	void clear() {
+		count = 0;
+	}
+	
+	/**
+	 * Fügt eine gefundene ID hinzu. Interne Methode.
+	 *
+	 * @param id Gefundene ID
+	 * @since 0.6.0
+	 */
+	void add( int id ) {
+		if( count == ids.length )
+			ids = Arrays.copyOf( ids,count * 2 );
+		ids[count++] = id;
+	}
+	
+	
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.entities;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Räumlicher Index, der die Fläche in gleich große Zellen aufteilt und jedes Objekt in allen Zellen einträgt, die es berührt.
+ * Nur belegte Zellen werden in einer Hash-Tabelle gespeichert, die Fläche ist daher unbegrenzt. Am besten geeignet für viele ähnlich große Objekte, die Zellgröße sollte etwa der typischen Objektgröße entsprechen.
+ *
+ * @since 0.6.0
+ */
+public class SpatialHashGrid extends SpatialIndexBase {
+	
+	
+	private final double cellSize;
+	
+	private long[] cellKeys;
+	private int[] cellHeads;
+	private boolean[] cellUsed;
+	private int cellCount, cellMask;
+	
+	private int[] nodeSlots, nodeNext;
+	private int nodeCount, freeNode;
+	
+	private int[] slotMinCellX, slotMinCellY, slotMaxCellX, slotMaxCellY;
+	
+	
+	/**
+	 * Konstruiert neues, leeres SpatialHashGrid.
+	 *
+	 * @param cellSize Horizontale und vertikale Größe einer Zelle in Pixeln
+	 * @since 0.6.0
+	 */
+	public SpatialHashGrid( double cellSize ) {
+		if( cellSize <= 0 )
+			throw new IllegalArgumentException( "The cell size must be positive!" );
+		this.cellSize = cellSize;
+		cellKeys = new long[256];
+		cellHeads = new int[256];
+		cellUsed = new boolean[256];
+		cellMask = 255;
+		nodeSlots = new int[256];
+		nodeNext = new int[256];
+		freeNode = -1;
+		slotMinCellX = new int[64];
+		slotMinCellY = new int[64];
+		slotMaxCellX = new int[64];
+		slotMaxCellY = new int[64];
+	}
+	
+	
+	@Override
+	public void clear() {
+		super.clear();
+		Arrays.fill( cellUsed,false );
+		cellCount = 0;
+		nodeCount = 0;
+		freeNode = -1;
+	}
+	
+	@Override
+	public void queryArea( double x,double y,double w,double h,QueryResult result ) {
+		result.clear();
+		double right = x + w, bottom = y + h;
+		int minCellX = cell( x ), minCellY = cell( y ), maxCellX = cell( right ), maxCellY = cell( bottom );
+		int stamp = nextStamp();
+		for( int cy = minCellY; cy <= maxCellY; cy++ )
+			for( int cx = minCellX; cx <= maxCellX; cx++ ) {
+				int index = findCell( cx,cy );
+				if( index < 0 )
+					continue;
+				for( int node = cellHeads[index]; node != -1; node = nodeNext[node] ) {
+					int slot = nodeSlots[node];
+					if( overlaps( slot,x,y,right,bottom ) && mark( slot,stamp ) )
+						result.add( ids[slot] );
+				}
+			}
+	}
+	
+	@Override
+	public void forEachPair( PairCallback callback ) {
+		for( int index = 0; index < cellUsed.length; index++ ) {
+			if( !cellUsed[index] )
+				continue;
+			int cx = (int)(cellKeys[index] >> 32), cy = (int)cellKeys[index];
+			for( int a = cellHeads[index]; a != -1; a = nodeNext[a] ) {
+				int slotA = nodeSlots[a];
+				for( int b = nodeNext[a]; b != -1; b = nodeNext[b] ) {
+					int slotB = nodeSlots[b];
+					// Jedes Paar wird nur in der Zelle gemeldet, die die obere linke Ecke der Überschneidung enthält
+					if( overlaps( slotA,slotB ) && cell( Math.max( minX[slotA],minX[slotB] ) ) == cx && cell( Math.max( minY[slotA],minY[slotB] ) ) == cy )
+						callback.pair( ids[slotA],ids[slotB] );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return Horizontale und vertikale Größe einer Zelle in Pixeln.
+	 * @since 0.6.0
+	 */
+	public double getCellSize() {
+		return cellSize;
+	}
+	
+	
+	@Override
+	void insertSlot( int slot ) {
+		slotMinCellX[slot] = cell( minX[slot] );
+		slotMinCellY[slot] = cell( minY[slot] );
+		slotMaxCellX[slot] = cell( maxX[slot] );
+		slotMaxCellY[slot] = cell( maxY[slot] );
+		for( int cy = slotMinCellY[slot]; cy <= slotMaxCellY[slot]; cy++ )
+			for( int cx = slotMinCellX[slot]; cx <= slotMaxCellX[slot]; cx++ )
+				addNode( cx,cy,slot );
+	}
+	
+	@Override
+	void removeSlot( int slot ) {
+		for( int cy = slotMinCellY[slot]; cy <= slotMaxCellY[slot]; cy++ )
+			for( int cx = slotMinCellX[slot]; cx <= slotMaxCellX[slot]; cx++ )
+				removeNode( cx,cy,slot );
+	}
+	
+	@Override
+	void updateSlot( int slot,double left,double top,double right,double bottom ) {
+		boolean sameCells = cell( left ) == slotMinCellX[slot] && cell( top ) == slotMinCellY[slot] && cell( right ) == slotMaxCellX[slot] && cell( bottom ) == slotMaxCellY[slot];
+		if( !sameCells )
+			removeSlot( slot );
+		minX[slot] = left;
+		minY[slot] = top;
+		maxX[slot] = right;
+		maxY[slot] = bottom;
+		if( !sameCells )
+			insertSlot( slot );
+	}
+	
+	@Override
+	void growSlots( int capacity ) {
+		slotMinCellX = Arrays.copyOf( slotMinCellX,capacity );
+		slotMinCellY = Arrays.copyOf( slotMinCellY,capacity );
+		slotMaxCellX = Arrays.copyOf( slotMaxCellX,capacity );
+		slotMaxCellY = Arrays.copyOf( slotMaxCellY,capacity );
+	}
+	
+	
+	/**
+	 * @param coordinate Position in Pixeln
+	 * @return Index der Zelle, die die angegebene Position enthält.
+	 * @since 0.6.0
+	 */
+	private int cell( double coordinate ) {
+		return (int)Math.floor( coordinate / cellSize );
+	}
+	
+	/**
+	 * @param cx Horizontaler Index der Zelle
+	 * @param cy Vertikaler Index der Zelle
+	 * @return Position der Zelle in der Hash-Tabelle oder {@code -1}, wenn sie nicht existiert.
+	 * @since 0.6.0
+	 */
+	private int findCell( int cx,int cy ) {
+		long key = (long)cx << 32 | (cy & 0xFFFFFFFFL);
+		for( int i = hash( key ); cellUsed[i]; i = (i + 1) & cellMask )
+			if( cellKeys[i] == key )
+				return i;
+		return -1;
+	}
+	
+	/**
+	 * Trägt ein Objekt in eine Zelle ein und legt die Zelle an, falls sie noch nicht existiert.
+	 *
+	 * @param cx   Horizontaler Index der Zelle
+	 * @param cy   Vertikaler Index der Zelle
+	 * @param slot Platz des Objekts
+	 * @since 0.6.0
+	 */
+	private void addNode( int cx,int cy,int slot ) {
+		int index = findCell( cx,cy );
+		if( index < 0 ) {
+			if( (cellCount + 1) * 2 > cellUsed.length )
+				resizeCells( cellUsed.length * 2 );
+			long key = (long)cx << 32 | (cy & 0xFFFFFFFFL);
+			index = hash( key );
+			while( cellUsed[index] )
+				index = (index + 1) & cellMask;
+			cellUsed[index] = true;
+			cellKeys[index] = key;
+			cellHeads[index] = -1;
+			cellCount++;
+		}
+		int node;
+		if( freeNode != -1 ) {
+			node = freeNode;
+			freeNode = nodeNext[node];
+		} else {
+			if( nodeCount == nodeSlots.length ) {
+				nodeSlots = Arrays.copyOf( nodeSlots,nodeCount * 2 );
+				nodeNext = Arrays.copyOf( nodeNext,nodeCount * 2 );
+			}
+			node = nodeCount++;
+		}
+		nodeSlots[node] = slot;
+		nodeNext[node] = cellHeads[index];
+		cellHeads[index] = node;
+	}
+	
+	/**
+	 * Entfernt ein Objekt aus einer Zelle. Wird die Zelle dadurch leer, wird sie aus der Hash-Tabelle entfernt.
+	 *
+	 * @param cx   Horizontaler Index der Zelle
+	 * @param cy   Vertikaler Index der Zelle
+	 * @param slot Platz des Objekts
+	 * @since 0.6.0
+	 */
+	private void removeNode( int cx,int cy,int slot ) {
+		int index = findCell( cx,cy );
+		if( index < 0 )
+			return;
+		int previous = -1;
+		for( int node = cellHeads[index]; node != -1; previous = node, node = nodeNext[node] ) {
+			if( nodeSlots[node] == slot ) {
+				if( previous == -1 )
+					cellHeads[index] = nodeNext[node];
+				else
+					nodeNext[previous] = nodeNext[node];
+				nodeNext[node] = freeNode;
+				freeNode = node;
+				if( cellHeads[index] == -1 )
+					removeCell( index );
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Entfernt eine leere Zelle aus der Hash-Tabelle. Nachfolgende Zellen derselben Sondierungskette werden zurückgeschoben, damit die Suche nach ihnen nicht an der entstandenen Lücke abbricht.
+	 *
+	 * @param index Position der Zelle in der Hash-Tabelle
+	 * @since 0.6.0
+	 */
+	private void removeCell( int index ) {
+		int hole = index;
+		for( int i = (index + 1) & cellMask; cellUsed[i]; i = (i + 1) & cellMask ) {
+			int home = hash( cellKeys[i] );
+			// Die Zelle darf nur in die Lücke, wenn diese zwischen ihrer Startposition und ihrer aktuellen Position liegt
+			if( ((i - home) & cellMask) < ((i - hole) & cellMask) )
+				continue;
+			cellKeys[hole] = cellKeys[i];
+			cellHeads[hole] = cellHeads[i];
+			hole = i;
+		}
+		cellUsed[hole] = false;
+		cellCount--;
+	}
+	
+	/**
+	 * @param key Schlüssel einer Zelle
+	 * @return Startposition der Suche nach der Zelle in der Hash-Tabelle.
+	 * @since 0.6.0
+	 */
+	private int hash( long key ) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32)) & cellMask;
+	}
+	
+	/**
+	 * Vergrößert die Hash-Tabelle der Zellen und fügt alle Zellen neu ein.
+	 *
+	 * @param capacity Neue Größe, eine Zweierpotenz
+	 * @since 0.6.0
+	 */
+	private void resizeCells( int capacity ) {
+		long[] oldKeys = cellKeys;
+		int[] oldHeads = cellHeads;
+		boolean[] oldUsed = cellUsed;
+		cellKeys = new long[capacity];
+		cellHeads = new int[capacity];
+		cellUsed = new boolean[capacity];
+		cellMask = capacity - 1;
+		for( int i = 0; i < oldUsed.length; i++ ) {
+			if( !oldUsed[i] )
+				continue;
+			int index = hash( oldKeys[i] );
+			while( cellUsed[index] )
+				index = (index + 1) & cellMask;
+			cellUsed[index] = true;
+			cellKeys[index] = oldKeys[i];
+			cellHeads[index] = oldHeads[i];
+		}
+	}
+	
+	
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.entities;
+
+
+/**
+ * Räumlicher Index für achsenparallele Rechtecke, mit dem Kollisionskandidaten gefunden werden können, ohne jedes Objekt mit jedem anderen zu vergleichen.
+ * Objekte werden über eine nicht-negative ID angesprochen, beispielsweise ein Handle aus {@link EntityStore}. Alle Abfragen zählen Berührungen an den Kanten als Überschneidung und erzeugen keine Objekte.
+ *
+ * @since 0.6.0
+ */
+public interface SpatialIndex {
+	
+	
+	/**
+	 * Fügt ein Objekt hinzu.
+	 *
+	 * @param id ID des Objekts, mindestens {@code 0}
+	 * @param x  Horizontale Position in Pixeln
+	 * @param y  Vertikale Position in Pixeln
+	 * @param w  Horizontale Größe in Pixeln
+	 * @param h  Vertikale Größe in Pixeln
+	 * @since 0.6.0
+	 */
+	void insert( int id,double x,double y,double w,double h );
+	
+	/**
+	 * Aktualisiert Position und Größe eines Objekts. Bleibt das Objekt in denselben Zellen bzw. Knoten, werden nur seine Grenzen aktualisiert.
+	 *
+	 * @param id ID des Objekts
+	 * @param x  Horizontale Position in Pixeln
+	 * @param y  Vertikale Position in Pixeln
+	 * @param w  Horizontale Größe in Pixeln
+	 * @param h  Vertikale Größe in Pixeln
+	 * @since 0.6.0
+	 */
+	void update( int id,double x,double y,double w,double h );
+	
+	/**
+	 * Entfernt ein Objekt.
+	 *
+	 * @param id ID des Objekts
+	 * @since 0.6.0
+	 */
+	void remove( int id );
+	
+	/**
+	 * @param id ID eines Objekts
+	 * @return {@code true} wenn sich ein Objekt mit der angegebenen ID im Index befindet.
+	 * @since 0.6.0
+	 */
+	boolean contains( int id );
+	
+	/**
+	 * @return Anzahl der Objekte im Index.
+	 * @since 0.6.0
+	 */
+	int getSize();
+	
+	/**
+	 * Entfernt alle Objekte.
+	 *
+	 * @since 0.6.0
+	 */
+	void clear();
+	
+	/**
+	 * Sucht alle Objekte, die den angegebenen Bereich überschneiden.
+	 *
+	 * @param x      Horizontale Position des Bereichs in Pixeln
+	 * @param y      Vertikale Position des Bereichs in Pixeln
+	 * @param w      Horizontale Größe des Bereichs in Pixeln
+	 * @param h      Vertikale Größe des Bereichs in Pixeln
+	 * @param result Ergebnis, das vorher geleert wird und danach die IDs aller gefundenen Objekte enthält
+	 * @since 0.6.0
+	 */
+	void queryArea( double x,double y,double w,double h,QueryResult result );
+	
+	/**
+	 * Sucht alle Objekte, die den angegebenen Punkt enthalten.
+	 *
+	 * @param x      Horizontale Position des Punktes in Pixeln
+	 * @param y      Vertikale Position des Punktes in Pixeln
+	 * @param result Ergebnis, das vorher geleert wird und danach die IDs aller gefundenen Objekte enthält
+	 * @since 0.6.0
+	 */
+	void queryPoint( double x,double y,QueryResult result );
+	
+	/**
+	 * Ruft den angegebenen Empfänger für jedes Paar sich überschneidender Objekte genau einmal auf.
+	 *
+	 * @param callback Empfänger der Paare
+	 * @since 0.6.0
+	 */
+	void forEachPair( PairCallback callback );
+	
+	
+	/**
+	 * Empfänger für Paare sich überschneidender Objekte.
+	 *
+	 * @since 0.6.0
+	 */
+	interface PairCallback {
+		
+		
+		/**
+		 * Wird für jedes Paar sich überschneidender Objekte aufgerufen. Der Index darf währenddessen nicht verändert werden.
+		 *
+		 * @param first  ID des ersten Objekts
+		 * @param second ID des zweiten Objekts
+		 * @since 0.6.0
+		 */
+		void pair( int first,int second );
+		
+		
+	}
+	
+	
+}
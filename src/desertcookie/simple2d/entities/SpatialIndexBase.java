@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.entities;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Gemeinsame Verwaltung der Objekte eines {@link SpatialIndex}. Speichert die Grenzen aller Objekte in primitiven Arrays und ordnet jeder ID einen festen Platz zu. Interne Klasse.
+ *
+ * @since 0.6.0
+ */
+abstract class SpatialIndexBase implements SpatialIndex {
+	
+	
+	/**
+	 * ID des Objekts auf dem jeweiligen Platz.
+	 *
+	 * @since 0.6.0
+	 */
+	int[] ids;
+	/**
+	 * Grenzen des Objekts auf dem jeweiligen Platz in Pixeln.
+	 *
+	 * @since 0.6.0
+	 */
+	double[] minX, minY, maxX, maxY;
+	
+	private final IntMap slots;
+	private int[] stamps;
+	private int stamp;
+	private int[] freeSlots;
+	private int freeCount, slotCount, size;
+	
+	
+	/**
+	 * Konstruiert neue, leere SpatialIndexBase. Interner Konstruktor.
+	 *
+	 * @since 0.6.0
+	 */
+	SpatialIndexBase() {
+		slots = new IntMap();
+		ids = new int[64];
+		minX = new double[64];
+		minY = new double[64];
+		maxX = new double[64];
+		maxY = new double[64];
+		stamps = new int[64];
+		freeSlots = new int[64];
+	}
+	
+	
+	@Override
+	public void insert( int id,double x,double y,double w,double h ) {
+		if( id < 0 )
+			throw new IllegalArgumentException( "The id must not be negative!" );
+		if( slots.get( id ) >= 0 )
+			throw new IllegalArgumentException( "There already is an object with this id in the spatial index!" );
+		int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+		ensureCapacity( slotCount );
+		slots.put( id,slot );
+		ids[slot] = id;
+		setBounds( slot,x,y,w,h );
+		size++;
+		insertSlot( slot );
+	}
+	
+	@Override
+	public void update( int id,double x,double y,double w,double h ) {
+		updateSlot( slotOf( id ),x,y,x + w,y + h );
+	}
+	
+	@Override
+	public void remove( int id ) {
+		int slot = slotOf( id );
+		removeSlot( slot );
+		slots.remove( id );
+		freeSlots[freeCount++] = slot;
+		size--;
+	}
+	
+	@Override
+	public boolean contains( int id ) {
+		return id >= 0 && slots.get( id ) >= 0;
+	}
+	
+	@Override
+	public int getSize() {
+		return size;
+	}
+	
+	@Override
+	public void clear() {
+		slots.clear();
+		freeCount = 0;
+		slotCount = 0;
+		size = 0;
+	}
+	
+	@Override
+	public void queryPoint( double x,double y,QueryResult result ) {
+		queryArea( x,y,0,0,result );
+	}
+	
+	
+	/**
+	 * Ordnet ein Objekt, dessen Grenzen bereits gesetzt sind, in die Struktur ein.
+	 *
+	 * @param slot Platz des Objekts
+	 * @since 0.6.0
+	 */
+	abstract void insertSlot( int slot );
+	
+	/**
+	 * Entfernt ein Objekt aus der Struktur.
+	 *
+	 * @param slot Platz des Objekts
+	 * @since 0.6.0
+	 */
+	abstract void removeSlot( int slot );
+	
+	/**
+	 * Aktualisiert die Grenzen eines Objekts und ordnet es bei Bedarf neu ein.
+	 *
+	 * @param slot   Platz des Objekts
+	 * @param left   Linke Kante in Pixeln
+	 * @param top    Obere Kante in Pixeln
+	 * @param right  Rechte Kante in Pixeln
+	 * @param bottom Untere Kante in Pixeln
+	 * @since 0.6.0
+	 */
+	abstract void updateSlot( int slot,double left,double top,double right,double bottom );
+	
+	/**
+	 * Setzt die Grenzen eines Objekts.
+	 *
+	 * @param slot Platz des Objekts
+	 * @param x    Horizontale Position in Pixeln
+	 * @param y    Vertikale Position in Pixeln
+	 * @param w    Horizontale Größe in Pixeln
+	 * @param h    Vertikale Größe in Pixeln
+	 * @since 0.6.0
+	 */
+	final void setBounds( int slot,double x,double y,double w,double h ) {
+		minX[slot] = x;
+		minY[slot] = y;
+		maxX[slot] = x + w;
+		maxY[slot] = y + h;
+	}
+	
+	/**
+	 * @param a Platz des ersten Objekts
+	 * @param b Platz des zweiten Objekts
+	 * @return {@code true} wenn sich die beiden Objekte überschneiden oder berühren.
+	 * @since 0.6.0
+	 */
+	final boolean overlaps( int a,int b ) {
+		return minX[a] <= maxX[b] && maxX[a] >= minX[b] && minY[a] <= maxY[b] && maxY[a] >= minY[b];
+	}
+	
+	/**
+	 * @param slot   Platz eines Objekts
+	 * @param left   Linke Kante des Bereichs in Pixeln
+	 * @param top    Obere Kante des Bereichs in Pixeln
+	 * @param right  Rechte Kante des Bereichs in Pixeln
+	 * @param bottom Untere Kante des Bereichs in Pixeln
+	 * @return {@code true} wenn das Objekt den angegebenen Bereich überschneidet oder berührt.
+	 * @since 0.6.0
+	 */
+	final boolean overlaps( int slot,double left,double top,double right,double bottom ) {
+		return minX[slot] <= right && maxX[slot] >= left && minY[slot] <= bottom && maxY[slot] >= top;
+	}
+	
+	/**
+	 * Beginnt eine neue Abfrage, in der jedes Objekt nur einmal gemeldet werden soll.
+	 *
+	 * @return Markierung der neuen Abfrage.
+	 * @since 0.6.0
+	 */
+	final int nextStamp() {
+		if( ++stamp == Integer.MAX_VALUE ) {
+			Arrays.fill( stamps,0 );
+			stamp = 1;
+		}
+		return stamp;
+	}
+	
+	/**
+	 * Markiert ein Objekt für die aktuelle Abfrage.
+	 *
+	 * @param slot  Platz des Objekts
+	 * @param stamp Markierung der aktuellen Abfrage
+	 * @return {@code true} wenn das Objekt in dieser Abfrage noch nicht markiert war.
+	 * @since 0.6.0
+	 */
+	final boolean mark( int slot,int stamp ) {
+		if( stamps[slot] == stamp )
+			return false;
+		stamps[slot] = stamp;
+		return true;
+	}
+	
+	/**
+	 * @return Anzahl der bisher vergebenen Plätze.
+	 * @since 0.6.0
+	 */
+	final int getSlotCount() {
+		return slotCount;
+	}
+	
+	/**
+	 * Vergrößert die Arrays der Unterklasse, sodass sie mindestens die angegebene Anzahl an Plätzen aufnehmen können.
+	 *
+	 * @param capacity Benötigte Anzahl an Plätzen
+	 * @since 0.6.0
+	 */
+	void growSlots( int capacity ) {
+	
+	}
+	
+	
+	/**
+	 * @param id ID eines Objekts
+	 * @return Platz des Objekts mit der angegebenen ID.
+	 * @since 0.6.0
+	 */
+	private int slotOf( int id ) {
+		int slot = id < 0 ? -1 : slots.get( id );
+		if( slot < 0 )
+			throw new IllegalArgumentException( "There is no object with this id in the spatial index!" );
+		return slot;
+	}
+	
+	/**
+	 * Vergrößert alle Arrays, sodass sie mindestens die angegebene Anzahl an Plätzen aufnehmen können.
+	 *
+	 * @param capacity Benötigte Anzahl an Plätzen
+	 * @since 0.6.0
+	 */
+	private void ensureCapacity( int capacity ) {
+		if( capacity <= ids.length )
+			return;
+		int length = Math.max( ids.length * 2,capacity );
+		ids = Arrays.copyOf( ids,length );
+		minX = Arrays.copyOf( minX,length );
+		minY = Arrays.copyOf( minY,length );
+		maxX = Arrays.copyOf( maxX,length );
+		maxY = Arrays.copyOf( maxY,length );
+		stamps = Arrays.copyOf( stamps,length );
+		freeSlots = Arrays.copyOf( freeSlots,length );
+		growSlots( length );
+	}
+	
+	
+}
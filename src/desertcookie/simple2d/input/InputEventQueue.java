@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.input;
+
+
+/**
+ * Ringpuffer für Input-Events mit genau einem schreibenden und genau einem lesenden Thread.
+ * Die Listener schreiben die Events im AWT-Thread als primitive Werte in den Puffer, der Update-Thread überträgt sie zu Beginn jedes Ticks in den {@link InputSnapshot}. Dabei werden weder Locks noch Objekte benötigt.
+ *
+ * @since 0.6.0
+ */
+public final class InputEventQueue {
+	
+	
+	/**
+	 * Arten von Input-Events. Bei Tasten enthält der Code die Taste, beim Mausrad die Anzahl der Klicks.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int KEY_PRESSED = 0, KEY_RELEASED = 1, BUTTON_PRESSED = 2, BUTTON_RELEASED = 3, MOUSE_MOVED = 4, MOUSE_DRAGGED = 5, MOUSE_WHEEL = 6;
+	/**
+	 * Standardgröße des Puffers in Events.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+	
+	private final int mask;
+	private final int[] types, codes, xs, ys;
+	private final long[] times;
+	
+	private volatile long head, tail;
+	private volatile long dropped;
+	
+	
+	/**
+	 * Konstruiert neue, leere InputEventQueue. Interner Konstruktor.
+	 *
+	 * @param capacity Größe des Puffers in Events, muss eine Zweierpotenz sein
+	 * @since 0.6.0
+	 */
+	InputEventQueue( int capacity ) {
+		if( capacity <= 0 || Integer.bitCount( capacity ) != 1 )
+			throw new IllegalArgumentException( "The capacity has to be a power of two!" );
+		mask = capacity - 1;
+		types = new int[capacity];
+		codes = new int[capacity];
+		xs = new int[capacity];
+		ys = new int[capacity];
+		times = new long[capacity];
+	}
+	
+	
+	/**
+	 * Hängt ein Event an den Puffer an. Darf nur von einem einzigen Thread aufgerufen werden. Interne Methode.
+	 *
+	 * @param type Art des Events
+	 * @param code Taste bzw. Klicks des Mausrads
+	 * @param x    Horizontale Position des Cursors in Pixeln
+	 * @param y    Vertikale Position des Cursors in Pixeln
+	 * @param time Zeitpunkt des Events in Nanosekunden
+	 * @return {@code true} wenn das Event aufgenommen wurde, {@code false} wenn der Puffer voll ist.
+	 * @since 0.6.0
+	 */
+	boolean offer( int type,int code,int x,int y,long time ) {
+		long t = tail;
+		if( t - head > mask ) {
+			dropped++;
+			return false;
+		}
+		int index = (int)t & mask;
+		types[index] = type;
+		codes[index] = code;
+		xs[index] = x;
+		ys[index] = y;
+		times[index] = time;
+		// Das Schreiben von tail veröffentlicht das Event für den lesenden Thread
+		tail = t + 1;
+		return true;
+	}
+	
+	/**
+	 * Überträgt alle bisher angehängten Events der Reihe nach in den angegebenen InputSnapshot. Darf nur von einem einzigen Thread aufgerufen werden. Interne Methode.
+	 *
+	 * @param snapshot InputSnapshot, der die Events erhält
+	 * @param recorder InputRecorder, der die Events aufzeichnet, oder {@code null}
+	 * @return Anzahl der übertragenen Events.
+	 * @since 0.6.0
+	 */
+	int drainTo( InputSnapshot snapshot,InputRecorder recorder ) {
+		long h = head, t = tail;
+		for( long i = h; i < t; i++ ) {
+			int index = (int)i & mask;
+			snapshot.apply( types[index],codes[index],xs[index],ys[index] );
+			if( recorder != null )
+				recorder.record( types[index],codes[index],xs[index],ys[index],times[index] );
+		}
+		head = t;
+		return (int)(t - h);
+	}
+	
+	/**
+	 * Verwirft alle bisher angehängten Events. Darf nur vom lesenden Thread aufgerufen werden. Interne Methode.
+	 *
+	 * @since 0.6.0
+	 */
+	void clear() {
+		head = tail;
+	}
+	
+	/**
+	 * @return Anzahl der Events, die momentan im Puffer liegen.
+	 * @since 0.6.0
+	 */
+	public int getSize() {
+		return (int)(tail - head);
+	}
+	
+	/**
+	 * @return Größe des Puffers in Events.
+	 * @since 0.6.0
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+	
+	/**
+	 * @return Anzahl der Events, die verworfen wurden, weil der Puffer voll war.
+	 * @since 0.6.0
+	 */
+	public long getDroppedCount() {
+		return dropped;
+	}
+	
+	
+}
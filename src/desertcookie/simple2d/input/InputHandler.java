@@ -25,8 +25,16 @@
 package desertcookie.simple2d.input;
 
 
+import desertcookie.util.ExceptionHandler;
+
+import java.io.File;
+import java.io.IOException;
+
+
 /**
  * Klasse für Keyboard- und Mausinput.
+ * Die Listener legen alle Events in einer {@link InputEventQueue} ab. Zu Beginn jedes Ticks überträgt {@link #poll()} die Events in einen {@link InputSnapshot}, der während des Ticks unverändert bleibt.
+ * Die Events können mit einem {@link InputRecorder} aufgezeichnet und mit einem {@link InputReplay} wieder abgespielt werden.
  *
  * @since 0.1.9
  */
@@ -37,59 +45,126 @@ public class InputHandler {
 	private static Mouse mouse;
 	private static MouseMovement mouseMovement;
 	
+	private static InputEventQueue queue;
+	private static InputSnapshot snapshot;
+	private static volatile InputRecorder recorder;
+	private static volatile InputReplay replay;
+	private static volatile boolean resetSnapshot;
+	
+	
 	/**
-	 * Liste der Keyboard-Tasten.
+	 * Konstruiert neuen InputHandler. Interner Konstruktor.
 	 *
 	 * @since 0.1.9
 	 */
-	static boolean[] keyboardKeys;
+	public InputHandler() {
+		keyboard = new Keyboard();
+		mouse = new Mouse();
+		mouseMovement = new MouseMovement();
+		queue = new InputEventQueue( InputEventQueue.DEFAULT_CAPACITY );
+		snapshot = new InputSnapshot();
+	}
+	
+	
 	/**
-	 * Liste der Maus-Tasten.
+	 * Beginnt einen neuen Tick und überträgt alle seit dem letzten Tick eingegangenen Events in den InputSnapshot. Interne Methode.
 	 *
-	 * @since 0.3.4
+	 * @since 0.6.0
 	 */
-	static boolean[] mouseButtons;
+	public void poll() {
+		snapshot.begin();
+		if( resetSnapshot ) {
+			resetSnapshot = false;
+			snapshot.reset();
+		}
+		InputReplay replay = InputHandler.replay;
+		if( replay != null ) {
+			queue.clear();
+			replay.feed( snapshot );
+			if( replay.isFinished() ) {
+				InputHandler.replay = null;
+				resetSnapshot = true;
+			}
+		} else {
+			InputRecorder recorder = InputHandler.recorder;
+			// Im ersten Tick wird der Zustand aufgezeichnet, damit bereits gedrückte Tasten bei der Wiedergabe nicht fehlen
+			if( recorder != null && recorder.tick() == 0 )
+				snapshot.record( recorder );
+			queue.drainTo( snapshot,recorder );
+		}
+	}
 	
 	/**
-	 * Cursorposition.
+	 * Beginnt, alle folgenden Input-Events in der angegebenen Datei aufzuzeichnen. Eine laufende Aufzeichnung wird beendet.
+	 * Zu diesem Zeitpunkt gedrückte Tasten und Maustasten sowie die Position des Cursors werden im ersten Tick als Events aufgezeichnet.
 	 *
-	 * @since 0.3.4
+	 * @param file Zieldatei
+	 * @return Neue Aufzeichnung oder {@code null} wenn die Datei nicht angelegt werden konnte.
+	 * @since 0.6.0
 	 */
-	static int mouseX, mouseY;
+	public InputRecorder startRecording( File file ) {
+		stopRecording();
+		try {
+			recorder = new InputRecorder( file );
+			return recorder;
+		} catch( IOException e ) {
+			ExceptionHandler.handle( e,"Fehler beim aufzeichnen des Inputs",false );
+		}
+		return null;
+	}
+	
 	/**
-	 * Klicks die das Mausrad bewegt wurde.
+	 * Beendet die laufende Aufzeichnung.
 	 *
-	 * @since 0.3.4
+	 * @since 0.6.0
 	 */
-	static int mouseWheelDelta;
+	public void stopRecording() {
+		InputRecorder recorder = InputHandler.recorder;
+		InputHandler.recorder = null;
+		if( recorder != null )
+			recorder.close();
+	}
 	
 	/**
-	 * Cursorposition als die linke Maustaste gedrückt wurde.
-	 *
-	 * @since 0.3.4
+	 * @return {@code true} wenn momentan Input aufgezeichnet wird.
+	 * @since 0.6.0
 	 */
-	static int mouseXDragStart, mouseYDragStart;
+	public boolean isRecording() {
+		return recorder != null;
+	}
+	
 	/**
-	 * Anzahl Pixel, die der Cursor seit dem Drücken der linken Maustaste bewegt wurde.
+	 * Spielt die angegebene Aufzeichnung ab dem nächsten Tick ab. Solange sie läuft, wird der Input von Tastatur und Maus verworfen. Danach wird er wieder verwendet.
+	 * Zu Beginn und am Ende der Wiedergabe werden alle Tasten und Maustasten losgelassen, damit weder der Zustand vor der Wiedergabe noch der am Ende der Aufzeichnung erhalten bleibt.
+	 * Mit {@link desertcookie.simple2d.core.Game#setFixedTimestep(boolean)} erhält jeder Tick dieselbe Zeitspanne wie bei der Aufzeichnung, sodass sich das Spiel genau wie aufgezeichnet verhält. Zusätzlich mit {@link desertcookie.simple2d.core.Game#setUnthrottled(boolean)} läuft die Wiedergabe so schnell wie möglich.
 	 *
-	 * @since 0.3.4
+	 * @param replay Aufzeichnung, die abgespielt werden soll
+	 * @since 0.6.0
 	 */
-	static int mouseXDragDelta, mouseYDragDelta;
-	
+	public void startReplay( InputReplay replay ) {
+		replay.rewind();
+		resetSnapshot = true;
+		InputHandler.replay = replay;
+	}
 	
 	/**
-	 * Konstruiert neuen InputHandler. Interner Konstruktor.
+	 * Beendet das Abspielen einer Aufzeichnung.
 	 *
-	 * @since 0.1.9
+	 * @since 0.6.0
 	 */
-	public InputHandler() {
-		keyboard = new Keyboard();
-		mouse = new Mouse();
-		mouseMovement = new MouseMovement();
-		keyboardKeys = new boolean[512];
-		mouseButtons = new boolean[16];
+	public void stopReplay() {
+		if( replay != null )
+			resetSnapshot = true;
+		replay = null;
 	}
 	
+	/**
+	 * @return {@code true} wenn momentan eine Aufzeichnung abgespielt wird.
+	 * @since 0.6.0
+	 */
+	public boolean isReplaying() {
+		return replay != null;
+	}
 	
 	/**
 	 * @param keyCode Taste die überprüft werden soll
@@ -97,7 +172,25 @@ public class InputHandler {
 	 * @since 0.1.9
 	 */
 	public boolean isKeyDown( int keyCode ) {
-		return keyboardKeys[keyCode];
+		return snapshot.isKeyDown( keyCode );
+	}
+	
+	/**
+	 * @param keyCode Taste die überprüft werden soll
+	 * @return {@code true} wenn die angegebene Taste in diesem Tick gedrückt wurde.
+	 * @since 0.6.0
+	 */
+	public boolean wasKeyPressed( int keyCode ) {
+		return snapshot.wasKeyPressed( keyCode );
+	}
+	
+	/**
+	 * @param keyCode Taste die überprüft werden soll
+	 * @return {@code true} wenn die angegebene Taste in diesem Tick losgelassen wurde.
+	 * @since 0.6.0
+	 */
+	public boolean wasKeyReleased( int keyCode ) {
+		return snapshot.wasKeyReleased( keyCode );
 	}
 	
 	/**
@@ -106,7 +199,25 @@ public class InputHandler {
 	 * @since 0.4.7
 	 */
 	public boolean isButtonDown( int buttonCode ) {
-		return mouseButtons[buttonCode];
+		return snapshot.isButtonDown( buttonCode );
+	}
+	
+	/**
+	 * @param buttonCode Button der überprüft werden soll
+	 * @return {@code true} wenn die angegebene Maustaste in diesem Tick gedrückt wurde.
+	 * @since 0.6.0
+	 */
+	public boolean wasButtonPressed( int buttonCode ) {
+		return snapshot.wasButtonPressed( buttonCode );
+	}
+	
+	/**
+	 * @param buttonCode Button der überprüft werden soll
+	 * @return {@code true} wenn die angegebene Maustaste in diesem Tick losgelassen wurde.
+	 * @since 0.6.0
+	 */
+	public boolean wasButtonReleased( int buttonCode ) {
+		return snapshot.wasButtonReleased( buttonCode );
 	}
 	
 	/**
@@ -114,7 +225,7 @@ public class InputHandler {
 	 * @since 0.3.4
 	 */
 	public static int getMouseX() {
-		return mouseX;
+		return snapshot.getMouseX();
 	}
 	
 	/**
@@ -122,15 +233,31 @@ public class InputHandler {
 	 * @since 0.3.4
 	 */
 	public static int getMouseY() {
-		return mouseY;
+		return snapshot.getMouseY();
 	}
 	
 	/**
-	 * @return Anzahl der Klicks die das Mausrad bewegt wurde.
+	 * @return Anzahl der Klicks die das Mausrad in diesem Tick bewegt wurde.
 	 * @since 0.3.4
 	 */
 	public static int getMouseWheelDelta() {
-		return mouseWheelDelta;
+		return snapshot.getMouseWheelDelta();
+	}
+	
+	/**
+	 * @return Zustand von Tastatur und Maus während des aktuellen Ticks.
+	 * @since 0.6.0
+	 */
+	public InputSnapshot getSnapshot() {
+		return snapshot;
+	}
+	
+	/**
+	 * @return Puffer der eingegangenen, noch nicht übertragenen Events.
+	 * @since 0.6.0
+	 */
+	public InputEventQueue getEventQueue() {
+		return queue;
 	}
 	
 	
@@ -159,4 +286,18 @@ public class InputHandler {
 	}
 	
 	
+	/**
+	 * Legt ein Event im Puffer ab. Wird von den Listenern im AWT-Thread aufgerufen. Interne Methode.
+	 *
+	 * @param type Art des Events aus {@link InputEventQueue}
+	 * @param code Taste bzw. Klicks des Mausrads
+	 * @param x    Horizontale Position des Cursors in Pixeln
+	 * @param y    Vertikale Position des Cursors in Pixeln
+	 * @since 0.6.0
+	 */
+	static void post( int type,int code,int x,int y ) {
+		queue.offer( type,code,x,y,System.nanoTime() );
+	}
+	
+	
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.input;
+
+
+import desertcookie.util.ExceptionHandler;
+
+import java.io.*;
+
+
+/**
+ * Zeichnet alle Input-Events mit Tick und Zeitpunkt in einer kompakten Binärdatei auf, die mit {@link InputReplay} wieder abgespielt werden kann.
+ * Jedes Event belegt meist nur wenige Bytes: Tick und Zeitpunkt werden als Differenz zum vorherigen Event, alle Zahlen als Varint gespeichert.
+ * Die Datei wird zu Beginn jedes Ticks geleert und beim Beenden der JVM geschlossen, sodass auch nach einem Absturz höchstens die Events des letzten Ticks fehlen.
+ *
+ * @since 0.6.0
+ */
+public final class InputRecorder {
+	
+	
+	/**
+	 * Kennung und Version des Dateiformats.
+	 *
+	 * @since 0.6.0
+	 */
+	static final int MAGIC = 0x53324449, VERSION = 1;
+	/**
+	 * Art, die das Ende der Aufzeichnung markiert.
+	 *
+	 * @since 0.6.0
+	 */
+	static final int END = 0xFF;
+	
+	private final File file;
+	private final DataOutputStream out;
+	private final Thread shutdownHook;
+	private int tick, lastTick;
+	private long lastTime;
+	private int eventCount;
+	private boolean dirty;
+	private boolean closed;
+	
+	
+	/**
+	 * Konstruiert neuen InputRecorder und legt die Zieldatei an. Interner Konstruktor.
+	 *
+	 * @param file Zieldatei
+	 * @throws IOException wenn die Datei nicht angelegt werden kann
+	 * @since 0.6.0
+	 */
+	InputRecorder( File file ) throws IOException {
+		this.file = file;
+		out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ) ) );
+		out.writeInt( MAGIC );
+		out.writeByte( VERSION );
+		out.flush();
+		tick = -1;
+		lastTime = System.nanoTime();
+		shutdownHook = new Thread( new Runnable() {
+			@Override
+			public void run() {
+				close();
+			}
+		},"Input Recorder Shutdown" );
+		Runtime.getRuntime().addShutdownHook( shutdownHook );
+	}
+	
+	
+	/**
+	 * Beginnt einen neuen Tick und schreibt die Events des letzten Ticks in die Datei. Interne Methode.
+	 *
+	 * @return Index des neuen Ticks.
+	 * @since 0.6.0
+	 */
+	synchronized int tick() {
+		if( dirty && !closed ) {
+			dirty = false;
+			try {
+				out.flush();
+			} catch( IOException e ) {
+				ExceptionHandler.handle( e,"Fehler beim aufzeichnen des Inputs",false );
+				close();
+			}
+		}
+		return ++tick;
+	}
+	
+	/**
+	 * Zeichnet ein Event im aktuellen Tick auf. Interne Methode.
+	 *
+	 * @param type Art des Events aus {@link InputEventQueue}
+	 * @param code Taste bzw. Klicks des Mausrads
+	 * @param x    Horizontale Position des Cursors in Pixeln
+	 * @param y    Vertikale Position des Cursors in Pixeln
+	 * @param time Zeitpunkt des Events in Nanosekunden
+	 * @since 0.6.0
+	 */
+	synchronized void record( int type,int code,int x,int y,long time ) {
+		if( closed )
+			return;
+		try {
+			writeVarint( tick - lastTick );
+			out.writeByte( type );
+			writeVarint( zigzag( code ) );
+			writeVarint( zigzag( x ) );
+			writeVarint( zigzag( y ) );
+			writeVarint( (time - lastTime) << 1 ^ (time - lastTime) >> 63 );
+			lastTick = tick;
+			lastTime = time;
+			eventCount++;
+			dirty = true;
+		} catch( IOException e ) {
+			ExceptionHandler.handle( e,"Fehler beim aufzeichnen des Inputs",false );
+			close();
+		}
+	}
+	
+	/**
+	 * Beendet die Aufzeichnung und schließt die Datei. Weitere Events werden ignoriert.
+	 *
+	 * @since 0.6.0
+	 */
+	public synchronized void close() {
+		if( closed )
+			return;
+		closed = true;
+		try {
+			Runtime.getRuntime().removeShutdownHook( shutdownHook );
+		} catch( IllegalStateException e ) {
+			// Die JVM wird bereits beendet und close() wurde vom Shutdown-Hook aufgerufen
+		}
+		try {
+			writeVarint( tick + 1 - lastTick );
+			out.writeByte( END );
+			out.close();
+		} catch( IOException e ) {
+			ExceptionHandler.handle( e,"Fehler beim aufzeichnen des Inputs",false );
+		}
+	}
+	
+	/**
+	 * @return {@code true} wenn die Aufzeichnung beendet wurde.
+	 * @since 0.6.0
+	 */
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+	
+	/**
+	 * @return Zieldatei der Aufzeichnung.
+	 * @since 0.6.0
+	 */
+	public File getFile() {
+		return file;
+	}
+	
+	/**
+	 * @return Anzahl der bisher aufgezeichneten Events.
+	 * @since 0.6.0
+	 */
+	public synchronized int getEventCount() {
+		return eventCount;
+	}
+	
+	/**
+	 * @return Anzahl der bisher aufgezeichneten Ticks.
+	 * @since 0.6.0
+	 */
+	public synchronized int getTickCount() {
+		return tick + 1;
+	}
+	
+	
+	/**
+	 * @param value Vorzeichenbehafteter Wert
+	 * @return Wert, bei dem kleine negative Zahlen auf kleine positive Zahlen abgebildet werden.
+	 * @since 0.6.0
+	 */
+	private static long zigzag( int value ) {
+		return (value << 1 ^ value >> 31) & 0xFFFFFFFFL;
+	}
+	
+	/**
+	 * Schreibt einen Wert mit sieben Bits pro Byte. Das oberste Bit jedes Bytes zeigt an, ob weitere Bytes folgen.
+	 *
+	 * @param value Wert, der als vorzeichenloser Wert interpretiert wird
+	 * @throws IOException wenn nicht geschrieben werden kann
+	 * @since 0.6.0
+	 */
+	private void writeVarint( long value ) throws IOException {
+		while( (value & ~0x7FL) != 0 ) {
+			out.writeByte( (int)(value & 0x7F) | 0x80 );
+			value >>>= 7;
+		}
+		out.writeByte( (int)value );
+	}
+	
+	
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.input;
+
+
+import desertcookie.util.ExceptionHandler;
+
+import java.io.*;
+import java.util.Arrays;
+
+
+/**
+ * Aufzeichnung eines {@link InputRecorder}, die über {@link InputHandler#startReplay(InputReplay)} Tick für Tick wieder abgespielt wird.
+ * Die Events werden beim Laden vollständig in primitive Arrays gelesen. Während des Abspielens erhält jeder Tick genau die Events, die im selben Tick aufgezeichnet wurden, unabhängig davon, wie schnell die Ticks aufeinander folgen.
+ * Aufzeichnungen ohne Endmarkierung, beispielsweise nach einem Absturz, werden bis zum letzten vollständigen Event abgespielt.
+ *
+ * @since 0.6.0
+ */
+public final class InputReplay {
+	
+	
+	private int[] ticks, types, codes, xs, ys;
+	private long[] times;
+	private int size;
+	private int tickCount;
+	
+	private int position, tick;
+	
+	
+	/**
+	 * Konstruiert neues InputReplay aus dem angegebenen Stream. Interner Konstruktor.
+	 *
+	 * @param in Stream einer Aufzeichnung
+	 * @throws IOException wenn der Stream keine gültige Aufzeichnung enthält
+	 * @since 0.6.0
+	 */
+	InputReplay( DataInputStream in ) throws IOException {
+		if( in.readInt() != InputRecorder.MAGIC || in.readUnsignedByte() != InputRecorder.VERSION )
+			throw new IOException( "There is no input recording in this stream!" );
+		ticks = new int[256];
+		types = new int[256];
+		codes = new int[256];
+		xs = new int[256];
+		ys = new int[256];
+		times = new long[256];
+		
+		int currentTick = 0;
+		long currentTime = 0;
+		while( true ) {
+			int eventTick, type, code, x, y;
+			long delta;
+			try {
+				eventTick = currentTick + (int)readVarint( in );
+				type = in.readUnsignedByte();
+				if( type == InputRecorder.END ) {
+					currentTick = eventTick;
+					break;
+				}
+				code = unzigzag( readVarint( in ) );
+				x = unzigzag( readVarint( in ) );
+				y = unzigzag( readVarint( in ) );
+				delta = readVarint( in );
+			} catch( EOFException e ) {
+				// Ohne Endmarkierung endet die Aufzeichnung mit dem Tick des letzten vollständigen Events
+				currentTick = size == 0 ? 0 : ticks[size - 1] + 1;
+				break;
+			}
+			currentTick = eventTick;
+			currentTime += delta >>> 1 ^ -(delta & 1);
+			if( size == ticks.length ) {
+				ticks = Arrays.copyOf( ticks,size * 2 );
+				types = Arrays.copyOf( types,size * 2 );
+				codes = Arrays.copyOf( codes,size * 2 );
+				xs = Arrays.copyOf( xs,size * 2 );
+				ys = Arrays.copyOf( ys,size * 2 );
+				times = Arrays.copyOf( times,size * 2 );
+			}
+			ticks[size] = currentTick;
+			types[size] = type;
+			codes[size] = code;
+			xs[size] = x;
+			ys[size] = y;
+			times[size] = currentTime;
+			size++;
+		}
+		tickCount = currentTick;
+	}
+	
+	
+	/**
+	 * @param path Pfad und Dateiname der Aufzeichnung
+	 * @return Geladene Aufzeichnung oder {@code null} wenn sie nicht geladen werden konnte.
+	 * @since 0.6.0
+	 */
+	public static InputReplay load( String path ) {
+		try( DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( path ) ) ) ) {
+			return new InputReplay( in );
+		} catch( IOException e ) {
+			ExceptionHandler.handle( e,"Fehler beim laden einer Input-Aufzeichnung",false );
+		}
+		return null;
+	}
+	
+	
+	/**
+	 * Wendet alle Events des aktuellen Ticks auf den angegebenen InputSnapshot an und geht zum nächsten Tick über. Interne Methode.
+	 *
+	 * @param snapshot InputSnapshot, der die Events erhält
+	 * @since 0.6.0
+	 */
+	void feed( InputSnapshot snapshot ) {
+		while( position < size && ticks[position] == tick ) {
+			snapshot.apply( types[position],codes[position],xs[position],ys[position] );
+			position++;
+		}
+		tick++;
+	}
+	
+	/**
+	 * Setzt das Abspielen auf den ersten Tick zurück. Darf nicht während des Abspielens aufgerufen werden.
+	 *
+	 * @since 0.6.0
+	 */
+	public void rewind() {
+		position = 0;
+		tick = 0;
+	}
+	
+	/**
+	 * @return {@code true} wenn alle aufgezeichneten Ticks abgespielt wurden.
+	 * @since 0.6.0
+	 */
+	public boolean isFinished() {
+		return tick >= tickCount;
+	}
+	
+	/**
+	 * @return Index des nächsten abzuspielenden Ticks.
+	 * @since 0.6.0
+	 */
+	public int getTick() {
+		return tick;
+	}
+	
+	/**
+	 * @return Anzahl der aufgezeichneten Ticks.
+	 * @since 0.6.0
+	 */
+	public int getTickCount() {
+		return tickCount;
+	}
+	
+	/**
+	 * @return Anzahl der aufgezeichneten Events.
+	 * @since 0.6.0
+	 */
+	public int getEventCount() {
+		return size;
+	}
+	
+	/**
+	 * @param index Index des Events
+	 * @return Zeitpunkt des Events in Nanosekunden seit Beginn der Aufzeichnung.
+	 * @since 0.6.0
+	 */
+	public long getTime( int index ) {
+		if( index < 0 || index >= size )
+			throw new IndexOutOfBoundsException( "There is no event at index " + index + "!" );
+		return times[index];
+	}
+	
+	
+	/**
+	 * @param value Mit Zigzag kodierter Wert
+	 * @return Vorzeichenbehafteter Wert.
+	 * @since 0.6.0
+	 */
+	private static int unzigzag( long value ) {
+		return (int)(value >>> 1) ^ -(int)(value & 1);
+	}
+	
+	/**
+	 * @param in Stream, aus dem gelesen wird
+	 * @return Mit sieben Bits pro Byte gespeicherter Wert.
+	 * @throws IOException wenn nicht gelesen werden kann
+	 * @since 0.6.0
+	 */
+	private static long readVarint( DataInputStream in ) throws IOException {
+		long value = 0;
+		for( int shift = 0; shift < 64; shift += 7 ) {
+			int b = in.readUnsignedByte();
+			value |= (long)(b & 0x7F) << shift;
+			if( (b & 0x80) == 0 )
+				return value;
+		}
+		throw new IOException( "There is a malformed number in this stream!" );
+	}
+	
+	
+}
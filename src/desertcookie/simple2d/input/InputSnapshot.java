@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.input;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Zustand von Tastatur und Maus während eines Ticks.
+ * Der Zustand wird nur zu Beginn eines Ticks vom Update-Thread verändert und bleibt danach bis zum nächsten Tick unverändert. Neben dem aktuellen Zustand der Tasten wird festgehalten, welche Tasten in diesem Tick gedrückt und losgelassen wurden, sodass auch ein kurzer Tastendruck innerhalb eines Ticks nicht verloren geht.
+ *
+ * @since 0.6.0
+ */
+public final class InputSnapshot {
+	
+	
+	/**
+	 * Anzahl der unterstützten Tastencodes bzw. Maustasten.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int KEY_COUNT = 1 << 16, BUTTON_COUNT = 16;
+	
+	private final boolean[] keys, keysPressed, keysReleased;
+	private final boolean[] buttons, buttonsPressed, buttonsReleased;
+	private int[] changedKeys;
+	private int changedKeyCount;
+	
+	private int mouseX, mouseY;
+	private int mouseWheelDelta;
+	private int dragStartX, dragStartY, dragDeltaX, dragDeltaY;
+	private long tick;
+	
+	
+	/**
+	 * Konstruiert neuen, leeren InputSnapshot. Interner Konstruktor.
+	 *
+	 * @since 0.6.0
+	 */
+	InputSnapshot() {
+		keys = new boolean[KEY_COUNT];
+		keysPressed = new boolean[KEY_COUNT];
+		keysReleased = new boolean[KEY_COUNT];
+		buttons = new boolean[BUTTON_COUNT];
+		buttonsPressed = new boolean[BUTTON_COUNT];
+		buttonsReleased = new boolean[BUTTON_COUNT];
+		changedKeys = new int[64];
+	}
+	
+	
+	/**
+	 * Beginnt einen neuen Tick und setzt alle Änderungen des letzten Ticks zurück. Interne Methode.
+	 *
+	 * @since 0.6.0
+	 */
+	void begin() {
+		for( int i = 0; i < changedKeyCount; i++ ) {
+			keysPressed[changedKeys[i]] = false;
+			keysReleased[changedKeys[i]] = false;
+		}
+		changedKeyCount = 0;
+		Arrays.fill( buttonsPressed,false );
+		Arrays.fill( buttonsReleased,false );
+		mouseWheelDelta = 0;
+		tick++;
+	}
+	
+	/**
+	 * Lässt alle Tasten und Maustasten los und setzt Position des Cursors, Mausrad und Ziehen zurück. Der Zähler der Ticks bleibt erhalten. Interne Methode.
+	 *
+	 * @since 0.6.0
+	 */
+	void reset() {
+		Arrays.fill( keys,false );
+		Arrays.fill( keysPressed,false );
+		Arrays.fill( keysReleased,false );
+		changedKeyCount = 0;
+		Arrays.fill( buttons,false );
+		Arrays.fill( buttonsPressed,false );
+		Arrays.fill( buttonsReleased,false );
+		mouseX = 0;
+		mouseY = 0;
+		mouseWheelDelta = 0;
+		dragStartX = 0;
+		dragStartY = 0;
+		dragDeltaX = 0;
+		dragDeltaY = 0;
+	}
+	
+	/**
+	 * Zeichnet den aktuellen Zustand als Events auf, sodass eine Wiedergabe mit denselben gedrückten Tasten und derselben Position des Cursors beginnt.
+	 * Gedrückte Tasten werden als Tastendruck aufgezeichnet. Bei gedrückter Maustaste beginnt das Ziehen an derselben Stelle wie bei der Aufzeichnung. Interne Methode.
+	 *
+	 * @param recorder InputRecorder, der die Events erhält
+	 * @since 0.6.0
+	 */
+	void record( InputRecorder recorder ) {
+		long time = System.nanoTime();
+		for( int code = 0; code < KEY_COUNT; code++ )
+			if( keys[code] )
+				recorder.record( InputEventQueue.KEY_PRESSED,code,mouseX,mouseY,time );
+		recorder.record( InputEventQueue.MOUSE_MOVED,0,mouseX,mouseY,time );
+		boolean dragging = false;
+		for( int code = 0; code < BUTTON_COUNT; code++ )
+			if( buttons[code] ) {
+				recorder.record( InputEventQueue.BUTTON_PRESSED,code,dragStartX,dragStartY,time );
+				dragging = true;
+			}
+		if( dragging )
+			recorder.record( InputEventQueue.MOUSE_DRAGGED,0,mouseX,mouseY,time );
+	}
+	
+	/**
+	 * Wendet ein Event auf den Zustand an. Interne Methode.
+	 *
+	 * @param type Art des Events aus {@link InputEventQueue}
+	 * @param code Taste bzw. Klicks des Mausrads
+	 * @param x    Horizontale Position des Cursors in Pixeln
+	 * @param y    Vertikale Position des Cursors in Pixeln
+	 * @since 0.6.0
+	 */
+	void apply( int type,int code,int x,int y ) {
+		switch( type ) {
+			case InputEventQueue.KEY_PRESSED:
+			case InputEventQueue.KEY_RELEASED:
+				if( code < 0 || code >= KEY_COUNT )
+					return;
+				if( !keysPressed[code] && !keysReleased[code] ) {
+					if( changedKeyCount == changedKeys.length )
+						changedKeys = Arrays.copyOf( changedKeys,changedKeyCount * 2 );
+					changedKeys[changedKeyCount++] = code;
+				}
+				if( type == InputEventQueue.KEY_PRESSED ) {
+					// Wiederholungen beim Gedrückthalten zählen nicht als neuer Tastendruck
+					if( !keys[code] )
+						keysPressed[code] = true;
+					keys[code] = true;
+				} else {
+					keysReleased[code] = true;
+					keys[code] = false;
+				}
+				break;
+			case InputEventQueue.BUTTON_PRESSED:
+				mouseX = x;
+				mouseY = y;
+				if( code < 0 || code >= BUTTON_COUNT )
+					return;
+				buttons[code] = true;
+				buttonsPressed[code] = true;
+				dragStartX = x;
+				dragStartY = y;
+				dragDeltaX = 0;
+				dragDeltaY = 0;
+				break;
+			case InputEventQueue.BUTTON_RELEASED:
+				mouseX = x;
+				mouseY = y;
+				if( code < 0 || code >= BUTTON_COUNT )
+					return;
+				buttons[code] = false;
+				buttonsReleased[code] = true;
+				dragStartX = 0;
+				dragStartY = 0;
+				break;
+			case InputEventQueue.MOUSE_MOVED:
+				mouseX = x;
+				mouseY = y;
+				break;
+			case InputEventQueue.MOUSE_DRAGGED:
+				mouseX = x;
+				mouseY = y;
+				dragDeltaX = x - dragStartX;
+				dragDeltaY = y - dragStartY;
+				break;
+			case InputEventQueue.MOUSE_WHEEL:
+				mouseWheelDelta += code;
+				break;
+		}
+	}
+	
+	/**
+	 * @param keyCode Taste die überprüft werden soll
+	 * @return {@code true} wenn die angegebene Taste momentan gedrückt wird.
+	 * @since 0.6.0
+	 */
+	public boolean isKeyDown( int keyCode ) {
+		return keyCode >= 0 && keyCode < KEY_COUNT && keys[keyCode];
+	}
+	
+	/**
+	 * @param keyCode Taste die überprüft werden soll
+	 * @return {@code true} wenn die angegebene Taste in diesem Tick gedrückt wurde.
+	 * @since 0.6.0
+	 */
+	public boolean wasKeyPressed( int keyCode ) {
+		return keyCode >= 0 && keyCode < KEY_COUNT && keysPressed[keyCode];
+	}
+	
+	/**
+	 * @param keyCode Taste die überprüft werden soll
+	 * @return {@code true} wenn die angegebene Taste in diesem Tick losgelassen wurde.
+	 * @since 0.6.0
+	 */
+	public boolean wasKeyReleased( int keyCode ) {
+		return keyCode >= 0 && keyCode < KEY_COUNT && keysReleased[keyCode];
+	}
+	
+	/**
+	 * @param buttonCode Button der überprüft werden soll
+	 * @return {@code true} wenn die angegebene Maustaste momentan gedrückt wird.
+	 * @since 0.6.0
+	 */
+	public boolean isButtonDown( int buttonCode ) {
+		return buttonCode >= 0 && buttonCode < BUTTON_COUNT && buttons[buttonCode];
+	}
+	
+	/**
+	 * @param buttonCode Button der überprüft werden soll
+	 * @return {@code true} wenn die angegebene Maustaste in diesem Tick gedrückt wurde.
+	 * @since 0.6.0
+	 */
+	public boolean wasButtonPressed( int buttonCode ) {
+		return buttonCode >= 0 && buttonCode < BUTTON_COUNT && buttonsPressed[buttonCode];
+	}
+	
+	/**
+	 * @param buttonCode Button der überprüft werden soll
+	 * @return {@code true} wenn die angegebene Maustaste in diesem Tick losgelassen wurde.
+	 * @since 0.6.0
+	 */
+	public boolean wasButtonReleased( int buttonCode ) {
+		return buttonCode >= 0 && buttonCode < BUTTON_COUNT && buttonsReleased[buttonCode];
+	}
+	
+	/**
+	 * @return Horizontale Position des Cursors innerhalb des Fensters in Pixeln.
+	 * @since 0.6.0
+	 */
+	public int getMouseX() {
+		return mouseX;
+	}
+	
+	/**
+	 * @return Vertikale Position des Cursors innerhalb des Fensters in Pixeln.
+	 * @since 0.6.0
+	 */
+	public int getMouseY() {
+		return mouseY;
+	}
+	
+	/**
+	 * @return Anzahl der Klicks die das Mausrad in diesem Tick bewegt wurde.
+	 * @since 0.6.0
+	 */
+	public int getMouseWheelDelta() {
+		return mouseWheelDelta;
+	}
+	
+	/**
+	 * @return Anzahl Pixel, die der Cursor seit dem Drücken einer Maustaste horizontal bewegt wurde.
+	 * @since 0.6.0
+	 */
+	public int getDragDeltaX() {
+		return dragDeltaX;
+	}
+	
+	/**
+	 * @return Anzahl Pixel, die der Cursor seit dem Drücken einer Maustaste vertikal bewegt wurde.
+	 * @since 0.6.0
+	 */
+	public int getDragDeltaY() {
+		return dragDeltaY;
+	}
+	
+	/**
+	 * @return Anzahl der bisherigen Ticks.
+	 * @since 0.6.0
+	 */
+	public long getTick() {
+		return tick;
+	}
+	
+	
+}
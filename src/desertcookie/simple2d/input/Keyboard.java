@@ -86,13 +86,13 @@ public class Keyboard extends KeyAdapter {
 	@Override
 	public void keyPressed( KeyEvent e ) {
 		super.keyPressed( e );
-		InputHandler.keyboardKeys[e.getKeyCode()] = true;
+		InputHandler.post( InputEventQueue.KEY_PRESSED,e.getKeyCode(),0,0 );
 	}
 	
 	@Override
 	public void keyReleased( KeyEvent e ) {
 		super.keyReleased( e );
-		InputHandler.keyboardKeys[e.getKeyCode()] = false;
+		InputHandler.post( InputEventQueue.KEY_RELEASED,e.getKeyCode(),0,0 );
 	}
 	
 	
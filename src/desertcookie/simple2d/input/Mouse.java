@@ -57,24 +57,19 @@ public class Mouse extends MouseAdapter {
 	@Override
 	public void mousePressed( MouseEvent e ) {
 		super.mousePressed( e );
-		InputHandler.mouseButtons[e.getButton()] = true;
-		InputHandler.mouseXDragStart = InputHandler.mouseX;
-		InputHandler.mouseYDragStart = InputHandler.mouseY;
+		InputHandler.post( InputEventQueue.BUTTON_PRESSED,e.getButton(),e.getX(),e.getY() );
 	}
 	
 	@Override
 	public void mouseReleased( MouseEvent e ) {
-		super.mousePressed( e );
-		InputHandler.mouseButtons[e.getButton()] = false;
-		InputHandler.mouseXDragStart = 0;
-		InputHandler.mouseYDragStart = 0;
+		super.mouseReleased( e );
+		InputHandler.post( InputEventQueue.BUTTON_RELEASED,e.getButton(),e.getX(),e.getY() );
 	}
 	
 	@Override
 	public void mouseWheelMoved( MouseWheelEvent e ) {
 		super.mouseWheelMoved( e );
-		InputHandler.mouseWheelDelta = e.getWheelRotation();
-		System.out.println( InputHandler.mouseWheelDelta );
+		InputHandler.post( InputEventQueue.MOUSE_WHEEL,e.getWheelRotation(),e.getX(),e.getY() );
 	}
 	
 	
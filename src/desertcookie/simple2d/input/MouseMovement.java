@@ -48,15 +48,13 @@ class MouseMovement extends MouseMotionAdapter {
 	@Override
 	public void mouseMoved( MouseEvent e ) {
 		super.mouseMoved( e );
-		InputHandler.mouseX = e.getX();
-		InputHandler.mouseY = e.getY();
+		InputHandler.post( InputEventQueue.MOUSE_MOVED,0,e.getX(),e.getY() );
 	}
 	
 	@Override
 	public void mouseDragged( MouseEvent e ) {
 		super.mouseDragged( e );
-		InputHandler.mouseXDragDelta = e.getX() - InputHandler.mouseXDragStart;
-		InputHandler.mouseYDragDelta = e.getY() - InputHandler.mouseYDragStart;
+		InputHandler.post( InputEventQueue.MOUSE_DRAGGED,0,e.getX(),e.getY() );
 	}
 	
 	
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.monitoring;
+
+
+/**
+ * Verwaltungsschnittstelle, über die die Zähler der Engine per JMX abgefragt werden können.
+ * Alle Werte werden erst beim Abfragen ermittelt, sodass ohne verbundenen Client kein Aufwand entsteht.
+ *
+ * @since 0.6.0
+ */
+public interface EngineMXBean {
+	
+	
+	/**
+	 * @return Anzahl der momentanen Ticks pro Sekunde.
+	 * @since 0.6.0
+	 */
+	double getTps();
+	
+	/**
+	 * @return Anzahl der momentanen Bilder pro Sekunde.
+	 * @since 0.6.0
+	 */
+	double getFps();
+	
+	/**
+	 * @return Anzahl der vom FrameProfiler aufgezeichneten Bilder.
+	 * @since 0.6.0
+	 */
+	long getFrameCount();
+	
+	/**
+	 * @return Median der Bilddauer über die letzten Bilder in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	long getFrameTimeP50();
+	
+	/**
+	 * @return 95. Perzentil der Bilddauer über die letzten Bilder in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	long getFrameTimeP95();
+	
+	/**
+	 * @return 99. Perzentil der Bilddauer über die letzten Bilder in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	long getFrameTimeP99();
+	
+	/**
+	 * @return Größte Bilddauer über die letzten Bilder in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	long getFrameTimeMax();
+	
+	/**
+	 * @return 99. Perzentil der Update-Zeit pro Bild über die letzten Bilder in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	long getUpdateTimeP99();
+	
+	/**
+	 * @return 99. Perzentil der Render-Zeit pro Bild über die letzten Bilder in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	long getRenderTimeP99();
+	
+	/**
+	 * @return 99. Perzentil der Garbage-Collection-Zeit pro Bild über die letzten Bilder in Nanosekunden.
+	 * @since 0.6.0
+	 */
+	long getGcTimeP99();
+	
+	/**
+	 * @return Anzahl der Render-Aufrufe im letzten Bild.
+	 * @since 0.6.0
+	 */
+	int getDrawCalls();
+	
+	/**
+	 * @return Anzahl der Entities im beobachteten EntityStore.
+	 * @since 0.6.0
+	 */
+	int getEntityCount();
+	
+	/**
+	 * @return Geschätzter Speicherbedarf der Texturen im beobachteten TextureCache in Bytes.
+	 * @since 0.6.0
+	 */
+	long getTextureCacheBytes();
+	
+	/**
+	 * @return Anzahl der Texturen im beobachteten TextureCache.
+	 * @since 0.6.0
+	 */
+	int getTextureCount();
+	
+	/**
+	 * @return Speicherbedarf der Samples in der beobachteten SoundBank in Bytes.
+	 * @since 0.6.0
+	 */
+	long getSoundBankBytes();
+	
+	/**
+	 * @return Anzahl der momentan abgespielten Stimmen im beobachteten AudioMixer.
+	 * @since 0.6.0
+	 */
+	int getActiveVoices();
+	
+	/**
+	 * @return Anzahl der Stimmen, die im beobachteten AudioMixer für neue Sounds abgebrochen wurden.
+	 * @since 0.6.0
+	 */
+	long getVoiceSteals();
+	
+	/**
+	 * @return Anzahl der eingegangenen, noch nicht übertragenen Input-Events.
+	 * @since 0.6.0
+	 */
+	int getInputQueueSize();
+	
+	/**
+	 * @return Anzahl der Input-Events, die wegen eines vollen Puffers verworfen wurden.
+	 * @since 0.6.0
+	 */
+	long getDroppedInputEvents();
+	
+	
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.monitoring;
+
+
+import desertcookie.simple2d.core.FrameProfiler;
+import desertcookie.simple2d.core.Game;
+import desertcookie.simple2d.entities.EntityStore;
+import desertcookie.simple2d.input.InputEventQueue;
+import desertcookie.simple2d.input.InputHandler;
+import desertcookie.simple2d.sound.AudioMixer;
+import desertcookie.simple2d.sound.SoundBank;
+import desertcookie.simple2d.textures.TextureCache;
+import desertcookie.util.ExceptionHandler;
+import jdk.jfr.FlightRecorder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+
+/**
+ * Stellt die Zähler der Engine als MBean und als periodisches Flight-Recorder-Event bereit.
+ * Da EntityStores, TextureCaches, SoundBanks und AudioMixer vom Spiel selbst erstellt werden, muss jeweils angegeben werden, welche Instanz beobachtet werden soll.
+ *
+ * @since 0.6.0
+ */
+public class EngineMonitor implements EngineMXBean {
+	
+	
+	/**
+	 * Name, unter dem die MBean registriert wird.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final String OBJECT_NAME = "desertcookie.simple2d:type=Engine";
+	
+	private volatile EntityStore entityStore;
+	private volatile TextureCache textureCache;
+	private volatile SoundBank soundBank;
+	private volatile AudioMixer audioMixer;
+	private ObjectName name;
+	private Runnable periodicHook;
+	
+	
+	/**
+	 * Konstruiert neuen EngineMonitor, ohne ihn zu registrieren.
+	 *
+	 * @since 0.6.0
+	 */
+	public EngineMonitor() {
+	}
+	
+	
+	/**
+	 * Erstellt einen neuen EngineMonitor und registriert ihn beim MBean-Server der Plattform unter {@value #OBJECT_NAME} sowie als Quelle des {@link StatisticsEvent}.
+	 *
+	 * @return Registrierter EngineMonitor oder {@code null}, wenn die Registrierung fehlgeschlagen ist.
+	 * @since 0.6.0
+	 */
+	public static EngineMonitor register() {
+		final EngineMonitor monitor = new EngineMonitor();
+		try {
+			monitor.name = new ObjectName( OBJECT_NAME );
+			ManagementFactory.getPlatformMBeanServer().registerMBean( monitor,monitor.name );
+		} catch( JMException e ) {
+			ExceptionHandler.handle( e,"Fehler beim registrieren der Engine-MBean",false );
+			return null;
+		}
+		monitor.periodicHook = new Runnable() {
+			@Override
+			public void run() {
+				StatisticsEvent.emit( monitor );
+			}
+		};
+		FlightRecorder.addPeriodicEvent( StatisticsEvent.class,monitor.periodicHook );
+		return monitor;
+	}
+	
+	/**
+	 * Entfernt die Registrierung dieses EngineMonitors.
+	 *
+	 * @since 0.6.0
+	 */
+	public synchronized void unregister() {
+		if( name == null )
+			return;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean( name );
+		} catch( JMException e ) {
+			ExceptionHandler.handle( e,"Fehler beim entfernen der Engine-MBean",false );
+		}
+		FlightRecorder.removePeriodicEvent( periodicHook );
+		name = null;
+		periodicHook = null;
+	}
+	
+	/**
+	 * Legt fest, welcher EntityStore beobachtet werden soll.
+	 *
+	 * @param entityStore EntityStore oder {@code null}
+	 * @since 0.6.0
+	 */
+	public void setEntityStore( EntityStore entityStore ) {
+		this.entityStore = entityStore;
+	}
+	
+	/**
+	 * Legt fest, welcher TextureCache beobachtet werden soll.
+	 *
+	 * @param textureCache TextureCache oder {@code null}
+	 * @since 0.6.0
+	 */
+	public void setTextureCache( TextureCache textureCache ) {
+		this.textureCache = textureCache;
+	}
+	
+	/**
+	 * Legt fest, welche SoundBank beobachtet werden soll.
+	 *
+	 * @param soundBank SoundBank oder {@code null}
+	 * @since 0.6.0
+	 */
+	public void setSoundBank( SoundBank soundBank ) {
+		this.soundBank = soundBank;
+	}
+	
+	/**
+	 * Legt fest, welcher AudioMixer beobachtet werden soll.
+	 *
+	 * @param audioMixer AudioMixer oder {@code null}
+	 * @since 0.6.0
+	 */
+	public void setAudioMixer( AudioMixer audioMixer ) {
+		this.audioMixer = audioMixer;
+	}
+	
+	@Override
+	public double getTps() {
+		return Game.getTps();
+	}
+	
+	@Override
+	public double getFps() {
+		return Game.getFps();
+	}
+	
+	@Override
+	public long getFrameCount() {
+		FrameProfiler profiler = Game.getFrameProfiler();
+		return profiler == null ? 0 : profiler.getFrameCount();
+	}
+	
+	@Override
+	public long getFrameTimeP50() {
+		return getPercentile( FrameProfiler.FRAME,50 );
+	}
+	
+	@Override
+	public long getFrameTimeP95() {
+		return getPercentile( FrameProfiler.FRAME,95 );
+	}
+	
+	@Override
+	public long getFrameTimeP99() {
+		return getPercentile( FrameProfiler.FRAME,99 );
+	}
+	
+	@Override
+	public long getFrameTimeMax() {
+		return getPercentile( FrameProfiler.FRAME,100 );
+	}
+	
+	@Override
+	public long getUpdateTimeP99() {
+		return getPercentile( FrameProfiler.UPDATE,99 );
+	}
+	
+	@Override
+	public long getRenderTimeP99() {
+		return getPercentile( FrameProfiler.RENDER,99 );
+	}
+	
+	@Override
+	public long getGcTimeP99() {
+		return getPercentile( FrameProfiler.GC,99 );
+	}
+	
+	@Override
+	public int getDrawCalls() {
+		return Game.getDrawCalls();
+	}
+	
+	@Override
+	public int getEntityCount() {
+		EntityStore store = entityStore;
+		return store == null ? 0 : store.getSize();
+	}
+	
+	@Override
+	public long getTextureCacheBytes() {
+		TextureCache cache = textureCache;
+		return cache == null ? 0 : cache.getUsedBytes();
+	}
+	
+	@Override
+	public int getTextureCount() {
+		TextureCache cache = textureCache;
+		return cache == null ? 0 : cache.getCount();
+	}
+	
+	@Override
+	public long getSoundBankBytes() {
+		SoundBank bank = soundBank;
+		return bank == null ? 0 : bank.getUsedBytes();
+	}
+	
+	@Override
+	public int getActiveVoices() {
+		AudioMixer mixer = audioMixer;
+		return mixer == null ? 0 : mixer.getActiveVoiceCount();
+	}
+	
+	@Override
+	public long getVoiceSteals() {
+		AudioMixer mixer = audioMixer;
+		return mixer == null ? 0 : mixer.getStealCount();
+	}
+	
+	@Override
+	public int getInputQueueSize() {
+		InputEventQueue queue = getInputQueue();
+		return queue == null ? 0 : queue.getSize();
+	}
+	
+	@Override
+	public long getDroppedInputEvents() {
+		InputEventQueue queue = getInputQueue();
+		return queue == null ? 0 : queue.getDroppedCount();
+	}
+	
+	
+	/**
+	 * @param phase      Phase des FrameProfilers
+	 * @param percentile Perzentil zwischen {@code 0} und {@code 100}
+	 * @return Perzentil der angegebenen Phase in Nanosekunden oder {@code 0}, wenn noch kein Spiel erstellt wurde.
+	 * @since 0.6.0
+	 */
+	private static long getPercentile( int phase,double percentile ) {
+		FrameProfiler profiler = Game.getFrameProfiler();
+		return profiler == null ? 0 : profiler.getPercentile( phase,percentile );
+	}
+	
+	/**
+	 * @return Input-Puffer des Spiels oder {@code null}, wenn noch kein Spiel erstellt wurde.
+	 * @since 0.6.0
+	 */
+	private static InputEventQueue getInputQueue() {
+		InputHandler inputHandler = Game.getInputHandler();
+		return inputHandler == null ? null : inputHandler.getEventQueue();
+	}
+	
+	
+}
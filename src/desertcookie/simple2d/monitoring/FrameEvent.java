@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.monitoring;
+
+
+import desertcookie.simple2d.core.FrameProfiler;
+import jdk.jfr.*;
+
+
+/**
+ * Flight-Recorder-Event für ein Bild des Render Loops mit den Zeiten der einzelnen Phasen. Die Dauer des Events entspricht der Dauer des Bildes.
+ * Ist das Event in keiner laufenden Aufzeichnung aktiviert, liefert {@link #start()} {@code null}, sodass weder Objekte erzeugt noch Werte ermittelt werden.
+ *
+ * @since 0.6.0
+ */
+@Name( "desertcookie.simple2d.Frame" )
+@Label( "Frame" )
+@Category( "Simple2D" )
+@Description( "Ein Bild des Render Loops" )
+@StackTrace( false )
+public final class FrameEvent extends Event {
+	
+	
+	private static final EventType TYPE = EventType.getEventType( FrameEvent.class );
+	
+	@Label( "Update" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long update;
+	@Label( "Render" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long render;
+	@Label( "Present" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long present;
+	@Label( "Sleep" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long sleep;
+	@Label( "Garbage Collection" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long gc;
+	@Label( "Draw Calls" )
+	private int drawCalls;
+	
+	
+	/**
+	 * Erzeugt ein neues Event und beginnt die Zeitmessung, sofern das Event in einer laufenden Aufzeichnung aktiviert ist.
+	 *
+	 * @return Begonnenes Event oder {@code null}, wenn das Event nicht aufgezeichnet wird.
+	 * @since 0.6.0
+	 */
+	public static FrameEvent start() {
+		if( !TYPE.isEnabled() )
+			return null;
+		FrameEvent event = new FrameEvent();
+		event.begin();
+		return event;
+	}
+	
+	
+	/**
+	 * Beendet das Event und schreibt es mit den Zeiten des zuletzt abgeschlossenen Bildes, sofern es aktiviert ist und die Mindestdauer überschreitet.
+	 *
+	 * @param profiler  FrameProfiler, der das Bild aufgezeichnet hat
+	 * @param drawCalls Anzahl der Render-Aufrufe im Bild
+	 * @since 0.6.0
+	 */
+	public void record( FrameProfiler profiler,int drawCalls ) {
+		end();
+		if( !shouldCommit() )
+			return;
+		update = profiler.getLast( FrameProfiler.UPDATE );
+		render = profiler.getLast( FrameProfiler.RENDER );
+		present = profiler.getLast( FrameProfiler.PRESENT );
+		sleep = profiler.getLast( FrameProfiler.SLEEP );
+		gc = profiler.getLast( FrameProfiler.GC );
+		this.drawCalls = drawCalls;
+		commit();
+	}
+	
+	
+}
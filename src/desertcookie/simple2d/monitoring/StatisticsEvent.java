@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.monitoring;
+
+
+import jdk.jfr.*;
+
+
+/**
+ * Periodisches Flight-Recorder-Event mit den Zählern eines {@link EngineMonitor}. Wird nur erzeugt, wenn es in der laufenden Aufzeichnung aktiviert ist.
+ *
+ * @since 0.6.0
+ */
+@Name( "desertcookie.simple2d.Statistics" )
+@Label( "Engine Statistics" )
+@Category( "Simple2D" )
+@Description( "Zähler der Engine" )
+@Period( "1 s" )
+@StackTrace( false )
+public final class StatisticsEvent extends Event {
+	
+	
+	@Label( "Entities" )
+	private int entities;
+	@Label( "Draw Calls" )
+	private int drawCalls;
+	@Label( "Texture Cache" )
+	@DataAmount
+	private long textureBytes;
+	@Label( "Sound Bank" )
+	@DataAmount
+	private long soundBytes;
+	@Label( "Active Voices" )
+	private int activeVoices;
+	@Label( "Input Queue" )
+	private int inputQueue;
+	@Label( "Dropped Input Events" )
+	private long droppedInput;
+	
+	
+	/**
+	 * Erzeugt und schreibt ein Event mit den aktuellen Zählern des angegebenen EngineMonitors. Interne Methode.
+	 *
+	 * @param monitor EngineMonitor
+	 * @since 0.6.0
+	 */
+	static void emit( EngineMonitor monitor ) {
+		StatisticsEvent event = new StatisticsEvent();
+		event.entities = monitor.getEntityCount();
+		event.drawCalls = monitor.getDrawCalls();
+		event.textureBytes = monitor.getTextureCacheBytes();
+		event.soundBytes = monitor.getSoundBankBytes();
+		event.activeVoices = monitor.getActiveVoices();
+		event.inputQueue = monitor.getInputQueueSize();
+		event.droppedInput = monitor.getDroppedInputEvents();
+		event.commit();
+	}
+	
+	
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.monitoring;
+
+
+import jdk.jfr.*;
+
+
+/**
+ * Flight-Recorder-Event für einen Update-Schritt. Die Dauer des Events entspricht der Dauer des Ticks.
+ * Ist das Event in keiner laufenden Aufzeichnung aktiviert, liefert {@link #start()} {@code null}, sodass weder Objekte erzeugt noch Werte ermittelt werden.
+ *
+ * @since 0.6.0
+ */
+@Name( "desertcookie.simple2d.Tick" )
+@Label( "Tick" )
+@Category( "Simple2D" )
+@Description( "Ein Update-Schritt der aktiven Szene" )
+@StackTrace( false )
+public final class TickEvent extends Event {
+	
+	
+	private static final EventType TYPE = EventType.getEventType( TickEvent.class );
+	
+	@Label( "Delta Time" )
+	@Timespan( Timespan.NANOSECONDS )
+	private long deltaTime;
+	
+	
+	/**
+	 * Erzeugt ein neues Event und beginnt die Zeitmessung, sofern das Event in einer laufenden Aufzeichnung aktiviert ist.
+	 *
+	 * @return Begonnenes Event oder {@code null}, wenn das Event nicht aufgezeichnet wird.
+	 * @since 0.6.0
+	 */
+	public static TickEvent start() {
+		if( !TYPE.isEnabled() )
+			return null;
+		TickEvent event = new TickEvent();
+		event.begin();
+		return event;
+	}
+	
+	
+	/**
+	 * Beendet das Event und schreibt es, sofern es aktiviert ist und die Mindestdauer überschreitet.
+	 *
+	 * @param deltaTime Simulierte Zeit des Ticks in Sekunden
+	 * @since 0.6.0
+	 */
+	public void record( double deltaTime ) {
+		end();
+		if( !shouldCommit() )
+			return;
+		this.deltaTime = (long)(deltaTime * 1e9);
+		commit();
+	}
+	
+	
+}
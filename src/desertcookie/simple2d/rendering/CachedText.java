@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.rendering;
+
+
+import java.awt.*;
+
+
+/**
+ * Vermessener Text, der mit {@link SimpleGraphics#drawText(CachedText,double,double,double,double)} ohne erneutes Vermessen gerendert werden kann.
+ * Wird mit {@link SimpleGraphics#layoutText(CachedText,String)} erstellt und nur neu vermessen, wenn sich Text, Schriftart oder Rendereinstellungen ändern.
+ *
+ * @since 0.6.0
+ */
+public final class CachedText {
+	
+	
+	private final String text;
+	private final Font font;
+	private final int width, ascent, height;
+	private final int version;
+	
+	
+	/**
+	 * Konstruiert neuen CachedText. Interner Konstruktor.
+	 *
+	 * @param text    Text
+	 * @param font    Schriftart
+	 * @param width   Breite in Pixeln
+	 * @param ascent  Oberlänge in Pixeln
+	 * @param height  Zeilenhöhe in Pixeln
+	 * @param version Version des GlyphCaches, mit dem vermessen wurde
+	 * @since 0.6.0
+	 */
+	CachedText( String text,Font font,int width,int ascent,int height,int version ) {
+		this.text = text;
+		this.font = font;
+		this.width = width;
+		this.ascent = ascent;
+		this.height = height;
+		this.version = version;
+	}
+	
+	
+	/**
+	 * @return Text.
+	 * @since 0.6.0
+	 */
+	public String getText() {
+		return text;
+	}
+	
+	/**
+	 * @return Schriftart, mit der vermessen wurde.
+	 * @since 0.6.0
+	 */
+	public Font getFont() {
+		return font;
+	}
+	
+	/**
+	 * @return Breite in Pixeln.
+	 * @since 0.6.0
+	 */
+	public int getWidth() {
+		return width;
+	}
+	
+	/**
+	 * @return Oberlänge in Pixeln.
+	 * @since 0.6.0
+	 */
+	public int getAscent() {
+		return ascent;
+	}
+	
+	/**
+	 * @return Zeilenhöhe in Pixeln.
+	 * @since 0.6.0
+	 */
+	public int getHeight() {
+		return height;
+	}
+	
+	
+	/**
+	 * @param text    Text
+	 * @param font    Schriftart
+	 * @param version Version des GlyphCaches
+	 * @return {@code true} wenn dieser CachedText für die angegebenen Werte weiterverwendet werden kann.
+	 * @since 0.6.0
+	 */
+	boolean matches( String text,Font font,int version ) {
+		return this.version == version && (this.text == text || this.text.equals( text )) && (this.font == font || this.font.equals( font ));
+	}
+	
+	
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.rendering;
+
+
+/**
+ * Sammlung von Rechtecken, die sich seit dem letzten Bild verändert haben und neu gerendert werden müssen.
+ * Sich überschneidende Rechtecke werden zusammengefasst. Werden zu viele Rechtecke gemeldet, wird stattdessen das umschließende Rechteck verwendet.
+ *
+ * @since 0.6.0
+ */
+public class DirtyRegion {
+	
+	
+	private static final int MAX_RECTANGLES = 16;
+	
+	private final int[] x1, y1, x2, y2;
+	private int count;
+	private boolean full;
+	
+	
+	/**
+	 * Konstruiert neue, leere DirtyRegion.
+	 *
+	 * @since 0.6.0
+	 */
+	public DirtyRegion() {
+		x1 = new int[MAX_RECTANGLES];
+		y1 = new int[MAX_RECTANGLES];
+		x2 = new int[MAX_RECTANGLES];
+		y2 = new int[MAX_RECTANGLES];
+	}
+	
+	
+	/**
+	 * Meldet den angegebenen Bereich als verändert. Der Bereich wird um einen Pixel erweitert, damit auch geglättete Kanten neu gerendert werden.
+	 *
+	 * @param x Horizontale Position in Pixeln
+	 * @param y Vertikale Position in Pixeln
+	 * @param w Horizontale Größe in Pixeln
+	 * @param h Vertikale Größe in Pixeln
+	 * @since 0.6.0
+	 */
+	public synchronized void add( double x,double y,double w,double h ) {
+		if( full || w <= 0 || h <= 0 )
+			return;
+		addRectangle( (int)Math.floor( x ) - 1,(int)Math.floor( y ) - 1,(int)Math.ceil( x + w ) + 1,(int)Math.ceil( y + h ) + 1 );
+	}
+	
+	/**
+	 * Meldet den gesamten Bildschirm als verändert.
+	 *
+	 * @since 0.6.0
+	 */
+	public synchronized void invalidateAll() {
+		full = true;
+		count = 0;
+	}
+	
+	/**
+	 * Entfernt alle gemeldeten Bereiche.
+	 *
+	 * @since 0.6.0
+	 */
+	public synchronized void clear() {
+		full = false;
+		count = 0;
+	}
+	
+	/**
+	 * @return {@code true} wenn kein Bereich als verändert gemeldet wurde.
+	 * @since 0.6.0
+	 */
+	public synchronized boolean isEmpty() {
+		return !full && count == 0;
+	}
+	
+	/**
+	 * @return {@code true} wenn der gesamte Bildschirm als verändert gemeldet wurde.
+	 * @since 0.6.0
+	 */
+	public synchronized boolean isFull() {
+		return full;
+	}
+	
+	/**
+	 * Überträgt alle gemeldeten Bereiche skaliert und auf die angegebene Fläche begrenzt in die angegebene DirtyRegion und leert danach diese DirtyRegion.
+	 * Ist der gesamte Bildschirm als verändert gemeldet, enthält das Ziel genau ein Rechteck über die gesamte Fläche.
+	 *
+	 * @param target DirtyRegion, die die Bereiche erhält
+	 * @param scale  Skalierungsfaktor für Positionen und Größen
+	 * @param width  Horizontale Größe der Fläche in Pixeln
+	 * @param height Vertikale Größe der Fläche in Pixeln
+	 * @since 0.6.0
+	 */
+	public synchronized void drainTo( DirtyRegion target,double scale,int width,int height ) {
+		synchronized( target ) {
+			target.clear();
+			if( full ) {
+				target.full = true;
+				target.setRectangle( 0,0,0,width,height );
+				target.count = 1;
+			} else {
+				for( int i = 0; i < count; i++ ) {
+					int left = Math.max( (int)Math.floor( x1[i] * scale ),0 );
+					int top = Math.max( (int)Math.floor( y1[i] * scale ),0 );
+					int right = Math.min( (int)Math.ceil( x2[i] * scale ),width );
+					int bottom = Math.min( (int)Math.ceil( y2[i] * scale ),height );
+					if( left < right && top < bottom )
+						target.addRectangle( left,top,right,bottom );
+				}
+			}
+		}
+		clear();
+	}
+	
+	/**
+	 * @return Anzahl der Rechtecke.
+	 * @since 0.6.0
+	 */
+	public synchronized int getCount() {
+		return count;
+	}
+	
+	/**
+	 * @param index Index des Rechtecks
+	 * @return Horizontale Position des Rechtecks in Pixeln.
+	 * @since 0.6.0
+	 */
+	public synchronized int getX( int index ) {
+		return x1[index];
+	}
+	
+	/**
+	 * @param index Index des Rechtecks
+	 * @return Vertikale Position des Rechtecks in Pixeln.
+	 * @since 0.6.0
+	 */
+	public synchronized int getY( int index ) {
+		return y1[index];
+	}
+	
+	/**
+	 * @param index Index des Rechtecks
+	 * @return Horizontale Größe des Rechtecks in Pixeln.
+	 * @since 0.6.0
+	 */
+	public synchronized int getWidth( int index ) {
+		return x2[index] - x1[index];
+	}
+	
+	/**
+	 * @param index Index des Rechtecks
+	 * @return Vertikale Größe des Rechtecks in Pixeln.
+	 * @since 0.6.0
+	 */
+	public synchronized int getHeight( int index ) {
+		return y2[index] - y1[index];
+	}
+	
+	
+	/**
+	 * Fügt ein Rechteck hinzu und fasst es mit allen sich überschneidenden Rechtecken zusammen.
+	 *
+	 * @param left   Linke Kante in Pixeln
+	 * @param top    Obere Kante in Pixeln
+	 * @param right  Rechte Kante in Pixeln
+	 * @param bottom Untere Kante in Pixeln
+	 * @since 0.6.0
+	 */
+	private void addRectangle( int left,int top,int right,int bottom ) {
+		int i = 0;
+		while( i < count ) {
+			if( left <= x2[i] && right >= x1[i] && top <= y2[i] && bottom >= y1[i] ) {
+				left = Math.min( left,x1[i] );
+				top = Math.min( top,y1[i] );
+				right = Math.max( right,x2[i] );
+				bottom = Math.max( bottom,y2[i] );
+				count--;
+				setRectangle( i,x1[count],y1[count],x2[count],y2[count] );
+				i = 0;
+			} else
+				i++;
+		}
+		
+		if( count == MAX_RECTANGLES ) {
+			for( i = 0; i < count; i++ ) {
+				left = Math.min( left,x1[i] );
+				top = Math.min( top,y1[i] );
+				right = Math.max( right,x2[i] );
+				bottom = Math.max( bottom,y2[i] );
+			}
+			count = 0;
+		}
+		setRectangle( count++,left,top,right,bottom );
+	}
+	
+	/**
+	 * Setzt die Kanten des Rechtecks mit dem angegebenen Index.
+	 *
+	 * @param index  Index des Rechtecks
+	 * @param left   Linke Kante in Pixeln
+	 * @param top    Obere Kante in Pixeln
+	 * @param right  Rechte Kante in Pixeln
+	 * @param bottom Untere Kante in Pixeln
+	 * @since 0.6.0
+	 */
+	private void setRectangle( int index,int left,int top,int right,int bottom ) {
+		x1[index] = left;
+		y1[index] = top;
+		x2[index] = right;
+		y2[index] = bottom;
+	}
+	
+	
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.rendering;
+
+
+import java.awt.*;
+import java.util.HashMap;
+
+
+/**
+ * Zwischenspeicher für die Metriken von Schriftarten. Interne Klasse.
+ * Für jede Schriftart werden Oberlänge, Zeilenhöhe und die Vorschübe aller verwendeten Zeichen einmalig bestimmt, sodass Texte danach ohne {@link FontMetrics} und ohne Objekte zu erzeugen vermessen werden können.
+ * Die Zeichen selbst rendert Java2D aus seinem eigenen Glyphen-Cache, der jede Glyphe pro Schriftart und Größe nur einmal rastert.
+ *
+ * @since 0.6.0
+ */
+class GlyphCache {
+	
+	
+	private final Graphics2D graphics;
+	private final HashMap<Font,Glyphs> fonts;
+	private int version;
+	
+	
+	/**
+	 * Konstruiert neuen, leeren GlyphCache. Interner Konstruktor.
+	 *
+	 * @param graphics Graphics2D-Objekt, dessen Rendereinstellungen für die Metriken verwendet werden
+	 * @since 0.6.0
+	 */
+	GlyphCache( Graphics2D graphics ) {
+		this.graphics = graphics;
+		fonts = new HashMap<>();
+	}
+	
+	
+	/**
+	 * @param font Schriftart
+	 * @return Metriken der angegebenen Schriftart.
+	 * @since 0.6.0
+	 */
+	Glyphs get( Font font ) {
+		Glyphs glyphs = fonts.get( font );
+		if( glyphs == null ) {
+			glyphs = new Glyphs( graphics.getFontMetrics( font ) );
+			fonts.put( font,glyphs );
+		}
+		return glyphs;
+	}
+	
+	/**
+	 * Verwirft alle Metriken, beispielsweise nachdem sich die Rendereinstellungen geändert haben.
+	 *
+	 * @since 0.6.0
+	 */
+	void clear() {
+		fonts.clear();
+		version++;
+	}
+	
+	/**
+	 * @return Zähler, der sich bei jedem {@link #clear()} erhöht.
+	 * @since 0.6.0
+	 */
+	int getVersion() {
+		return version;
+	}
+	
+	
+	/**
+	 * Metriken einer Schriftart. Die Vorschübe werden in Seiten zu je 256 Zeichen bestimmt, sobald ein Zeichen der Seite zum ersten Mal benötigt wird.
+	 *
+	 * @since 0.6.0
+	 */
+	class Glyphs {
+		
+		
+		private final FontMetrics metrics;
+		private final int ascent, height;
+		private final float[][] pages;
+		
+		
+		/**
+		 * Konstruiert neue Metriken.
+		 *
+		 * @param metrics FontMetrics der Schriftart
+		 * @since 0.6.0
+		 */
+		private Glyphs( FontMetrics metrics ) {
+			this.metrics = metrics;
+			ascent = metrics.getAscent();
+			height = metrics.getHeight();
+			pages = new float[256][];
+		}
+		
+		
+		/**
+		 * @return Oberlänge in Pixeln.
+		 * @since 0.6.0
+		 */
+		int getAscent() {
+			return ascent;
+		}
+		
+		/**
+		 * @return Zeilenhöhe in Pixeln.
+		 * @since 0.6.0
+		 */
+		int getHeight() {
+			return height;
+		}
+		
+		/**
+		 * @param c Zeichen
+		 * @return Vorschub des angegebenen Zeichens in Pixeln.
+		 * @since 0.6.0
+		 */
+		float getAdvance( char c ) {
+			float[] page = pages[c >>> 8];
+			if( page == null )
+				page = loadPage( c >>> 8 );
+			return page[c & 0xFF];
+		}
+		
+		/**
+		 * @param s Text
+		 * @return Breite des angegebenen Texts in Pixeln.
+		 * @since 0.6.0
+		 */
+		int getWidth( String s ) {
+			float width = 0;
+			for( int i = 0; i < s.length(); i++ )
+				width += getAdvance( s.charAt( i ) );
+			return (int)(width + 0.5f);
+		}
+		
+		
+		/**
+		 * Bestimmt die Vorschübe aller Zeichen einer Seite.
+		 *
+		 * @param index Index der Seite
+		 * @return Vorschübe der Seite.
+		 * @since 0.6.0
+		 */
+		private float[] loadPage( int index ) {
+			float[] page = new float[256];
+			char[] c = new char[1];
+			for( int i = 0; i < 256; i++ ) {
+				c[0] = (char)(index << 8 | i);
+				page[i] = (float)metrics.getStringBounds( c,0,1,graphics ).getWidth();
+			}
+			pages[index] = page;
+			return page;
+		}
+		
+		
+	}
+	
+	
+}
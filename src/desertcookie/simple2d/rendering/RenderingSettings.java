@@ -54,6 +54,9 @@ public class RenderingSettings {
 	static Object TEXT_ANTIALIASING = RenderingHints.VALUE_TEXT_ANTIALIAS_DEFAULT;
 	static Object TEXT_LCD_CONTRAST = 150;
 	
+	private static RenderingHints hints;
+	private static int version;
+	
 	
 	/**
 	 * Konstruiert neues RenderSettings-Objekt. Interner Konstruktor.
@@ -69,7 +72,7 @@ public class RenderingSettings {
 	 * @param quality Render-Qualität
 	 * @since 0.3.4
 	 */
-	public static void setGeneralQuality( int quality ) {
+	public static synchronized void setGeneralQuality( int quality ) {
 		switch( quality ) {
 			case QUALITY_DEFAULT:
 				ANTIALIASING = RenderingHints.VALUE_ANTIALIAS_ON;
@@ -119,6 +122,37 @@ public class RenderingSettings {
 				TEXT_ANTIALIASING = RenderingHints.VALUE_TEXT_ANTIALIAS_ON;
 				break;
 		}
+		hints = null;
+		version++;
+	}
+	
+	
+	/**
+	 * @return Alle Einstellungen als eine Sammlung von RenderingHints, die mit einem einzigen Aufruf übernommen werden kann. Interne Methode.
+	 * @since 0.6.0
+	 */
+	static synchronized RenderingHints getHints() {
+		if( hints == null ) {
+			hints = new RenderingHints( RenderingHints.KEY_ANTIALIASING,ANTIALIASING );
+			hints.put( RenderingHints.KEY_ALPHA_INTERPOLATION,ALPHA_INTERPOLATION );
+			hints.put( RenderingHints.KEY_COLOR_RENDERING,COLOR_RENDERING );
+			hints.put( RenderingHints.KEY_DITHERING,DITHERING );
+			hints.put( RenderingHints.KEY_FRACTIONALMETRICS,FRACTIONALMETRICS );
+			hints.put( RenderingHints.KEY_INTERPOLATION,INTERPOLATION );
+			hints.put( RenderingHints.KEY_RENDERING,RENDERING );
+			hints.put( RenderingHints.KEY_STROKE_CONTROL,STROKE_CONTROL );
+			hints.put( RenderingHints.KEY_TEXT_ANTIALIASING,TEXT_ANTIALIASING );
+			hints.put( RenderingHints.KEY_TEXT_LCD_CONTRAST,TEXT_LCD_CONTRAST );
+		}
+		return hints;
+	}
+	
+	/**
+	 * @return Zähler, der sich bei jeder Änderung der Einstellungen erhöht. Interne Methode.
+	 * @since 0.6.0
+	 */
+	static synchronized int getVersion() {
+		return version;
 	}
 	
 	
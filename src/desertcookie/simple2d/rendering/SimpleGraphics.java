@@ -29,10 +29,13 @@ import desertcookie.simple2d.core.Game;
 import desertcookie.simple2d.textures.Texture;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
 
 
 /**
  * Schnittstelle zum Rendern von verschiedensten Formen und Texturen.
+ * Farbe, Schriftart, Transformation, Composite und RenderingHints werden zusätzlich hier gespeichert, sodass Änderungen, die den aktuellen Wert nicht verändern, gar nicht erst an das Graphics2D-Objekt weitergegeben werden.
  *
  * @since 0.1.9
  */
@@ -41,6 +44,17 @@ public class SimpleGraphics {
 	
 	private Graphics2D graphics;
 	private double scale;
+	private Path2D.Double clip;
+	private SpriteBatch batch;
+	private GlyphCache glyphs;
+	
+	private Color color;
+	private Font font;
+	private AffineTransform transform;
+	private Composite composite;
+	private int hintsVersion;
+	private long stateChanges, skippedStateChanges;
+	private long drawCalls;
 	
 	
 	/**
@@ -52,6 +66,15 @@ public class SimpleGraphics {
 	public SimpleGraphics( Graphics2D graphics ) {
 		this.graphics = graphics;
 		scale = 1.0;
+		clip = new Path2D.Double();
+		batch = new SpriteBatch();
+		glyphs = new GlyphCache( graphics );
+		color = graphics.getColor();
+		font = graphics.getFont();
+		transform = graphics.getTransform();
+		composite = graphics.getComposite();
+		graphics.setBackground( Color.white );
+		hintsVersion = -1;
 		reloadRenderingSettings();
 	}
 	
@@ -79,17 +102,26 @@ public class SimpleGraphics {
 	 * @since 0.3.4
 	 */
 	public Color getColor() {
-		return graphics.getColor();
+		if( batch.isActive() )
+			return batch.getColor();
+		return color;
 	}
 	
 	/**
 	 * Setzt die aktuelle Farbe.
 	 *
-	 * @param color Farbe die verwendet werden soll
+	 * @param color Farbe die verwendet werden soll, {@code null} wird wie bei {@link Graphics2D#setColor(Color)} ignoriert
 	 * @since 0.1.9
 	 */
 	public void setColor( Color color ) {
-		graphics.setColor( color );
+		if( color == null ) {
+			skippedStateChanges++;
+			return;
+		}
+		if( batch.isActive() )
+			batch.setColor( color );
+		else
+			applyColor( color );
 	}
 	
 	/**
@@ -97,17 +129,172 @@ public class SimpleGraphics {
 	 * @since 0.3.4
 	 */
 	public Font getFont() {
-		return graphics.getFont();
+		if( batch.isActive() )
+			return batch.getFont();
+		return font;
 	}
 	
 	/**
 	 * Setzt die aktuelle Schriftart.
 	 *
-	 * @param font Schriftart die verwendet werden soll
+	 * @param font Schriftart die verwendet werden soll, {@code null} wird wie bei {@link Graphics2D#setFont(Font)} ignoriert
 	 * @since 0.3.4
 	 */
 	public void setFont( Font font ) {
-		graphics.setFont( font );
+		if( font == null ) {
+			skippedStateChanges++;
+			return;
+		}
+		if( batch.isActive() )
+			batch.setFont( font );
+		else
+			applyFont( font );
+	}
+	
+	/**
+	 * @return Kopie der aktuellen Transformation.
+	 * @since 0.6.0
+	 */
+	public AffineTransform getTransform() {
+		return new AffineTransform( transform );
+	}
+	
+	/**
+	 * Setzt die Transformation für folgende Render-Aufrufe. Im Batch-Modus werden vorher alle gesammelten Aufrufe gerendert.
+	 *
+	 * @param transform Transformation die verwendet werden soll
+	 * @since 0.6.0
+	 */
+	public void setTransform( AffineTransform transform ) {
+		if( transform == null )
+			throw new IllegalArgumentException( "The transform must not be null!" );
+		if( this.transform.equals( transform ) ) {
+			skippedStateChanges++;
+			return;
+		}
+		if( batch.isActive() )
+			batch.flush( this );
+		this.transform = new AffineTransform( transform );
+		graphics.setTransform( transform );
+		stateChanges++;
+	}
+	
+	/**
+	 * @return Aktuelles Composite.
+	 * @since 0.6.0
+	 */
+	public Composite getComposite() {
+		return composite;
+	}
+	
+	/**
+	 * Setzt das Composite für folgende Render-Aufrufe, beispielsweise {@link AlphaComposite} für Transparenz. Im Batch-Modus werden vorher alle gesammelten Aufrufe gerendert.
+	 *
+	 * @param composite Composite das verwendet werden soll
+	 * @since 0.6.0
+	 */
+	public void setComposite( Composite composite ) {
+		if( composite == null )
+			throw new IllegalArgumentException( "The composite must not be null!" );
+		if( composite == this.composite || composite.equals( this.composite ) ) {
+			skippedStateChanges++;
+			return;
+		}
+		if( batch.isActive() )
+			batch.flush( this );
+		this.composite = composite;
+		graphics.setComposite( composite );
+		stateChanges++;
+	}
+	
+	/**
+	 * @return Anzahl der Zustandsänderungen, die an das Graphics2D-Objekt weitergegeben wurden.
+	 * @since 0.6.0
+	 */
+	public long getStateChanges() {
+		return stateChanges;
+	}
+	
+	/**
+	 * @return Anzahl der Zustandsänderungen, die übersprungen wurden, weil sie den aktuellen Wert nicht verändert hätten.
+	 * @since 0.6.0
+	 */
+	public long getSkippedStateChanges() {
+		return skippedStateChanges;
+	}
+	
+	/**
+	 * @return Anzahl der Render-Aufrufe, die seit der Erstellung dieses SimpleGraphics-Objekts an das Graphics2D-Objekt weitergegeben wurden.
+	 * @since 0.6.0
+	 */
+	public long getDrawCallCount() {
+		return drawCalls;
+	}
+	
+	/**
+	 * Setzt die Zähler für Zustandsänderungen zurück.
+	 *
+	 * @since 0.6.0
+	 */
+	public void resetStateStatistics() {
+		stateChanges = 0;
+		skippedStateChanges = 0;
+	}
+	
+	/**
+	 * @return Ebene, auf der folgende Render-Aufrufe im Batch-Modus gerendert werden.
+	 * @since 0.6.0
+	 */
+	public int getLayer() {
+		return batch.getLayer();
+	}
+	
+	/**
+	 * Setzt die Ebene, auf der folgende Render-Aufrufe im Batch-Modus gerendert werden. Ebenen mit kleinerem Wert werden zuerst gerendert.
+	 *
+	 * @param layer Ebene zwischen {@code -16384} und {@code 16383}
+	 * @since 0.6.0
+	 */
+	public void setLayer( int layer ) {
+		batch.setLayer( layer );
+	}
+	
+	/**
+	 * Startet den Batch-Modus. Alle folgenden Render-Aufrufe werden bis {@link #end()} gesammelt und dann nach Ebene, Textur und Farbe bzw. Schriftart sortiert gerendert, um Zustandswechsel zu sparen.
+	 * Innerhalb einer Ebene ist die Reihenfolge der Aufrufe daher nicht garantiert. Was sich überdecken soll, gehört auf unterschiedliche Ebenen.
+	 *
+	 * @since 0.6.0
+	 */
+	public void begin() {
+		batch.begin( color,font );
+	}
+	
+	/**
+	 * Beendet den Batch-Modus und rendert alle gesammelten Aufrufe.
+	 *
+	 * @since 0.6.0
+	 */
+	public void end() {
+		if( !batch.isActive() )
+			return;
+		batch.flush( this );
+		batch.end();
+	}
+	
+	/**
+	 * @return Anzahl der Gruppen gleicher Textur bzw. gleichen Zustands, die im letzten Batch nacheinander gerendert wurden.
+	 * @since 0.6.0
+	 */
+	public int getFlushCount() {
+		return batch.getFlushCount();
+	}
+	
+	/**
+	 * @return Anzahl der Render-Aufrufe, die im letzten Batch gerendert wurden.
+	 * @since 0.6.0
+	 */
+	public int getBatchedDrawCount() {
+		return batch.getDrawCount();
 	}
 	
 	
@@ -121,7 +308,7 @@ public class SimpleGraphics {
 	 * @since 0.4.7
 	 */
 	public void drawRect( double x,double y,double w,double h ) {
-		graphics.drawRect( (int)(x * scale),(int)(y * scale),(int)(w * scale),(int)(h * scale) );
+		submit( SpriteBatch.DRAW_RECT,null,x,y,w,h,0,0 );
 	}
 	
 	/**
@@ -134,7 +321,7 @@ public class SimpleGraphics {
 	 * @since 0.4.7
 	 */
 	public void fillRect( double x,double y,double w,double h ) {
-		graphics.fillRect( (int)(x * scale),(int)(y * scale),(int)(w * scale),(int)(h * scale) );
+		submit( SpriteBatch.FILL_RECT,null,x,y,w,h,0,0 );
 	}
 	
 	/**
@@ -149,7 +336,7 @@ public class SimpleGraphics {
 	 * @since 0.4.7
 	 */
 	public void drawRoundRect( double x,double y,double w,double h,double arcW,double arcH ) {
-		graphics.drawRoundRect( (int)(x * scale),(int)(y * scale),(int)(w * scale),(int)(h * scale),(int)(arcW * scale),(int)(arcH * scale) );
+		submit( SpriteBatch.DRAW_ROUND_RECT,null,x,y,w,h,arcW,arcH );
 	}
 	
 	/**
@@ -164,7 +351,7 @@ public class SimpleGraphics {
 	 * @since 0.4.7
 	 */
 	public void fillRoundRect( double x,double y,double w,double h,double arcW,double arcH ) {
-		graphics.fillRoundRect( (int)(x * scale),(int)(y * scale),(int)(w * scale),(int)(h * scale),(int)(arcW * scale),(int)(arcH * scale) );
+		submit( SpriteBatch.FILL_ROUND_RECT,null,x,y,w,h,arcW,arcH );
 	}
 	
 	/**
@@ -178,10 +365,7 @@ public class SimpleGraphics {
 	 * @since 0.3.4
 	 */
 	public void drawString( String s,double x,double y,double w,double h ) {
-		FontMetrics metrics = graphics.getFontMetrics( graphics.getFont() );
-		x = x + (w - metrics.stringWidth( s )) / 2;
-		y = y + ((h - metrics.getHeight()) / 2) + metrics.getAscent();
-		graphics.drawString( s,(int)(x * scale),(int)(y * scale) );
+		submit( SpriteBatch.STRING_CENTERED,s,x,y,w,h,0,0 );
 	}
 	
 	/**
@@ -193,7 +377,67 @@ public class SimpleGraphics {
 	 * @since 0.3.4
 	 */
 	public void drawString( String s,double x,double y ) {
-		graphics.drawString( s,(int)(x * scale),(int)(y * scale) );
+		submit( SpriteBatch.STRING,s,x,y,0,0,0,0 );
+	}
+	
+	/**
+	 * Rendert den angegebenen, bereits vermessenen Text zentriert im angegebenen Bereich. Verwendet wird die Schriftart, mit der der Text vermessen wurde.
+	 *
+	 * @param text Vermessener Text, der gerendert werden soll
+	 * @param x    Horizontale Position des Bereichs in Pixeln
+	 * @param y    Vertikale Position des Bereichs in Pixeln
+	 * @param w    Horizontale Größe des Bereichs in Pixeln
+	 * @param h    Vertikale Größe des Bereichs in Pixeln
+	 * @since 0.6.0
+	 */
+	public void drawText( CachedText text,double x,double y,double w,double h ) {
+		setFont( text.getFont() );
+		submit( SpriteBatch.TEXT_CENTERED,text,x,y,w,h,0,0 );
+	}
+	
+	/**
+	 * Rendert die angegebenen Zeichen an der angegebenen Position (Baseline-Rendering).
+	 * Außerhalb des Batch-Modus werden die Zeichen direkt gerendert, ohne einen String zu erzeugen. Das Array darf danach wiederverwendet werden.
+	 *
+	 * @param chars  Zeichen die gerendert werden sollen
+	 * @param offset Index des ersten Zeichens
+	 * @param length Anzahl der Zeichen
+	 * @param x      Horizontale Position in Pixeln
+	 * @param y      Vertikale Position in Pixeln
+	 * @since 0.6.0
+	 */
+	public void drawChars( char[] chars,int offset,int length,double x,double y ) {
+		if( batch.isActive() )
+			submit( SpriteBatch.STRING,new String( chars,offset,length ),x,y,0,0,0,0 );
+		else {
+			drawCalls++;
+			graphics.drawChars( chars,offset,length,(int)(x * scale),(int)(y * scale) );
+		}
+	}
+	
+	/**
+	 * Vermisst den angegebenen Text mit der aktuellen Schriftart. Der vorherige CachedText wird zurückgegeben, solange sich Text, Schriftart und Rendereinstellungen nicht geändert haben.
+	 *
+	 * @param previous Zuvor vermessener Text oder {@code null}
+	 * @param text     Text der vermessen werden soll
+	 * @return Vermessener Text.
+	 * @since 0.6.0
+	 */
+	public CachedText layoutText( CachedText previous,String text ) {
+		Font font = getFont();
+		if( previous != null && previous.matches( text,font,glyphs.getVersion() ) )
+			return previous;
+		GlyphCache.Glyphs metrics = glyphs.get( font );
+		return new CachedText( text,font,metrics.getWidth( text ),metrics.getAscent(),metrics.getHeight(),glyphs.getVersion() );
+	}
+	
+	/**
+	 * @param s Text
+	 * @return Breite des angegebenen Texts mit der aktuellen Schriftart in Pixeln.
+	 * @since 0.6.0
+	 */
+	public int getStringWidth( String s ) {
+		return glyphs.get( getFont() ).getWidth( s );
 	}
 	
 	/**
@@ -207,7 +451,7 @@ public class SimpleGraphics {
 	 * @since 0.1.9
 	 */
 	public void drawTexture( Texture texture,double x,double y,double w,double h ) {
-		graphics.drawImage( texture.getImage(),(int)(x * scale),(int)(y * scale),(int)(w * scale),(int)(h * scale),null );
+		submit( SpriteBatch.TEXTURE,texture,x,y,w,h,0,0 );
 	}
 	
 	/**
@@ -219,25 +463,54 @@ public class SimpleGraphics {
 	 * @since 0.1.9
 	 */
 	public void drawTexture( Texture texture,double x,double y ) {
-		drawTexture( texture,x,y,texture.getImage().getWidth(),texture.getImage().getHeight() );
+		drawTexture( texture,x,y,texture.getWidth(),texture.getHeight() );
 	}
 	
 	/**
 	 * Lädt die Rendereinstellungen neu. Diese Methode sollte aufgerufen werden, nachdem ein Wert in der RenderingSettings-Klasse geändert wurde.
+	 * Alle Einstellungen werden gemeinsam übernommen, und nur wenn sie sich seit dem letzten Aufruf geändert haben.
 	 *
 	 * @since 0.3.4
 	 */
 	public void reloadRenderingSettings() {
-		graphics.setRenderingHint( RenderingHints.KEY_ANTIALIASING,RenderingSettings.ANTIALIASING );
-		graphics.setRenderingHint( RenderingHints.KEY_ALPHA_INTERPOLATION,RenderingSettings.ALPHA_INTERPOLATION );
-		graphics.setRenderingHint( RenderingHints.KEY_COLOR_RENDERING,RenderingSettings.COLOR_RENDERING );
-		graphics.setRenderingHint( RenderingHints.KEY_DITHERING,RenderingSettings.DITHERING );
-		graphics.setRenderingHint( RenderingHints.KEY_FRACTIONALMETRICS,RenderingSettings.FRACTIONALMETRICS );
-		graphics.setRenderingHint( RenderingHints.KEY_INTERPOLATION,RenderingSettings.INTERPOLATION );
-		graphics.setRenderingHint( RenderingHints.KEY_RENDERING,RenderingSettings.RENDERING );
-		graphics.setRenderingHint( RenderingHints.KEY_STROKE_CONTROL,RenderingSettings.STROKE_CONTROL );
-		graphics.setRenderingHint( RenderingHints.KEY_TEXT_ANTIALIASING,RenderingSettings.TEXT_ANTIALIASING );
-		graphics.setRenderingHint( RenderingHints.KEY_TEXT_LCD_CONTRAST,RenderingSettings.TEXT_LCD_CONTRAST );
+		int version = RenderingSettings.getVersion();
+		if( version == hintsVersion ) {
+			skippedStateChanges++;
+			return;
+		}
+		hintsVersion = version;
+		graphics.setRenderingHints( RenderingSettings.getHints() );
+		glyphs.clear();
+		stateChanges++;
+	}
+	
+	/**
+	 * Beschränkt alle folgenden Render-Aufrufe auf die angegebenen Bereiche. Interne Methode.
+	 *
+	 * @param region Bereiche in Pixeln, auf die gerendert werden darf
+	 * @since 0.6.0
+	 */
+	public void setClip( DirtyRegion region ) {
+		clip.reset();
+		// Die Rechtecke werden direkt als Pfad angehängt, reset() behält die Arrays des Pfads, sodass pro Bild keine Objekte entstehen
+		for( int i = 0; i < region.getCount(); i++ ) {
+			int x = region.getX( i ), y = region.getY( i ), right = x + region.getWidth( i ), bottom = y + region.getHeight( i );
+			clip.moveTo( x,y );
+			clip.lineTo( right,y );
+			clip.lineTo( right,bottom );
+			clip.lineTo( x,bottom );
+			clip.closePath();
+		}
+		graphics.setClip( clip );
+	}
+	
+	/**
+	 * Hebt die Beschränkung auf einzelne Bereiche wieder auf. Interne Methode.
+	 *
+	 * @since 0.6.0
+	 */
+	public void resetClip() {
+		graphics.setClip( null );
 	}
 	
 	/**
@@ -246,10 +519,130 @@ public class SimpleGraphics {
 	 * @since 0.3.4
 	 */
 	public void resetBuffer() {
-		Color originalColor = graphics.getColor();
-		graphics.setColor( Color.white );
-		graphics.fillRect( 0,0,Game.getDisplay().getWidth(),Game.getDisplay().getHeight() );
-		graphics.setColor( originalColor );
+		// Füllt mit der Hintergrundfarbe, ohne die aktuelle Farbe zu wechseln
+		graphics.clearRect( 0,0,Game.getDisplay().getWidth(),Game.getDisplay().getHeight() );
+	}
+	
+	/**
+	 * Übernimmt Farbe und Schriftart eines gesammelten Render-Aufrufs. Interne Methode.
+	 *
+	 * @param color Farbe
+	 * @param font  Schriftart
+	 * @since 0.6.0
+	 */
+	void applyState( Color color,Font font ) {
+		applyColor( color );
+		applyFont( font );
+	}
+	
+	/**
+	 * Führt einen Render-Aufruf sofort aus. Interne Methode.
+	 *
+	 * @param type   Art des Aufrufs
+	 * @param object Textur, Text oder CachedText des Aufrufs, sonst {@code null}
+	 * @param x      Horizontale Position in Pixeln
+	 * @param y      Vertikale Position in Pixeln
+	 * @param w      Horizontale Größe in Pixeln
+	 * @param h      Vertikale Größe in Pixeln
+	 * @param arcW   Stärke der horizontalen Ecken-Rundung
+	 * @param arcH   Stärke der vertikalen Ecken-Rundung
+	 * @since 0.6.0
+	 */
+	void execute( int type,Object object,double x,double y,double w,double h,double arcW,double arcH ) {
+		drawCalls++;
+		switch( type ) {
+			case SpriteBatch.TEXTURE:
+				Texture texture = (Texture)object;
+				int dx = (int)(x * scale), dy = (int)(y * scale), dw = (int)(w * scale), dh = (int)(h * scale);
+				if( texture.isRegion() )
+					graphics.drawImage( texture.getImage(),dx,dy,dx + dw,dy + dh,texture.getU(),texture.getV(),texture.getU() + texture.getWidth(),texture.getV() + texture.getHeight(),null );
+				else
+					graphics.drawImage( texture.getImage(),dx,dy,dw,dh,null );
+				break;
+			case SpriteBatch.DRAW_RECT:
+				graphics.drawRect( (int)(x * scale),(int)(y * scale),(int)(w * scale),(int)(h * scale) );
+				break;
+			case SpriteBatch.FILL_RECT:
+				graphics.fillRect( (int)(x * scale),(int)(y * scale),(int)(w * scale),(int)(h * scale) );
+				break;
+			case SpriteBatch.DRAW_ROUND_RECT:
+				graphics.drawRoundRect( (int)(x * scale),(int)(y * scale),(int)(w * scale),(int)(h * scale),(int)(arcW * scale),(int)(arcH * scale) );
+				break;
+			case SpriteBatch.FILL_ROUND_RECT:
+				graphics.fillRoundRect( (int)(x * scale),(int)(y * scale),(int)(w * scale),(int)(h * scale),(int)(arcW * scale),(int)(arcH * scale) );
+				break;
+			case SpriteBatch.STRING_CENTERED:
+				GlyphCache.Glyphs metrics = glyphs.get( font );
+				x = x + (w - metrics.getWidth( (String)object )) / 2;
+				y = y + ((h - metrics.getHeight()) / 2) + metrics.getAscent();
+				graphics.drawString( (String)object,(int)(x * scale),(int)(y * scale) );
+				break;
+			case SpriteBatch.TEXT_CENTERED:
+				CachedText text = (CachedText)object;
+				x = x + (w - text.getWidth()) / 2;
+				y = y + ((h - text.getHeight()) / 2) + text.getAscent();
+				graphics.drawString( text.getText(),(int)(x * scale),(int)(y * scale) );
+				break;
+			case SpriteBatch.STRING:
+				graphics.drawString( (String)object,(int)(x * scale),(int)(y * scale) );
+				break;
+		}
+	}
+	
+	
+	/**
+	 * Übernimmt die angegebene Farbe, sofern sie sich von der aktuellen unterscheidet.
+	 *
+	 * @param color Farbe
+	 * @since 0.6.0
+	 */
+	private void applyColor( Color color ) {
+		if( color == this.color || color.equals( this.color ) ) {
+			skippedStateChanges++;
+			return;
+		}
+		this.color = color;
+		graphics.setColor( color );
+		stateChanges++;
+	}
+	
+	/**
+	 * Übernimmt die angegebene Schriftart, sofern sie sich von der aktuellen unterscheidet.
+	 *
+	 * @param font Schriftart
+	 * @since 0.6.0
+	 */
+	private void applyFont( Font font ) {
+		if( font == this.font || font.equals( this.font ) ) {
+			skippedStateChanges++;
+			return;
+		}
+		this.font = font;
+		graphics.setFont( font );
+		stateChanges++;
+	}
+	
+	/**
+	 * Führt einen Render-Aufruf aus oder sammelt ihn im Batch-Modus.
+	 *
+	 * @param type   Art des Aufrufs
+	 * @param object Textur oder Text des Aufrufs, sonst {@code null}
+	 * @param x      Horizontale Position in Pixeln
+	 * @param y      Vertikale Position in Pixeln
+	 * @param w      Horizontale Größe in Pixeln
+	 * @param h      Vertikale Größe in Pixeln
+	 * @param arcW   Stärke der horizontalen Ecken-Rundung
+	 * @param arcH   Stärke der vertikalen Ecken-Rundung
+	 * @since 0.6.0
+	 */
+	private void submit( int type,Object object,double x,double y,double w,double h,double arcW,double arcH ) {
+		if( !batch.isActive() ) {
+			execute( type,object,x,y,w,h,arcW,arcH );
+			return;
+		}
+		if( batch.isFull() )
+			batch.flush( this );
+		batch.add( type,object,x,y,w,h,arcW,arcH );
 	}
 	
 	
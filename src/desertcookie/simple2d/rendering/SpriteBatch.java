@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.rendering;
+
+
+import desertcookie.simple2d.textures.Texture;
+
+import java.awt.*;
+import java.util.Arrays;
+
+
+/**
+ * Puffer für Render-Aufrufe, die zwischen {@link SimpleGraphics#begin()} und {@link SimpleGraphics#end()} gesammelt werden.
+ * Die Aufrufe werden in primitiven Arrays abgelegt, nach Ebene, Textur und Zustand sortiert und anschließend mit möglichst wenigen Zustandswechseln ausgeführt.
+ *
+ * @since 0.6.0
+ */
+class SpriteBatch {
+	
+	
+	/**
+	 * Arten von Render-Aufrufen.
+	 *
+	 * @since 0.6.0
+	 */
+	static final int TEXTURE = 0, DRAW_RECT = 1, FILL_RECT = 2, DRAW_ROUND_RECT = 3, FILL_ROUND_RECT = 4, STRING = 5, STRING_CENTERED = 6, TEXT_CENTERED = 7;
+	/**
+	 * Maximale Anzahl gesammelter Aufrufe, bevor automatisch ausgeführt wird.
+	 *
+	 * @since 0.6.0
+	 */
+	static final int CAPACITY = 1 << 16;
+	
+	private static final int VALUES = 6;
+	private static final long STATE_GROUP = 1L << 31;
+	private static final int LAYER_OFFSET = 1 << 14;
+	
+	private int[] types;
+	private int[] states;
+	private Object[] objects;
+	private double[] values;
+	private long[] keys;
+	private int size;
+	
+	private Color[] stateColors;
+	private Font[] stateFonts;
+	private int stateCount, currentState;
+	
+	private boolean active;
+	private int layer;
+	private int flushCount, drawCount;
+	
+	
+	/**
+	 * Konstruiert neuen, leeren SpriteBatch. Interner Konstruktor.
+	 *
+	 * @since 0.6.0
+	 */
+	SpriteBatch() {
+		types = new int[256];
+		states = new int[256];
+		objects = new Object[256];
+		values = new double[256 * VALUES];
+		keys = new long[256];
+		stateColors = new Color[16];
+		stateFonts = new Font[16];
+	}
+	
+	
+	/**
+	 * Beginnt das Sammeln von Aufrufen mit dem angegebenen Zustand. Interne Methode.
+	 *
+	 * @param color Aktuelle Farbe
+	 * @param font  Aktuelle Schriftart
+	 * @since 0.6.0
+	 */
+	void begin( Color color,Font font ) {
+		active = true;
+		size = 0;
+		stateCount = 0;
+		flushCount = 0;
+		drawCount = 0;
+		selectState( color,font );
+	}
+	
+	/**
+	 * Beendet das Sammeln von Aufrufen. Interne Methode.
+	 *
+	 * @since 0.6.0
+	 */
+	void end() {
+		active = false;
+	}
+	
+	/**
+	 * @return {@code true} wenn momentan Aufrufe gesammelt werden.
+	 * @since 0.6.0
+	 */
+	boolean isActive() {
+		return active;
+	}
+	
+	/**
+	 * @return {@code true} wenn keine weiteren Aufrufe aufgenommen werden können.
+	 * @since 0.6.0
+	 */
+	boolean isFull() {
+		return size == CAPACITY;
+	}
+	
+	/**
+	 * @return Aktuelle Ebene für neue Aufrufe.
+	 * @since 0.6.0
+	 */
+	int getLayer() {
+		return layer;
+	}
+	
+	/**
+	 * Setzt die Ebene für neue Aufrufe.
+	 *
+	 * @param layer Ebene zwischen {@code -16384} und {@code 16383}
+	 * @since 0.6.0
+	 */
+	void setLayer( int layer ) {
+		this.layer = Math.min( Math.max( layer,-LAYER_OFFSET ),LAYER_OFFSET - 1 );
+	}
+	
+	/**
+	 * @return Zuletzt gesetzte Farbe.
+	 * @since 0.6.0
+	 */
+	Color getColor() {
+		return stateColors[currentState];
+	}
+	
+	/**
+	 * @return Zuletzt gesetzte Schriftart.
+	 * @since 0.6.0
+	 */
+	Font getFont() {
+		return stateFonts[currentState];
+	}
+	
+	/**
+	 * Setzt die Farbe für folgende Aufrufe.
+	 *
+	 * @param color Farbe
+	 * @since 0.6.0
+	 */
+	void setColor( Color color ) {
+		if( !color.equals( getColor() ) )
+			selectState( color,getFont() );
+	}
+	
+	/**
+	 * Setzt die Schriftart für folgende Aufrufe.
+	 *
+	 * @param font Schriftart
+	 * @since 0.6.0
+	 */
+	void setFont( Font font ) {
+		if( !font.equals( getFont() ) )
+			selectState( getColor(),font );
+	}
+	
+	/**
+	 * Nimmt einen Aufruf auf.
+	 *
+	 * @param type   Art des Aufrufs
+	 * @param object Textur, Text oder CachedText des Aufrufs, sonst {@code null}
+	 * @param x      Horizontale Position in Pixeln
+	 * @param y      Vertikale Position in Pixeln
+	 * @param w      Horizontale Größe in Pixeln
+	 * @param h      Vertikale Größe in Pixeln
+	 * @param arcW   Stärke der horizontalen Ecken-Rundung
+	 * @param arcH   Stärke der vertikalen Ecken-Rundung
+	 * @since 0.6.0
+	 */
+	void add( int type,Object object,double x,double y,double w,double h,double arcW,double arcH ) {
+		ensureCapacity( size + 1 );
+		int state = currentState;
+		long group = type == TEXTURE ? ((Texture)object).getId() & 0x7FFFFFFFL : STATE_GROUP | state;
+		types[size] = type;
+		states[size] = state;
+		objects[size] = object;
+		int offset = size * VALUES;
+		values[offset] = x;
+		values[offset + 1] = y;
+		values[offset + 2] = w;
+		values[offset + 3] = h;
+		values[offset + 4] = arcW;
+		values[offset + 5] = arcH;
+		keys[size] = ((long)(layer + LAYER_OFFSET) << 48) | (group << 16) | size;
+		size++;
+	}
+	
+	/**
+	 * Sortiert die gesammelten Aufrufe und führt sie auf dem angegebenen SimpleGraphics aus. Danach ist der Puffer leer.
+	 *
+	 * @param graphics SimpleGraphics, auf dem die Aufrufe ausgeführt werden
+	 * @since 0.6.0
+	 */
+	void flush( SimpleGraphics graphics ) {
+		Arrays.sort( keys,0,size );
+		long currentGroup = -1;
+		int appliedState = -1;
+		for( int i = 0; i < size; i++ ) {
+			int index = (int)(keys[i] & 0xFFFF);
+			long group = keys[i] >>> 16;
+			if( group != currentGroup ) {
+				currentGroup = group;
+				flushCount++;
+			}
+			if( types[index] != TEXTURE && states[index] != appliedState ) {
+				appliedState = states[index];
+				graphics.applyState( stateColors[appliedState],stateFonts[appliedState] );
+			}
+			int offset = index * VALUES;
+			graphics.execute( types[index],objects[index],values[offset],values[offset + 1],values[offset + 2],values[offset + 3],values[offset + 4],values[offset + 5] );
+			objects[index] = null;
+		}
+		drawCount += size;
+		size = 0;
+		
+		Color color = getColor();
+		Font font = getFont();
+		stateCount = 0;
+		selectState( color,font );
+		graphics.applyState( color,font );
+	}
+	
+	/**
+	 * @return Anzahl der Gruppen gleicher Textur bzw. gleichen Zustands, die seit dem letzten {@code begin} ausgeführt wurden.
+	 * @since 0.6.0
+	 */
+	int getFlushCount() {
+		return flushCount;
+	}
+	
+	/**
+	 * @return Anzahl der Aufrufe, die seit dem letzten {@code begin} ausgeführt wurden.
+	 * @since 0.6.0
+	 */
+	int getDrawCount() {
+		return drawCount;
+	}
+	
+	
+	/**
+	 * Wählt den Zustand mit der angegebenen Farbe und Schriftart aus und legt ihn an, falls er noch nicht existiert.
+	 *
+	 * @param color Farbe des Zustands
+	 * @param font  Schriftart des Zustands
+	 * @since 0.6.0
+	 */
+	private void selectState( Color color,Font font ) {
+		for( int i = 0; i < stateCount; i++ )
+			if( stateColors[i].equals( color ) && stateFonts[i].equals( font ) ) {
+				currentState = i;
+				return;
+			}
+		if( stateCount == stateColors.length ) {
+			stateColors = Arrays.copyOf( stateColors,stateCount * 2 );
+			stateFonts = Arrays.copyOf( stateFonts,stateCount * 2 );
+		}
+		stateColors[stateCount] = color;
+		stateFonts[stateCount] = font;
+		currentState = stateCount++;
+	}
+	
+	/**
+	 * Vergrößert die Arrays, sodass sie mindestens die angegebene Anzahl von Aufrufen aufnehmen können.
+	 *
+	 * @param capacity Benötigte Anzahl von Aufrufen
+	 * @since 0.6.0
+	 */
+	private void ensureCapacity( int capacity ) {
+		if( capacity <= types.length )
+			return;
+		int length = Math.min( Math.max( types.length * 2,capacity ),CAPACITY );
+		types = Arrays.copyOf( types,length );
+		states = Arrays.copyOf( states,length );
+		objects = Arrays.copyOf( objects,length );
+		values = Arrays.copyOf( values,length * VALUES );
+		keys = Arrays.copyOf( keys,length );
+	}
+	
+	
+}
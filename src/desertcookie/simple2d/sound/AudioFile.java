@@ -37,8 +37,8 @@ public class AudioFile {
 	
 	
 	private Clip clip;
-	private int volume;
-	private boolean loop;
+	int volume;
+	boolean loop;
 	private int pausePosition;
 	
 	
@@ -53,6 +53,14 @@ public class AudioFile {
 		volume = 100;
 	}
 	
+	/**
+	 * Konstruiert neue Audiodatei ohne Clip für Unterklassen, die selbst abspielen. Interner Konstruktor.
+	 * @since 0.6.0
+	 */
+	AudioFile() {
+		volume = 100;
+	}
+	
 	
 	/**
 	 *
@@ -25,8 +25,16 @@
 package desertcookie.simple2d.sound;
 
 
+import desertcookie.simple2d.textures.LoadingProgressListener;
+import desertcookie.util.ExceptionHandler;
+
 import javax.sound.sampled.*;
 import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
@@ -36,6 +44,9 @@ import java.io.IOException;
 public class AudioFileLoader {
 	
 	
+	private static ThreadPoolExecutor loaderPool;
+	
+	
 	/**
 	 * Konstruiert neuen AudioFileLoader. Interner Konstruktor.
 	 * @since 0.5.0
@@ -46,19 +57,134 @@ public class AudioFileLoader {
 	/**
 	 *
 	 * @param path Ort der zu ladenden Audiodatei
-	 * @return AudioFile die vom angegebenen Ort geladen wurde.
+	 * @return AudioFile die vom angegebenen Ort geladen wurde oder {@code null} wenn sie nicht geladen werden konnte.
 	 * @since 0.5.0
 	 */
 	public static AudioFile loadAudioFile(String path) {
-		Clip clip = null;
-		try {
-			AudioInputStream audioIn = AudioSystem.getAudioInputStream(AudioFileLoader.class.getResourceAsStream( path ));
-			clip = AudioSystem.getClip();
+		try( AudioInputStream audioIn = StreamingAudioFile.openStream( path ) ) {
+			Clip clip = AudioSystem.getClip();
 			clip.open(audioIn);
+			return new AudioFile( clip);
+		} catch( UnsupportedAudioFileException|IOException|LineUnavailableException|IllegalArgumentException e ) {
+			ExceptionHandler.handle( e,"Fehler beim laden einer Audiodatei",false );
+		}
+		return null;
+	}
+	
+	/**
+	 * Dekodiert eine Audiodatei vollständig zu einem SoundSample, der mit einem {@link AudioMixer} abgespielt werden kann.
+	 * @param path Ort der zu ladenden Audiodatei
+	 * @return SoundSample der Audiodatei am angegebenen Ort oder {@code null} wenn sie nicht geladen werden konnte.
+	 * @since 0.6.0
+	 */
+	public static SoundSample loadSoundSample( String path ) {
+		try( AudioInputStream stream = StreamingAudioFile.openStream( path ) ) {
+			return SoundSample.decode( stream );
+		} catch( UnsupportedAudioFileException|IOException e ) {
+			ExceptionHandler.handle( e,"Fehler beim laden einer Audiodatei",false );
+		}
+		return null;
+	}
+	
+	/**
+	 * Dekodiert eine Audiodatei im Hintergrund vollständig zu einem SoundSample, sodass weder Update Loop noch Render Loop blockiert werden.
+	 * @param path Ort der zu ladenden Audiodatei
+	 * @return Future, das mit dem SoundSample abgeschlossen wird, oder mit einer {@link CompletionException}, wenn die Datei nicht geladen werden kann.
+	 * @since 0.6.0
+	 */
+	public static CompletableFuture<SoundSample> loadSoundSampleAsync( final String path ) {
+		return CompletableFuture.supplyAsync( new Supplier<SoundSample>() {
+			@Override
+			public SoundSample get() {
+				try( AudioInputStream stream = StreamingAudioFile.openStream( path ) ) {
+					return SoundSample.decode( stream );
+				} catch( UnsupportedAudioFileException|IOException e ) {
+					throw new CompletionException( e );
+				}
+			}
+		},getLoaderPool() );
+	}
+	
+	/**
+	 * Dekodiert mehrere Audiodateien parallel im Hintergrund und meldet den Fortschritt, beispielsweise an einen {@link desertcookie.simple2d.core.SplashScreen}.
+	 * @param listener Empfänger des Fortschritts oder {@code null}
+	 * @param paths    Orte der zu ladenden Audiodateien
+	 * @return Future, das mit den SoundSamples in der Reihenfolge der Pfade abgeschlossen wird, oder mit einer {@link CompletionException}, wenn eine der Dateien nicht geladen werden kann.
+	 * @since 0.6.0
+	 */
+	public static CompletableFuture<SoundSample[]> loadSoundSamplesAsync( final LoadingProgressListener listener,final String... paths ) {
+		final SoundSample[] samples = new SoundSample[paths.length];
+		final AtomicInteger loaded = new AtomicInteger();
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[paths.length];
+		for( int i = 0; i < paths.length; i++ ) {
+			final int index = i;
+			futures[i] = loadSoundSampleAsync( paths[i] ).thenAccept( new Consumer<SoundSample>() {
+				@Override
+				public void accept( SoundSample sample ) {
+					samples[index] = sample;
+					int count = loaded.incrementAndGet();
+					if( listener != null )
+						listener.progress( count,paths.length,paths[index] );
+				}
+			} );
+		}
+		return CompletableFuture.allOf( futures ).thenApply( new Function<Void,SoundSample[]>() {
+			@Override
+			public SoundSample[] apply( Void ignored ) {
+				return samples;
+			}
+		} );
+	}
+	
+	/**
+	 * Lädt eine Audiodatei zum Streamen. Dabei wird nur der Kopf der Datei gelesen, dekodiert wird erst beim Abspielen.
+	 * @param path Ort der zu ladenden Audiodatei
+	 * @return StreamingAudioFile für die Audiodatei am angegebenen Ort oder {@code null} wenn sie nicht geladen werden konnte.
+	 * @since 0.6.0
+	 */
+	public static StreamingAudioFile loadStreamingAudioFile( String path ) {
+		return loadStreamingAudioFile( path,StreamingAudioFile.DEFAULT_BUFFER_TIME );
+	}
+	
+	/**
+	 * Lädt eine Audiodatei zum Streamen. Dabei wird nur der Kopf der Datei gelesen, dekodiert wird erst beim Abspielen.
+	 * @param path       Ort der zu ladenden Audiodatei
+	 * @param bufferTime Größe des Ringpuffers in Millisekunden
+	 * @return StreamingAudioFile für die Audiodatei am angegebenen Ort oder {@code null} wenn sie nicht geladen werden konnte.
+	 * @since 0.6.0
+	 */
+	public static StreamingAudioFile loadStreamingAudioFile( String path,int bufferTime ) {
+		if( bufferTime <= 0 )
+			throw new IllegalArgumentException( "The buffer time has to be positive!" );
+		try {
+			return new StreamingAudioFile( path,bufferTime );
 		} catch( UnsupportedAudioFileException|IOException|LineUnavailableException e ) {
-			e.printStackTrace();
+			ExceptionHandler.handle( e,"Fehler beim laden einer Audiodatei",false );
+		}
+		return null;
+	}
+	
+	
+	/**
+	 * @return Thread-Pool, auf dem Audiodateien im Hintergrund dekodiert werden. Wird beim ersten Aufruf erstellt.
+	 * @since 0.6.0
+	 */
+	private static synchronized ExecutorService getLoaderPool() {
+		if( loaderPool == null ) {
+			int threads = Math.max( 1,Math.min( 2,Runtime.getRuntime().availableProcessors() - 1 ) );
+			loaderPool = new ThreadPoolExecutor( threads,threads,5,TimeUnit.SECONDS,new LinkedBlockingQueue<Runnable>(),new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+				
+				@Override
+				public Thread newThread( Runnable runnable ) {
+					Thread thread = new Thread( runnable,"Audio Loader " + count.incrementAndGet() );
+					thread.setDaemon( true );
+					return thread;
+				}
+			} );
+			loaderPool.allowCoreThreadTimeOut( true );
 		}
-		return new AudioFile( clip);
+		return loaderPool;
 	}
 	
 	
@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.sound;
+
+
+import desertcookie.util.ExceptionHandler;
+
+import javax.sound.sampled.LineUnavailableException;
+import java.util.Arrays;
+
+
+/**
+ * Software-Mixer, der beliebig viele Sounds mit einer festen Anzahl von Stimmen in einen einzigen {@link AudioSink} mischt.
+ * Stimmen teilen sich die Daten ihrer {@link SoundSample}s, sodass derselbe Sound mehrfach überlagert abgespielt werden kann. Sind alle Stimmen belegt, wird die Stimme mit der niedrigsten Priorität übernommen.
+ * Gemischt wird blockweise in einem eigenen Thread mit hoher Priorität oder, etwa für Tests, mit {@link #render()} im aufrufenden Thread.
+ * @since 0.6.0
+ */
+public class AudioMixer {
+	
+	
+	/**
+	 * Standardwerte für die Anzahl der Stimmen, die Abtastrate in Hertz und die Größe eines Blocks in Frames.
+	 * @since 0.6.0
+	 */
+	public static final int DEFAULT_VOICES = 32, DEFAULT_SAMPLE_RATE = 44100, DEFAULT_BLOCK_SIZE = 512;
+	/**
+	 * Handle, das {@link #play} zurückgibt, wenn keine Stimme frei ist.
+	 * @since 0.6.0
+	 */
+	public static final int NO_VOICE = -1;
+	
+	private static final int VOICE_BITS = 8;
+	
+	private final AudioSink sink;
+	private final float sampleRate;
+	private final int blockSize;
+	
+	private final SoundSample[] samples;
+	private final double[] positions, steps, pitches, pans;
+	private final float[] gainsLeft, gainsRight;
+	private final int[] volumes, priorities, generations;
+	private final boolean[] loops;
+	private final long[] startOrders;
+	private long playCount, stealCount;
+	private int masterVolume;
+	
+	private final int[] mix;
+	private final byte[] output;
+	
+	private Thread thread;
+	private volatile boolean running;
+	
+	
+	/**
+	 * Konstruiert neuen AudioMixer mit Standardwerten.
+	 * @param sink Ziel der gemischten Audiodaten
+	 * @since 0.6.0
+	 */
+	public AudioMixer( AudioSink sink ) {
+		this( sink,DEFAULT_VOICES,DEFAULT_SAMPLE_RATE,DEFAULT_BLOCK_SIZE );
+	}
+	
+	/**
+	 * Konstruiert neuen AudioMixer.
+	 * @param sink       Ziel der gemischten Audiodaten
+	 * @param voices     Anzahl der Stimmen zwischen 1 und 256
+	 * @param sampleRate Abtastrate der Ausgabe in Hertz
+	 * @param blockSize  Anzahl der Frames, die auf einmal gemischt werden
+	 * @since 0.6.0
+	 */
+	public AudioMixer( AudioSink sink,int voices,float sampleRate,int blockSize ) {
+		if( voices < 1 || voices > 1 << VOICE_BITS )
+			throw new IllegalArgumentException( "There have to be between 1 and 256 voices!" );
+		if( sampleRate <= 0 || blockSize <= 0 )
+			throw new IllegalArgumentException( "The sample rate and block size have to be positive!" );
+		this.sink = sink;
+		this.sampleRate = sampleRate;
+		this.blockSize = blockSize;
+		samples = new SoundSample[voices];
+		positions = new double[voices];
+		steps = new double[voices];
+		pitches = new double[voices];
+		pans = new double[voices];
+		gainsLeft = new float[voices];
+		gainsRight = new float[voices];
+		volumes = new int[voices];
+		priorities = new int[voices];
+		generations = new int[voices];
+		loops = new boolean[voices];
+		startOrders = new long[voices];
+		masterVolume = 100;
+		mix = new int[blockSize * 2];
+		output = new byte[blockSize * 4];
+	}
+	
+	
+	/**
+	 * Öffnet einen AudioMixer mit Standardwerten, der über die Soundkarte ausgibt, und startet ihn.
+	 * @return Gestarteter AudioMixer oder {@code null} wenn keine Line geöffnet werden konnte.
+	 * @since 0.6.0
+	 */
+	public static AudioMixer open() {
+		try {
+			AudioMixer mixer = new AudioMixer( new LineSink( DEFAULT_SAMPLE_RATE,DEFAULT_BLOCK_SIZE * 4 * 4 ) );
+			mixer.start();
+			return mixer;
+		} catch( LineUnavailableException e ) {
+			ExceptionHandler.handle( e,"Fehler beim öffnen der Audioausgabe",false );
+		}
+		return null;
+	}
+	
+	
+	/**
+	 * Spielt den angegebenen SoundSample einmal mit voller Lautstärke ab.
+	 * @param sample SoundSample, der abgespielt werden soll
+	 * @return Handle der Stimme oder {@link #NO_VOICE}.
+	 * @since 0.6.0
+	 */
+	public int play( SoundSample sample ) {
+		return play( sample,100,0,0,false );
+	}
+	
+	/**
+	 * Spielt den angegebenen SoundSample auf einer freien Stimme ab. Ist keine Stimme frei, wird die Stimme mit der niedrigsten Priorität übernommen, sofern diese nicht höher ist als die des neuen Sounds. Bei gleicher Priorität wird die älteste Stimme übernommen.
+	 * @param sample   SoundSample, der abgespielt werden soll
+	 * @param volume   Lautstärke zwischen 0 und 100
+	 * @param pan      Position im Stereobild zwischen {@code -1} (links) und {@code 1} (rechts)
+	 * @param priority Priorität beim Übernehmen belegter Stimmen
+	 * @param loop     {@code true} wenn der Sound in einer Dauerschleife laufen soll
+	 * @return Handle der Stimme oder {@link #NO_VOICE} wenn alle Stimmen eine höhere Priorität haben.
+	 * @since 0.6.0
+	 */
+	public synchronized int play( SoundSample sample,int volume,double pan,int priority,boolean loop ) {
+		int voice = -1;
+		for( int i = 0; i < samples.length; i++ ) {
+			if( samples[i] == null ) {
+				voice = i;
+				break;
+			}
+			if( priorities[i] <= priority && (voice < 0 || priorities[i] < priorities[voice] || (priorities[i] == priorities[voice] && startOrders[i] < startOrders[voice])) )
+				voice = i;
+		}
+		if( voice < 0 )
+			return NO_VOICE;
+		if( samples[voice] != null )
+			stealCount++;
+		
+		samples[voice] = sample;
+		positions[voice] = 0;
+		pitches[voice] = 1;
+		steps[voice] = sample.getSampleRate() / sampleRate;
+		priorities[voice] = priority;
+		loops[voice] = loop;
+		startOrders[voice] = playCount++;
+		generations[voice] = (generations[voice] + 1) & 0x7FFFFF;
+		volumes[voice] = volume;
+		pans[voice] = pan;
+		updateGains( voice );
+		return generations[voice] << VOICE_BITS | voice;
+	}
+	
+	/**
+	 * Stoppt die Stimme mit dem angegebenen Handle.
+	 * @param handle Handle der Stimme
+	 * @since 0.6.0
+	 */
+	public synchronized void stop( int handle ) {
+		int voice = indexOf( handle );
+		if( voice >= 0 )
+			samples[voice] = null;
+	}
+	
+	/**
+	 * Stoppt alle Stimmen.
+	 * @since 0.6.0
+	 */
+	public synchronized void stopAll() {
+		for( int i = 0; i < samples.length; i++ )
+			samples[i] = null;
+	}
+	
+	/**
+	 * @param handle Handle der Stimme
+	 * @return {@code true} wenn die Stimme mit dem angegebenen Handle noch spielt.
+	 * @since 0.6.0
+	 */
+	public synchronized boolean isPlaying( int handle ) {
+		return indexOf( handle ) >= 0;
+	}
+	
+	/**
+	 * Setzt die Lautstärke der Stimme mit dem angegebenen Handle.
+	 * @param handle Handle der Stimme
+	 * @param volume Lautstärke zwischen 0 und 100
+	 * @since 0.6.0
+	 */
+	public synchronized void setVolume( int handle,int volume ) {
+		int voice = indexOf( handle );
+		if( voice < 0 )
+			return;
+		volumes[voice] = volume;
+		updateGains( voice );
+	}
+	
+	/**
+	 * Setzt die Position der Stimme mit dem angegebenen Handle im Stereobild.
+	 * @param handle Handle der Stimme
+	 * @param pan    Position zwischen {@code -1} (links) und {@code 1} (rechts)
+	 * @since 0.6.0
+	 */
+	public synchronized void setPan( int handle,double pan ) {
+		int voice = indexOf( handle );
+		if( voice < 0 )
+			return;
+		pans[voice] = pan;
+		updateGains( voice );
+	}
+	
+	/**
+	 * Setzt die Tonhöhe der Stimme mit dem angegebenen Handle.
+	 * @param handle Handle der Stimme
+	 * @param pitch  Faktor für die Abspielgeschwindigkeit, {@code 1} für die ursprüngliche Tonhöhe
+	 * @since 0.6.0
+	 */
+	public synchronized void setPitch( int handle,double pitch ) {
+		int voice = indexOf( handle );
+		if( voice < 0 || pitch <= 0 )
+			return;
+		pitches[voice] = pitch;
+		steps[voice] = samples[voice].getSampleRate() / sampleRate * pitch;
+	}
+	
+	/**
+	 * @return Gesamtlautstärke zwischen 0 und 100.
+	 * @since 0.6.0
+	 */
+	public synchronized int getMasterVolume() {
+		return masterVolume;
+	}
+	
+	/**
+	 * Setzt die Gesamtlautstärke.
+	 * @param masterVolume Gesamtlautstärke zwischen 0 und 100
+	 * @since 0.6.0
+	 */
+	public synchronized void setMasterVolume( int masterVolume ) {
+		this.masterVolume = Math.min( Math.max( masterVolume,0 ),100 );
+		for( int i = 0; i < samples.length; i++ )
+			updateGains( i );
+	}
+	
+	/**
+	 * Mischt einen Block aller Stimmen und schreibt ihn in den AudioSink.
+	 * @return Anzahl der geschriebenen Frames.
+	 * @since 0.6.0
+	 */
+	public int render() {
+		synchronized( this ) {
+			mixBlock();
+		}
+		for( int i = 0; i < mix.length; i++ ) {
+			int value = Math.min( Math.max( mix[i],Short.MIN_VALUE ),Short.MAX_VALUE );
+			output[i * 2] = (byte)value;
+			output[i * 2 + 1] = (byte)(value >> 8);
+		}
+		sink.write( output,0,output.length );
+		return blockSize;
+	}
+	
+	/**
+	 * Startet den Thread, der fortlaufend Blöcke mischt. Das Tempo gibt der AudioSink vor.
+	 * @since 0.6.0
+	 */
+	public synchronized void start() {
+		if( running )
+			return;
+		running = true;
+		thread = new Thread( new Runnable() {
+			@Override
+			public void run() {
+				while( running )
+					render();
+			}
+		},"Audio Mixer" );
+		thread.setDaemon( true );
+		thread.setPriority( Thread.MAX_PRIORITY );
+		thread.start();
+	}
+	
+	/**
+	 * Beendet den Thread und schließt den AudioSink.
+	 * @since 0.6.0
+	 */
+	public void close() {
+		Thread thread;
+		synchronized( this ) {
+			running = false;
+			thread = this.thread;
+			this.thread = null;
+		}
+		if( thread != null )
+			try {
+				thread.join( 1000 );
+			} catch( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+		sink.close();
+	}
+	
+	/**
+	 * @return Anzahl der Stimmen.
+	 * @since 0.6.0
+	 */
+	public int getVoiceCount() {
+		return samples.length;
+	}
+	
+	/**
+	 * @return Anzahl der Stimmen, die momentan spielen.
+	 * @since 0.6.0
+	 */
+	public synchronized int getActiveVoiceCount() {
+		int count = 0;
+		for( SoundSample sample : samples )
+			if( sample != null )
+				count++;
+		return count;
+	}
+	
+	/**
+	 * @return Anzahl der Stimmen, die bisher für einen neuen Sound übernommen wurden.
+	 * @since 0.6.0
+	 */
+	public synchronized long getStealCount() {
+		return stealCount;
+	}
+	
+	/**
+	 * @return Abtastrate der Ausgabe in Hertz.
+	 * @since 0.6.0
+	 */
+	public float getSampleRate() {
+		return sampleRate;
+	}
+	
+	/**
+	 * @return Anzahl der Frames eines Blocks.
+	 * @since 0.6.0
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+	
+	
+	/**
+	 * Mischt einen Block aller Stimmen in {@code mix}. Die Werte der Stimmen werden linear interpoliert.
+	 * @since 0.6.0
+	 */
+	private void mixBlock() {
+		Arrays.fill( mix,0 );
+		for( int voice = 0; voice < samples.length; voice++ ) {
+			SoundSample sample = samples[voice];
+			if( sample == null )
+				continue;
+			short[] data = sample.getData();
+			int channels = sample.getChannels();
+			int frames = sample.getFrameCount();
+			double position = positions[voice], step = steps[voice];
+			float left = gainsLeft[voice], right = gainsRight[voice];
+			boolean loop = loops[voice];
+			
+			for( int i = 0; i < blockSize; i++ ) {
+				if( position >= frames ) {
+					if( !loop || frames == 0 ) {
+						samples[voice] = null;
+						break;
+					}
+					position %= frames;
+				}
+				int index = (int)position;
+				float fraction = (float)(position - index);
+				int next = index + 1 < frames ? index + 1 : loop ? 0 : index;
+				float valueLeft, valueRight;
+				if( channels == 1 ) {
+					valueLeft = data[index] + (data[next] - data[index]) * fraction;
+					valueRight = valueLeft;
+				} else {
+					int a = index * 2, b = next * 2;
+					valueLeft = data[a] + (data[b] - data[a]) * fraction;
+					valueRight = data[a + 1] + (data[b + 1] - data[a + 1]) * fraction;
+				}
+				mix[i * 2] += (int)(valueLeft * left);
+				mix[i * 2 + 1] += (int)(valueRight * right);
+				position += step;
+			}
+			positions[voice] = position;
+		}
+	}
+	
+	/**
+	 * Berechnet die Verstärkung beider Kanäle der angegebenen Stimme. Das Stereobild nutzt gleiche Leistung, sodass ein Sound in der Mitte nicht lauter wirkt als am Rand.
+	 * @param voice Index der Stimme
+	 * @since 0.6.0
+	 */
+	private void updateGains( int voice ) {
+		double pan = Math.min( Math.max( pans[voice],-1 ),1 );
+		double volume = Math.min( Math.max( volumes[voice],0 ),100 ) / 100.0 * masterVolume / 100.0;
+		double angle = (pan + 1) * Math.PI / 4;
+		gainsLeft[voice] = (float)(volume * Math.cos( angle ) * Math.sqrt( 2 ));
+		gainsRight[voice] = (float)(volume * Math.sin( angle ) * Math.sqrt( 2 ));
+	}
+	
+	/**
+	 * @param handle Handle einer Stimme
+	 * @return Index der Stimme oder {@code -1} wenn sie nicht mehr spielt.
+	 * @since 0.6.0
+	 */
+	private int indexOf( int handle ) {
+		if( handle < 0 )
+			return -1;
+		int voice = handle & ((1 << VOICE_BITS) - 1);
+		if( voice >= samples.length || samples[voice] == null || generations[voice] != handle >>> VOICE_BITS )
+			return -1;
+		return voice;
+	}
+	
+	
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.sound;
+
+
+/**
+ * Ziel, in das ein {@link AudioMixer} die gemischten Audiodaten schreibt.
+ * Die Daten liegen als 16-Bit-PCM mit Vorzeichen, Little-Endian und zwei Kanälen in der Abtastrate des AudioMixers vor.
+ * @since 0.6.0
+ */
+public interface AudioSink {
+	
+	
+	/**
+	 * Schreibt gemischte Audiodaten. Darf blockieren, bis das Ziel wieder Platz hat, und gibt so das Tempo des AudioMixers vor.
+	 * @param buffer Array mit den Audiodaten
+	 * @param offset Index des ersten Bytes
+	 * @param length Anzahl der Bytes, immer ein Vielfaches von vier
+	 * @since 0.6.0
+	 */
+	void write( byte[] buffer,int offset,int length );
+	
+	/**
+	 * Gibt alle Ressourcen dieses Ziels frei.
+	 * @since 0.6.0
+	 */
+	void close();
+	
+	
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.sound;
+
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+
+/**
+ * AudioSink, der die Audiodaten über eine {@link SourceDataLine} ausgibt. Interne Klasse.
+ * @since 0.6.0
+ */
+class LineSink implements AudioSink {
+	
+	
+	private final SourceDataLine line;
+	
+	
+	/**
+	 * Konstruiert neuen LineSink und öffnet seine Line. Interner Konstruktor.
+	 * @param sampleRate Abtastrate in Hertz
+	 * @param bufferSize Größe des Puffers der Line in Bytes
+	 * @throws LineUnavailableException wenn keine Line geöffnet werden kann
+	 * @since 0.6.0
+	 */
+	LineSink( float sampleRate,int bufferSize ) throws LineUnavailableException {
+		AudioFormat format = new AudioFormat( sampleRate,16,2,true,false );
+		try {
+			line = AudioSystem.getSourceDataLine( format );
+		} catch( IllegalArgumentException e ) {
+			throw new LineUnavailableException( "There is no line for " + format + "!" );
+		}
+		line.open( format,bufferSize );
+		line.start();
+	}
+	
+	
+	@Override
+	public void write( byte[] buffer,int offset,int length ) {
+		line.write( buffer,offset,length );
+	}
+	
+	@Override
+	public void close() {
+		line.stop();
+		line.flush();
+		line.close();
+	}
+	
+	
+}
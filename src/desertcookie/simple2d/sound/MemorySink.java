@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.sound;
+
+
+import java.util.Arrays;
+
+
+/**
+ * AudioSink, der alle Audiodaten im Speicher sammelt, beispielsweise um die Ausgabe eines {@link AudioMixer} ohne Soundkarte zu überprüfen.
+ * @since 0.6.0
+ */
+public class MemorySink implements AudioSink {
+	
+	
+	private byte[] data;
+	private int size;
+	
+	
+	/**
+	 * Konstruiert neuen, leeren MemorySink.
+	 * @since 0.6.0
+	 */
+	public MemorySink() {
+		data = new byte[4096];
+	}
+	
+	
+	@Override
+	public synchronized void write( byte[] buffer,int offset,int length ) {
+		if( size + length > data.length )
+			data = Arrays.copyOf( data,Math.max( data.length * 2,size + length ) );
+		System.arraycopy( buffer,offset,data,size,length );
+		size += length;
+	}
+	
+	@Override
+	public void close() {
+	
+	}
+	
+	/**
+	 * Verwirft alle gesammelten Audiodaten.
+	 * @since 0.6.0
+	 */
+	public synchronized void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * @return Anzahl der gesammelten Bytes.
+	 * @since 0.6.0
+	 */
+	public synchronized int getSize() {
+		return size;
+	}
+	
+	/**
+	 * @return Kopie der gesammelten Audiodaten.
+	 * @since 0.6.0
+	 */
+	public synchronized byte[] getBytes() {
+		return Arrays.copyOf( data,size );
+	}
+	
+	/**
+	 * @param frame   Index des Frames
+	 * @param channel {@code 0} für den linken, {@code 1} für den rechten Kanal
+	 * @return Wert des angegebenen Kanals im angegebenen Frame.
+	 * @since 0.6.0
+	 */
+	public synchronized short getSample( int frame,int channel ) {
+		int index = frame * 4 + channel * 2;
+		if( index < 0 || index + 1 >= size )
+			throw new IndexOutOfBoundsException( "There is no frame " + frame + "!" );
+		return (short)((data[index] & 0xFF) | data[index + 1] << 8);
+	}
+	
+	
+}
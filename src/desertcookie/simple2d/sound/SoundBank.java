@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.sound;
+
+
+import desertcookie.simple2d.textures.LoadingProgressListener;
+import desertcookie.util.ExceptionHandler;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+
+/**
+ * Zwischenspeicher für dekodierte {@link SoundSample}s mit Referenzzählung.
+ * Jede Audiodatei wird nur einmal dekodiert, egal wie oft sie angefordert wird, und alle Stimmen eines {@link AudioMixer} teilen sich ihre Daten. Samples, die nicht mehr referenziert werden, bleiben im Speicher, bis das Speicherbudget überschritten wird, und werden dann in der Reihenfolge ihrer letzten Verwendung entfernt.
+ * Mit {@link #preload} können die Sounds einer Spielszene vorab im Hintergrund dekodiert werden, sodass der Szenenwechsel nicht darauf warten muss.
+ * @since 0.6.0
+ */
+public class SoundBank {
+	
+	
+	/**
+	 * Standard-Speicherbudget in Bytes.
+	 * @since 0.6.0
+	 */
+	public static final long DEFAULT_BUDGET = 64L << 20;
+	
+	private final LinkedHashMap<String,Entry> entries;
+	private final HashMap<String,CompletableFuture<SoundSample>> pending;
+	private long budget, usedBytes;
+	private long hits, misses, evictions;
+	
+	
+	/**
+	 * Konstruiert neue, leere SoundBank mit dem Standard-Speicherbudget.
+	 * @since 0.6.0
+	 */
+	public SoundBank() {
+		this( DEFAULT_BUDGET );
+	}
+	
+	/**
+	 * Konstruiert neue, leere SoundBank.
+	 * @param budget Speicherbudget in Bytes
+	 * @since 0.6.0
+	 */
+	public SoundBank( long budget ) {
+		entries = new LinkedHashMap<>( 16,0.75f,true );
+		pending = new HashMap<>();
+		this.budget = budget;
+	}
+	
+	
+	/**
+	 * Fordert den SoundSample mit dem angegebenen Pfad an und dekodiert ihn, falls er sich noch nicht in der SoundBank befindet. Jeder Aufruf muss später durch {@link #release(String)} wieder freigegeben werden.
+	 * Die Audiodatei wird außerhalb der Sperre der SoundBank dekodiert, sodass andere Threads währenddessen weiter auf sie zugreifen können. Gleichzeitige Anforderungen derselben Audiodatei warten auf denselben Ladevorgang.
+	 * @param path Ort der Audiodatei
+	 * @return Dekodierter SoundSample oder {@code null}, wenn er nicht geladen werden kann.
+	 * @since 0.6.0
+	 */
+	public SoundSample acquire( String path ) {
+		CompletableFuture<SoundSample> future;
+		CompletableFuture<SoundSample> loading = null;
+		synchronized( this ) {
+			Entry entry = entries.get( path );
+			if( entry != null ) {
+				entry.references++;
+				hits++;
+				return entry.sample;
+			}
+			future = pending.get( path );
+			if( future == null ) {
+				misses++;
+				loading = new CompletableFuture<>();
+				pending.put( path,loading );
+			}
+		}
+		if( loading != null ) {
+			SoundSample sample = AudioFileLoader.loadSoundSample( path );
+			synchronized( this ) {
+				pending.remove( path );
+				if( sample != null ) {
+					put( path,sample ).references++;
+					evict();
+				}
+			}
+			if( sample != null )
+				loading.complete( sample );
+			else
+				loading.completeExceptionally( new CompletionException( new IOException( "The sound " + path + " could not be loaded!" ) ) );
+			return sample;
+		}
+		try {
+			return reference( path,future.join() );
+		} catch( CompletionException e ) {
+			ExceptionHandler.handle( e,"Fehler beim laden einer Audiodatei",false );
+		}
+		return null;
+	}
+	
+	/**
+	 * Fordert den SoundSample mit dem angegebenen Pfad an und dekodiert ihn im Hintergrund mit {@link AudioFileLoader#loadSoundSampleAsync(String)}, falls er sich noch nicht in der SoundBank befindet.
+	 * Gleichzeitige Anforderungen derselben Audiodatei teilen sich einen Ladevorgang. Jeder Aufruf muss später durch {@link #release(String)} wieder freigegeben werden, sofern das Future erfolgreich abgeschlossen wird.
+	 * @param path Ort der Audiodatei
+	 * @return Future, das mit dem dekodierten SoundSample abgeschlossen wird.
+	 * @since 0.6.0
+	 */
+	public synchronized CompletableFuture<SoundSample> acquireAsync( final String path ) {
+		Entry entry = entries.get( path );
+		if( entry != null ) {
+			entry.references++;
+			hits++;
+			return CompletableFuture.completedFuture( entry.sample );
+		}
+		return load( path ).thenApply( new Function<SoundSample,SoundSample>() {
+			@Override
+			public SoundSample apply( SoundSample sample ) {
+				return reference( path,sample );
+			}
+		} );
+	}
+	
+	/**
+	 * Dekodiert die angegebenen Audiodateien im Hintergrund, ohne sie zu referenzieren, und meldet den Fortschritt, beispielsweise an einen {@link desertcookie.simple2d.core.SplashScreen}.
+	 * Bereits enthaltene Audiodateien werden nicht erneut dekodiert. Spätere Aufrufe von {@link #acquire(String)} werden aus der SoundBank bedient, solange das Speicherbudget ausreicht.
+	 * @param listener Empfänger des Fortschritts oder {@code null}
+	 * @param paths    Orte der Audiodateien
+	 * @return Future, das abgeschlossen wird, sobald alle Audiodateien dekodiert wurden, oder mit einer {@link CompletionException}, wenn eine der Dateien nicht geladen werden kann.
+	 * @since 0.6.0
+	 */
+	public synchronized CompletableFuture<Void> preload( final LoadingProgressListener listener,final String... paths ) {
+		final AtomicInteger loaded = new AtomicInteger();
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[paths.length];
+		for( int i = 0; i < paths.length; i++ ) {
+			final String path = paths[i];
+			CompletableFuture<SoundSample> future = entries.containsKey( path ) ? CompletableFuture.completedFuture( entries.get( path ).sample ) : load( path );
+			futures[i] = future.whenComplete( new BiConsumer<SoundSample,Throwable>() {
+				@Override
+				public void accept( SoundSample sample,Throwable error ) {
+					int count = loaded.incrementAndGet();
+					if( listener != null && error == null )
+						listener.progress( count,paths.length,path );
+				}
+			} );
+		}
+		return CompletableFuture.allOf( futures );
+	}
+	
+	/**
+	 * Gibt eine Anforderung des SoundSamples mit dem angegebenen Pfad frei. Wird er danach nicht mehr referenziert, darf er bei Überschreitung des Speicherbudgets entfernt werden.
+	 * @param path Ort der Audiodatei
+	 * @since 0.6.0
+	 */
+	public synchronized void release( String path ) {
+		Entry entry = entries.get( path );
+		if( entry == null || entry.references == 0 )
+			throw new IllegalStateException( "The sound " + path + " is not referenced!" );
+		entry.references--;
+		evict();
+	}
+	
+	/**
+	 * Entfernt alle nicht mehr referenzierten SoundSamples unabhängig vom Speicherbudget, beispielsweise beim Wechsel zwischen zwei großen Spielszenen.
+	 * @since 0.6.0
+	 */
+	public synchronized void trim() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while( iterator.hasNext() ) {
+			Entry entry = iterator.next();
+			if( entry.references == 0 ) {
+				usedBytes -= entry.sample.getBytes();
+				iterator.remove();
+			}
+		}
+	}
+	
+	/**
+	 * @param path Ort der Audiodatei
+	 * @return {@code true} wenn sich der SoundSample mit dem angegebenen Pfad in der SoundBank befindet.
+	 * @since 0.6.0
+	 */
+	public synchronized boolean contains( String path ) {
+		return entries.containsKey( path );
+	}
+	
+	/**
+	 * @param path Ort der Audiodatei
+	 * @return Anzahl der Referenzen auf den SoundSample mit dem angegebenen Pfad.
+	 * @since 0.6.0
+	 */
+	public synchronized int getReferences( String path ) {
+		Entry entry = entries.get( path );
+		return entry == null ? 0 : entry.references;
+	}
+	
+	/**
+	 * @return Speicherbudget in Bytes.
+	 * @since 0.6.0
+	 */
+	public synchronized long getBudget() {
+		return budget;
+	}
+	
+	/**
+	 * Setzt das Speicherbudget und entfernt nicht mehr referenzierte SoundSamples, bis es eingehalten wird.
+	 * @param budget Speicherbudget in Bytes
+	 * @since 0.6.0
+	 */
+	public synchronized void setBudget( long budget ) {
+		this.budget = budget;
+		evict();
+	}
+	
+	/**
+	 * @return Speicherbedarf aller SoundSamples in Bytes.
+	 * @since 0.6.0
+	 */
+	public synchronized long getUsedBytes() {
+		return usedBytes;
+	}
+	
+	/**
+	 * @return Anzahl der SoundSamples.
+	 * @since 0.6.0
+	 */
+	public synchronized int getCount() {
+		return entries.size();
+	}
+	
+	/**
+	 * @return Anzahl der Anforderungen, die aus der SoundBank bedient wurden.
+	 * @since 0.6.0
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+	
+	/**
+	 * @return Anzahl der Anforderungen, für die eine Audiodatei dekodiert werden musste.
+	 * @since 0.6.0
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+	
+	/**
+	 * @return Anzahl der SoundSamples, die wegen des Speicherbudgets entfernt wurden.
+	 * @since 0.6.0
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+	
+	/**
+	 * Setzt die Zähler für Treffer, Fehlschläge und Entfernungen zurück.
+	 * @since 0.6.0
+	 */
+	public synchronized void resetStatistics() {
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+	
+	@Override
+	public synchronized String toString() {
+		return "SoundBank[sounds=" + entries.size() + ", used=" + (usedBytes >> 10) + "KiB, budget=" + (budget >> 10) + "KiB, hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+	}
+	
+	
+	/**
+	 * Beginnt, die Audiodatei mit dem angegebenen Pfad im Hintergrund zu dekodieren, sofern das nicht bereits geschieht. Das Ergebnis wird ohne Referenz in die SoundBank aufgenommen.
+	 * @param path Ort der Audiodatei
+	 * @return Future des Ladevorgangs.
+	 * @since 0.6.0
+	 */
+	private CompletableFuture<SoundSample> load( final String path ) {
+		CompletableFuture<SoundSample> future = pending.get( path );
+		if( future == null ) {
+			misses++;
+			future = AudioFileLoader.loadSoundSampleAsync( path ).whenComplete( new BiConsumer<SoundSample,Throwable>() {
+				@Override
+				public void accept( SoundSample sample,Throwable error ) {
+					synchronized( SoundBank.this ) {
+						pending.remove( path );
+						if( sample != null && !entries.containsKey( path ) ) {
+							put( path,sample );
+							evict();
+						}
+					}
+				}
+			} );
+			if( !future.isDone() )
+				pending.put( path,future );
+		}
+		return future;
+	}
+	
+	/**
+	 * Fügt eine Referenz auf einen fertig dekodierten SoundSample hinzu und legt seinen Eintrag an, falls dieser inzwischen entfernt wurde.
+	 * @param path   Ort der Audiodatei
+	 * @param sample Dekodierter SoundSample
+	 * @return Der angegebene SoundSample.
+	 * @since 0.6.0
+	 */
+	private synchronized SoundSample reference( String path,SoundSample sample ) {
+		Entry entry = entries.get( path );
+		if( entry == null )
+			entry = put( path,sample );
+		entry.references++;
+		evict();
+		return sample;
+	}
+	
+	/**
+	 * Legt einen neuen, nicht referenzierten Eintrag an.
+	 * @param path   Ort der Audiodatei
+	 * @param sample Dekodierter SoundSample
+	 * @return Neuer Eintrag.
+	 * @since 0.6.0
+	 */
+	private Entry put( String path,SoundSample sample ) {
+		Entry entry = new Entry( sample );
+		entries.put( path,entry );
+		usedBytes += sample.getBytes();
+		return entry;
+	}
+	
+	/**
+	 * Entfernt nicht mehr referenzierte SoundSamples, beginnend mit dem am längsten nicht verwendeten, bis das Speicherbudget eingehalten wird.
+	 * Stimmen, die einen entfernten SoundSample noch abspielen, behalten ihre Daten, bis sie enden.
+	 * @since 0.6.0
+	 */
+	private void evict() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while( usedBytes > budget && iterator.hasNext() ) {
+			Entry entry = iterator.next();
+			if( entry.references == 0 ) {
+				usedBytes -= entry.sample.getBytes();
+				iterator.remove();
+				evictions++;
+			}
+		}
+	}
+	
+	
+	/**
+	 * Eintrag in der SoundBank.
+	 * @since 0.6.0
+	 */
+	private static class Entry {
+		
+		
+		private final SoundSample sample;
+		private int references;
+		
+		
+		/**
+		 * Konstruiert neuen Eintrag.
+		 * @param sample Dekodierter SoundSample
+		 * @since 0.6.0
+		 */
+		private Entry( SoundSample sample ) {
+			this.sample = sample;
+		}
+		
+		
+	}
+	
+	
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.sound;
+
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+
+
+/**
+ * Vollständig dekodierter Sound als 16-Bit-PCM, den beliebig viele Stimmen eines {@link AudioMixer} gleichzeitig abspielen können, ohne ihn zu kopieren.
+ * @since 0.6.0
+ */
+public final class SoundSample {
+	
+	
+	private final short[] data;
+	private final int channels;
+	private final float sampleRate;
+	
+	
+	/**
+	 * Konstruiert neuen SoundSample aus bereits dekodierten Daten.
+	 * @param data       Werte aller Kanäle abwechselnd, wird nicht kopiert
+	 * @param channels   Anzahl der Kanäle, {@code 1} oder {@code 2}
+	 * @param sampleRate Abtastrate in Hertz
+	 * @since 0.6.0
+	 */
+	public SoundSample( short[] data,int channels,float sampleRate ) {
+		if( channels != 1 && channels != 2 )
+			throw new IllegalArgumentException( "There can only be one or two channels!" );
+		if( sampleRate <= 0 )
+			throw new IllegalArgumentException( "The sample rate has to be positive!" );
+		this.data = data;
+		this.channels = channels;
+		this.sampleRate = sampleRate;
+	}
+	
+	
+	/**
+	 * @return Werte aller Kanäle abwechselnd. Interne Methode.
+	 * @since 0.6.0
+	 */
+	short[] getData() {
+		return data;
+	}
+	
+	/**
+	 * @return Anzahl der Kanäle.
+	 * @since 0.6.0
+	 */
+	public int getChannels() {
+		return channels;
+	}
+	
+	/**
+	 * @return Abtastrate in Hertz.
+	 * @since 0.6.0
+	 */
+	public float getSampleRate() {
+		return sampleRate;
+	}
+	
+	/**
+	 * @return Länge in Frames.
+	 * @since 0.6.0
+	 */
+	public int getFrameCount() {
+		return data.length / channels;
+	}
+	
+	/**
+	 * @return Länge in Sekunden.
+	 * @since 0.6.0
+	 */
+	public double getDuration() {
+		return getFrameCount() / sampleRate;
+	}
+	
+	/**
+	 * @return Speicherbedarf der Audiodaten in Bytes.
+	 * @since 0.6.0
+	 */
+	public long getBytes() {
+		return data.length * 2L;
+	}
+	
+	
+	/**
+	 * Dekodiert den angegebenen Stream vollständig. Interne Methode.
+	 * @param stream Stream mit PCM-Daten
+	 * @return Dekodierter SoundSample.
+	 * @throws IOException                   wenn der Stream nicht gelesen werden kann
+	 * @throws UnsupportedAudioFileException wenn der Stream mehr als zwei Kanäle hat oder nicht umgewandelt werden kann
+	 * @since 0.6.0
+	 */
+	static SoundSample decode( AudioInputStream stream ) throws IOException, UnsupportedAudioFileException {
+		AudioFormat source = stream.getFormat();
+		if( source.getChannels() != 1 && source.getChannels() != 2 )
+			throw new UnsupportedAudioFileException( "There can only be one or two channels!" );
+		AudioFormat target = new AudioFormat( source.getSampleRate(),16,source.getChannels(),true,false );
+		if( !target.matches( source ) ) {
+			if( !AudioSystem.isConversionSupported( target,source ) )
+				throw new UnsupportedAudioFileException( "There is no conversion from " + source + "!" );
+			stream = AudioSystem.getAudioInputStream( target,stream );
+		}
+		
+		byte[] bytes = stream.readAllBytes();
+		short[] data = new short[bytes.length / 2 / target.getChannels() * target.getChannels()];
+		for( int i = 0; i < data.length; i++ )
+			data[i] = (short)((bytes[i * 2] & 0xFF) | bytes[i * 2 + 1] << 8);
+		return new SoundSample( data,target.getChannels(),target.getSampleRate() );
+	}
+	
+	
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.sound;
+
+
+import desertcookie.util.ExceptionHandler;
+
+import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * Audiodatei, die beim Abspielen stückweise dekodiert und über eine {@link SourceDataLine} ausgegeben wird, statt vollständig in einen {@link Clip} geladen zu werden.
+ * Ein eigener Thread dekodiert jeweils einen kleinen Block und schreibt ihn in den Ringpuffer der Line. Der Speicherbedarf ist dadurch unabhängig von der Länge der Datei, was vor allem für Musik geeignet ist.
+ * @since 0.6.0
+ */
+public class StreamingAudioFile extends AudioFile {
+	
+	
+	/**
+	 * Standardgröße des Ringpuffers der Line in Millisekunden.
+	 * @since 0.6.0
+	 */
+	public static final int DEFAULT_BUFFER_TIME = 250;
+	
+	private static final int STOPPED = 0, PLAYING = 1, PAUSED = 2;
+	
+	private final String path;
+	private final AudioFormat format;
+	private final SourceDataLine line;
+	private final byte[] chunk;
+	private final Thread feeder;
+	
+	private AudioInputStream stream;
+	private int state;
+	private boolean restart, closed;
+	
+	
+	/**
+	 * Konstruiert neue StreamingAudioFile und öffnet ihre Line. Interner Konstruktor.
+	 * @param path       Pfad der Audiodatei im Classpath
+	 * @param bufferTime Größe des Ringpuffers der Line in Millisekunden
+	 * @throws IOException                   wenn die Datei nicht gelesen werden kann
+	 * @throws UnsupportedAudioFileException wenn das Format der Datei nicht unterstützt wird
+	 * @throws LineUnavailableException      wenn keine Line geöffnet werden kann
+	 * @since 0.6.0
+	 */
+	StreamingAudioFile( String path,int bufferTime ) throws IOException, UnsupportedAudioFileException, LineUnavailableException {
+		this.path = path;
+		stream = openStream( path );
+		format = stream.getFormat();
+		int frameSize = format.getFrameSize();
+		int bufferSize = Math.max( (int)(format.getFrameRate() * bufferTime / 1000) * frameSize,frameSize );
+		try {
+			line = AudioSystem.getSourceDataLine( format );
+		} catch( IllegalArgumentException e ) {
+			closeStream();
+			throw new LineUnavailableException( "There is no line for " + format + "!" );
+		}
+		line.open( format,bufferSize );
+		// Ein Block umfasst ein Viertel des Puffers, sodass die Line nie leer läuft, solange der Thread mithält
+		chunk = new byte[Math.max( line.getBufferSize() / 4 / frameSize,1 ) * frameSize];
+		
+		feeder = new Thread( new Runnable() {
+			@Override
+			public void run() {
+				feed();
+			}
+		},"Audio Stream " + path );
+		feeder.setDaemon( true );
+		feeder.start();
+	}
+	
+	
+	@Override
+	public synchronized void setVolume( int volume ) {
+		super.setVolume( volume );
+		applyVolume();
+	}
+	
+	@Override
+	public synchronized void setLoop( boolean loop ) {
+		this.loop = loop;
+	}
+	
+	/**
+	 * Startet diese Audiodatei vom Anfang an.
+	 * @since 0.6.0
+	 */
+	@Override
+	public synchronized void start() {
+		applyVolume();
+		restart = true;
+		line.flush();
+		play();
+	}
+	
+	/**
+	 * Stoppt diese Audiodatei. Beim nächsten {@link #start()} beginnt sie wieder von vorne.
+	 * @since 0.6.0
+	 */
+	@Override
+	public synchronized void stop() {
+		state = STOPPED;
+		restart = true;
+		line.stop();
+		line.flush();
+	}
+	
+	/**
+	 * Setzt diese Audiodatei an der mit {@link #pause()} gesetzten Position fort.
+	 * @since 0.6.0
+	 */
+	@Override
+	public synchronized void resume() {
+		if( state == PAUSED )
+			play();
+	}
+	
+	/**
+	 * Pausiert diese Audiodatei, sodass diese mit {@link #resume()} fortgesetzt werden kann.
+	 * @since 0.6.0
+	 */
+	@Override
+	public synchronized void pause() {
+		if( state != PLAYING )
+			return;
+		state = PAUSED;
+		line.stop();
+	}
+	
+	/**
+	 * Setzt den Playback-Cursor an den Anfang dieser Audiodatei.
+	 * @since 0.6.0
+	 */
+	@Override
+	public synchronized void reset() {
+		restart = true;
+		line.flush();
+	}
+	
+	/**
+	 * @return {@code true} wenn diese Audiodatei momentan abgespielt wird.
+	 * @since 0.6.0
+	 */
+	public synchronized boolean isPlaying() {
+		return state == PLAYING;
+	}
+	
+	/**
+	 * Beendet den Thread dieser Audiodatei und gibt ihre Line frei. Danach kann sie nicht mehr abgespielt werden.
+	 * @since 0.6.0
+	 */
+	public void close() {
+		synchronized( this ) {
+			if( closed )
+				return;
+			closed = true;
+			state = STOPPED;
+			line.stop();
+			line.flush();
+			notifyAll();
+		}
+		try {
+			feeder.join( 1000 );
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+		line.close();
+		closeStream();
+	}
+	
+	/**
+	 * @return Pfad der Audiodatei im Classpath.
+	 * @since 0.6.0
+	 */
+	public String getPath() {
+		return path;
+	}
+	
+	/**
+	 * @return Format, in dem die Audiodatei ausgegeben wird.
+	 * @since 0.6.0
+	 */
+	public AudioFormat getFormat() {
+		return format;
+	}
+	
+	/**
+	 * @return Größe des Ringpuffers der Line in Bytes.
+	 * @since 0.6.0
+	 */
+	public int getBufferSize() {
+		return line.getBufferSize();
+	}
+	
+	
+	/**
+	 * Beginnt bzw. setzt das Abspielen fort und weckt den Thread.
+	 * @since 0.6.0
+	 */
+	private void play() {
+		if( closed )
+			throw new IllegalStateException( "This StreamingAudioFile is closed!" );
+		state = PLAYING;
+		line.start();
+		notifyAll();
+	}
+	
+	/**
+	 * Setzt die Lautstärke der Line, sofern sie das unterstützt.
+	 * @since 0.6.0
+	 */
+	private void applyVolume() {
+		if( !line.isControlSupported( FloatControl.Type.MASTER_GAIN ) )
+			return;
+		FloatControl control = (FloatControl)line.getControl( FloatControl.Type.MASTER_GAIN );
+		control.setValue( control.getMinimum() * (1 - volume / 100.0f) );
+	}
+	
+	/**
+	 * Schleife des Threads: Dekodiert Block für Block und schreibt ihn in die Line. Wartet, solange die Audiodatei nicht abgespielt wird.
+	 * @since 0.6.0
+	 */
+	private void feed() {
+		int offset = 0, length = 0;
+		while( true ) {
+			synchronized( this ) {
+				while( state != PLAYING && !closed )
+					try {
+						wait();
+					} catch( InterruptedException e ) {
+						return;
+					}
+				if( closed )
+					return;
+				if( restart ) {
+					restart = false;
+					line.flush();
+					offset = 0;
+					length = 0;
+					if( !rewind() )
+						return;
+				}
+			}
+			
+			if( offset == length ) {
+				offset = 0;
+				length = Math.max( read(),0 );
+			}
+			if( offset < length ) {
+				// Blockiert, bis im Ringpuffer Platz ist, oder kehrt nach stop() bzw. flush() vorzeitig zurück. Nach pause() wird der Rest des Blocks bei resume() geschrieben
+				offset += line.write( chunk,offset,length - offset );
+				continue;
+			}
+			synchronized( this ) {
+				if( restart || state != PLAYING )
+					continue;
+				if( loop ) {
+					if( !rewind() )
+						return;
+					continue;
+				}
+			}
+			line.drain();
+			synchronized( this ) {
+				if( !restart && state == PLAYING ) {
+					state = STOPPED;
+					restart = true;
+					line.stop();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Liest den nächsten Block aus dem Stream.
+	 * @return Anzahl der gelesenen Bytes, {@code -1} am Ende der Datei oder {@code 0} bei einem Lesefehler.
+	 * @since 0.6.0
+	 */
+	private int read() {
+		int length = 0;
+		try {
+			while( length < chunk.length ) {
+				int read = stream.read( chunk,length,chunk.length - length );
+				if( read < 0 )
+					break;
+				length += read;
+			}
+		} catch( IOException e ) {
+			ExceptionHandler.handle( e,"Fehler beim lesen einer Audiodatei",false );
+			synchronized( this ) {
+				state = STOPPED;
+				restart = true;
+			}
+			return 0;
+		}
+		// Nur ganze Frames ausgeben
+		length -= length % format.getFrameSize();
+		return length > 0 ? length : -1;
+	}
+	
+	/**
+	 * Öffnet den Stream erneut am Anfang der Datei.
+	 * @return {@code true} wenn der Stream geöffnet wurde.
+	 * @since 0.6.0
+	 */
+	private boolean rewind() {
+		closeStream();
+		try {
+			stream = openStream( path );
+			return true;
+		} catch( IOException|UnsupportedAudioFileException e ) {
+			ExceptionHandler.handle( e,"Fehler beim lesen einer Audiodatei",false );
+		}
+		state = STOPPED;
+		return false;
+	}
+	
+	/**
+	 * Schließt den aktuellen Stream.
+	 * @since 0.6.0
+	 */
+	private void closeStream() {
+		try {
+			if( stream != null )
+				stream.close();
+		} catch( IOException ignored ) {
+		}
+		stream = null;
+	}
+	
+	
+	/**
+	 * Öffnet die angegebene Audiodatei und wandelt sie bei Bedarf in 16-Bit-PCM um.
+	 * @param path Pfad der Audiodatei im Classpath
+	 * @return Stream der dekodierten Audiodaten.
+	 * @throws IOException                   wenn die Datei nicht gelesen werden kann
+	 * @throws UnsupportedAudioFileException wenn das Format der Datei nicht unterstützt wird
+	 * @since 0.6.0
+	 */
+	static AudioInputStream openStream( String path ) throws IOException, UnsupportedAudioFileException {
+		InputStream in = StreamingAudioFile.class.getResourceAsStream( path );
+		if( in == null )
+			throw new IOException( "There is no audio file at " + path + "!" );
+		AudioInputStream stream = AudioSystem.getAudioInputStream( new BufferedInputStream( in ) );
+		AudioFormat source = stream.getFormat();
+		if( source.getEncoding() == AudioFormat.Encoding.PCM_SIGNED || source.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED )
+			return stream;
+		AudioFormat target = new AudioFormat( AudioFormat.Encoding.PCM_SIGNED,source.getSampleRate(),16,source.getChannels(),source.getChannels() * 2,source.getSampleRate(),false );
+		return AudioSystem.getAudioInputStream( target,stream );
+	}
+	
+	
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.textures;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Verteilt Rechtecke nach dem Skyline-Bottom-Left-Verfahren auf einer Fläche fester Größe. Interne Klasse.
+ * Die Skyline speichert für jeden horizontalen Abschnitt, bis zu welcher Höhe er bereits belegt ist. Jedes neue Rechteck wird dort platziert, wo seine Oberkante am niedrigsten liegt.
+ *
+ * @since 0.6.0
+ */
+class AtlasPacker {
+	
+	
+	private final int width, height;
+	private int[] segmentX, segmentY, segmentW;
+	private int count;
+	private int usedWidth, usedHeight;
+	
+	
+	/**
+	 * Konstruiert neuen, leeren AtlasPacker. Interner Konstruktor.
+	 *
+	 * @param width  Horizontale Größe der Fläche in Pixeln
+	 * @param height Vertikale Größe der Fläche in Pixeln
+	 * @since 0.6.0
+	 */
+	AtlasPacker( int width,int height ) {
+		this.width = width;
+		this.height = height;
+		segmentX = new int[16];
+		segmentY = new int[16];
+		segmentW = new int[16];
+		segmentW[0] = width;
+		count = 1;
+	}
+	
+	
+	/**
+	 * Sucht einen Platz für ein Rechteck der angegebenen Größe und belegt ihn.
+	 *
+	 * @param w        Horizontale Größe in Pixeln
+	 * @param h        Vertikale Größe in Pixeln
+	 * @param position Array, in das die Position {@code x, y} geschrieben wird
+	 * @return {@code true} wenn das Rechteck platziert werden konnte.
+	 * @since 0.6.0
+	 */
+	boolean insert( int w,int h,int[] position ) {
+		int bestIndex = -1, bestX = 0, bestY = 0, bestTop = Integer.MAX_VALUE;
+		for( int i = 0; i < count; i++ ) {
+			int y = fit( i,w );
+			if( y < 0 || y + h > height )
+				continue;
+			if( y + h < bestTop || (y + h == bestTop && segmentX[i] < bestX) ) {
+				bestIndex = i;
+				bestX = segmentX[i];
+				bestY = y;
+				bestTop = y + h;
+			}
+		}
+		if( bestIndex < 0 )
+			return false;
+		
+		addSegment( bestIndex,bestX,bestY + h,w );
+		usedWidth = Math.max( usedWidth,bestX + w );
+		usedHeight = Math.max( usedHeight,bestY + h );
+		position[0] = bestX;
+		position[1] = bestY;
+		return true;
+	}
+	
+	/**
+	 * @return Horizontale Ausdehnung aller platzierten Rechtecke in Pixeln.
+	 * @since 0.6.0
+	 */
+	int getUsedWidth() {
+		return usedWidth;
+	}
+	
+	/**
+	 * @return Vertikale Ausdehnung aller platzierten Rechtecke in Pixeln.
+	 * @since 0.6.0
+	 */
+	int getUsedHeight() {
+		return usedHeight;
+	}
+	
+	
+	/**
+	 * @param index Index des Abschnitts, an dem das Rechteck beginnt
+	 * @param w     Horizontale Größe des Rechtecks in Pixeln
+	 * @return Vertikale Position, an der ein Rechteck der angegebenen Breite ab diesem Abschnitt liegen würde, oder {@code -1} wenn es über den rechten Rand ragt.
+	 * @since 0.6.0
+	 */
+	private int fit( int index,int w ) {
+		if( segmentX[index] + w > width )
+			return -1;
+		int remaining = w, y = 0;
+		for( int i = index; remaining > 0; i++ ) {
+			y = Math.max( y,segmentY[i] );
+			remaining -= segmentW[i];
+		}
+		return y;
+	}
+	
+	/**
+	 * Fügt einen neuen Abschnitt in die Skyline ein und kürzt bzw. entfernt die von ihm überdeckten Abschnitte.
+	 *
+	 * @param index Index, an dem der Abschnitt eingefügt wird
+	 * @param x     Horizontale Position des Abschnitts in Pixeln
+	 * @param y     Höhe des Abschnitts in Pixeln
+	 * @param w     Horizontale Größe des Abschnitts in Pixeln
+	 * @since 0.6.0
+	 */
+	private void addSegment( int index,int x,int y,int w ) {
+		if( count == segmentX.length ) {
+			segmentX = Arrays.copyOf( segmentX,count * 2 );
+			segmentY = Arrays.copyOf( segmentY,count * 2 );
+			segmentW = Arrays.copyOf( segmentW,count * 2 );
+		}
+		System.arraycopy( segmentX,index,segmentX,index + 1,count - index );
+		System.arraycopy( segmentY,index,segmentY,index + 1,count - index );
+		System.arraycopy( segmentW,index,segmentW,index + 1,count - index );
+		segmentX[index] = x;
+		segmentY[index] = y;
+		segmentW[index] = w;
+		count++;
+		
+		int i = index + 1;
+		while( i < count ) {
+			int overlap = segmentX[i - 1] + segmentW[i - 1] - segmentX[i];
+			if( overlap <= 0 )
+				break;
+			if( overlap < segmentW[i] ) {
+				segmentX[i] += overlap;
+				segmentW[i] -= overlap;
+				break;
+			}
+			removeSegment( i );
+		}
+		
+		for( i = 0; i < count - 1; ) {
+			if( segmentY[i] == segmentY[i + 1] ) {
+				segmentW[i] += segmentW[i + 1];
+				removeSegment( i + 1 );
+			} else
+				i++;
+		}
+	}
+	
+	/**
+	 * Entfernt den Abschnitt mit dem angegebenen Index.
+	 *
+	 * @param index Index des Abschnitts
+	 * @since 0.6.0
+	 */
+	private void removeSegment( int index ) {
+		System.arraycopy( segmentX,index + 1,segmentX,index,count - index - 1 );
+		System.arraycopy( segmentY,index + 1,segmentY,index,count - index - 1 );
+		System.arraycopy( segmentW,index + 1,segmentW,index,count - index - 1 );
+		count--;
+	}
+	
+	
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.textures;
+
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+
+
+/**
+ * Konvertiert Bilder in ein Bildformat, das schnell gerendert werden kann.
+ * Die Zielkonfiguration wird einmalig ermittelt und zwischengespeichert. Bilder, die bereits im Zielformat vorliegen, werden nicht kopiert.
+ * Ohne Bildschirm (beispielsweise auf Servern oder in Tests) wird stattdessen ein festes Bildformat wie {@link BufferedImage#TYPE_INT_ARGB_PRE} verwendet.
+ *
+ * @since 0.6.0
+ */
+public class ImageConverter {
+	
+	
+	private static volatile ImageConverter defaultConverter;
+	
+	private final GraphicsConfiguration configuration;
+	private final ColorModel opaqueModel, bitmaskModel, translucentModel;
+	private final int imageType;
+	
+	
+	/**
+	 * Konstruiert neuen ImageConverter, der Bilder in das Format der angegebenen Grafikkonfiguration konvertiert.
+	 *
+	 * @param configuration Grafikkonfiguration, beispielsweise die des Bildschirms
+	 * @since 0.6.0
+	 */
+	public ImageConverter( GraphicsConfiguration configuration ) {
+		this.configuration = configuration;
+		opaqueModel = configuration.getColorModel( Transparency.OPAQUE );
+		bitmaskModel = configuration.getColorModel( Transparency.BITMASK );
+		translucentModel = configuration.getColorModel( Transparency.TRANSLUCENT );
+		imageType = BufferedImage.TYPE_CUSTOM;
+	}
+	
+	/**
+	 * Konstruiert neuen ImageConverter, der Bilder ohne Bildschirm in ein festes Bildformat konvertiert.
+	 *
+	 * @param imageType Bildformat, beispielsweise {@link BufferedImage#TYPE_INT_ARGB_PRE}
+	 * @since 0.6.0
+	 */
+	public ImageConverter( int imageType ) {
+		if( imageType == BufferedImage.TYPE_CUSTOM )
+			throw new IllegalArgumentException( "The image type must not be TYPE_CUSTOM!" );
+		configuration = null;
+		opaqueModel = null;
+		bitmaskModel = null;
+		translucentModel = null;
+		this.imageType = imageType;
+	}
+	
+	
+	/**
+	 * @return Standard-ImageConverter, der beim ersten Aufruf für den Standardbildschirm oder, falls kein Bildschirm vorhanden ist, für {@link BufferedImage#TYPE_INT_ARGB_PRE} erstellt wird.
+	 * @since 0.6.0
+	 */
+	public static ImageConverter getDefault() {
+		ImageConverter converter = defaultConverter;
+		if( converter == null ) {
+			synchronized( ImageConverter.class ) {
+				converter = defaultConverter;
+				if( converter == null ) {
+					if( GraphicsEnvironment.isHeadless() )
+						converter = new ImageConverter( BufferedImage.TYPE_INT_ARGB_PRE );
+					else
+						converter = new ImageConverter( GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration() );
+					defaultConverter = converter;
+				}
+			}
+		}
+		return converter;
+	}
+	
+	/**
+	 * Setzt den Standard-ImageConverter, der von {@link TextureLoader} verwendet wird, beispielsweise um ohne Bildschirm ein anderes Bildformat zu verwenden oder nach einem Wechsel des Bildschirms.
+	 *
+	 * @param converter Neuer Standard-ImageConverter
+	 * @since 0.6.0
+	 */
+	public static void setDefault( ImageConverter converter ) {
+		defaultConverter = converter;
+	}
+	
+	
+	/**
+	 * @param image Bild das konvertiert werden soll
+	 * @return Das angegebene Bild, falls es bereits im Zielformat vorliegt, sonst eine Kopie im Zielformat.
+	 * @since 0.6.0
+	 */
+	public BufferedImage convert( BufferedImage image ) {
+		if( isCompatible( image ) )
+			return image;
+		
+		BufferedImage newImage = createCompatibleImage( image.getWidth(),image.getHeight(),image.getTransparency() );
+		Graphics2D graphics = newImage.createGraphics();
+		graphics.setComposite( AlphaComposite.Src );
+		graphics.drawImage( image,0,0,null );
+		graphics.dispose();
+		return newImage;
+	}
+	
+	/**
+	 * @param image Bild das geprüft werden soll
+	 * @return {@code true} wenn das angegebene Bild bereits im Zielformat vorliegt.
+	 * @since 0.6.0
+	 */
+	public boolean isCompatible( BufferedImage image ) {
+		if( configuration == null )
+			return image.getType() == imageType;
+		ColorModel model = getColorModel( image.getTransparency() );
+		return image.getColorModel().equals( model ) && model.isCompatibleRaster( image.getRaster() );
+	}
+	
+	/**
+	 * @param width        Horizontale Größe in Pixeln
+	 * @param height       Vertikale Größe in Pixeln
+	 * @param transparency Transparenz des Bildes, beispielsweise {@link Transparency#TRANSLUCENT}
+	 * @return Neues, leeres Bild im Zielformat.
+	 * @since 0.6.0
+	 */
+	public BufferedImage createCompatibleImage( int width,int height,int transparency ) {
+		if( configuration == null )
+			return new BufferedImage( width,height,imageType );
+		return configuration.createCompatibleImage( width,height,transparency );
+	}
+	
+	/**
+	 * @return Grafikkonfiguration, in deren Format konvertiert wird, oder {@code null} ohne Bildschirm.
+	 * @since 0.6.0
+	 */
+	public GraphicsConfiguration getConfiguration() {
+		return configuration;
+	}
+	
+	/**
+	 * @return Festes Bildformat ohne Bildschirm oder {@link BufferedImage#TYPE_CUSTOM}, wenn in das Format einer Grafikkonfiguration konvertiert wird.
+	 * @since 0.6.0
+	 */
+	public int getImageType() {
+		return imageType;
+	}
+	
+	
+	/**
+	 * @param transparency Transparenz eines Bildes
+	 * @return Zwischengespeichertes Farbmodell der Grafikkonfiguration für die angegebene Transparenz.
+	 * @since 0.6.0
+	 */
+	private ColorModel getColorModel( int transparency ) {
+		switch( transparency ) {
+			case Transparency.OPAQUE:
+				return opaqueModel;
+			case Transparency.BITMASK:
+				return bitmaskModel;
+			default:
+				return translucentModel;
+		}
+	}
+	
+	
+}
@@ -26,17 +26,22 @@ package desertcookie.simple2d.textures;
 
 
 import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
- * Repräsentation einer Bilddatei.
+ * Repräsentation einer Bilddatei oder eines rechteckigen Ausschnitts einer Bilddatei, beispielsweise einer Seite eines {@link TextureAtlas}.
  *
  * @since 0.1.9
  */
 public class Texture {
 	
 	
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+	
 	private BufferedImage image;
+	private int id;
+	private int u, v, width, height;
 	
 	
 	/**
@@ -47,6 +52,30 @@ public class Texture {
 	 */
 	Texture( BufferedImage image ) {
 		this.image = image;
+		id = NEXT_ID.getAndIncrement();
+		width = image.getWidth();
+		height = image.getHeight();
+	}
+	
+	/**
+	 * Konstruiert neue Textur aus einem Ausschnitt der Bilddatei einer anderen Textur. Interner Konstruktor.
+	 *
+	 * @param texture Textur, deren Bilddatei genutzt werden soll
+	 * @param u       Horizontale Position des Ausschnitts in der Bilddatei in Pixeln
+	 * @param v       Vertikale Position des Ausschnitts in der Bilddatei in Pixeln
+	 * @param width   Horizontale Größe des Ausschnitts in Pixeln
+	 * @param height  Vertikale Größe des Ausschnitts in Pixeln
+	 * @since 0.6.0
+	 */
+	Texture( Texture texture,int u,int v,int width,int height ) {
+		if( u < 0 || v < 0 || width <= 0 || height <= 0 || u + width > texture.image.getWidth() || v + height > texture.image.getHeight() )
+			throw new IllegalArgumentException( "The texture region lies outside of the image!" );
+		image = texture.image;
+		id = texture.id;
+		this.u = u;
+		this.v = v;
+		this.width = width;
+		this.height = height;
 	}
 	
 	
@@ -58,12 +87,60 @@ public class Texture {
 		return image;
 	}
 	
+	/**
+	 * @return Eindeutige Nummer der Bilddatei dieser Textur, beispielsweise um Render-Aufrufe nach Textur zu sortieren. Interne Methode.
+	 * @since 0.6.0
+	 */
+	public int getId() {
+		return id;
+	}
+	
+	/**
+	 * @param u      Horizontale Position des Ausschnitts innerhalb dieser Textur in Pixeln
+	 * @param v      Vertikale Position des Ausschnitts innerhalb dieser Textur in Pixeln
+	 * @param width  Horizontale Größe des Ausschnitts in Pixeln
+	 * @param height Vertikale Größe des Ausschnitts in Pixeln
+	 * @return Neue Textur, die den angegebenen Ausschnitt dieser Textur darstellt und dieselbe Bilddatei nutzt, beispielsweise für einzelne Bilder eines Sprite Sheets.
+	 * @since 0.6.0
+	 */
+	public Texture getRegion( int u,int v,int width,int height ) {
+		if( width <= 0 || height <= 0 )
+			throw new IllegalArgumentException( "The texture region must not be empty!" );
+		if( u < 0 || v < 0 || u > this.width - width || v > this.height - height )
+			throw new IllegalArgumentException( "The texture region lies outside of the texture!" );
+		return new Texture( this,this.u + u,this.v + v,width,height );
+	}
+	
+	/**
+	 * @return {@code true} wenn die Textur nur einen Ausschnitt ihrer Bilddatei darstellt.
+	 * @since 0.6.0
+	 */
+	public boolean isRegion() {
+		return width != image.getWidth() || height != image.getHeight();
+	}
+	
+	/**
+	 * @return Horizontale Position der Textur in ihrer Bilddatei in Pixeln.
+	 * @since 0.6.0
+	 */
+	public int getU() {
+		return u;
+	}
+	
+	/**
+	 * @return Vertikale Position der Textur in ihrer Bilddatei in Pixeln.
+	 * @since 0.6.0
+	 */
+	public int getV() {
+		return v;
+	}
+	
 	/**
 	 * @return Horizontale Größe der Textur in Pixeln.
 	 * @since 0.1.9
 	 */
 	public int getWidth() {
-		return image.getWidth();
+		return width;
 	}
 	
 	/**
@@ -71,7 +148,7 @@ public class Texture {
 	 * @since 0.1.9
 	 */
 	public int getHeight() {
-		return image.getHeight();
+		return height;
 	}
 	
 	
@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.textures;
+
+
+import desertcookie.util.ExceptionHandler;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.List;
+
+
+/**
+ * Sammlung vieler kleiner Texturen, die auf wenige große Bilddateien (Seiten) verteilt sind.
+ * Alle Texturen einer Seite teilen sich eine Bilddatei, wodurch deutlich weniger Bilddateien im Speicher gehalten und beim Rendern gewechselt werden müssen.
+ * Ein Atlas kann zur Laufzeit mit {@link #pack(Map,int,int)} erstellt oder mit {@link #main(String[])} vorab erstellt, gespeichert und mit {@link TextureLoader#loadTextureAtlas(String)} ohne erneutes Packen geladen werden.
+ *
+ * @since 0.6.0
+ */
+public class TextureAtlas {
+	
+	
+	/**
+	 * Standardgröße einer Seite in Pixeln.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 2048;
+	/**
+	 * Standardabstand zwischen zwei Texturen in Pixeln.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final int DEFAULT_PADDING = 2;
+	/**
+	 * Dateiendung der Beschreibungsdatei eines gespeicherten Atlas.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final String LAYOUT_SUFFIX = ".atlas";
+	
+	private static final String HEADER = "# Simple2D texture atlas";
+	
+	private final Texture[] pages;
+	private final Map<String,Texture> textures;
+	
+	
+	/**
+	 * Konstruiert neuen TextureAtlas. Interner Konstruktor.
+	 *
+	 * @param pages    Seiten des Atlas
+	 * @param textures Texturen des Atlas nach Namen
+	 * @since 0.6.0
+	 */
+	TextureAtlas( Texture[] pages,Map<String,Texture> textures ) {
+		this.pages = pages;
+		this.textures = textures;
+	}
+	
+	
+	/**
+	 * Verteilt die angegebenen Bilder auf möglichst wenige Seiten. Bilder werden nach Höhe sortiert und nach dem Skyline-Verfahren platziert.
+	 * Die Ränder jedes Bildes werden in den Abstand hinein wiederholt, damit beim skalierten Rendern keine Pixel benachbarter Texturen sichtbar werden.
+	 *
+	 * @param images   Bilder nach Namen
+	 * @param pageSize Maximale horizontale und vertikale Größe einer Seite in Pixeln. Größere Bilder erhalten eine eigene Seite
+	 * @param padding  Abstand zwischen zwei Texturen in Pixeln
+	 * @return Neuer TextureAtlas mit allen angegebenen Bildern.
+	 * @since 0.6.0
+	 */
+	public static TextureAtlas pack( Map<String,BufferedImage> images,int pageSize,int padding ) {
+		List<String> names = new ArrayList<>( images.keySet() );
+		names.sort( new Comparator<String>() {
+			@Override
+			public int compare( String a,String b ) {
+				BufferedImage imageA = images.get( a ), imageB = images.get( b );
+				if( imageA.getHeight() != imageB.getHeight() )
+					return imageB.getHeight() - imageA.getHeight();
+				return imageB.getWidth() - imageA.getWidth();
+			}
+		} );
+		
+		List<AtlasPacker> packers = new ArrayList<>();
+		int[] pageIndices = new int[names.size()];
+		int[] positions = new int[names.size() * 2];
+		int[] position = new int[2];
+		for( int i = 0; i < names.size(); i++ ) {
+			BufferedImage image = images.get( names.get( i ) );
+			int w = image.getWidth() + padding * 2, h = image.getHeight() + padding * 2;
+			int page = 0;
+			while( page < packers.size() && !packers.get( page ).insert( w,h,position ) )
+				page++;
+			if( page == packers.size() ) {
+				AtlasPacker packer = new AtlasPacker( Math.max( pageSize,w ),Math.max( pageSize,h ) );
+				packer.insert( w,h,position );
+				packers.add( packer );
+			}
+			pageIndices[i] = page;
+			positions[i * 2] = position[0] + padding;
+			positions[i * 2 + 1] = position[1] + padding;
+		}
+		
+		BufferedImage[] pageImages = new BufferedImage[packers.size()];
+		for( int page = 0; page < pageImages.length; page++ )
+			pageImages[page] = new BufferedImage( packers.get( page ).getUsedWidth(),packers.get( page ).getUsedHeight(),BufferedImage.TYPE_INT_ARGB );
+		for( int i = 0; i < names.size(); i++ ) {
+			BufferedImage image = images.get( names.get( i ) );
+			BufferedImage page = pageImages[pageIndices[i]];
+			Graphics2D graphics = page.createGraphics();
+			graphics.drawImage( image,positions[i * 2],positions[i * 2 + 1],null );
+			graphics.dispose();
+			extrude( page,positions[i * 2],positions[i * 2 + 1],image.getWidth(),image.getHeight(),padding );
+		}
+		
+		Texture[] pages = new Texture[pageImages.length];
+		for( int page = 0; page < pages.length; page++ )
+			pages[page] = new Texture( TextureLoader.toCompatibleImage( pageImages[page] ) );
+		Map<String,Texture> textures = new LinkedHashMap<>();
+		for( int i = 0; i < names.size(); i++ ) {
+			BufferedImage image = images.get( names.get( i ) );
+			textures.put( names.get( i ),new Texture( pages[pageIndices[i]],positions[i * 2],positions[i * 2 + 1],image.getWidth(),image.getHeight() ) );
+		}
+		return new TextureAtlas( pages,textures );
+	}
+	
+	/**
+	 * Erstellt einen Atlas aus allen Bilddateien eines Verzeichnisses und speichert ihn. Für die Verwendung beim Bauen eines Spiels gedacht.
+	 * Der Name einer Textur ist ihr Pfad relativ zum Eingabeverzeichnis ohne Dateiendung, beispielsweise {@code player/idle}.
+	 * Argumente: {@code <Eingabeverzeichnis> <Ausgabeverzeichnis> <Name> [Seitengröße] [Abstand]}
+	 *
+	 * @param args Kommandozeilenargumente
+	 * @throws IOException Wenn eine Bilddatei nicht gelesen werden kann.
+	 * @since 0.6.0
+	 */
+	public static void main( String[] args ) throws IOException {
+		if( args.length < 3 ) {
+			System.err.println( "Usage: TextureAtlas <input directory> <output directory> <name> [page size] [padding]" );
+			return;
+		}
+		File input = new File( args[0] );
+		int pageSize = args.length > 3 ? Integer.parseInt( args[3] ) : DEFAULT_PAGE_SIZE;
+		int padding = args.length > 4 ? Integer.parseInt( args[4] ) : DEFAULT_PADDING;
+		
+		Map<String,BufferedImage> images = new TreeMap<>();
+		collectImages( input,"",images );
+		TextureAtlas atlas = pack( images,pageSize,padding );
+		atlas.save( new File( args[1] ),args[2] );
+		System.out.println( "Packed " + images.size() + " textures into " + atlas.getPageCount() + " pages." );
+	}
+	
+	
+	/**
+	 * Speichert die Seiten dieses Atlas als PNG-Dateien und die Position aller Texturen als Beschreibungsdatei {@code <Name>.atlas} im angegebenen Verzeichnis.
+	 *
+	 * @param directory Verzeichnis, in das gespeichert wird
+	 * @param name      Name des Atlas
+	 * @since 0.6.0
+	 */
+	public void save( File directory,String name ) {
+		try {
+			if( !directory.isDirectory() && !directory.mkdirs() )
+				throw new IOException( "Could not create directory " + directory + "!" );
+			try( Writer writer = new OutputStreamWriter( new FileOutputStream( new File( directory,name + LAYOUT_SUFFIX ) ),StandardCharsets.UTF_8 ) ) {
+				writer.write( HEADER + "\n" );
+				for( int page = 0; page < pages.length; page++ ) {
+					String file = name + "_" + page + ".png";
+					ImageIO.write( pages[page].getImage(),"png",new File( directory,file ) );
+					writer.write( "page " + file + "\n" );
+					for( Map.Entry<String,Texture> entry : textures.entrySet() ) {
+						Texture texture = entry.getValue();
+						if( texture.getId() == pages[page].getId() )
+							writer.write( "region " + texture.getU() + " " + texture.getV() + " " + texture.getWidth() + " " + texture.getHeight() + " " + entry.getKey() + "\n" );
+					}
+				}
+			}
+		} catch( IOException e ) {
+			ExceptionHandler.handle( e,"Fehler beim speichern eines Textur-Atlas",false );
+		}
+	}
+	
+	/**
+	 * @param name Name der Textur
+	 * @return Textur mit dem angegebenen Namen.
+	 * @since 0.6.0
+	 */
+	public Texture getTexture( String name ) {
+		Texture texture = textures.get( name );
+		if( texture == null )
+			throw new IllegalArgumentException( "There is no texture with this name in the atlas!" );
+		return texture;
+	}
+	
+	/**
+	 * @param name Name der Textur
+	 * @return {@code true} wenn der Atlas eine Textur mit dem angegebenen Namen enthält.
+	 * @since 0.6.0
+	 */
+	public boolean hasTexture( String name ) {
+		return textures.containsKey( name );
+	}
+	
+	/**
+	 * @return Namen aller Texturen dieses Atlas.
+	 * @since 0.6.0
+	 */
+	public Set<String> getNames() {
+		return Collections.unmodifiableSet( textures.keySet() );
+	}
+	
+	/**
+	 * @return Anzahl der Seiten dieses Atlas.
+	 * @since 0.6.0
+	 */
+	public int getPageCount() {
+		return pages.length;
+	}
+	
+	/**
+	 * @param page Index der Seite
+	 * @return Textur, die die gesamte Seite darstellt.
+	 * @since 0.6.0
+	 */
+	public Texture getPage( int page ) {
+		return pages[page];
+	}
+	
+	
+	/**
+	 * Liest die Beschreibungsdatei eines gespeicherten Atlas. Interne Methode.
+	 *
+	 * @param reader    Quelle der Beschreibungsdatei
+	 * @param directory Pfad des Verzeichnisses der Beschreibungsdatei, relativ zu dem die Seiten geladen werden
+	 * @return Geladener TextureAtlas.
+	 * @throws IOException Wenn die Beschreibungsdatei nicht gelesen werden kann oder fehlerhaft ist.
+	 * @since 0.6.0
+	 */
+	static TextureAtlas read( BufferedReader reader,String directory ) throws IOException {
+		List<Texture> pages = new ArrayList<>();
+		Map<String,Texture> textures = new LinkedHashMap<>();
+		Texture page = null;
+		String line;
+		while( (line = reader.readLine()) != null ) {
+			line = line.trim();
+			if( line.isEmpty() || line.startsWith( "#" ) )
+				continue;
+			String[] parts = line.split( " ",6 );
+			if( parts[0].equals( "page" ) && parts.length == 2 ) {
+				page = TextureLoader.loadTexture( directory + parts[1] );
+				if( page == null )
+					throw new IOException( "Could not load atlas page " + parts[1] + "!" );
+				pages.add( page );
+			} else if( parts[0].equals( "region" ) && parts.length == 6 && page != null ) {
+				textures.put( parts[5],new Texture( page,Integer.parseInt( parts[1] ),Integer.parseInt( parts[2] ),Integer.parseInt( parts[3] ),Integer.parseInt( parts[4] ) ) );
+			} else
+				throw new IOException( "Invalid line in texture atlas: " + line );
+		}
+		return new TextureAtlas( pages.toArray( new Texture[0] ),textures );
+	}
+	
+	/**
+	 * Wiederholt die Randpixel des angegebenen Bereichs in den umgebenden Abstand.
+	 *
+	 * @param page    Seite, auf der sich der Bereich befindet
+	 * @param x       Horizontale Position des Bereichs in Pixeln
+	 * @param y       Vertikale Position des Bereichs in Pixeln
+	 * @param w       Horizontale Größe des Bereichs in Pixeln
+	 * @param h       Vertikale Größe des Bereichs in Pixeln
+	 * @param padding Abstand um den Bereich in Pixeln
+	 * @since 0.6.0
+	 */
+	private static void extrude( BufferedImage page,int x,int y,int w,int h,int padding ) {
+		for( int i = 1; i <= padding; i++ )
+			for( int row = y; row < y + h; row++ ) {
+				page.setRGB( x - i,row,page.getRGB( x,row ) );
+				page.setRGB( x + w - 1 + i,row,page.getRGB( x + w - 1,row ) );
+			}
+		for( int i = 1; i <= padding; i++ )
+			for( int column = x - padding; column < x + w + padding; column++ ) {
+				page.setRGB( column,y - i,page.getRGB( column,y ) );
+				page.setRGB( column,y + h - 1 + i,page.getRGB( column,y + h - 1 ) );
+			}
+	}
+	
+	/**
+	 * Lädt alle Bilddateien des angegebenen Verzeichnisses und seiner Unterverzeichnisse.
+	 *
+	 * @param directory Verzeichnis, das durchsucht wird
+	 * @param prefix    Pfad des Verzeichnisses relativ zum Eingabeverzeichnis
+	 * @param images    Map, in die die Bilder nach Namen eingetragen werden
+	 * @throws IOException Wenn eine Bilddatei nicht gelesen werden kann.
+	 * @since 0.6.0
+	 */
+	private static void collectImages( File directory,String prefix,Map<String,BufferedImage> images ) throws IOException {
+		File[] files = directory.listFiles();
+		if( files == null )
+			throw new IOException( directory + " is not a directory!" );
+		for( File file : files ) {
+			String name = file.getName();
+			if( file.isDirectory() )
+				collectImages( file,prefix + name + "/",images );
+			else if( name.endsWith( ".png" ) || name.endsWith( ".gif" ) || name.endsWith( ".jpg" ) ) {
+				BufferedImage image = ImageIO.read( file );
+				if( image != null )
+					images.put( prefix + name.substring( 0,name.lastIndexOf( '.' ) ),image );
+			}
+		}
+	}
+	
+	
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2018 Ruben Hahn (DesertCookie),
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ *    and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ *    conditions and the following disclaimer in the documentation and/or other materials provided
+ *    with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package desertcookie.simple2d.textures;
+
+
+import desertcookie.util.ExceptionHandler;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+
+/**
+ * Zwischenspeicher für geladene Texturen mit Referenzzählung.
+ * Jede Bilddatei wird nur einmal geladen, egal wie oft sie angefordert wird. Texturen, die nicht mehr referenziert werden, bleiben im Speicher, bis das Speicherbudget überschritten wird, und werden dann in der Reihenfolge ihrer letzten Verwendung entfernt.
+ * Referenzierte Texturen werden nie entfernt, auch wenn sie zusammen das Budget überschreiten.
+ *
+ * @since 0.6.0
+ */
+public class TextureCache {
+	
+	
+	/**
+	 * Standard-Speicherbudget in Bytes.
+	 *
+	 * @since 0.6.0
+	 */
+	public static final long DEFAULT_BUDGET = 256L << 20;
+	
+	private final LinkedHashMap<String,Entry> entries;
+	private final HashMap<String,CompletableFuture<Texture>> pending;
+	private long budget, usedBytes;
+	private long hits, misses, evictions;
+	
+	
+	/**
+	 * Konstruiert neuen, leeren TextureCache mit dem Standard-Speicherbudget.
+	 *
+	 * @since 0.6.0
+	 */
+	public TextureCache() {
+		this( DEFAULT_BUDGET );
+	}
+	
+	/**
+	 * Konstruiert neuen, leeren TextureCache.
+	 *
+	 * @param budget Speicherbudget in Bytes
+	 * @since 0.6.0
+	 */
+	public TextureCache( long budget ) {
+		entries = new LinkedHashMap<>( 16,0.75f,true );
+		pending = new HashMap<>();
+		this.budget = budget;
+	}
+	
+	
+	/**
+	 * Fordert die Textur mit dem angegebenen Pfad an und lädt sie, falls sie sich noch nicht im Zwischenspeicher befindet. Jeder Aufruf muss später durch {@link #release(String)} wieder freigegeben werden.
+	 * Die Bilddatei wird außerhalb der Sperre des TextureCaches geladen, sodass andere Threads währenddessen weiter auf ihn zugreifen können. Gleichzeitige Anforderungen derselben Bilddatei warten auf denselben Ladevorgang.
+	 *
+	 * @param path Pfad und Dateiname der Bilddatei
+	 * @return Zu Textur geladene Bilddatei oder {@code null}, wenn sie nicht geladen werden kann.
+	 * @since 0.6.0
+	 */
+	public Texture acquire( String path ) {
+		CompletableFuture<Texture> future;
+		CompletableFuture<Texture> loading = null;
+		synchronized( this ) {
+			Entry entry = entries.get( path );
+			if( entry != null ) {
+				entry.references++;
+				hits++;
+				return entry.texture;
+			}
+			future = pending.get( path );
+			if( future == null ) {
+				misses++;
+				loading = new CompletableFuture<>();
+				pending.put( path,loading );
+			}
+		}
+		if( loading != null ) {
+			Texture texture = TextureLoader.loadTexture( path );
+			synchronized( this ) {
+				pending.remove( path );
+				if( texture != null ) {
+					put( path,texture ).references++;
+					evict();
+				}
+			}
+			if( texture != null )
+				loading.complete( texture );
+			else
+				loading.completeExceptionally( new CompletionException( new IOException( "The texture " + path + " could not be loaded!" ) ) );
+			return texture;
+		}
+		try {
+			return reference( path,future.join() );
+		} catch( CompletionException e ) {
+			ExceptionHandler.handle( e,"Fehler beim laden einer Texturdatei",false );
+		}
+		return null;
+	}
+	
+	/**
+	 * Fordert die Textur mit dem angegebenen Pfad an und lädt sie im Hintergrund mit {@link TextureLoader#loadTextureAsync(String)}, falls sie sich noch nicht im Zwischenspeicher befindet.
+	 * Gleichzeitige Anforderungen derselben Bilddatei teilen sich einen Ladevorgang. Jeder Aufruf muss später durch {@link #release(String)} wieder freigegeben werden, sofern das Future erfolgreich abgeschlossen wird.
+	 *
+	 * @param path Pfad und Dateiname der Bilddatei
+	 * @return Future, das mit der zu Textur geladenen Bilddatei abgeschlossen wird.
+	 * @since 0.6.0
+	 */
+	public synchronized CompletableFuture<Texture> acquireAsync( final String path ) {
+		Entry entry = entries.get( path );
+		if( entry != null ) {
+			entry.references++;
+			hits++;
+			return CompletableFuture.completedFuture( entry.texture );
+		}
+		CompletableFuture<Texture> future = pending.get( path );
+		if( future == null ) {
+			misses++;
+			future = TextureLoader.loadTextureAsync( path ).whenComplete( new BiConsumer<Texture,Throwable>() {
+				@Override
+				public void accept( Texture texture,Throwable error ) {
+					synchronized( TextureCache.this ) {
+						pending.remove( path );
+						if( texture != null )
+							put( path,texture );
+					}
+				}
+			} );
+			if( !future.isDone() )
+				pending.put( path,future );
+		}
+		return future.thenApply( new Function<Texture,Texture>() {
+			@Override
+			public Texture apply( Texture texture ) {
+				return reference( path,texture );
+			}
+		} );
+	}
+	
+	/**
+	 * Gibt eine Anforderung der Textur mit dem angegebenen Pfad frei. Wird die Textur danach nicht mehr referenziert, darf sie bei Überschreitung des Speicherbudgets entfernt werden.
+	 *
+	 * @param path Pfad und Dateiname der Bilddatei
+	 * @since 0.6.0
+	 */
+	public synchronized void release( String path ) {
+		Entry entry = entries.get( path );
+		if( entry == null || entry.references == 0 )
+			throw new IllegalStateException( "The texture " + path + " is not referenced!" );
+		entry.references--;
+		evict();
+	}
+	
+	/**
+	 * Entfernt alle nicht mehr referenzierten Texturen unabhängig vom Speicherbudget, beispielsweise beim Wechsel zwischen zwei großen Spielszenen.
+	 *
+	 * @since 0.6.0
+	 */
+	public synchronized void trim() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while( iterator.hasNext() ) {
+			Entry entry = iterator.next();
+			if( entry.references == 0 ) {
+				remove( entry );
+				iterator.remove();
+			}
+		}
+	}
+	
+	/**
+	 * @param path Pfad und Dateiname der Bilddatei
+	 * @return {@code true} wenn sich die Textur mit dem angegebenen Pfad im Zwischenspeicher befindet.
+	 * @since 0.6.0
+	 */
+	public synchronized boolean contains( String path ) {
+		return entries.containsKey( path );
+	}
+	
+	/**
+	 * @param path Pfad und Dateiname der Bilddatei
+	 * @return Anzahl der Referenzen auf die Textur mit dem angegebenen Pfad.
+	 * @since 0.6.0
+	 */
+	public synchronized int getReferences( String path ) {
+		Entry entry = entries.get( path );
+		return entry == null ? 0 : entry.references;
+	}
+	
+	/**
+	 * @return Speicherbudget in Bytes.
+	 * @since 0.6.0
+	 */
+	public synchronized long getBudget() {
+		return budget;
+	}
+	
+	/**
+	 * Setzt das Speicherbudget und entfernt nicht mehr referenzierte Texturen, bis es eingehalten wird.
+	 *
+	 * @param budget Speicherbudget in Bytes
+	 * @since 0.6.0
+	 */
+	public synchronized void setBudget( long budget ) {
+		this.budget = budget;
+		evict();
+	}
+	
+	/**
+	 * @return Geschätzter Speicherbedarf aller zwischengespeicherten Texturen in Bytes.
+	 * @since 0.6.0
+	 */
+	public synchronized long getUsedBytes() {
+		return usedBytes;
+	}
+	
+	/**
+	 * @return Anzahl der zwischengespeicherten Texturen.
+	 * @since 0.6.0
+	 */
+	public synchronized int getCount() {
+		return entries.size();
+	}
+	
+	/**
+	 * @return Anzahl der Anforderungen, die aus dem Zwischenspeicher bedient wurden.
+	 * @since 0.6.0
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+	
+	/**
+	 * @return Anzahl der Anforderungen, für die eine Bilddatei geladen werden musste.
+	 * @since 0.6.0
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+	
+	/**
+	 * @return Anzahl der Texturen, die wegen des Speicherbudgets entfernt wurden.
+	 * @since 0.6.0
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+	
+	/**
+	 * Setzt die Zähler für Treffer, Fehlschläge und Entfernungen zurück.
+	 *
+	 * @since 0.6.0
+	 */
+	public synchronized void resetStatistics() {
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+	
+	@Override
+	public synchronized String toString() {
+		return "TextureCache[textures=" + entries.size() + ", used=" + (usedBytes >> 10) + "KiB, budget=" + (budget >> 10) + "KiB, hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+	}
+	
+	
+	/**
+	 * @param texture Textur
+	 * @return Geschätzter Speicherbedarf der Bilddatei der angegebenen Textur in Bytes.
+	 * @since 0.6.0
+	 */
+	static long getBytes( Texture texture ) {
+		int bytesPerPixel = (texture.getImage().getColorModel().getPixelSize() + 7) / 8;
+		return (long)texture.getImage().getWidth() * texture.getImage().getHeight() * bytesPerPixel;
+	}
+	
+	
+	/**
+	 * Fügt eine Referenz auf eine fertig geladene Textur hinzu und legt ihren Eintrag an, falls dieser inzwischen entfernt wurde.
+	 *
+	 * @param path    Pfad und Dateiname der Bilddatei
+	 * @param texture Geladene Textur
+	 * @return Die angegebene Textur.
+	 * @since 0.6.0
+	 */
+	private synchronized Texture reference( String path,Texture texture ) {
+		Entry entry = entries.get( path );
+		if( entry == null )
+			entry = put( path,texture );
+		entry.references++;
+		evict();
+		return texture;
+	}
+	
+	/**
+	 * Legt einen neuen, nicht referenzierten Eintrag an.
+	 *
+	 * @param path    Pfad und Dateiname der Bilddatei
+	 * @param texture Geladene Textur
+	 * @return Neuer Eintrag.
+	 * @since 0.6.0
+	 */
+	private Entry put( String path,Texture texture ) {
+		Entry entry = new Entry( texture );
+		entries.put( path,entry );
+		usedBytes += entry.bytes;
+		return entry;
+	}
+	
+	/**
+	 * Entfernt nicht mehr referenzierte Texturen, beginnend mit der am längsten nicht verwendeten, bis das Speicherbudget eingehalten wird.
+	 *
+	 * @since 0.6.0
+	 */
+	private void evict() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while( usedBytes > budget && iterator.hasNext() ) {
+			Entry entry = iterator.next();
+			if( entry.references == 0 ) {
+				remove( entry );
+				iterator.remove();
+				evictions++;
+			}
+		}
+	}
+	
+	/**
+	 * Gibt den Speicher eines Eintrags frei.
+	 *
+	 * @param entry Eintrag
+	 * @since 0.6.0
+	 */
+	private void remove( Entry entry ) {
+		usedBytes -= entry.bytes;
+		entry.texture.getImage().flush();
+	}
+	
+	
+	/**
+	 * Eintrag im Zwischenspeicher.
+	 *
+	 * @since 0.6.0
+	 */
+	private static class Entry {
+		
+		
+		private final Texture texture;
+		private final long bytes;
+		private int references;
+		
+		
+		/**
+		 * Konstruiert neuen Eintrag.
+		 *
+		 * @param texture Geladene Textur
+		 * @since 0.6.0
+		 */
+		private Entry( Texture texture ) {
+			this.texture = texture;
+			bytes = getBytes( texture );
+		}
+		
+		
+	}
+	
+	
+}
@@ -28,9 +28,19 @@ package desertcookie.simple2d.textures;
 import desertcookie.util.ExceptionHandler;
 
 import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
@@ -41,6 +51,10 @@ import java.io.IOException;
 public class TextureLoader {
 	
 	
+	private static int loaderThreads = Math.max( 1,Math.min( 4,Runtime.getRuntime().availableProcessors() - 1 ) );
+	private static ThreadPoolExecutor loaderPool;
+	
+	
 	/**
 	 * @param path Pfad und Dateiname der Bilddatei
 	 * @return Zu Textur geladene Bilddatei.
@@ -48,7 +62,126 @@ public class TextureLoader {
 	 */
 	public static Texture loadTexture( String path ) {
 		try {
-			return new Texture( toCompatibleImage( ImageIO.read( TextureLoader.class.getResourceAsStream( path ) ) ) );
+			return new Texture( toCompatibleImage( readImage( path ) ) );
+		} catch( IOException e ) {
+			ExceptionHandler.handle( e,"Fehler beim laden einer Texturdatei",false );
+		}
+		return null;
+	}
+	
+	/**
+	 * Lädt eine Bilddatei im Hintergrund. Dekodieren und Konvertieren in ein kompatibles Bildformat finden auf einem der Lade-Threads statt, sodass weder Update Loop noch Render Loop blockiert werden.
+	 *
+	 * @param path Pfad und Dateiname der Bilddatei
+	 * @return Future, das mit der zu Textur geladenen Bilddatei abgeschlossen wird, oder mit einer {@link CompletionException}, wenn die Datei nicht geladen werden kann.
+	 * @since 0.6.0
+	 */
+	public static CompletableFuture<Texture> loadTextureAsync( final String path ) {
+		return CompletableFuture.supplyAsync( new Supplier<Texture>() {
+			@Override
+			public Texture get() {
+				try {
+					return new Texture( toCompatibleImage( readImage( path ) ) );
+				} catch( IOException e ) {
+					throw new CompletionException( e );
+				}
+			}
+		},getLoaderPool() );
+	}
+	
+	/**
+	 * Lädt mehrere Bilddateien parallel im Hintergrund und meldet den Fortschritt, beispielsweise an einen {@link desertcookie.simple2d.core.SplashScreen}.
+	 *
+	 * @param listener Empfänger des Fortschritts oder {@code null}
+	 * @param paths    Pfade und Dateinamen der Bilddateien
+	 * @return Future, das mit den zu Texturen geladenen Bilddateien in der Reihenfolge der Pfade abgeschlossen wird, oder mit einer {@link CompletionException}, wenn eine der Dateien nicht geladen werden kann.
+	 * @since 0.6.0
+	 */
+	public static CompletableFuture<Texture[]> loadTexturesAsync( final LoadingProgressListener listener,final String... paths ) {
+		final Texture[] textures = new Texture[paths.length];
+		final AtomicInteger loaded = new AtomicInteger();
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[paths.length];
+		for( int i = 0; i < paths.length; i++ ) {
+			final int index = i;
+			futures[i] = loadTextureAsync( paths[i] ).thenAccept( new Consumer<Texture>() {
+				@Override
+				public void accept( Texture texture ) {
+					textures[index] = texture;
+					int count = loaded.incrementAndGet();
+					if( listener != null )
+						listener.progress( count,paths.length,paths[index] );
+				}
+			} );
+		}
+		return CompletableFuture.allOf( futures ).thenApply( new Function<Void,Texture[]>() {
+			@Override
+			public Texture[] apply( Void ignored ) {
+				return textures;
+			}
+		} );
+	}
+	
+	/**
+	 * @return Maximale Anzahl der Threads, die Bilddateien im Hintergrund laden.
+	 * @since 0.6.0
+	 */
+	public static synchronized int getLoaderThreads() {
+		return loaderThreads;
+	}
+	
+	/**
+	 * Setzt die maximale Anzahl der Threads, die Bilddateien im Hintergrund laden. Standardmäßig einer weniger als die Anzahl der Prozessoren, höchstens aber vier.
+	 *
+	 * @param loaderThreads Anzahl der Threads
+	 * @since 0.6.0
+	 */
+	public static synchronized void setLoaderThreads( int loaderThreads ) {
+		TextureLoader.loaderThreads = Math.max( 1,loaderThreads );
+		if( loaderPool != null ) {
+			if( TextureLoader.loaderThreads > loaderPool.getMaximumPoolSize() ) {
+				loaderPool.setMaximumPoolSize( TextureLoader.loaderThreads );
+				loaderPool.setCorePoolSize( TextureLoader.loaderThreads );
+			} else {
+				loaderPool.setCorePoolSize( TextureLoader.loaderThreads );
+				loaderPool.setMaximumPoolSize( TextureLoader.loaderThreads );
+			}
+		}
+	}
+	
+	/**
+	 * Lädt einen mit {@link TextureAtlas#save(java.io.File,String)} gespeicherten Atlas, ohne die Texturen erneut zu packen.
+	 *
+	 * @param path Pfad und Dateiname der Beschreibungsdatei des Atlas
+	 * @return Geladener Textur-Atlas.
+	 * @since 0.6.0
+	 */
+	public static TextureAtlas loadTextureAtlas( String path ) {
+		try {
+			InputStream stream = TextureLoader.class.getResourceAsStream( path );
+			if( stream == null )
+				throw new IOException( "Could not find texture atlas " + path + "!" );
+			try( BufferedReader reader = new BufferedReader( new InputStreamReader( stream,StandardCharsets.UTF_8 ) ) ) {
+				return TextureAtlas.read( reader,path.substring( 0,path.lastIndexOf( '/' ) + 1 ) );
+			}
+		} catch( IOException | IllegalArgumentException e ) {
+			ExceptionHandler.handle( e,"Fehler beim laden eines Textur-Atlas",false );
+		}
+		return null;
+	}
+	
+	/**
+	 * Lädt die angegebenen Bilddateien und packt sie zur Laufzeit in einen neuen Atlas. Der Name jeder Textur im Atlas ist ihr Pfad.
+	 *
+	 * @param paths Pfade und Dateinamen der Bilddateien
+	 * @return Textur-Atlas mit allen angegebenen Bilddateien.
+	 * @since 0.6.0
+	 */
+	public static TextureAtlas packTextureAtlas( String... paths ) {
+		try {
+			Map<String,BufferedImage> images = new LinkedHashMap<>();
+			for( String path : paths )
+				images.put( path,readImage( path ) );
+			return TextureAtlas.pack( images,TextureAtlas.DEFAULT_PAGE_SIZE,TextureAtlas.DEFAULT_PADDING );
 		} catch( IOException e ) {
 			ExceptionHandler.handle( e,"Fehler beim laden einer Texturdatei",false );
 		}
@@ -56,22 +189,54 @@ public class TextureLoader {
 	}
 	
 	/**
+	 * @param path Pfad und Dateiname der Bilddatei
+	 * @return Dekodierte Bilddatei.
+	 * @throws IOException Wenn die Bilddatei nicht gefunden oder nicht dekodiert werden kann.
+	 * @since 0.6.0
+	 */
+	private static BufferedImage readImage( String path ) throws IOException {
+		InputStream stream = TextureLoader.class.getResourceAsStream( path );
+		if( stream == null )
+			throw new IOException( "Could not find texture " + path + "!" );
+		try( InputStream input = stream ) {
+			BufferedImage image = ImageIO.read( input );
+			if( image == null )
+				throw new IOException( "Unsupported image format of texture " + path + "!" );
+			return image;
+		}
+	}
+	
+	/**
+	 * @return Thread-Pool, auf dem Bilddateien im Hintergrund geladen werden. Wird beim ersten Aufruf erstellt.
+	 * @since 0.6.0
+	 */
+	private static synchronized ExecutorService getLoaderPool() {
+		if( loaderPool == null ) {
+			ImageIO.setUseCache( false );
+			loaderPool = new ThreadPoolExecutor( loaderThreads,loaderThreads,5,TimeUnit.SECONDS,new LinkedBlockingQueue<Runnable>(),new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+				
+				@Override
+				public Thread newThread( Runnable runnable ) {
+					Thread thread = new Thread( runnable,"Texture Loader " + count.incrementAndGet() );
+					thread.setDaemon( true );
+					return thread;
+				}
+			} );
+			loaderPool.allowCoreThreadTimeOut( true );
+		}
+		return loaderPool;
+	}
+	
+	/**
+	 * Konvertiert das angegebene Bild mit dem {@link ImageConverter#getDefault() Standard-ImageConverter}.
+	 *
 	 * @param image Bild das konvertiert werden soll
 	 * @return Das zu einem mit diesem System kopatibleren Bildformat angegebene Bild.
 	 * @since 0.1.9
 	 */
 	public static BufferedImage toCompatibleImage( BufferedImage image ) {
-		GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
-		
-		if( image.getColorModel().equals( gc.getColorModel() ) )
-			return image;
-		
-		BufferedImage newImage = gc.createCompatibleImage( image.getWidth(),image.getHeight(),image.getTransparency() );
-		Graphics2D graphics = newImage.createGraphics();
-		graphics.drawImage( image,0,0,null );
-		graphics.dispose();
-		
-		return newImage;
+		return ImageConverter.getDefault().convert( image );
 	}
 	
 	
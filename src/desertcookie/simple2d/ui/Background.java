@@ -77,7 +77,15 @@ public class Background extends UiComponent {
 	
 	@Override
 	public void update( double deltaTime,InputHandler input ) {
+		if( speedX == 0 )
+			return;
 		x += speedX * deltaTime;
+		invalidate();
+	}
+	
+	@Override
+	public void invalidate() {
+		invalidate( x - w,y,3 * w,h );
 	}
 	
 	@Override
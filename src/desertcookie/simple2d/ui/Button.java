@@ -27,6 +27,7 @@ package desertcookie.simple2d.ui;
 
 import desertcookie.simple2d.input.InputHandler;
 import desertcookie.simple2d.input.Mouse;
+import desertcookie.simple2d.rendering.CachedText;
 import desertcookie.simple2d.rendering.SimpleGraphics;
 
 import java.awt.event.ActionEvent;
@@ -43,6 +44,7 @@ public class Button extends UiComponent {
 	
 	private double cornerRounding;
 	private String text;
+	private CachedText layout;
 	private ActionListener actionListener;
 	private boolean pressed;
 	
@@ -66,10 +68,13 @@ public class Button extends UiComponent {
 	@Override
 	public void update( double deltaTime,InputHandler input ) {
 		super.update( deltaTime,input );
+		boolean wasPressed = pressed;
 		if( input.isButtonDown( Mouse.LEFT ) )
 			pressed = true;
 		else
 			pressed = false;
+		if( highlighted && pressed != wasPressed )
+			invalidate();
 		if( highlighted && pressed && actionListener != null )
 			actionListener.actionPerformed( new ActionEvent( this,ActionEvent.ACTION_PERFORMED,"Button pressed" ) );
 	}
@@ -85,7 +90,8 @@ public class Button extends UiComponent {
 		else
 			graphics.drawRoundRect( x,y,w,h,cornerRounding,cornerRounding );
 		graphics.setColor( foreground );
-		graphics.drawString( text,x,y,w,h );
+		layout = graphics.layoutText( layout,text );
+		graphics.drawText( layout,x,y,w,h );
 	}
 	
 	
@@ -105,6 +111,7 @@ public class Button extends UiComponent {
 	 */
 	public void setCornerRounding( double cornerRounding ) {
 		this.cornerRounding = cornerRounding;
+		invalidate();
 	}
 	
 	/**
@@ -123,6 +130,7 @@ public class Button extends UiComponent {
 	 */
 	public void setText( String text ) {
 		this.text = text;
+		invalidate();
 	}
 	
 	/**
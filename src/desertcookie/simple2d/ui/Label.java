@@ -25,6 +25,7 @@
 package desertcookie.simple2d.ui;
 
 
+import desertcookie.simple2d.rendering.CachedText;
 import desertcookie.simple2d.rendering.SimpleGraphics;
 
 
@@ -37,6 +38,7 @@ public class Label extends UiComponent {
 	
 	
 	private String text;
+	private CachedText layout;
 	
 	
 	/**
@@ -59,7 +61,8 @@ public class Label extends UiComponent {
 	public void render( SimpleGraphics graphics ) {
 		super.render( graphics );
 		graphics.setColor( foreground );
-		graphics.drawString( text,x,y,w,h );
+		layout = graphics.layoutText( layout,text );
+		graphics.drawText( layout,x,y,w,h );
 	}
 	
 	
@@ -79,6 +82,7 @@ public class Label extends UiComponent {
 	 */
 	public void setText( String text ) {
 		this.text = text;
+		invalidate();
 	}
 	
 	
@@ -76,7 +76,10 @@ public abstract class UiComponent extends Entity {
 	
 	@Override
 	public void update( double deltaTime,InputHandler input ) {
+		boolean wasHighlighted = highlighted;
 		highlighted = isPointInside( input.getMouseX(),input.getMouseY() );
+		if( highlighted != wasHighlighted )
+			invalidate();
 	}
 	
 	@Override
@@ -102,6 +105,7 @@ public abstract class UiComponent extends Entity {
 	 */
 	public void setForeground( Color foreground ) {
 		this.foreground = foreground;
+		invalidate();
 	}
 	
 	/**
@@ -120,6 +124,7 @@ public abstract class UiComponent extends Entity {
 	 */
 	public void setBackground( Color background ) {
 		this.background = background;
+		invalidate();
 	}
 	
 	/**
@@ -138,6 +143,7 @@ public abstract class UiComponent extends Entity {
 	 */
 	public void setFont( Font font ) {
 		this.font = font;
+		invalidate();
 	}
 	
 	/**